@@ -42,4 +42,26 @@ public @interface ReactiveEventListener {
 	@Nonbinding
 	String address() default "listener";
 	
+	/**
+	 * Number of partitions of the address. Each partition is consumed by its own consumer, so messages with
+	 * different keys are handled in parallel, while messages with the same key are handled in order. Has to match
+	 * the number of partitions of the publishers.
+	 */
+	@Nonbinding
+	int partitions() default 1;
+	
+	/**
+	 * Conditions a message has to meet to be handled by the listener, e.g. <code>header.type == order</code> or
+	 * <code>body.status != CLOSED</code>. Conditions are compiled once and evaluated before the message is dispatched.
+	 */
+	@Nonbinding
+	String[] filter() default {};
+	
+	/**
+	 * Name of the Vert.x instance the listener is registered on, as configured under
+	 * <code>kumuluzee.reactive.vertx.instances</code>. If empty, the default instance is used.
+	 */
+	@Nonbinding
+	String instance() default "";
+	
 }
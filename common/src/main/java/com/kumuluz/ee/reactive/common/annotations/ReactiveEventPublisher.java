@@ -44,4 +44,53 @@ public @interface ReactiveEventPublisher {
 	@Nonbinding
 	String address() default "publisher";
 	
+	/**
+	 * Delivers messages only to listeners in the same JVM, without crossing the cluster.
+	 */
+	@Nonbinding
+	boolean localOnly() default false;
+	
+	/**
+	 * Sends messages point-to-point to a single listener instead of publishing them to all listeners.
+	 */
+	@Nonbinding
+	boolean send() default false;
+	
+	/**
+	 * Time in milliseconds after which a reply to a sent message times out.
+	 */
+	@Nonbinding
+	long sendTimeout() default 30000;
+	
+	/**
+	 * Name of the message codec used for the message bodies. If empty, the default codec for the body type is used.
+	 */
+	@Nonbinding
+	String codecName() default "";
+	
+	/**
+	 * Headers added to every message, in the form <code>name=value</code>.
+	 */
+	@Nonbinding
+	String[] headers() default {};
+	
+	/**
+	 * Number of partitions of the address. Messages are assigned to partitions by their key with consistent hashing.
+	 */
+	@Nonbinding
+	int partitions() default 1;
+	
+	/**
+	 * Name of the JSON field holding the partition key. If empty, the message body itself is used as the key.
+	 */
+	@Nonbinding
+	String partitionKey() default "";
+	
+	/**
+	 * Name of the Vert.x instance the messages are published on, as configured under
+	 * <code>kumuluzee.reactive.vertx.instances</code>. If empty, the default instance is used.
+	 */
+	@Nonbinding
+	String instance() default "";
+	
 }
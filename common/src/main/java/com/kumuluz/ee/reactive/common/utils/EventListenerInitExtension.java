@@ -25,6 +25,7 @@ import com.kumuluz.ee.reactive.common.annotations.ReactiveEventListener;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.spi.AfterDeploymentValidation;
 import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.BeforeBeanDiscovery;
 import javax.enterprise.inject.spi.Extension;
 import javax.enterprise.inject.spi.ProcessBean;
 import java.lang.reflect.Method;
@@ -41,16 +42,68 @@ public interface EventListenerInitExtension extends Extension {
 
 	List<EventListenerInstance> instanceList = new ArrayList<>();
 
+	/**
+	 * Returns the name of the backend, as used in kumuluzee.reactive.backend. Defaults to the simple name of the
+	 * extension class.
+	 */
+	default String getBackend() {
+		return getClass().getSimpleName();
+	}
+
+	/**
+	 * Returns true if the backend is able to handle the listener method. By default, every listener is handled.
+	 */
+	default boolean handles(Method method) {
+		return true;
+	}
+
+	default void registerBackend(@Observes BeforeBeanDiscovery beforeBeanDiscovery) {
+		ReactiveBackend.register(getBackend(), this::handles);
+	}
+
 	default <X> void processVertxEventListeners(@Observes ProcessBean<X> processBean) {
 
 		for (Method method : processBean.getBean().getBeanClass().getMethods()) {
-			if (method.getAnnotation(ReactiveEventListener.class) != null) {
+			// the list is shared by the extensions of all backends, so every listener is only added once
+			if (method.getAnnotation(ReactiveEventListener.class) != null && instanceList.stream().noneMatch(
+					instance -> instance.getBean() == processBean.getBean() && instance.getMethod().equals(method))) {
 				ReactiveEventListener annotation = method.getAnnotation(ReactiveEventListener.class);
 				instanceList.add(new EventListenerInstance(processBean.getBean(), method, annotation));
 			}
 		}
 	}
 
+	/**
+	 * Returns the listeners handled by this backend. A listener which more than one backend is able to handle, while
+	 * no backend is selected, is reported as a deployment problem by the first of them.
+	 */
+	default List<EventListenerInstance> getOwnedListeners(AfterDeploymentValidation adv) {
+		List<EventListenerInstance> owned = new ArrayList<>();
+
+		for (EventListenerInstance listenerInstance : instanceList) {
+			Method method = listenerInstance.getMethod();
+
+			try {
+				if (ReactiveBackend.getOwner(method).filter(getBackend()::equals).isPresent()) {
+					owned.add(listenerInstance);
+				}
+			} catch (IllegalStateException e) {
+				if (ReactiveBackend.getCandidates(method).get(0).equals(getBackend())) {
+					adv.addDeploymentProblem(e);
+				}
+			}
+		}
+
+		return owned;
+	}
+
+	/**
+	 * Returns the reference to the bean of the listener, along with the creational context of a dependent bean.
+	 */
+	default EventListenerReference getReference(BeanManager bm, EventListenerInstance listenerInstance) {
+		return new EventListenerReference(bm, listenerInstance);
+	}
+
 	<X> void after(@Observes AfterDeploymentValidation adv, BeanManager bm);
 
 }
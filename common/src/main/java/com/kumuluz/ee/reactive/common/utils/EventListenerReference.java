@@ -0,0 +1,67 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.common.utils;
+
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import java.util.function.Supplier;
+
+/**
+ * Reference to the bean of a listener. Normal scoped beans are referenced through their client proxy, which resolves
+ * the contextual instance on every invocation, e.g. a new instance per message for request scoped listeners.
+ * Dependent beans are created once per reference and have a creational context, which the listener releases on
+ * shutdown to destroy the instance.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class EventListenerReference implements Supplier<Object> {
+
+	private final BeanManager bm;
+	private final EventListenerInstance listenerInstance;
+	private final CreationalContext<?> creationalContext;
+
+	public EventListenerReference(BeanManager bm, EventListenerInstance listenerInstance) {
+		this.bm = bm;
+		this.listenerInstance = listenerInstance;
+		this.creationalContext = bm.createCreationalContext(listenerInstance.getBean());
+	}
+
+	/**
+	 * Returns the reference to the bean, creating the instance of a dependent bean.
+	 */
+	@Override
+	public Object get() {
+		return bm.getReference(listenerInstance.getBean(), listenerInstance.getMethod().getDeclaringClass(),
+				creationalContext);
+	}
+
+	/**
+	 * Returns the creational context of a dependent bean, or null for a normal scoped bean, which is destroyed by its
+	 * context.
+	 */
+	public CreationalContext<?> getCreationalContext() {
+		Bean<?> bean = listenerInstance.getBean();
+		return bm.isNormalScope(bean.getScope()) ? null : creationalContext;
+	}
+
+}
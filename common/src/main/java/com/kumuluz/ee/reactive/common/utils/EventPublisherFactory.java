@@ -20,6 +20,8 @@
  */
 package com.kumuluz.ee.reactive.common.utils;
 
+import com.kumuluz.ee.reactive.common.annotations.ReactiveEventPublisher;
+
 /**
  * Factory class for creating Vert.x event producers.
  *
@@ -30,4 +32,8 @@ public interface EventPublisherFactory<T> {
 
 	T createEventPublisher(String address);
 	
+	default T createEventPublisher(ReactiveEventPublisher annotation) {
+		return createEventPublisher(annotation.address());
+	}
+	
 }
@@ -0,0 +1,120 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.common.utils;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Util class for selecting the reactive backends. If <code>kumuluzee.reactive.backend</code> is set, only the
+ * backends listed in it, separated by commas, are started; otherwise every backend on the classpath is started.
+ * Every listener is handled by a single backend. A listener which more than one started backend is able to handle,
+ * e.g. one taking an Object, is handled by the first of them listed in <code>kumuluzee.reactive.backend</code>, which
+ * has to be set in that case.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class ReactiveBackend {
+
+	public static final String KEY = "kumuluzee.reactive.backend";
+	
+	private static final Logger log = Logger.getLogger(ReactiveBackend.class.getName());
+	
+	private static final Map<String, Predicate<Method>> backends = new LinkedHashMap<>();
+	private static final Set<Method> unhandled = ConcurrentHashMap.newKeySet();
+
+	public static Optional<String> get() {
+		return ConfigurationUtil.getInstance().get(KEY).map(String::trim).filter(backend -> !backend.isEmpty());
+	}
+
+	/**
+	 * Returns true if the backend with the given name should be started.
+	 */
+	public static boolean isSelected(String name) {
+		return get().map(backends -> Arrays.stream(backends.split(","))
+				.anyMatch(backend -> backend.trim().equalsIgnoreCase(name))).orElse(true);
+	}
+	
+	/**
+	 * Registers a backend on the classpath along with the listener methods it is able to handle.
+	 */
+	public static synchronized void register(String name, Predicate<Method> handles) {
+		backends.put(name, handles);
+	}
+	
+	/**
+	 * Returns the started backends able to handle the listener method, in the order they are listed in
+	 * <code>kumuluzee.reactive.backend</code>.
+	 */
+	public static synchronized List<String> getCandidates(Method method) {
+		List<String> selected = get().map(value -> Arrays.stream(value.split(",")).map(String::trim)
+				.map(String::toLowerCase).collect(Collectors.toList())).orElse(null);
+		
+		return backends.entrySet().stream()
+				.filter(backend -> isSelected(backend.getKey()) && backend.getValue().test(method))
+				.map(Map.Entry::getKey)
+				.sorted(Comparator.comparingInt(name -> selected == null ? 0 : selected.indexOf(name.toLowerCase())))
+				.collect(Collectors.toList());
+	}
+	
+	/**
+	 * Returns the backend handling the listener method, or an empty optional if no started backend is able to, in
+	 * which case a warning is logged once per listener.
+	 *
+	 * @throws IllegalStateException if more than one backend is able to handle the listener and no backend is
+	 * selected
+	 */
+	public static Optional<String> getOwner(Method method) {
+		List<String> candidates = getCandidates(method);
+		
+		if(candidates.size() > 1 && !get().isPresent()) {
+			throw new IllegalStateException("Listener " + method.getDeclaringClass().getName() + "."
+					+ method.getName() + " can be handled by the backends " + String.join(", ", candidates)
+					+ ". Select the backend with " + KEY + ".");
+		}
+		
+		if(candidates.isEmpty() && unhandled.add(method)) {
+			log.warning("Listener " + method.getDeclaringClass().getName() + "." + method.getName()
+					+ " is not handled by any of the started backends " + String.join(", ", getStarted())
+					+ " and will not receive any messages.");
+		}
+		
+		return candidates.stream().findFirst();
+	}
+	
+	private static synchronized List<String> getStarted() {
+		return backends.keySet().stream().filter(ReactiveBackend::isSelected).collect(Collectors.toList());
+	}
+
+}
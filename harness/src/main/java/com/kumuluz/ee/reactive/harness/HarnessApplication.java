@@ -0,0 +1,128 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.harness;
+
+import com.kumuluz.ee.reactive.harness.cluster.HarnessCluster;
+import com.kumuluz.ee.reactive.harness.config.HarnessConfigLoader;
+import com.kumuluz.ee.reactive.harness.load.HarnessLoadGenerator;
+import com.kumuluz.ee.reactive.harness.load.HarnessMode;
+import com.kumuluz.ee.reactive.harness.load.HarnessOptions;
+import com.kumuluz.ee.reactive.harness.report.HarnessRecorder;
+import com.kumuluz.ee.reactive.harness.report.HarnessReport;
+import io.vertx.core.Vertx;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Runs a harness: starts the cluster, generates load for the warmup and the measurement window, waits for the
+ * messages of the window to be delivered and reports the results. The process exits with status 1 if the run failed
+ * or violated the configured thresholds, so the harness can be used as a CI step.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class HarnessApplication {
+
+	private static final Logger log = Logger.getLogger(HarnessApplication.class.getName());
+
+	private static final long DRAIN_POLL_INTERVAL = 10;
+
+	public static void main(String[] args) {
+		HarnessOptions options = HarnessConfigLoader.getOptions();
+		HarnessRecorder recorder = HarnessRecorder.getInstance();
+		HarnessCluster cluster = null;
+		boolean passed = false;
+
+		try {
+			cluster = HarnessCluster.start(options);
+
+			List<HarnessLoadGenerator> generators = new ArrayList<>();
+			List<Vertx> nodes = cluster.getNodes();
+
+			// the application node only generates load on its own, otherwise all messages cross the cluster
+			for (int i = nodes.size() > 1 ? 1 : 0; i < nodes.size(); i++) {
+				generators.add(new HarnessLoadGenerator(nodes.get(i), options, i, recorder));
+			}
+
+			generators.forEach(HarnessLoadGenerator::start);
+			Thread.sleep(options.getWarmup());
+
+			long start = System.nanoTime();
+			recorder.start(start);
+			Thread.sleep(options.getDuration());
+
+			long end = System.nanoTime();
+			recorder.stop(end);
+			generators.forEach(HarnessLoadGenerator::stop);
+
+			drain(options, recorder);
+			recorder.finish();
+
+			HarnessReport report = new HarnessReport(options, recorder, end - start);
+			log.info(report.toString());
+
+			if (options.getReportFile() != null) {
+				report.write(options.getReportFile());
+			}
+
+			passed = report.passed();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.severe("Harness run was interrupted.");
+		} catch (IOException | RuntimeException e) {
+			log.severe("Error at running harness. " + e.getLocalizedMessage());
+		} finally {
+			if (cluster != null) {
+				cluster.close();
+			}
+		}
+
+		System.exit(passed ? 0 : 1);
+	}
+
+	/**
+	 * Waits until every message of the measurement window was received, or failed in send mode.
+	 */
+	private static void drain(HarnessOptions options, HarnessRecorder recorder) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.getDrainTimeout());
+
+		while (System.nanoTime() < deadline) {
+			long handled = recorder.getReceived();
+
+			if (options.getMode() == HarnessMode.SEND) {
+				handled += recorder.getFailed();
+			}
+
+			if (handled >= recorder.getSent()) {
+				return;
+			}
+
+			Thread.sleep(DRAIN_POLL_INTERVAL);
+		}
+
+		log.warning("Not all messages were delivered within the drain timeout.");
+	}
+
+}
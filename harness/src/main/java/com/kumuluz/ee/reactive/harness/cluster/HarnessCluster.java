@@ -0,0 +1,167 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.harness.cluster;
+
+import com.kumuluz.ee.reactive.harness.load.HarnessListener;
+import com.kumuluz.ee.reactive.harness.load.HarnessOptions;
+import com.kumuluz.ee.reactive.vertx.config.VertxConfigLoader;
+import com.kumuluz.ee.reactive.vertx.utils.VertxUtils;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+/**
+ * Cluster of Vert.x nodes in a single JVM. The first node is the application node: Vert.x is initialized by
+ * {@link VertxUtils} as in a KumuluzEE application, and the harness listener is deployed with Weld SE, so it is
+ * registered by the Vert.x listener extension with the configured listener options. Since {@link VertxUtils} holds a
+ * single application per JVM, the other nodes are plain clustered Vert.x instances created from the same
+ * configuration, each with a cluster manager of its own. With the <code>local</code> cluster manager, all nodes join
+ * on the loopback interface.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class HarnessCluster {
+
+	private static final Logger log = Logger.getLogger(HarnessCluster.class.getName());
+
+	private static final long START_TIMEOUT = 60;
+
+	private final List<Vertx> nodes = new ArrayList<>();
+	private WeldContainer container;
+
+	private HarnessCluster() {
+
+	}
+
+	/**
+	 * Starts the nodes of the cluster. If starting a node fails, the nodes started so far are closed.
+	 *
+	 * @throws IllegalStateException if a node could not be started
+	 */
+	public static HarnessCluster start(HarnessOptions options) {
+		HarnessCluster cluster = new HarnessCluster();
+
+		try {
+			cluster.startApplicationNode();
+
+			for (int i = 1; i < options.getNodes(); i++) {
+				cluster.startNode(i);
+			}
+		} catch (RuntimeException e) {
+			cluster.close();
+			throw e;
+		}
+
+		log.info("Harness cluster with " + cluster.nodes.size() + " nodes started.");
+
+		return cluster;
+	}
+
+	private void startApplicationNode() {
+		new VertxUtils();
+		nodes.add(await(VertxUtils.whenReady(null), 0));
+
+		container = new Weld()
+				.disableDiscovery()
+				.addBeanClass(HarnessListener.class)
+				.initialize();
+	}
+
+	private void startNode(int node) {
+		VertxOptions vertxOptions = VertxConfigLoader.getVertxOptions(VertxConfigLoader.PREFIX);
+
+		if (!vertxOptions.isClustered()) {
+			throw new IllegalStateException("A harness with more than one node requires clustered Vert.x, set "
+					+ VertxConfigLoader.PREFIX + "clustered to true.");
+		}
+
+		CompletableFuture<Vertx> started = new CompletableFuture<>();
+
+		Vertx.clusteredVertx(vertxOptions, res -> {
+			if (res.succeeded()) {
+				started.complete(res.result());
+			} else {
+				started.completeExceptionally(res.cause());
+			}
+		});
+
+		nodes.add(await(started, node));
+		log.info("Harness node " + node + " joined the cluster.");
+	}
+
+	private static Vertx await(CompletableFuture<Vertx> started, int node) {
+		try {
+			return started.get(START_TIMEOUT, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while starting harness node " + node + ".", e);
+		} catch (ExecutionException | TimeoutException e) {
+			throw new IllegalStateException("Error at starting harness node " + node + ". "
+					+ e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * Returns the Vert.x instances of the nodes, starting with the application node.
+	 */
+	public List<Vertx> getNodes() {
+		return Collections.unmodifiableList(nodes);
+	}
+
+	/**
+	 * Shuts down Weld and closes all nodes but the application node, which is closed by the shutdown hook of
+	 * {@link VertxUtils}.
+	 */
+	public void close() {
+		if (container != null && container.isRunning()) {
+			container.shutdown();
+		}
+
+		List<CompletableFuture<Void>> closed = new ArrayList<>();
+
+		for (Vertx node : nodes.subList(Math.min(1, nodes.size()), nodes.size())) {
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			node.close(res -> future.complete(null));
+			closed.add(future);
+		}
+
+		try {
+			CompletableFuture.allOf(closed.toArray(new CompletableFuture[0]))
+					.get(VertxConfigLoader.DEFAULT_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException e) {
+			log.warning("Error at closing harness nodes. " + e.getLocalizedMessage());
+		}
+	}
+
+}
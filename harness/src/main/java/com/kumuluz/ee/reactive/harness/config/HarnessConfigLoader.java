@@ -0,0 +1,143 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.harness.config;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.reactive.harness.load.HarnessLatencyDistribution;
+import com.kumuluz.ee.reactive.harness.load.HarnessMode;
+import com.kumuluz.ee.reactive.harness.load.HarnessOptions;
+import com.kumuluz.ee.reactive.harness.load.HarnessPayload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Util class for getting the options of a harness run.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class HarnessConfigLoader {
+
+	private static final Logger log = Logger.getLogger(HarnessConfigLoader.class.getName());
+
+	public static final String PREFIX = "kumuluzee.reactive.harness.";
+
+	private static HarnessOptions options;
+
+	public static synchronized HarnessOptions getOptions() {
+		if (options == null) {
+			options = loadOptions();
+		}
+
+		return options;
+	}
+
+	private static HarnessOptions loadOptions() {
+		ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
+		HarnessOptions options = new HarnessOptions();
+
+		configurationUtil.getInteger(PREFIX + "nodes").ifPresent(nodes -> {
+			if (nodes < 1) {
+				log.warning("Invalid value " + nodes + " for " + PREFIX + "nodes. Using default value.");
+			} else {
+				options.setNodes(nodes);
+			}
+		});
+
+		configurationUtil.getLong(PREFIX + "seed").ifPresent(options::setSeed);
+		configurationUtil.getLong(PREFIX + "warmup").ifPresent(options::setWarmup);
+		configurationUtil.getLong(PREFIX + "duration").ifPresent(options::setDuration);
+		configurationUtil.getLong(PREFIX + "drain-timeout").ifPresent(options::setDrainTimeout);
+		configurationUtil.getLong(PREFIX + "send-timeout").ifPresent(options::setSendTimeout);
+		configurationUtil.get(PREFIX + "report-file").ifPresent(options::setReportFile);
+
+		configurationUtil.get(PREFIX + "mode").ifPresent(mode -> {
+			try {
+				options.setMode(HarnessMode.valueOf(mode.trim().toUpperCase()));
+			} catch (IllegalArgumentException e) {
+				log.warning("Invalid value " + mode + " for " + PREFIX + "mode, it has to be publish or send. "
+						+ "Using default value.");
+			}
+		});
+
+		configurationUtil.get(PREFIX + "payload").ifPresent(payload -> {
+			try {
+				options.setPayload(HarnessPayload.valueOf(payload.trim().toUpperCase()));
+			} catch (IllegalArgumentException e) {
+				log.warning("Invalid value " + payload + " for " + PREFIX + "payload, it has to be bytes, json or "
+						+ "pooled. Using default value.");
+			}
+		});
+
+		getNonNegativeDouble(PREFIX + "rate").ifPresent(options::setRate);
+		getNonNegativeDouble(PREFIX + "max-p99").ifPresent(options::setMaxP99);
+		getNonNegativeDouble(PREFIX + "min-throughput").ifPresent(options::setMinThroughput);
+		getNonNegativeDouble(PREFIX + "max-allocation-per-message").ifPresent(options::setMaxAllocationPerMessage);
+
+		configurationUtil.get(PREFIX + "payload-sizes").ifPresent(sizes -> {
+			try {
+				List<Integer> payloadSizes = new ArrayList<>();
+
+				for (String size : sizes.split(",")) {
+					int payloadSize = Integer.parseInt(size.trim());
+					if (payloadSize < 0) {
+						throw new NumberFormatException("Payload size has to be non-negative.");
+					}
+					payloadSizes.add(payloadSize);
+				}
+
+				options.setPayloadSizes(payloadSizes);
+			} catch (NumberFormatException e) {
+				log.warning("Invalid value " + sizes + " for " + PREFIX + "payload-sizes. Using default value.");
+			}
+		});
+
+		configurationUtil.get(PREFIX + "listener-latency").ifPresent(latency -> {
+			try {
+				options.setListenerLatency(HarnessLatencyDistribution.parse(latency));
+			} catch (IllegalArgumentException e) {
+				log.warning(e.getLocalizedMessage() + " Using default value.");
+			}
+		});
+
+		return options;
+	}
+
+	private static Optional<Double> getNonNegativeDouble(String key) {
+		return ConfigurationUtil.getInstance().get(key).flatMap(value -> {
+			try {
+				double number = Double.parseDouble(value);
+				if (number >= 0) {
+					return Optional.of(number);
+				}
+			} catch (NumberFormatException e) {
+				// logged below
+			}
+
+			log.warning("Invalid value " + value + " for " + key + ". Using default value.");
+			return Optional.empty();
+		});
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.harness.load;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distribution of the time the harness listener spends handling a message. Distributions are given as
+ * <code>none</code>, <code>fixed:&lt;ms&gt;</code>, <code>uniform:&lt;min ms&gt;-&lt;max ms&gt;</code> or
+ * <code>exponential:&lt;mean ms&gt;</code>. The latency of a message is derived from the seed of the run and the
+ * sequence of the message alone, so every run with the same seed handles the same messages equally long, regardless
+ * of the thread that handles them.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class HarnessLatencyDistribution {
+
+	private enum Type {
+		NONE, FIXED, UNIFORM, EXPONENTIAL
+	}
+
+	private final String spec;
+	private final Type type;
+	private final double first;
+	private final double second;
+
+	private HarnessLatencyDistribution(String spec, Type type, double first, double second) {
+		this.spec = spec;
+		this.type = type;
+		this.first = first;
+		this.second = second;
+	}
+
+	/**
+	 * Parses the distribution.
+	 *
+	 * @throws IllegalArgumentException if the distribution is not valid
+	 */
+	public static HarnessLatencyDistribution parse(String spec) {
+		String value = spec.trim();
+		int separator = value.indexOf(':');
+		String name = (separator < 0 ? value : value.substring(0, separator)).trim().toLowerCase();
+		String parameters = separator < 0 ? "" : value.substring(separator + 1).trim();
+
+		try {
+			switch (name) {
+				case "none":
+					return new HarnessLatencyDistribution(value, Type.NONE, 0, 0);
+				case "fixed":
+					return new HarnessLatencyDistribution(value, Type.FIXED, parseMillis(parameters), 0);
+				case "uniform":
+					int dash = parameters.indexOf('-');
+					if (dash < 0) {
+						break;
+					}
+
+					double min = parseMillis(parameters.substring(0, dash));
+					double max = parseMillis(parameters.substring(dash + 1));
+					if (max < min) {
+						break;
+					}
+
+					return new HarnessLatencyDistribution(value, Type.UNIFORM, min, max);
+				case "exponential":
+					return new HarnessLatencyDistribution(value, Type.EXPONENTIAL, parseMillis(parameters), 0);
+				default:
+					break;
+			}
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid listener latency " + spec + ". " + e.getLocalizedMessage(),
+					e);
+		}
+
+		throw new IllegalArgumentException("Invalid listener latency " + spec + ", it has to be none, "
+				+ "fixed:<ms>, uniform:<min ms>-<max ms> or exponential:<mean ms>.");
+	}
+
+	private static double parseMillis(String value) {
+		double millis = Double.parseDouble(value.trim());
+
+		if (millis < 0 || Double.isNaN(millis) || Double.isInfinite(millis)) {
+			throw new NumberFormatException("Latency has to be a non-negative number.");
+		}
+
+		return millis;
+	}
+
+	/**
+	 * Returns the latency of the message with the given sequence in nanoseconds.
+	 */
+	public long sample(long seed, long sequence) {
+		double millis;
+
+		switch (type) {
+			case FIXED:
+				millis = first;
+				break;
+			case UNIFORM:
+				millis = first + (second - first) * random(seed, sequence);
+				break;
+			case EXPONENTIAL:
+				millis = -first * Math.log(1 - random(seed, sequence));
+				break;
+			default:
+				return 0;
+		}
+
+		return (long) (millis * TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	private static double random(long seed, long sequence) {
+		return new SplittableRandom(seed * 0x9e3779b97f4a7c15L + sequence).nextDouble();
+	}
+
+	public boolean isNone() {
+		return type == Type.NONE;
+	}
+
+	@Override
+	public String toString() {
+		return spec;
+	}
+
+}
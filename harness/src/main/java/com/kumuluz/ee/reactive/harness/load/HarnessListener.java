@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.harness.load;
+
+import com.kumuluz.ee.reactive.common.annotations.ReactiveEventListener;
+import com.kumuluz.ee.reactive.harness.config.HarnessConfigLoader;
+import com.kumuluz.ee.reactive.harness.report.HarnessRecorder;
+import com.kumuluz.ee.reactive.vertx.pooled.VertxPooledPayload;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sample listener deployed by the harness. It spends the time given by the listener latency distribution on every
+ * message, reads the payload, records the latency of the message and replies to messages that were sent
+ * point-to-point. Pooled payloads are released by the listener dispatch once the method returns.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+@ApplicationScoped
+public class HarnessListener {
+
+	@ReactiveEventListener(address = HarnessOptions.ADDRESS)
+	public void onMessage(Message<Object> message) {
+		HarnessOptions options = HarnessConfigLoader.getOptions();
+
+		if (length(message.body()) < 0) {
+			throw new IllegalStateException("Payload of message was already released.");
+		}
+
+		long latency = options.getListenerLatency().sample(options.getSeed(),
+				Long.parseLong(message.headers().get(HarnessLoadGenerator.HEADER_SEQUENCE)));
+
+		if (latency > 0) {
+			LockSupport.parkNanos(latency);
+		}
+
+		HarnessRecorder.getInstance().received(Long.parseLong(message.headers().get(
+				HarnessLoadGenerator.HEADER_GENERATED)));
+
+		if (message.replyAddress() != null) {
+			message.reply(null);
+		}
+	}
+
+	/**
+	 * Reads the payload the way a listener of its type would, so its allocations are part of the measurement.
+	 */
+	private static int length(Object body) {
+		if (body instanceof VertxPooledPayload) {
+			VertxPooledPayload payload = (VertxPooledPayload) body;
+			return payload.refCnt() > 0 ? payload.length() : -1;
+		} else if (body instanceof JsonObject) {
+			return ((JsonObject) body).getBinary("data").length;
+		} else if (body instanceof byte[]) {
+			return ((byte[]) body).length;
+		}
+		return 0;
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.harness.load;
+
+import com.kumuluz.ee.reactive.harness.report.HarnessRecorder;
+import io.vertx.core.Context;
+import com.kumuluz.ee.reactive.vertx.pooled.VertxPooledBufferCodec;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonObject;
+
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates messages on a node at a constant rate. Messages are scheduled on a Vert.x timer and stamped with the
+ * time they were due rather than the time they were sent, so a stalled node does not hide the latency of the
+ * messages it fell behind with. Payload sizes are drawn from a random generator seeded per node, so every run with
+ * the same seed generates the same messages. Depending on the payload type, the payload is sent as it is, wrapped in
+ * a JSON object created per message or with the pooled buffer codec.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class HarnessLoadGenerator {
+
+	public static final String HEADER_GENERATED = "harness-generated";
+	public static final String HEADER_SEQUENCE = "harness-sequence";
+
+	private static final long TICK = 1;
+	private static final int MAX_BURST = 10000;
+	private static final int NODE_SHIFT = 40;
+
+	private final Vertx vertx;
+	private final Context context;
+	private final HarnessOptions options;
+	private final int node;
+	private final HarnessRecorder recorder;
+	private final SplittableRandom random;
+	private final byte[][] payloads;
+	private final Buffer[] buffers;
+
+	// only accessed on the context of the timer
+	private long start;
+	private long generated;
+	private long timerId = -1;
+
+	public HarnessLoadGenerator(Vertx vertx, HarnessOptions options, int node, HarnessRecorder recorder) {
+		this.vertx = vertx;
+		this.context = vertx.getOrCreateContext();
+		this.options = options;
+		this.node = node;
+		this.recorder = recorder;
+		this.random = new SplittableRandom(options.getSeed() + node);
+
+		List<Integer> sizes = options.getPayloadSizes();
+		Random content = new Random(options.getSeed());
+		payloads = new byte[sizes.size()][];
+		buffers = new Buffer[sizes.size()];
+
+		for (int i = 0; i < payloads.length; i++) {
+			payloads[i] = new byte[sizes.get(i)];
+			content.nextBytes(payloads[i]);
+			// buffers are only read when they are sent, so they are shared by all messages
+			buffers[i] = Buffer.buffer(payloads[i]);
+		}
+	}
+
+	public void start() {
+		if (options.getRate() <= 0) {
+			return;
+		}
+
+		context.runOnContext(v -> {
+			start = System.nanoTime();
+			timerId = vertx.setPeriodic(TICK, id -> generate());
+		});
+	}
+
+	public void stop() {
+		context.runOnContext(v -> {
+			if (timerId >= 0) {
+				vertx.cancelTimer(timerId);
+				timerId = -1;
+			}
+		});
+	}
+
+	private void generate() {
+		long now = System.nanoTime();
+		long due = (long) ((now - start) / (double) TimeUnit.SECONDS.toNanos(1) * options.getRate());
+		long burst = Math.min(due - generated, MAX_BURST);
+
+		for (long i = 0; i < burst; i++) {
+			long scheduled = start + (long) (generated * (TimeUnit.SECONDS.toNanos(1) / options.getRate()));
+			send(scheduled, ((long) node << NODE_SHIFT) | generated);
+			generated++;
+		}
+	}
+
+	private void send(long scheduled, long sequence) {
+		DeliveryOptions deliveryOptions = new DeliveryOptions()
+				.addHeader(HEADER_GENERATED, String.valueOf(scheduled))
+				.addHeader(HEADER_SEQUENCE, String.valueOf(sequence))
+				.setSendTimeout(options.getSendTimeout());
+
+		int index = payloads.length == 0 ? -1 : random.nextInt(payloads.length);
+		byte[] bytes = index < 0 ? new byte[0] : payloads[index];
+		Object payload;
+
+		switch (options.getPayload()) {
+			case JSON:
+				payload = new JsonObject().put("sequence", sequence).put("data", bytes);
+				break;
+			case POOLED:
+				payload = index < 0 ? Buffer.buffer() : buffers[index];
+				deliveryOptions.setCodecName(VertxPooledBufferCodec.NAME);
+				break;
+			default:
+				payload = bytes;
+		}
+
+		recorder.sent(scheduled);
+
+		if (options.getMode() == HarnessMode.SEND) {
+			vertx.eventBus().send(HarnessOptions.ADDRESS, payload, deliveryOptions, reply -> {
+				if (reply.failed()) {
+					recorder.failed(scheduled);
+				}
+			});
+		} else {
+			vertx.eventBus().publish(HarnessOptions.ADDRESS, payload, deliveryOptions);
+		}
+	}
+
+}
@@ -0,0 +1,211 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.harness.load;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Options of a harness run.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class HarnessOptions {
+
+	public static final String ADDRESS = "harness.load";
+
+	public static final int DEFAULT_NODES = 3;
+	public static final long DEFAULT_SEED = 42;
+	public static final long DEFAULT_WARMUP = 2000;
+	public static final long DEFAULT_DURATION = 10000;
+	public static final long DEFAULT_DRAIN_TIMEOUT = 5000;
+	public static final HarnessMode DEFAULT_MODE = HarnessMode.PUBLISH;
+	public static final double DEFAULT_RATE = 1000;
+	public static final HarnessPayload DEFAULT_PAYLOAD = HarnessPayload.BYTES;
+	public static final List<Integer> DEFAULT_PAYLOAD_SIZES = Collections.singletonList(1024);
+	public static final String DEFAULT_LISTENER_LATENCY = "none";
+	public static final long DEFAULT_SEND_TIMEOUT = 5000;
+
+	private int nodes = DEFAULT_NODES;
+	private long seed = DEFAULT_SEED;
+	private long warmup = DEFAULT_WARMUP;
+	private long duration = DEFAULT_DURATION;
+	private long drainTimeout = DEFAULT_DRAIN_TIMEOUT;
+	private HarnessMode mode = DEFAULT_MODE;
+	private double rate = DEFAULT_RATE;
+	private HarnessPayload payload = DEFAULT_PAYLOAD;
+	private List<Integer> payloadSizes = DEFAULT_PAYLOAD_SIZES;
+	private HarnessLatencyDistribution listenerLatency = HarnessLatencyDistribution.parse(DEFAULT_LISTENER_LATENCY);
+	private long sendTimeout = DEFAULT_SEND_TIMEOUT;
+	private double maxP99;
+	private double minThroughput;
+	private double maxAllocationPerMessage;
+	private String reportFile;
+
+	public int getNodes() {
+		return nodes;
+	}
+
+	public HarnessOptions setNodes(int nodes) {
+		this.nodes = nodes;
+		return this;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public HarnessOptions setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	public long getWarmup() {
+		return warmup;
+	}
+
+	public HarnessOptions setWarmup(long warmup) {
+		this.warmup = warmup;
+		return this;
+	}
+
+	public long getDuration() {
+		return duration;
+	}
+
+	public HarnessOptions setDuration(long duration) {
+		this.duration = duration;
+		return this;
+	}
+
+	public long getDrainTimeout() {
+		return drainTimeout;
+	}
+
+	public HarnessOptions setDrainTimeout(long drainTimeout) {
+		this.drainTimeout = drainTimeout;
+		return this;
+	}
+
+	public HarnessMode getMode() {
+		return mode;
+	}
+
+	public HarnessOptions setMode(HarnessMode mode) {
+		this.mode = mode;
+		return this;
+	}
+
+	/**
+	 * Returns the number of messages per second published by every load generating node.
+	 */
+	public double getRate() {
+		return rate;
+	}
+
+	public HarnessOptions setRate(double rate) {
+		this.rate = rate;
+		return this;
+	}
+
+	public HarnessPayload getPayload() {
+		return payload;
+	}
+
+	public HarnessOptions setPayload(HarnessPayload payload) {
+		this.payload = payload;
+		return this;
+	}
+
+	public List<Integer> getPayloadSizes() {
+		return payloadSizes;
+	}
+
+	public HarnessOptions setPayloadSizes(List<Integer> payloadSizes) {
+		this.payloadSizes = payloadSizes;
+		return this;
+	}
+
+	public HarnessLatencyDistribution getListenerLatency() {
+		return listenerLatency;
+	}
+
+	public HarnessOptions setListenerLatency(HarnessLatencyDistribution listenerLatency) {
+		this.listenerLatency = listenerLatency;
+		return this;
+	}
+
+	public long getSendTimeout() {
+		return sendTimeout;
+	}
+
+	public HarnessOptions setSendTimeout(long sendTimeout) {
+		this.sendTimeout = sendTimeout;
+		return this;
+	}
+
+	/**
+	 * Returns the 99th percentile of the latency in milliseconds above which the run fails, or 0 if not checked.
+	 */
+	public double getMaxP99() {
+		return maxP99;
+	}
+
+	public HarnessOptions setMaxP99(double maxP99) {
+		this.maxP99 = maxP99;
+		return this;
+	}
+
+	/**
+	 * Returns the throughput in messages per second below which the run fails, or 0 if not checked.
+	 */
+	public double getMinThroughput() {
+		return minThroughput;
+	}
+
+	public HarnessOptions setMinThroughput(double minThroughput) {
+		this.minThroughput = minThroughput;
+		return this;
+	}
+
+	/**
+	 * Returns the bytes allocated per received message above which the run fails, or 0 if not checked.
+	 */
+	public double getMaxAllocationPerMessage() {
+		return maxAllocationPerMessage;
+	}
+
+	public HarnessOptions setMaxAllocationPerMessage(double maxAllocationPerMessage) {
+		this.maxAllocationPerMessage = maxAllocationPerMessage;
+		return this;
+	}
+
+	public String getReportFile() {
+		return reportFile;
+	}
+
+	public HarnessOptions setReportFile(String reportFile) {
+		this.reportFile = reportFile;
+		return this;
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.harness.load;
+
+/**
+ * Body type of the generated messages, so that the allocations of the payload types can be compared.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public enum HarnessPayload {
+
+	/**
+	 * The payload is sent as a byte array, which is copied into a new array for every listener.
+	 */
+	BYTES,
+
+	/**
+	 * The payload is sent as a JSON object created for every message, with the bytes as a Base64 encoded field.
+	 */
+	JSON,
+
+	/**
+	 * The payload is sent with the pooled buffer codec and received as a pooled payload, which is released once the
+	 * listener returns.
+	 */
+	POOLED
+
+}
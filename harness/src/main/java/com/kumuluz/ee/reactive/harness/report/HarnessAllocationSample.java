@@ -0,0 +1,109 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.harness.report;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Sample of the bytes allocated by the threads of the JVM and of the garbage collections so far. Allocations are only
+ * measured on JVMs which expose them through the <code>com.sun.management.ThreadMXBean</code>, and only for the
+ * threads alive when the sample is taken, which are the Vert.x threads doing the work of a run.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class HarnessAllocationSample {
+
+	private final long allocatedBytes;
+	private final long gcCount;
+	private final long gcTime;
+
+	private HarnessAllocationSample(long allocatedBytes, long gcCount, long gcTime) {
+		this.allocatedBytes = allocatedBytes;
+		this.gcCount = gcCount;
+		this.gcTime = gcTime;
+	}
+
+	public static HarnessAllocationSample take() {
+		long gcCount = 0;
+		long gcTime = 0;
+
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			gcCount += Math.max(collector.getCollectionCount(), 0);
+			gcTime += Math.max(collector.getCollectionTime(), 0);
+		}
+
+		return new HarnessAllocationSample(getAllocatedBytes(), gcCount, gcTime);
+	}
+
+	/**
+	 * Returns the bytes allocated by all live threads, or -1 if the JVM does not measure them.
+	 */
+	private static long getAllocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return -1;
+		}
+
+		com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+
+		if (!allocations.isThreadAllocatedMemorySupported() || !allocations.isThreadAllocatedMemoryEnabled()) {
+			return -1;
+		}
+
+		long allocated = 0;
+		for (long bytes : allocations.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+			// threads which died in the meantime are reported as -1
+			allocated += Math.max(bytes, 0);
+		}
+
+		return allocated;
+	}
+
+	public boolean isAllocationSupported() {
+		return allocatedBytes >= 0;
+	}
+
+	/**
+	 * Returns the bytes allocated since the given sample, or -1 if allocations are not measured.
+	 */
+	public long getAllocatedSince(HarnessAllocationSample start) {
+		if (!isAllocationSupported() || !start.isAllocationSupported()) {
+			return -1;
+		}
+		return Math.max(allocatedBytes - start.allocatedBytes, 0);
+	}
+
+	public long getGcCountSince(HarnessAllocationSample start) {
+		return gcCount - start.gcCount;
+	}
+
+	/**
+	 * Returns the time spent on garbage collection since the given sample, in milliseconds.
+	 */
+	public long getGcTimeSince(HarnessAllocationSample start) {
+		return gcTime - start.gcTime;
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.harness.report;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the messages of a harness run. Only messages generated within the measurement window are counted, so
+ * messages of the warmup that are delivered late do not distort the results. Allocations are sampled from the start of
+ * the window until the messages of the window are drained.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class HarnessRecorder {
+
+	private static final HarnessRecorder instance = new HarnessRecorder();
+
+	private final HarnessHistogram latency = new HarnessHistogram();
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong received = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+
+	private volatile long windowStart = Long.MAX_VALUE;
+	private volatile long windowEnd = Long.MAX_VALUE;
+
+	private volatile HarnessAllocationSample allocationStart;
+	private volatile HarnessAllocationSample allocationEnd;
+	private volatile long finished;
+
+	private HarnessRecorder() {
+
+	}
+
+	public static HarnessRecorder getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Starts the measurement window.
+	 *
+	 * @param start start of the window as given by {@link System#nanoTime()}
+	 */
+	public void start(long start) {
+		latency.reset();
+		sent.set(0);
+		received.set(0);
+		failed.set(0);
+
+		windowEnd = Long.MAX_VALUE;
+		windowStart = start;
+
+		allocationEnd = null;
+		allocationStart = HarnessAllocationSample.take();
+	}
+
+	/**
+	 * Ends the measurement window. Messages generated before its end are still counted when they are received.
+	 */
+	public void stop(long end) {
+		windowEnd = end;
+	}
+
+	/**
+	 * Ends the allocation sampling, once the messages of the window are drained.
+	 */
+	public void finish() {
+		allocationEnd = HarnessAllocationSample.take();
+		finished = System.nanoTime();
+	}
+
+	public void sent(long generated) {
+		if (inWindow(generated)) {
+			sent.incrementAndGet();
+		}
+	}
+
+	public void received(long generated) {
+		if (inWindow(generated)) {
+			received.incrementAndGet();
+			latency.record(System.nanoTime() - generated);
+		}
+	}
+
+	public void failed(long generated) {
+		if (inWindow(generated)) {
+			failed.incrementAndGet();
+		}
+	}
+
+	private boolean inWindow(long generated) {
+		return generated >= windowStart && generated < windowEnd;
+	}
+
+	public HarnessHistogram getLatency() {
+		return latency;
+	}
+
+	public long getSent() {
+		return sent.get();
+	}
+
+	public long getReceived() {
+		return received.get();
+	}
+
+	public long getFailed() {
+		return failed.get();
+	}
+
+	public HarnessAllocationSample getAllocationStart() {
+		return allocationStart;
+	}
+
+	public HarnessAllocationSample getAllocationEnd() {
+		return allocationEnd;
+	}
+
+	/**
+	 * Returns the time from the start of the window until the allocation sampling ended, in nanoseconds.
+	 */
+	public long getSampled() {
+		return finished - windowStart;
+	}
+
+}
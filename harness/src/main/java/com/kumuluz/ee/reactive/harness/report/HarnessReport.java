@@ -0,0 +1,223 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.harness.report;
+
+import com.kumuluz.ee.reactive.harness.load.HarnessOptions;
+import com.kumuluz.ee.reactive.vertx.pooled.VertxPooledBufferMetrics;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Results of a harness run, with the throughput and the latency percentiles of the messages generated within the
+ * measurement window, and the allocations made until they were delivered.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class HarnessReport {
+
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+	private static final String[] PERCENTILE_NAMES = { "p50", "p90", "p99", "p999" };
+
+	private final HarnessOptions options;
+	private final long window;
+	private final long sent;
+	private final long received;
+	private final long failed;
+	private final double[] percentiles = new double[PERCENTILES.length];
+	private final double max;
+	private final long allocated;
+	private final double allocationRate;
+	private final long gcCount;
+	private final long gcTime;
+	private final long pooledOutstanding;
+	private final List<String> violations = new ArrayList<>();
+
+	/**
+	 * @param window length of the measurement window in nanoseconds
+	 */
+	public HarnessReport(HarnessOptions options, HarnessRecorder recorder, long window) {
+		this.options = options;
+		this.window = window;
+		this.sent = recorder.getSent();
+		this.received = recorder.getReceived();
+		this.failed = recorder.getFailed();
+
+		for (int i = 0; i < PERCENTILES.length; i++) {
+			percentiles[i] = toMillis(recorder.getLatency().getPercentile(PERCENTILES[i]));
+		}
+		this.max = toMillis(recorder.getLatency().getMax());
+
+		HarnessAllocationSample allocationStart = recorder.getAllocationStart();
+		HarnessAllocationSample allocationEnd = recorder.getAllocationEnd();
+
+		if (allocationStart != null && allocationEnd != null) {
+			this.allocated = allocationEnd.getAllocatedSince(allocationStart);
+			this.allocationRate = allocated >= 0 && recorder.getSampled() > 0
+					? allocated / (recorder.getSampled() / (double) TimeUnit.SECONDS.toNanos(1)) : -1;
+			this.gcCount = allocationEnd.getGcCountSince(allocationStart);
+			this.gcTime = allocationEnd.getGcTimeSince(allocationStart);
+		} else {
+			this.allocated = -1;
+			this.allocationRate = -1;
+			this.gcCount = 0;
+			this.gcTime = 0;
+		}
+		this.pooledOutstanding = VertxPooledBufferMetrics.getInstance().getOutstanding();
+
+		if (options.getMaxP99() > 0 && getPercentile(99) > options.getMaxP99()) {
+			violations.add("99th percentile of latency " + format(getPercentile(99)) + " ms exceeds "
+					+ format(options.getMaxP99()) + " ms");
+		}
+
+		if (options.getMinThroughput() > 0 && getThroughput() < options.getMinThroughput()) {
+			violations.add("throughput " + format(getThroughput()) + " msg/s is below "
+					+ format(options.getMinThroughput()) + " msg/s");
+		}
+
+		if (options.getMaxAllocationPerMessage() > 0 && getAllocationPerMessage() > options.getMaxAllocationPerMessage()) {
+			violations.add("allocation of " + format(getAllocationPerMessage()) + " bytes per message exceeds "
+					+ format(options.getMaxAllocationPerMessage()) + " bytes");
+		}
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	private static String format(double value) {
+		return String.format("%.3f", value);
+	}
+
+	public double getThroughput() {
+		return window > 0 ? received / (window / (double) TimeUnit.SECONDS.toNanos(1)) : 0;
+	}
+
+	/**
+	 * Returns the bytes allocated per received message, or -1 if allocations are not measured.
+	 */
+	public double getAllocationPerMessage() {
+		return allocated >= 0 && received > 0 ? allocated / (double) received : -1;
+	}
+
+	public double getPercentile(double percentile) {
+		for (int i = 0; i < PERCENTILES.length; i++) {
+			if (PERCENTILES[i] == percentile) {
+				return percentiles[i];
+			}
+		}
+		throw new IllegalArgumentException("Percentile " + percentile + " is not reported.");
+	}
+
+	/**
+	 * Returns false if the throughput or latency thresholds of the options were violated.
+	 */
+	public boolean passed() {
+		return violations.isEmpty();
+	}
+
+	public List<String> getViolations() {
+		return violations;
+	}
+
+	public JsonObject toJson() {
+		JsonObject latency = new JsonObject();
+		for (int i = 0; i < PERCENTILES.length; i++) {
+			latency.put(PERCENTILE_NAMES[i], percentiles[i]);
+		}
+		latency.put("max", max);
+
+		return new JsonObject()
+				.put("nodes", options.getNodes())
+				.put("seed", options.getSeed())
+				.put("mode", options.getMode().name().toLowerCase())
+				.put("rate", options.getRate())
+				.put("payload", options.getPayload().name().toLowerCase())
+				.put("payload-sizes", new JsonArray(new ArrayList<>(options.getPayloadSizes())))
+				.put("listener-latency", options.getListenerLatency().toString())
+				.put("duration", TimeUnit.NANOSECONDS.toMillis(window))
+				.put("sent", sent)
+				.put("received", received)
+				.put("failed", failed)
+				.put("throughput", getThroughput())
+				.put("latency", latency)
+				.put("allocation", new JsonObject()
+						.put("bytes", allocated)
+						.put("rate", allocationRate)
+						.put("per-message", getAllocationPerMessage())
+						.put("gc-count", gcCount)
+						.put("gc-time", gcTime)
+						.put("pooled-outstanding", pooledOutstanding))
+				.put("passed", passed())
+				.put("violations", new JsonArray(new ArrayList<>(violations)));
+	}
+
+	public void write(String file) throws IOException {
+		Files.write(Paths.get(file), toJson().encodePrettily().getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder()
+				.append("Harness run with ").append(options.getNodes()).append(" nodes, ")
+				.append(options.getMode().name().toLowerCase()).append(" at ").append(format(options.getRate()))
+				.append(" msg/s per node, ").append(options.getPayload().name().toLowerCase())
+				.append(" payload sizes ").append(options.getPayloadSizes())
+				.append(" bytes, listener latency ").append(options.getListenerLatency()).append('\n')
+				.append("sent: ").append(sent).append(", received: ").append(received).append(", failed: ")
+				.append(failed).append('\n')
+				.append("throughput: ").append(format(getThroughput())).append(" msg/s").append('\n')
+				.append("latency (ms):");
+
+		for (int i = 0; i < PERCENTILES.length; i++) {
+			report.append(' ').append(PERCENTILE_NAMES[i]).append('=').append(format(percentiles[i]));
+		}
+		report.append(" max=").append(format(max));
+
+		report.append('\n').append("allocation: ");
+		if (allocated >= 0) {
+			report.append(format(allocationRate / (1024 * 1024))).append(" MB/s, ")
+					.append(format(getAllocationPerMessage())).append(" bytes/msg, ");
+		} else {
+			report.append("not measured, ");
+		}
+		report.append("gc: ").append(gcCount).append(" collections, ").append(gcTime).append(" ms");
+
+		if (pooledOutstanding > 0) {
+			report.append(", pooled payloads not released: ").append(pooledOutstanding);
+		}
+
+		for (String violation : violations) {
+			report.append('\n').append("FAILED: ").append(violation);
+		}
+
+		return report.toString();
+	}
+
+}
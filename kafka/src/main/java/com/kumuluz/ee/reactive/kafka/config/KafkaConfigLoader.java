@@ -0,0 +1,157 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.kafka.config;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.reactive.kafka.consumer.KafkaListenerOptions;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Util class for getting the options of the Kafka connector. Options of a listener are looked up under
+ * <code>kumuluzee.reactive.kafka.topics.&lt;topic&gt;</code> first and under <code>kumuluzee.reactive.kafka</code>
+ * afterwards.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class KafkaConfigLoader {
+
+	private static final Logger log = Logger.getLogger(KafkaConfigLoader.class.getName());
+	
+	public static final String PREFIX = "kumuluzee.reactive.kafka.";
+	public static final String TOPICS_PREFIX = PREFIX + "topics.";
+	
+	public static final String DEFAULT_BOOTSTRAP_SERVERS = "localhost:9092";
+	public static final String DEFAULT_GROUP_ID = "kumuluzee-reactive";
+	public static final long DEFAULT_POLL_TIMEOUT = 100;
+	public static final int DEFAULT_MAX_PENDING_RECORDS = 1000;
+	public static final long DEFAULT_COMMIT_INTERVAL = 100;
+	public static final long DEFAULT_SHUTDOWN_TIMEOUT = 10000;
+	public static final long DEFAULT_RETRY_BACKOFF = 1000;
+	
+	public static KafkaListenerOptions getListenerOptions(String topic, Method method) {
+		KafkaListenerOptions options = new KafkaListenerOptions(topic);
+		
+		// every listener consumes all records of its topic, while replicas of the same listener share them
+		options.setGroupId(get(topic, "group-id").orElseGet(() -> getGroupId() + "."
+				+ method.getDeclaringClass().getName() + "." + method.getName()));
+		options.setPollTimeout(getPositiveLong(topic, "poll-timeout").orElse(DEFAULT_POLL_TIMEOUT));
+		options.setConcurrency(getPositiveInteger(topic, "concurrency")
+				.orElse(Runtime.getRuntime().availableProcessors()));
+		options.setMaxPendingRecords(getPositiveInteger(topic, "max-pending-records")
+				.orElse(DEFAULT_MAX_PENDING_RECORDS));
+		options.setCommitInterval(getPositiveLong(topic, "commit-interval").orElse(DEFAULT_COMMIT_INTERVAL));
+		options.setShutdownTimeout(getPositiveLong(topic, "shutdown-timeout").orElse(DEFAULT_SHUTDOWN_TIMEOUT));
+		options.setRetryBackoff(getPositiveLong(topic, "retry-backoff").orElse(DEFAULT_RETRY_BACKOFF));
+		options.setDeadLetterTopic(get(topic, "dead-letter-topic").orElse(null));
+		
+		Map<String, Object> properties = new HashMap<>();
+		properties.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, getBootstrapServers());
+		properties.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+		properties.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+		properties.putAll(getProperties(PREFIX + "consumer"));
+		properties.putAll(getProperties(TOPICS_PREFIX + topic + ".consumer"));
+		
+		// offsets are committed by the connector once the records have been processed
+		properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+		properties.put(ConsumerConfig.GROUP_ID_CONFIG, options.getGroupId());
+		options.setConsumerProperties(properties);
+		
+		return options;
+	}
+	
+	public static Map<String, Object> getProducerProperties() {
+		Map<String, Object> properties = new HashMap<>();
+		properties.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, getBootstrapServers());
+		properties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+		properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+		properties.putAll(getProperties(PREFIX + "producer"));
+		
+		return properties;
+	}
+	
+	public static String getBootstrapServers() {
+		return ConfigurationUtil.getInstance().get(PREFIX + "bootstrap-servers").orElse(DEFAULT_BOOTSTRAP_SERVERS);
+	}
+	
+	public static String getGroupId() {
+		return ConfigurationUtil.getInstance().get(PREFIX + "group-id")
+				.orElseGet(() -> ConfigurationUtil.getInstance().get("kumuluzee.name").orElse(DEFAULT_GROUP_ID));
+	}
+	
+	/**
+	 * Returns the Kafka client properties under the given key. Dashes in the names are replaced with dots, so
+	 * <code>max-poll-records</code> configures <code>max.poll.records</code>.
+	 */
+	private static Map<String, Object> getProperties(String key) {
+		ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
+		Map<String, Object> properties = new HashMap<>();
+		
+		for(String name : configurationUtil.getMapKeys(key).orElse(Collections.emptyList())) {
+			configurationUtil.get(key + "." + name).ifPresent(value -> properties.put(name.replace('-', '.'), value));
+		}
+		
+		return properties;
+	}
+	
+	private static Optional<String> get(String topic, String key) {
+		Optional<String> value = ConfigurationUtil.getInstance().get(TOPICS_PREFIX + topic + "." + key);
+		return value.isPresent() ? value : ConfigurationUtil.getInstance().get(PREFIX + key);
+	}
+	
+	private static Optional<Integer> getPositiveInteger(String topic, String key) {
+		Optional<Integer> value = ConfigurationUtil.getInstance().getInteger(TOPICS_PREFIX + topic + "." + key);
+		
+		if(!value.isPresent()) {
+			value = ConfigurationUtil.getInstance().getInteger(PREFIX + key);
+		}
+		
+		return value.filter(v -> isValid(key, v > 0, v));
+	}
+	
+	private static Optional<Long> getPositiveLong(String topic, String key) {
+		Optional<Long> value = ConfigurationUtil.getInstance().getLong(TOPICS_PREFIX + topic + "." + key);
+		
+		if(!value.isPresent()) {
+			value = ConfigurationUtil.getInstance().getLong(PREFIX + key);
+		}
+		
+		return value.filter(v -> isValid(key, v > 0, v));
+	}
+	
+	private static boolean isValid(String key, boolean valid, Object value) {
+		if (!valid) {
+			log.warning("Invalid value " + value + " for " + key + ". Using default value.");
+		}
+		return valid;
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import javax.enterprise.context.spi.CreationalContext;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Kafka listener invoking a ReactiveEventListener method taking a ConsumerRecord.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class KafkaEventListener {
+
+	private final String topic;
+	private final Method method;
+	private final Object instance;
+	
+	private CreationalContext<?> creationalContext;
+	
+	public KafkaEventListener(String topic, Method method, Object instance) {
+		if(method.getParameterCount() != 1 || method.getParameterTypes()[0] != ConsumerRecord.class) {
+			throw new IllegalArgumentException("Listener method has to take exactly one ConsumerRecord.");
+		}
+		
+		this.topic = topic;
+		this.method = method;
+		this.instance = instance;
+		
+		method.setAccessible(true);
+	}
+	
+	/**
+	 * Invokes the listener method with the record, called by the thread of the record's partition.
+	 */
+	public void invoke(ConsumerRecord<Object, Object> record) throws Exception {
+		try {
+			method.invoke(instance, record);
+		} catch (InvocationTargetException e) {
+			throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+		}
+	}
+	
+	public void setCreationalContext(CreationalContext<?> creationalContext) {
+		this.creationalContext = creationalContext;
+	}
+	
+	/**
+	 * Destroys the dependent listener instance.
+	 */
+	public void release() {
+		if(creationalContext != null) {
+			creationalContext.release();
+		}
+	}
+	
+	public String getTopic() {
+		return topic;
+	}
+	
+	public Method getMethod() {
+		return method;
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.kafka.consumer;
+
+import com.kumuluz.ee.reactive.common.annotations.ReactiveEventListener;
+import com.kumuluz.ee.reactive.common.utils.EventListenerFactory;
+import com.kumuluz.ee.reactive.common.utils.EventListenerInitExtension;
+import com.kumuluz.ee.reactive.common.utils.EventListenerInstance;
+import com.kumuluz.ee.reactive.common.utils.EventListenerReference;
+import com.kumuluz.ee.reactive.common.utils.ReactiveBackend;
+import com.kumuluz.ee.reactive.kafka.config.KafkaConfigLoader;
+import com.kumuluz.ee.reactive.kafka.utils.KafkaConnector;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.KafkaException;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.AfterDeploymentValidation;
+import javax.enterprise.inject.spi.BeanManager;
+import java.lang.reflect.Method;
+import java.util.logging.Logger;
+
+/**
+ * Implementation of EventListenerInitExtension interface for Kafka. Handles the listeners taking a ConsumerRecord,
+ * the address of the listener being the topic.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class KafkaEventListenerInitExtension implements EventListenerInitExtension {
+
+	private static final Logger log = Logger.getLogger(KafkaEventListenerInitExtension.class.getName());
+	
+	EventListenerFactory<KafkaEventListener> kafkaEventListenerFactory;
+	
+	@Override
+	public <X> void after(@Observes AfterDeploymentValidation adv, BeanManager bm) {
+		
+		if(!ReactiveBackend.isSelected(KafkaConnector.BACKEND)) {
+			return;
+		}
+		
+		kafkaEventListenerFactory = new KafkaEventListenerFactory();
+		
+		for(EventListenerInstance listenerInstance : getOwnedListeners(adv)) {
+			ReactiveEventListener annotation = listenerInstance.getAnnotation();
+			Method method = listenerInstance.getMethod();
+			
+			String topic = annotation.address();
+			
+			if(annotation.partitions() > 1 || annotation.filter().length > 0) {
+				log.warning("Listener " + method.getName() + " for topic " + topic + " is partitioned or filtered, "
+						+ "which is not supported by the Kafka connector. Topic partitions are consumed in parallel.");
+			}
+			
+			log.info("Subscribing listener " + method.getName() + " to topic " + topic + ".");
+			
+			try {
+				KafkaListenerContainer container = new KafkaListenerContainer(
+						createEventListener(bm, listenerInstance, topic),
+						KafkaConfigLoader.getListenerOptions(topic, method));
+				
+				KafkaConnector.getInstance().start(container);
+			} catch (IllegalArgumentException | KafkaException e) {
+				adv.addDeploymentProblem(new IllegalArgumentException("Invalid listener " + method.getName()
+						+ " for topic " + topic + ". " + e.getLocalizedMessage(), e));
+			}
+		}
+	}
+	
+	@Override
+	public String getBackend() {
+		return KafkaConnector.BACKEND;
+	}
+	
+	/**
+	 * Handles the listeners taking a ConsumerRecord.
+	 */
+	@Override
+	public boolean handles(Method method) {
+		return method.getParameterCount() == 1 && method.getParameterTypes()[0] == ConsumerRecord.class;
+	}
+	
+	private KafkaEventListener createEventListener(BeanManager bm, EventListenerInstance listenerInstance,
+			String topic) {
+		EventListenerReference reference = getReference(bm, listenerInstance);
+		
+		KafkaEventListener kafkaEventListener = kafkaEventListenerFactory.createEventListener(reference.get(), topic,
+				listenerInstance.getMethod());
+		kafkaEventListener.setCreationalContext(reference.getCreationalContext());
+		
+		return kafkaEventListener;
+	}
+
+}
@@ -0,0 +1,386 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.kafka.consumer;
+
+import com.kumuluz.ee.reactive.kafka.utils.KafkaConnector;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Consumes a topic for a Kafka listener. A single thread polls the consumer and hands the records of every polled
+ * partition as one batch to the thread of the partition, so records of a partition are handled in order, while
+ * partitions are handled in parallel. Offsets of processed records are committed asynchronously in the
+ * background, without waiting for previous commits, and partitions whose records are not processed fast enough are
+ * paused until their thread catches up. A record the listener fails on is sent to the dead letter topic, if there is
+ * one; otherwise its partition is rewound to it and paused for the retry backoff, so the record and the records after
+ * it are delivered again and the committed offset never passes a record that was not handled.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class KafkaListenerContainer implements Runnable, ConsumerRebalanceListener {
+
+	private static final Logger log = Logger.getLogger(KafkaListenerContainer.class.getName());
+	
+	private final KafkaEventListener listener;
+	private final KafkaListenerOptions options;
+	private final KafkaConsumer<Object, Object> consumer;
+	private final ExecutorService[] lanes;
+	
+	// only accessed by the polling thread
+	private final Map<TopicPartition, PartitionState> partitions = new HashMap<>();
+	private long lastCommit;
+	
+	private final CountDownLatch stopped = new CountDownLatch(1);
+	private volatile boolean running = true;
+	private volatile long failedPolls;
+	
+	public KafkaListenerContainer(KafkaEventListener listener, KafkaListenerOptions options) {
+		this.listener = listener;
+		this.options = options;
+		this.consumer = new KafkaConsumer<>(options.getConsumerProperties());
+		this.lanes = new ExecutorService[options.getConcurrency()];
+		
+		for(int i = 0; i < lanes.length; i++) {
+			String name = "kumuluzee-reactive-kafka-" + options.getTopic() + "-" + i;
+			lanes[i] = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, name));
+		}
+	}
+	
+	@Override
+	public void run() {
+		try {
+			consumer.subscribe(Collections.singletonList(options.getTopic()), this);
+			
+			while(running) {
+				try {
+					ConsumerRecords<Object, Object> records = consumer.poll(options.getPollTimeout());
+					
+					for(TopicPartition partition : records.partitions()) {
+						dispatch(partition, records.records(partition));
+					}
+					
+					rewindFailed();
+					applyBackpressure();
+					commit(false);
+				} catch (WakeupException e) {
+					throw e;
+				} catch (Exception e) {
+					// e.g. a record that can not be deserialized, the listener keeps polling after the backoff
+					failedPolls++;
+					log.severe("Error at consuming topic " + options.getTopic() + ". " + e.getLocalizedMessage());
+					LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(options.getRetryBackoff()));
+				}
+			}
+		} catch (WakeupException e) {
+			// woken up by close
+		} catch (Exception e) {
+			log.severe("Error at subscribing to topic " + options.getTopic() + ". " + e.getLocalizedMessage());
+		} finally {
+			try {
+				awaitProcessed(partitions.keySet());
+				
+				try {
+					commit(true);
+				} catch (WakeupException e) {
+					// the wakeup of close arrived after the last poll
+					commit(true);
+				}
+			} catch (Exception e) {
+				log.warning("Error at committing offsets of topic " + options.getTopic() + ". "
+						+ e.getLocalizedMessage());
+			}
+			
+			consumer.close();
+			
+			for(ExecutorService lane : lanes) {
+				lane.shutdown();
+			}
+			
+			listener.release();
+			stopped.countDown();
+		}
+	}
+	
+	private void dispatch(TopicPartition partition, List<ConsumerRecord<Object, Object>> records) {
+		PartitionState state = partitions.computeIfAbsent(partition, p -> new PartitionState());
+		state.pending.addAndGet(records.size());
+		
+		lanes[Math.floorMod(31 * partition.topic().hashCode() + partition.partition(), lanes.length)].execute(() -> {
+			for(ConsumerRecord<Object, Object> record : records) {
+				// records after a failed one are delivered again once the partition is rewound
+				if(state.failed < 0) {
+					if(handle(partition, record)) {
+						state.processed = record.offset() + 1;
+					} else {
+						state.failed = record.offset();
+					}
+				}
+				
+				state.pending.decrementAndGet();
+			}
+		});
+	}
+	
+	/**
+	 * Invokes the listener with the record and sends the record to the dead letter topic if the listener fails.
+	 *
+	 * @return true if the record was handled or dead-lettered
+	 */
+	private boolean handle(TopicPartition partition, ConsumerRecord<Object, Object> record) {
+		try {
+			listener.invoke(record);
+			return true;
+		} catch (Exception e) {
+			log.severe("Error at handling record " + record.offset() + " of " + partition + ". "
+					+ e.getLocalizedMessage());
+		}
+		
+		if(options.getDeadLetterTopic() == null) {
+			return false;
+		}
+		
+		try {
+			KafkaConnector.getInstance().getProducer().send(new ProducerRecord<>(options.getDeadLetterTopic(),
+					record.key(), record.value())).get();
+			return true;
+		} catch (Exception e) {
+			log.severe("Error at sending record " + record.offset() + " of " + partition + " to dead letter topic "
+					+ options.getDeadLetterTopic() + ". " + e.getLocalizedMessage());
+			return false;
+		}
+	}
+	
+	/**
+	 * Rewinds the partitions with a failed record to it, once their thread skipped the records after it, and pauses
+	 * them for the retry backoff.
+	 */
+	private void rewindFailed() {
+		List<TopicPartition> pause = new ArrayList<>();
+		
+		partitions.forEach((partition, state) -> {
+			if(state.failed >= 0 && state.pending.get() == 0) {
+				consumer.seek(partition, state.failed);
+				state.retryAt = System.currentTimeMillis() + options.getRetryBackoff();
+				state.failed = -1;
+				
+				if(!state.paused) {
+					state.paused = true;
+					pause.add(partition);
+				}
+			}
+		});
+		
+		if(!pause.isEmpty()) {
+			consumer.pause(pause);
+		}
+	}
+	
+	/**
+	 * Pauses the partitions with too many pending records and resumes them once half of the records are processed and
+	 * the retry backoff of a rewound partition elapsed.
+	 */
+	private void applyBackpressure() {
+		List<TopicPartition> pause = new ArrayList<>();
+		List<TopicPartition> resume = new ArrayList<>();
+		long now = System.currentTimeMillis();
+		
+		partitions.forEach((partition, state) -> {
+			int pending = state.pending.get();
+			
+			if(!state.paused && pending >= options.getMaxPendingRecords()) {
+				state.paused = true;
+				pause.add(partition);
+			} else if(state.paused && pending <= options.getMaxPendingRecords() / 2 && now >= state.retryAt) {
+				state.paused = false;
+				resume.add(partition);
+			}
+		});
+		
+		if(!pause.isEmpty()) {
+			consumer.pause(pause);
+		}
+		
+		if(!resume.isEmpty()) {
+			consumer.resume(resume);
+		}
+	}
+	
+	/**
+	 * Commits the offsets of the records processed since the last commit. Asynchronous commits do not wait for
+	 * previous commits, since the commits of a consumer are applied in order and every commit covers all records
+	 * processed before it. An offset only counts as committed once the broker acknowledged it, so offsets of a failed
+	 * asynchronous commit are committed again with the next one. Synchronous commits, on revocation and on close,
+	 * commit the processed offset of every partition, whether an asynchronous commit of it is still in flight or not.
+	 */
+	private void commit(boolean sync) {
+		long now = System.currentTimeMillis();
+		
+		if(!sync && now - lastCommit < options.getCommitInterval()) {
+			return;
+		}
+		
+		Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+		
+		partitions.forEach((partition, state) -> {
+			long processed = state.processed;
+			
+			if(processed > state.committed || sync && processed >= 0) {
+				offsets.put(partition, new OffsetAndMetadata(processed));
+			}
+		});
+		
+		lastCommit = now;
+		
+		if(offsets.isEmpty()) {
+			return;
+		}
+		
+		if(sync) {
+			consumer.commitSync(offsets);
+			committed(offsets);
+		} else {
+			// the callback is invoked by the polling thread
+			consumer.commitAsync(offsets, (committed, e) -> {
+				if(e != null) {
+					log.warning("Error at committing offsets " + committed + ". " + e.getLocalizedMessage());
+				} else {
+					committed(committed);
+				}
+			});
+		}
+	}
+	
+	private void committed(Map<TopicPartition, OffsetAndMetadata> offsets) {
+		offsets.forEach((partition, offset) -> {
+			PartitionState state = partitions.get(partition);
+			
+			if(state != null) {
+				state.committed = Math.max(state.committed, offset.offset());
+			}
+		});
+	}
+	
+	/**
+	 * Waits until the pending records of the partitions are processed or the shutdown timeout elapses.
+	 */
+	private void awaitProcessed(Collection<TopicPartition> awaited) {
+		long deadline = System.currentTimeMillis() + options.getShutdownTimeout();
+		
+		for(TopicPartition partition : awaited) {
+			PartitionState state = partitions.get(partition);
+			
+			while(state != null && state.pending.get() > 0) {
+				if(System.currentTimeMillis() > deadline) {
+					log.warning("Records of " + partition + " were not processed before the timeout. They will be "
+							+ "delivered again.");
+					return;
+				}
+				
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+			}
+		}
+	}
+	
+	@Override
+	public void onPartitionsRevoked(Collection<TopicPartition> revoked) {
+		// records of revoked partitions are finished and committed, so the new owner continues after them
+		awaitProcessed(revoked);
+		
+		try {
+			commit(true);
+		} catch (Exception e) {
+			log.warning("Error at committing offsets of revoked partitions " + revoked + ". "
+					+ e.getLocalizedMessage());
+		}
+		
+		revoked.forEach(partitions::remove);
+	}
+	
+	@Override
+	public void onPartitionsAssigned(Collection<TopicPartition> assigned) {
+		assigned.forEach(partition -> partitions.putIfAbsent(partition, new PartitionState()));
+	}
+	
+	/**
+	 * Stops polling, waits for the pending records to be processed and commits their offsets.
+	 */
+	public boolean close() throws InterruptedException {
+		running = false;
+		consumer.wakeup();
+		
+		return stopped.await(options.getShutdownTimeout() * 2, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Returns true once the container stopped polling, after it was closed or could not subscribe to its topic.
+	 */
+	public boolean isStopped() {
+		return stopped.getCount() == 0;
+	}
+	
+	/**
+	 * Returns the number of polls that failed, e.g. on records that could not be deserialized.
+	 */
+	public long getFailedPolls() {
+		return failedPolls;
+	}
+	
+	public KafkaEventListener getListener() {
+		return listener;
+	}
+	
+	public KafkaListenerOptions getOptions() {
+		return options;
+	}
+	
+	private static class PartitionState {
+		
+		private final AtomicInteger pending = new AtomicInteger();
+		private volatile long processed = -1;
+		private volatile long failed = -1;
+		private long committed = -1;
+		private long retryAt;
+		private boolean paused;
+		
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.kafka.consumer;
+
+import java.util.Map;
+
+/**
+ * Options of a Kafka listener.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class KafkaListenerOptions {
+
+	private final String topic;
+	private String groupId;
+	private long pollTimeout;
+	private int concurrency;
+	private int maxPendingRecords;
+	private long commitInterval;
+	private long shutdownTimeout;
+	private long retryBackoff;
+	private String deadLetterTopic;
+	private Map<String, Object> consumerProperties;
+	
+	public KafkaListenerOptions(String topic) {
+		this.topic = topic;
+	}
+	
+	public String getTopic() {
+		return topic;
+	}
+	
+	public String getGroupId() {
+		return groupId;
+	}
+	
+	public void setGroupId(String groupId) {
+		this.groupId = groupId;
+	}
+	
+	/**
+	 * Returns the time in milliseconds a poll waits for records.
+	 */
+	public long getPollTimeout() {
+		return pollTimeout;
+	}
+	
+	public void setPollTimeout(long pollTimeout) {
+		this.pollTimeout = pollTimeout;
+	}
+	
+	/**
+	 * Returns the number of threads records are handled on. Records of a partition are always handled on the same
+	 * thread, in order.
+	 */
+	public int getConcurrency() {
+		return concurrency;
+	}
+	
+	public void setConcurrency(int concurrency) {
+		this.concurrency = concurrency;
+	}
+	
+	/**
+	 * Returns the number of polled, but unprocessed records of a partition above which the partition is paused.
+	 */
+	public int getMaxPendingRecords() {
+		return maxPendingRecords;
+	}
+	
+	public void setMaxPendingRecords(int maxPendingRecords) {
+		this.maxPendingRecords = maxPendingRecords;
+	}
+	
+	/**
+	 * Returns the interval in milliseconds in which the offsets of processed records are committed.
+	 */
+	public long getCommitInterval() {
+		return commitInterval;
+	}
+	
+	public void setCommitInterval(long commitInterval) {
+		this.commitInterval = commitInterval;
+	}
+	
+	public long getShutdownTimeout() {
+		return shutdownTimeout;
+	}
+	
+	public void setShutdownTimeout(long shutdownTimeout) {
+		this.shutdownTimeout = shutdownTimeout;
+	}
+	
+	/**
+	 * Returns the time in milliseconds a partition is paused after a record failed, before the record is delivered
+	 * again.
+	 */
+	public long getRetryBackoff() {
+		return retryBackoff;
+	}
+	
+	public void setRetryBackoff(long retryBackoff) {
+		this.retryBackoff = retryBackoff;
+	}
+	
+	/**
+	 * Returns the topic records the listener failed on are sent to, or null if they are delivered again until the
+	 * listener handles them.
+	 */
+	public String getDeadLetterTopic() {
+		return deadLetterTopic;
+	}
+	
+	public void setDeadLetterTopic(String deadLetterTopic) {
+		this.deadLetterTopic = deadLetterTopic;
+	}
+	
+	public Map<String, Object> getConsumerProperties() {
+		return consumerProperties;
+	}
+	
+	public void setConsumerProperties(Map<String, Object> consumerProperties) {
+		this.consumerProperties = consumerProperties;
+	}
+
+}
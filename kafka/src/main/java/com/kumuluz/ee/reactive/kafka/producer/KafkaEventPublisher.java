@@ -0,0 +1,76 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.kafka.producer;
+
+import com.kumuluz.ee.reactive.kafka.utils.KafkaConnector;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.header.Header;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publisher of records to a Kafka topic. Records are batched by the producer shared by all publishers, so
+ * publishing does not wait for the broker.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class KafkaEventPublisher {
+
+	private final String topic;
+	private final List<Header> headers;
+	
+	public KafkaEventPublisher(String topic, List<Header> headers) {
+		this.topic = topic;
+		this.headers = headers;
+	}
+	
+	public CompletableFuture<RecordMetadata> publish(Object value) {
+		return publish(null, value);
+	}
+	
+	/**
+	 * Publishes the record to the partition of its key.
+	 *
+	 * @return future completed once the record is acknowledged by the broker
+	 */
+	public CompletableFuture<RecordMetadata> publish(Object key, Object value) {
+		CompletableFuture<RecordMetadata> future = new CompletableFuture<>();
+		
+		KafkaConnector.getInstance().getProducer().send(new ProducerRecord<>(topic, null, key, value, headers),
+				(metadata, e) -> {
+					if(e != null) {
+						future.completeExceptionally(e);
+					} else {
+						future.complete(metadata);
+					}
+				});
+		
+		return future;
+	}
+	
+	public String topic() {
+		return topic;
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.kafka.producer;
+
+import com.kumuluz.ee.reactive.common.annotations.ReactiveEventPublisher;
+import com.kumuluz.ee.reactive.common.utils.EventPublisherFactory;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementation of EventPublisherFactory<T> interface for Kafka. The address of the publisher is the topic.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+@ApplicationScoped
+public class KafkaEventPublisherFactory implements EventPublisherFactory<KafkaEventPublisher> {
+
+	@Override
+	public KafkaEventPublisher createEventPublisher(String address) {
+		return new KafkaEventPublisher(address, Collections.emptyList());
+	}
+	
+	@Override
+	public KafkaEventPublisher createEventPublisher(ReactiveEventPublisher annotation) {
+		List<Header> headers = new ArrayList<>();
+		
+		for(String header : annotation.headers()) {
+			int separator = header.indexOf('=');
+			
+			if(separator < 1) {
+				throw new IllegalArgumentException("Invalid header " + header + ". Headers have to be in the form "
+						+ "name=value.");
+			}
+			
+			headers.add(new RecordHeader(header.substring(0, separator).trim(),
+					header.substring(separator + 1).trim().getBytes(StandardCharsets.UTF_8)));
+		}
+		
+		return new KafkaEventPublisher(annotation.address(), Collections.unmodifiableList(headers));
+	}
+
+}
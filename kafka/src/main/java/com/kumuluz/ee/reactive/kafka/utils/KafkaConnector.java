@@ -0,0 +1,115 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.kafka.utils;
+
+import com.kumuluz.ee.reactive.kafka.config.KafkaConfigLoader;
+import com.kumuluz.ee.reactive.kafka.consumer.KafkaListenerContainer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+/**
+ * Holds the Kafka clients of the connector: the listener containers and the producer shared by all publishers.
+ * The clients are closed on shutdown, after the containers have processed and committed their pending records.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class KafkaConnector {
+
+	private static final Logger log = Logger.getLogger(KafkaConnector.class.getName());
+	
+	public static final String BACKEND = "kafka";
+	
+	private static final KafkaConnector instance = new KafkaConnector();
+	
+	private final List<KafkaListenerContainer> containers = new CopyOnWriteArrayList<>();
+	private volatile Producer<Object, Object> producer;
+	private volatile boolean closed;
+	
+	private KafkaConnector() {
+		Runtime.getRuntime().addShutdownHook(new Thread(this::close, "kumuluzee-reactive-kafka-shutdown"));
+	}
+	
+	public static KafkaConnector getInstance() {
+		return instance;
+	}
+	
+	/**
+	 * Starts polling the topic of the container on its own thread.
+	 */
+	public void start(KafkaListenerContainer container) {
+		if(closed) {
+			throw new IllegalStateException("Kafka connector is closed.");
+		}
+		
+		containers.add(container);
+		
+		Thread thread = new Thread(container, "kumuluzee-reactive-kafka-poll-" + container.getOptions().getTopic());
+		thread.start();
+	}
+	
+	/**
+	 * Returns the producer shared by all publishers. Kafka producers are thread safe and batch records of all
+	 * threads, so a single producer gives the best throughput.
+	 */
+	public Producer<Object, Object> getProducer() {
+		if(producer == null) {
+			synchronized(this) {
+				if(producer == null) {
+					producer = new KafkaProducer<>(KafkaConfigLoader.getProducerProperties());
+				}
+			}
+		}
+		
+		return producer;
+	}
+	
+	public void close() {
+		if(closed) {
+			return;
+		}
+		
+		closed = true;
+		
+		for(KafkaListenerContainer container : containers) {
+			try {
+				if(!container.close()) {
+					log.warning("Listener for topic " + container.getOptions().getTopic() + " did not stop before "
+							+ "the timeout.");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		
+		containers.clear();
+		
+		if(producer != null) {
+			producer.close();
+		}
+	}
+
+}
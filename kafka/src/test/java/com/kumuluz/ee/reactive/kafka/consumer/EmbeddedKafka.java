@@ -0,0 +1,165 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.kafka.consumer;
+
+import kafka.server.KafkaConfig;
+import kafka.server.KafkaServerStartable;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.zookeeper.server.ServerCnxnFactory;
+import org.apache.zookeeper.server.ZooKeeperServer;
+import org.junit.rules.ExternalResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Single broker Kafka cluster, with its own ZooKeeper, running in the test JVM.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class EmbeddedKafka extends ExternalResource {
+
+	private Path directory;
+	private ServerCnxnFactory zookeeper;
+	private KafkaServerStartable broker;
+	private KafkaProducer<String, String> producer;
+	private String bootstrapServers;
+	
+	@Override
+	protected void before() throws Exception {
+		directory = Files.createTempDirectory("kumuluzee-reactive-kafka");
+		
+		ZooKeeperServer server = new ZooKeeperServer(directory.resolve("zookeeper").toFile(),
+				directory.resolve("zookeeper").toFile(), 500);
+		zookeeper = ServerCnxnFactory.createFactory(new InetSocketAddress("127.0.0.1", 0), 16);
+		zookeeper.startup(server);
+		
+		int port;
+		
+		try(ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		
+		bootstrapServers = "127.0.0.1:" + port;
+		
+		Properties properties = new Properties();
+		properties.put("broker.id", "0");
+		properties.put("zookeeper.connect", "127.0.0.1:" + zookeeper.getLocalPort());
+		properties.put("listeners", "PLAINTEXT://" + bootstrapServers);
+		properties.put("log.dirs", directory.resolve("kafka").toString());
+		properties.put("auto.create.topics.enable", "false");
+		properties.put("offsets.topic.replication.factor", "1");
+		properties.put("offsets.topic.num.partitions", "1");
+		properties.put("transaction.state.log.replication.factor", "1");
+		properties.put("transaction.state.log.min.isr", "1");
+		properties.put("group.initial.rebalance.delay.ms", "0");
+		
+		broker = new KafkaServerStartable(KafkaConfig.fromProps(properties));
+		broker.startup();
+		
+		Map<String, Object> producerProperties = new HashMap<>();
+		producerProperties.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+		producerProperties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+		producerProperties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+		producer = new KafkaProducer<>(producerProperties);
+	}
+	
+	@Override
+	protected void after() {
+		producer.close();
+		broker.shutdown();
+		broker.awaitShutdown();
+		zookeeper.shutdown();
+		
+		try(Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	public String getBootstrapServers() {
+		return bootstrapServers;
+	}
+	
+	public void createTopic(String topic, int partitions) throws Exception {
+		Map<String, Object> properties = new HashMap<>();
+		properties.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+		
+		try(AdminClient admin = AdminClient.create(properties)) {
+			admin.createTopics(Collections.singletonList(new NewTopic(topic, partitions, (short) 1))).all().get();
+		}
+	}
+	
+	/**
+	 * Sends the record to the partition and waits until the broker acknowledged it.
+	 */
+	public void send(String topic, int partition, String value) throws Exception {
+		producer.send(new ProducerRecord<>(topic, partition, null, value)).get();
+	}
+	
+	/**
+	 * Returns the offset the group committed for the partition, or -1 if it has not committed one.
+	 */
+	public long committed(String groupId, TopicPartition partition) {
+		try(KafkaConsumer<String, String> consumer = new KafkaConsumer<>(consumerProperties(groupId))) {
+			OffsetAndMetadata offset = consumer.committed(partition);
+			
+			return offset == null ? -1 : offset.offset();
+		}
+	}
+	
+	public Map<String, Object> consumerProperties(String groupId) {
+		Map<String, Object> properties = new HashMap<>();
+		properties.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+		properties.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+		properties.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+		properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+		properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+		properties.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+		
+		return properties;
+	}
+
+}
@@ -0,0 +1,296 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs listener containers against an embedded broker.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class KafkaListenerContainerTest {
+
+	private static final long TIMEOUT = 60000;
+	
+	@ClassRule
+	public static final EmbeddedKafka kafka = new EmbeddedKafka();
+	
+	@Test
+	public void handlesRecordsOfAPartitionInOrder() throws Exception {
+		String topic = "ordering";
+		kafka.createTopic(topic, 4);
+		
+		for(int i = 0; i < 200; i++) {
+			for(int partition = 0; partition < 4; partition++) {
+				kafka.send(topic, partition, String.valueOf(i));
+			}
+		}
+		
+		RecordingListener listener = new RecordingListener(0);
+		KafkaListenerContainer container = start(listener, options(topic, "ordering", 3, 1000, 100));
+		
+		await(() -> listener.count() == 800);
+		Assert.assertTrue(container.close());
+		
+		for(int partition = 0; partition < 4; partition++) {
+			assertSequence(listener.values(partition), 200);
+			Assert.assertEquals(200, kafka.committed("ordering", new TopicPartition(topic, partition)));
+		}
+	}
+	
+	@Test
+	public void resumesPausedPartitions() throws Exception {
+		String topic = "backpressure";
+		kafka.createTopic(topic, 2);
+		
+		for(int i = 0; i < 300; i++) {
+			kafka.send(topic, i % 2, String.valueOf(i / 2));
+		}
+		
+		// every poll returns more records than may be pending, so both partitions are paused and resumed repeatedly
+		KafkaListenerOptions options = options(topic, "backpressure", 2, 10, 100);
+		options.getConsumerProperties().put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 50);
+		
+		RecordingListener listener = new RecordingListener(2);
+		KafkaListenerContainer container = start(listener, options);
+		
+		await(() -> listener.count() == 300);
+		Assert.assertTrue(container.close());
+		
+		for(int partition = 0; partition < 2; partition++) {
+			assertSequence(listener.values(partition), 150);
+			Assert.assertEquals(150, kafka.committed("backpressure", new TopicPartition(topic, partition)));
+		}
+	}
+	
+	@Test
+	public void commitsRevokedPartitionsOnRebalance() throws Exception {
+		String topic = "rebalance";
+		kafka.createTopic(topic, 2);
+		
+		// periodic commits are effectively disabled, so only the commits on revocation tell the new owner where to
+		// continue and any record handled twice means a revoked partition was not committed
+		RecordingListener first = new RecordingListener(1);
+		KafkaListenerContainer firstContainer = start(first, options(topic, "rebalance", 2, 1000, TIMEOUT));
+		
+		int sent = 0;
+		
+		for(; sent < 50; sent++) {
+			kafka.send(topic, sent % 2, String.valueOf(sent / 2));
+		}
+		
+		await(() -> first.count() == 50);
+		
+		RecordingListener second = new RecordingListener(1);
+		KafkaListenerContainer secondContainer = start(second, options(topic, "rebalance", 2, 1000, TIMEOUT));
+		
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		
+		while(second.count() == 0 || sent < 200) {
+			Assert.assertTrue("Partitions were not rebalanced.", System.currentTimeMillis() < deadline);
+			
+			kafka.send(topic, sent % 2, String.valueOf(sent / 2));
+			sent++;
+			
+			Thread.sleep(5);
+		}
+		
+		int total = sent;
+		await(() -> first.count() + second.count() == total);
+		
+		Assert.assertTrue(firstContainer.close());
+		Assert.assertTrue(secondContainer.close());
+		
+		for(int partition = 0; partition < 2; partition++) {
+			List<Long> offsets = new ArrayList<>(first.offsets(partition));
+			offsets.addAll(second.offsets(partition));
+			
+			long expected = (total + 1 - partition) / 2;
+			
+			Assert.assertEquals("Records were handled more than once.", expected, new HashSet<>(offsets).size());
+			Assert.assertEquals("Records were handled more than once.", expected, offsets.size());
+			Assert.assertEquals(expected, kafka.committed("rebalance", new TopicPartition(topic, partition)));
+		}
+	}
+	
+	@Test
+	public void redeliversRecordsTheListenerFailedOn() throws Exception {
+		String topic = "failures";
+		kafka.createTopic(topic, 2);
+		
+		for(int i = 0; i < 200; i++) {
+			kafka.send(topic, i % 2, String.valueOf(i / 2));
+		}
+		
+		// fails twice on a record of the first partition and once on a record of the second one
+		RecordingListener listener = new RecordingListener(0);
+		listener.failOn(0, "40", 2);
+		listener.failOn(1, "70", 1);
+		
+		KafkaListenerContainer container = start(listener, options(topic, "failures", 2, 1000, 100));
+		
+		await(() -> listener.count() == 200);
+		Assert.assertTrue(container.close());
+		Assert.assertEquals(3, listener.failures());
+		
+		for(int partition = 0; partition < 2; partition++) {
+			// neither skipped nor handled twice, the records after a failed one were only handled after it
+			assertSequence(listener.values(partition), 100);
+			Assert.assertEquals(100, kafka.committed("failures", new TopicPartition(topic, partition)));
+		}
+	}
+	
+	private static KafkaListenerOptions options(String topic, String groupId, int concurrency, int maxPendingRecords,
+			long commitInterval) {
+		KafkaListenerOptions options = new KafkaListenerOptions(topic);
+		options.setGroupId(groupId);
+		options.setPollTimeout(100);
+		options.setConcurrency(concurrency);
+		options.setMaxPendingRecords(maxPendingRecords);
+		options.setCommitInterval(commitInterval);
+		options.setShutdownTimeout(TIMEOUT);
+		options.setRetryBackoff(100);
+		options.setConsumerProperties(kafka.consumerProperties(groupId));
+		
+		return options;
+	}
+	
+	private static KafkaListenerContainer start(RecordingListener listener, KafkaListenerOptions options)
+			throws Exception {
+		KafkaEventListener eventListener = new KafkaEventListener(options.getTopic(),
+				RecordingListener.class.getMethod("onRecord", ConsumerRecord.class), listener);
+		KafkaListenerContainer container = new KafkaListenerContainer(eventListener, options);
+		
+		new Thread(container, "kafka-listener-container-test").start();
+		
+		return container;
+	}
+	
+	private static void assertSequence(List<String> values, int count) {
+		Assert.assertEquals(count, values.size());
+		
+		for(int i = 0; i < count; i++) {
+			Assert.assertEquals(String.valueOf(i), values.get(i));
+		}
+	}
+	
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		
+		while(!condition.getAsBoolean()) {
+			Assert.assertTrue("Records were not handled before the timeout.", System.currentTimeMillis() < deadline);
+			
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+	}
+	
+	public static class RecordingListener {
+		
+		private final long delay;
+		private final AtomicInteger count = new AtomicInteger();
+		private final AtomicInteger failures = new AtomicInteger();
+		private final Map<String, AtomicInteger> failing = new ConcurrentHashMap<>();
+		private final Map<Integer, List<ConsumerRecord<Object, Object>>> records = new ConcurrentHashMap<>();
+		
+		public RecordingListener(long delay) {
+			this.delay = delay;
+		}
+		
+		/**
+		 * Makes the listener throw the given number of times on the record with the value in the partition.
+		 */
+		public void failOn(int partition, String value, int times) {
+			failing.put(partition + "/" + value, new AtomicInteger(times));
+		}
+		
+		public void onRecord(ConsumerRecord<Object, Object> record) throws InterruptedException {
+			if(delay > 0) {
+				TimeUnit.MILLISECONDS.sleep(delay);
+			}
+			
+			AtomicInteger remaining = failing.get(record.partition() + "/" + record.value());
+			
+			if(remaining != null && remaining.getAndDecrement() > 0) {
+				failures.incrementAndGet();
+				throw new IllegalStateException("Failing on record " + record.offset() + ".");
+			}
+			
+			records.computeIfAbsent(record.partition(), p -> Collections.synchronizedList(new ArrayList<>()))
+					.add(record);
+			count.incrementAndGet();
+		}
+		
+		public int count() {
+			return count.get();
+		}
+		
+		public int failures() {
+			return failures.get();
+		}
+		
+		public List<String> values(int partition) {
+			List<String> values = new ArrayList<>();
+			
+			for(ConsumerRecord<Object, Object> record : records(partition)) {
+				values.add((String) record.value());
+			}
+			
+			return values;
+		}
+		
+		public List<Long> offsets(int partition) {
+			List<Long> offsets = new ArrayList<>();
+			
+			for(ConsumerRecord<Object, Object> record : records(partition)) {
+				offsets.add(record.offset());
+			}
+			
+			return offsets;
+		}
+		
+		private List<ConsumerRecord<Object, Object>> records(int partition) {
+			List<ConsumerRecord<Object, Object>> handled = records.getOrDefault(partition, Collections.emptyList());
+			
+			synchronized (handled) {
+				return new ArrayList<>(handled);
+			}
+		}
+		
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.config;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Util class for getting the options of the local ring buffer backend.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class LocalConfigLoader {
+
+	private static final Logger log = Logger.getLogger(LocalConfigLoader.class.getName());
+	
+	public static final String PREFIX = "kumuluzee.reactive.local.";
+	
+	public static final int DEFAULT_RING_BUFFER_SIZE = 1024;
+	public static final String DEFAULT_WAIT_STRATEGY = "blocking";
+	public static final long DEFAULT_SHUTDOWN_TIMEOUT = 10000;
+	
+	/**
+	 * Returns the number of entries of the ring buffer of every address, rounded up to a power of 2.
+	 */
+	public static int getRingBufferSize(String address) {
+		int size = getPositiveInteger(PREFIX + "addresses." + address + ".ring-buffer-size")
+				.orElseGet(() -> getPositiveInteger(PREFIX + "ring-buffer-size").orElse(DEFAULT_RING_BUFFER_SIZE));
+		
+		int powerOfTwo = Integer.highestOneBit(size);
+		return powerOfTwo == size ? size : powerOfTwo << 1;
+	}
+	
+	/**
+	 * Returns the name of the strategy listeners use to wait for messages: blocking, sleeping, yielding or busy-spin.
+	 */
+	public static String getWaitStrategy() {
+		return ConfigurationUtil.getInstance().get(PREFIX + "wait-strategy").orElse(DEFAULT_WAIT_STRATEGY);
+	}
+	
+	/**
+	 * Returns the time in milliseconds listeners are given on shutdown to process the messages already published.
+	 */
+	public static long getShutdownTimeout() {
+		return ConfigurationUtil.getInstance().getLong(PREFIX + "shutdown-timeout")
+				.filter(value -> isValid(PREFIX + "shutdown-timeout", value > 0, value))
+				.orElse(DEFAULT_SHUTDOWN_TIMEOUT);
+	}
+	
+	private static Optional<Integer> getPositiveInteger(String key) {
+		return ConfigurationUtil.getInstance().getInteger(key)
+				.filter(value -> isValid(key, value > 0 && value <= 1 << 30, value));
+	}
+	
+	private static boolean isValid(String key, boolean valid, Object value) {
+		if (!valid) {
+			log.warning("Invalid value " + value + " for " + key + ". Using default value.");
+		}
+		return valid;
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.eventbus;
+
+import com.kumuluz.ee.reactive.local.config.LocalConfigLoader;
+import com.kumuluz.ee.reactive.local.ringbuffer.LocalBatchEventProcessor;
+import com.kumuluz.ee.reactive.local.ringbuffer.LocalEventHandler;
+import com.kumuluz.ee.reactive.local.ringbuffer.LocalRingBuffer;
+import com.kumuluz.ee.reactive.local.ringbuffer.LocalWaitStrategy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * In-JVM event bus backed by a ring buffer per address. Every listener of an address consumes the ring buffer on
+ * its own thread, so every message is published to all listeners of its address, in the order of publishing.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class LocalEventBus {
+
+	private static final Logger log = Logger.getLogger(LocalEventBus.class.getName());
+	
+	private static final LocalEventBus instance = new LocalEventBus();
+	
+	private final Map<String, LocalRingBuffer<LocalMessage>> ringBuffers = new ConcurrentHashMap<>();
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	
+	private volatile boolean closed;
+	
+	private LocalEventBus() {
+		Runtime.getRuntime().addShutdownHook(new Thread(this::close, "kumuluzee-reactive-local-shutdown"));
+	}
+	
+	public static LocalEventBus getInstance() {
+		return instance;
+	}
+	
+	/**
+	 * Publishes the message to all listeners of the address, waiting while the ring buffer of the address is full.
+	 */
+	public void publish(String address, Object body, Map<String, String> headers) {
+		LocalRingBuffer<LocalMessage> ringBuffer = getRingBuffer(address);
+		publish(ringBuffer, ringBuffer.next(), address, body, headers);
+	}
+	
+	/**
+	 * Publishes the message to all listeners of the address, unless the ring buffer of the address is full.
+	 *
+	 * @return false if the ring buffer is full and the message was not published
+	 */
+	public boolean tryPublish(String address, Object body, Map<String, String> headers) {
+		LocalRingBuffer<LocalMessage> ringBuffer = getRingBuffer(address);
+		long sequence = ringBuffer.tryNext();
+		
+		if(sequence < 0) {
+			return false;
+		}
+		
+		publish(ringBuffer, sequence, address, body, headers);
+		return true;
+	}
+	
+	private void publish(LocalRingBuffer<LocalMessage> ringBuffer, long sequence, String address, Object body,
+			Map<String, String> headers) {
+		try {
+			ringBuffer.get(sequence).set(address, body, headers);
+		} finally {
+			// a claimed sequence has to be published, otherwise the listeners would stall on it
+			ringBuffer.publish(sequence);
+		}
+	}
+	
+	/**
+	 * Starts a listener of the address on its own thread.
+	 */
+	public void listen(String address, String name, LocalEventHandler<LocalMessage> handler) {
+		if(closed) {
+			throw new IllegalStateException("Local event bus is closed.");
+		}
+		
+		LocalBatchEventProcessor<LocalMessage> processor = new LocalBatchEventProcessor<>(getRingBuffer(address),
+				handler);
+		
+		Thread thread = new Thread(processor, "kumuluzee-reactive-local-" + address + "-" + name);
+		thread.setDaemon(true);
+		thread.start();
+		
+		listeners.add(new Listener(address, name, handler, processor));
+	}
+	
+	public LocalRingBuffer<LocalMessage> getRingBuffer(String address) {
+		return ringBuffers.computeIfAbsent(address, a -> new LocalRingBuffer<>(LocalConfigLoader.getRingBufferSize(a),
+				LocalMessage::new, LocalWaitStrategy.forName(LocalConfigLoader.getWaitStrategy())));
+	}
+	
+	/**
+	 * Stops the listeners after they have processed the messages already published.
+	 */
+	public void close() {
+		if(closed) {
+			return;
+		}
+		
+		closed = true;
+		long deadline = System.currentTimeMillis() + LocalConfigLoader.getShutdownTimeout();
+		
+		for(Listener listener : listeners) {
+			try {
+				long timeout = Math.max(0, deadline - System.currentTimeMillis());
+				
+				if(!listener.processor.halt(timeout, TimeUnit.MILLISECONDS)) {
+					log.warning("Listener " + listener.name + " for address " + listener.address
+							+ " did not process all messages before shutdown.");
+				} else if(listener.handler instanceof LocalEventListener) {
+					((LocalEventListener) listener.handler).release();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		
+		listeners.clear();
+	}
+	
+	private static class Listener {
+		
+		private final String address;
+		private final String name;
+		private final LocalEventHandler<LocalMessage> handler;
+		private final LocalBatchEventProcessor<LocalMessage> processor;
+		
+		private Listener(String address, String name, LocalEventHandler<LocalMessage> handler,
+				LocalBatchEventProcessor<LocalMessage> processor) {
+			this.address = address;
+			this.name = name;
+			this.handler = handler;
+			this.processor = processor;
+		}
+		
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.eventbus;
+
+import com.kumuluz.ee.reactive.local.ringbuffer.LocalEventHandler;
+
+import javax.enterprise.context.spi.CreationalContext;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.logging.Logger;
+
+/**
+ * Listener of the local event bus invoking a ReactiveEventListener method. The method either takes a LocalMessage
+ * or the message body, in which case messages with bodies of other types are skipped.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class LocalEventListener implements LocalEventHandler<LocalMessage> {
+
+	private static final Logger log = Logger.getLogger(LocalEventListener.class.getName());
+	
+	private final String address;
+	private final Method method;
+	private final Object instance;
+	private final boolean messageParameter;
+	private final Class<?> bodyType;
+	
+	private CreationalContext<?> creationalContext;
+	private long skipped;
+	
+	public LocalEventListener(String address, Method method, Object instance) {
+		if(method.getParameterCount() != 1) {
+			throw new IllegalArgumentException("Listener method has to take exactly one parameter.");
+		}
+		
+		this.address = address;
+		this.method = method;
+		this.instance = instance;
+		this.messageParameter = method.getParameterTypes()[0] == LocalMessage.class;
+		this.bodyType = box(method.getParameterTypes()[0]);
+		
+		method.setAccessible(true);
+	}
+	
+	@Override
+	public void onEvent(LocalMessage message, long sequence, boolean endOfBatch) throws Exception {
+		Object argument = messageParameter ? message : message.body();
+		
+		if(!messageParameter && argument != null && !bodyType.isInstance(argument)) {
+			if(skipped++ == 0) {
+				log.warning("Listener " + method.getName() + " for address " + address + " skipped a message with a "
+						+ "body of type " + argument.getClass().getName() + ".");
+			}
+			return;
+		}
+		
+		try {
+			method.invoke(instance, argument);
+		} catch (InvocationTargetException e) {
+			throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+		}
+	}
+	
+	public void setCreationalContext(CreationalContext<?> creationalContext) {
+		this.creationalContext = creationalContext;
+	}
+	
+	/**
+	 * Destroys the dependent listener instance.
+	 */
+	public void release() {
+		if(creationalContext != null) {
+			creationalContext.release();
+		}
+	}
+	
+	public String getAddress() {
+		return address;
+	}
+	
+	public Method getMethod() {
+		return method;
+	}
+	
+	private static Class<?> box(Class<?> type) {
+		if(!type.isPrimitive()) {
+			return type;
+		} else if(type == int.class) {
+			return Integer.class;
+		} else if(type == long.class) {
+			return Long.class;
+		} else if(type == double.class) {
+			return Double.class;
+		} else if(type == boolean.class) {
+			return Boolean.class;
+		} else if(type == float.class) {
+			return Float.class;
+		} else if(type == short.class) {
+			return Short.class;
+		} else if(type == byte.class) {
+			return Byte.class;
+		} else {
+			return Character.class;
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.eventbus;
+
+import com.kumuluz.ee.reactive.common.annotations.ReactiveEventListener;
+import com.kumuluz.ee.reactive.common.utils.EventListenerFactory;
+import com.kumuluz.ee.reactive.common.utils.EventListenerInitExtension;
+import com.kumuluz.ee.reactive.common.utils.EventListenerInstance;
+import com.kumuluz.ee.reactive.common.utils.EventListenerReference;
+import com.kumuluz.ee.reactive.common.utils.ReactiveBackend;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.AfterDeploymentValidation;
+import javax.enterprise.inject.spi.BeanManager;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Implementation of EventListenerInitExtension interface for the local event bus.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class LocalEventListenerInitExtension implements EventListenerInitExtension {
+
+	private static final Logger log = Logger.getLogger(LocalEventListenerInitExtension.class.getName());
+	
+	public static final String BACKEND = "local";
+	
+	private static final String[] FOREIGN_PACKAGES = { "io.vertx.", "org.apache.kafka." };
+	
+	EventListenerFactory<LocalEventListener> localEventListenerFactory;
+	
+	@Override
+	public <X> void after(@Observes AfterDeploymentValidation adv, BeanManager bm) {
+		
+		if(!ReactiveBackend.isSelected(BACKEND)) {
+			return;
+		}
+		
+		log.info("Initializing local event bus.");
+		localEventListenerFactory = new LocalEventListenerFactory();
+		
+		for(EventListenerInstance listenerInstance : getOwnedListeners(adv)) {
+			ReactiveEventListener annotation = listenerInstance.getAnnotation();
+			Method method = listenerInstance.getMethod();
+			
+			String address = annotation.address();
+			
+			if(annotation.partitions() > 1 || annotation.filter().length > 0) {
+				log.warning("Listener " + method.getName() + " for address " + address + " is partitioned or "
+						+ "filtered, which is not supported by the local event bus. All messages are delivered.");
+			}
+			
+			try {
+				LocalEventBus.getInstance().listen(address, method.getName(),
+						createEventListener(bm, listenerInstance, address));
+			} catch (IllegalArgumentException e) {
+				adv.addDeploymentProblem(new IllegalArgumentException("Invalid listener " + method.getName()
+						+ " for address " + address + ". " + e.getLocalizedMessage(), e));
+			}
+		}
+	}
+	
+	@Override
+	public String getBackend() {
+		return BACKEND;
+	}
+	
+	/**
+	 * Handles every listener, except the ones taking Vert.x messages or Kafka records.
+	 */
+	@Override
+	public boolean handles(Method method) {
+		if(method.getParameterCount() != 1) {
+			return true;
+		}
+		
+		String type = method.getParameterTypes()[0].getName();
+		return Arrays.stream(FOREIGN_PACKAGES).noneMatch(type::startsWith);
+	}
+	
+	private LocalEventListener createEventListener(BeanManager bm, EventListenerInstance listenerInstance,
+			String address) {
+		EventListenerReference reference = getReference(bm, listenerInstance);
+		
+		LocalEventListener localEventListener = localEventListenerFactory.createEventListener(reference.get(),
+				address, listenerInstance.getMethod());
+		localEventListener.setCreationalContext(reference.getCreationalContext());
+		
+		return localEventListener;
+	}
+
+}
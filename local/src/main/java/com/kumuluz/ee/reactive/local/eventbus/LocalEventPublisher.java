@@ -0,0 +1,64 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.eventbus;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Publisher of messages to an address of the local event bus.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class LocalEventPublisher {
+
+	private final String address;
+	private final Map<String, String> headers;
+	
+	public LocalEventPublisher(String address, Map<String, String> headers) {
+		this.address = address;
+		this.headers = headers.isEmpty() ? null : Collections.unmodifiableMap(headers);
+	}
+	
+	/**
+	 * Publishes the message to all listeners of the address, waiting while the listeners are behind by more than the
+	 * size of the ring buffer.
+	 */
+	public LocalEventPublisher publish(Object body) {
+		LocalEventBus.getInstance().publish(address, body, headers);
+		return this;
+	}
+	
+	/**
+	 * Publishes the message to all listeners of the address, without waiting for the listeners.
+	 *
+	 * @return false if the ring buffer of the address is full and the message was not published
+	 */
+	public boolean tryPublish(Object body) {
+		return LocalEventBus.getInstance().tryPublish(address, body, headers);
+	}
+	
+	public String address() {
+		return address;
+	}
+
+}
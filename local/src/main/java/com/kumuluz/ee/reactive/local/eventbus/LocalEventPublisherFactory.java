@@ -0,0 +1,71 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.eventbus;
+
+import com.kumuluz.ee.reactive.common.annotations.ReactiveEventPublisher;
+import com.kumuluz.ee.reactive.common.utils.EventPublisherFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Implementation of EventPublisherFactory<T> interface for the local event bus.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+@ApplicationScoped
+public class LocalEventPublisherFactory implements EventPublisherFactory<LocalEventPublisher> {
+
+	private static final Logger log = Logger.getLogger(LocalEventPublisherFactory.class.getName());
+	
+	@Override
+	public LocalEventPublisher createEventPublisher(String address) {
+		return new LocalEventPublisher(address, Collections.emptyMap());
+	}
+	
+	@Override
+	public LocalEventPublisher createEventPublisher(ReactiveEventPublisher annotation) {
+		if(annotation.send() || annotation.partitions() > 1) {
+			log.warning("Publisher for address " + annotation.address() + " is sending or partitioned, which is not "
+					+ "supported by the local event bus. Messages are published to all listeners.");
+		}
+		
+		Map<String, String> headers = new HashMap<>();
+		
+		for(String header : annotation.headers()) {
+			int separator = header.indexOf('=');
+			
+			if(separator < 1) {
+				throw new IllegalArgumentException("Invalid header " + header + ". Headers have to be in the form "
+						+ "name=value.");
+			}
+			
+			headers.put(header.substring(0, separator).trim(), header.substring(separator + 1).trim());
+		}
+		
+		return new LocalEventPublisher(annotation.address(), headers);
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.eventbus;
+
+import com.kumuluz.ee.reactive.common.annotations.ReactiveEventPublisher;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Produces;
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.inject.Inject;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Producer for ReactiveEventPublisher annotation on the local event bus.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+@ApplicationScoped
+public class LocalEventPublisherProducer {
+
+	private Map<ReactiveEventPublisher, LocalEventPublisher> publishers = new ConcurrentHashMap<>();
+	
+	@Inject
+	private LocalEventPublisherFactory localEventPublisherFactory;
+	
+	@Produces
+	@ReactiveEventPublisher
+	public LocalEventPublisher getPublisher(InjectionPoint injectionPoint) {
+		ReactiveEventPublisher annotation = injectionPoint.getAnnotated().getAnnotation(ReactiveEventPublisher.class);
+		
+		return publishers.computeIfAbsent(annotation, localEventPublisherFactory::createEventPublisher);
+	}
+	
+}
@@ -0,0 +1,62 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.eventbus;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Message published on the local event bus. Messages are entries of the ring buffer of their address and are reused
+ * once every listener has processed them, so a listener must not keep a reference to a message after it returns.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class LocalMessage {
+
+	private String address;
+	private Object body;
+	private Map<String, String> headers;
+	
+	void set(String address, Object body, Map<String, String> headers) {
+		this.address = address;
+		this.body = body;
+		this.headers = headers;
+	}
+	
+	public String address() {
+		return address;
+	}
+	
+	public Object body() {
+		return body;
+	}
+	
+	public Map<String, String> headers() {
+		return headers == null ? Collections.emptyMap() : headers;
+	}
+	
+	@Override
+	public String toString() {
+		return "LocalMessage{address=" + address + ", body=" + body + ", headers=" + headers() + "}";
+	}
+
+}
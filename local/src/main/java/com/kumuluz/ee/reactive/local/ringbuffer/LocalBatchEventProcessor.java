@@ -0,0 +1,110 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.ringbuffer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Consumer of a ring buffer running on its own thread. Waits for published entries, hands every available entry
+ * to the handler and advances its sequence once per batch, so a consumer that falls behind catches up without
+ * paying for a memory barrier per entry.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class LocalBatchEventProcessor<E> implements Runnable {
+
+	private static final Logger log = Logger.getLogger(LocalBatchEventProcessor.class.getName());
+	
+	private final LocalRingBuffer<E> ringBuffer;
+	private final LocalEventHandler<E> handler;
+	private final LocalSequence sequence = new LocalSequence(-1);
+	private final CountDownLatch stopped = new CountDownLatch(1);
+	
+	private volatile boolean running = true;
+	
+	public LocalBatchEventProcessor(LocalRingBuffer<E> ringBuffer, LocalEventHandler<E> handler) {
+		this.ringBuffer = ringBuffer;
+		this.handler = handler;
+		
+		ringBuffer.addGatingSequence(sequence);
+	}
+	
+	@Override
+	public void run() {
+		long nextSequence = sequence.get() + 1;
+		
+		try {
+			while(true) {
+				long availableSequence = ringBuffer.getWaitStrategy().waitFor(nextSequence, ringBuffer.getCursor(),
+						() -> running);
+				
+				if(availableSequence < nextSequence) {
+					// the cursor may have been read before entries published ahead of the halt, so it is read again
+					availableSequence = ringBuffer.getCursor().get();
+				}
+				
+				if(availableSequence < nextSequence) {
+					// halted, everything published before the halt has been processed
+					break;
+				}
+				
+				availableSequence = ringBuffer.getHighestPublishedSequence(nextSequence, availableSequence);
+				
+				while(nextSequence <= availableSequence) {
+					try {
+						handler.onEvent(ringBuffer.get(nextSequence), nextSequence,
+								nextSequence == availableSequence);
+					} catch (Exception e) {
+						log.severe("Error at handling entry " + nextSequence + ". " + e.getLocalizedMessage());
+					}
+					
+					nextSequence++;
+				}
+				
+				// single writer, an ordered write is enough to release the entries to the publishers
+				sequence.set(availableSequence);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			ringBuffer.removeGatingSequence(sequence);
+			stopped.countDown();
+		}
+	}
+	
+	/**
+	 * Stops the processor once it has processed the entries published so far and waits for it to stop.
+	 */
+	public boolean halt(long timeout, TimeUnit unit) throws InterruptedException {
+		running = false;
+		ringBuffer.getWaitStrategy().signalAllWhenBlocking();
+		
+		return stopped.await(timeout, unit);
+	}
+	
+	public LocalSequence getSequence() {
+		return sequence;
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.ringbuffer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Wait strategy blocking consumers on a condition. Publishers only take the lock when a consumer is actually
+ * waiting, so the publishing path stays lock free while consumers keep up.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class LocalBlockingWaitStrategy implements LocalWaitStrategy {
+
+	private static final long TIMEOUT_MILLIS = 100;
+	
+	private final Lock lock = new ReentrantLock();
+	private final Condition published = lock.newCondition();
+	private final AtomicBoolean signalNeeded = new AtomicBoolean(false);
+	
+	@Override
+	public long waitFor(long sequence, LocalSequence cursor, BooleanSupplier running) throws InterruptedException {
+		long available;
+		
+		while((available = cursor.get()) < sequence && running.getAsBoolean()) {
+			lock.lock();
+			
+			try {
+				signalNeeded.set(true);
+				
+				// re-checked under the lock, so a publish between the check and the await is not missed
+				if(cursor.get() < sequence && running.getAsBoolean()) {
+					// the timeout bounds the wait for a halt, which does not publish
+					published.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		
+		return available;
+	}
+
+	@Override
+	public void signalAllWhenBlocking() {
+		if(signalNeeded.getAndSet(false)) {
+			lock.lock();
+			
+			try {
+				published.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.ringbuffer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Lock free ring buffer of preallocated entries. Publishers claim sequences with a compare-and-set on the cursor,
+ * fill the entry and mark it available. Every consumer tracks its progress in its own sequence, which gates the
+ * publishers, so that an entry is not overwritten before all consumers have processed it. Apart from the claim,
+ * every sequence has a single writer, so no locks are taken on the publishing or the consuming path.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class LocalRingBuffer<E> {
+
+	private final int bufferSize;
+	private final int indexMask;
+	private final int indexShift;
+	private final Object[] entries;
+	private final AtomicIntegerArray availableBuffer;
+	private final LocalWaitStrategy waitStrategy;
+	
+	private final LocalSequence cursor = new LocalSequence(-1);
+	private final LocalSequence gatingSequenceCache = new LocalSequence(-1);
+	private volatile LocalSequence[] gatingSequences = new LocalSequence[0];
+	
+	public LocalRingBuffer(int bufferSize, Supplier<E> factory, LocalWaitStrategy waitStrategy) {
+		if(bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+			throw new IllegalArgumentException("Ring buffer size has to be a power of 2, but was " + bufferSize);
+		}
+		
+		this.bufferSize = bufferSize;
+		this.indexMask = bufferSize - 1;
+		this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+		this.entries = new Object[bufferSize];
+		this.availableBuffer = new AtomicIntegerArray(bufferSize);
+		this.waitStrategy = waitStrategy;
+		
+		for(int i = 0; i < bufferSize; i++) {
+			entries[i] = factory.get();
+			availableBuffer.lazySet(i, -1);
+		}
+	}
+	
+	/**
+	 * Claims the next sequence, parking while the buffer is full.
+	 */
+	public long next() {
+		long sequence;
+		
+		while((sequence = tryNext()) < 0) {
+			LockSupport.parkNanos(1);
+		}
+		
+		return sequence;
+	}
+	
+	/**
+	 * Claims the next sequence.
+	 *
+	 * @return the claimed sequence or -1 if the buffer is full
+	 */
+	public long tryNext() {
+		while(true) {
+			long current = cursor.get();
+			long next = current + 1;
+			long wrapPoint = next - bufferSize;
+			long cachedGatingSequence = gatingSequenceCache.get();
+			
+			if(wrapPoint > cachedGatingSequence || cachedGatingSequence > current) {
+				long gatingSequence = LocalSequence.getMinimum(gatingSequences, current);
+				
+				if(wrapPoint > gatingSequence) {
+					return -1;
+				}
+				
+				gatingSequenceCache.set(gatingSequence);
+			} else if(cursor.compareAndSet(current, next)) {
+				return next;
+			}
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	public E get(long sequence) {
+		return (E) entries[(int) sequence & indexMask];
+	}
+	
+	/**
+	 * Makes the entry at the claimed sequence visible to consumers.
+	 */
+	public void publish(long sequence) {
+		availableBuffer.lazySet((int) sequence & indexMask, (int) (sequence >>> indexShift));
+		waitStrategy.signalAllWhenBlocking();
+	}
+	
+	public boolean isAvailable(long sequence) {
+		return availableBuffer.get((int) sequence & indexMask) == (int) (sequence >>> indexShift);
+	}
+	
+	/**
+	 * Returns the highest sequence up to which all entries have been published, since publishers may complete their
+	 * claims out of order.
+	 */
+	public long getHighestPublishedSequence(long lowerBound, long availableSequence) {
+		for(long sequence = lowerBound; sequence <= availableSequence; sequence++) {
+			if(!isAvailable(sequence)) {
+				return sequence - 1;
+			}
+		}
+		
+		return availableSequence;
+	}
+	
+	/**
+	 * Adds a consumer sequence. The sequence starts at the current cursor, so the consumer only sees entries
+	 * published after it was added.
+	 */
+	public synchronized void addGatingSequence(LocalSequence sequence) {
+		sequence.setVolatile(cursor.get());
+		
+		LocalSequence[] sequences = Arrays.copyOf(gatingSequences, gatingSequences.length + 1);
+		sequences[sequences.length - 1] = sequence;
+		gatingSequences = sequences;
+		
+		// the cursor may have moved while the sequence was added
+		sequence.setVolatile(cursor.get());
+	}
+	
+	public synchronized void removeGatingSequence(LocalSequence sequence) {
+		gatingSequences = Arrays.stream(gatingSequences).filter(s -> s != sequence).toArray(LocalSequence[]::new);
+	}
+	
+	public LocalSequence getCursor() {
+		return cursor;
+	}
+	
+	public LocalWaitStrategy getWaitStrategy() {
+		return waitStrategy;
+	}
+	
+	public int getBufferSize() {
+		return bufferSize;
+	}
+	
+	/**
+	 * Returns the number of entries published or claimed, but not yet processed by all consumers.
+	 */
+	public long getBacklog() {
+		long current = cursor.get();
+		return current - LocalSequence.getMinimum(gatingSequences, current);
+	}
+
+}
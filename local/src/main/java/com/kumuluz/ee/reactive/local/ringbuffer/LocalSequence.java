@@ -0,0 +1,81 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.ringbuffer;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Sequence of a ring buffer cursor or consumer. Each sequence is written by a single thread only, so it is updated
+ * with ordered writes instead of compare-and-set, and padded to its own cache line to avoid false sharing with
+ * neighbouring sequences.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class LocalSequence {
+
+	private static final AtomicLongFieldUpdater<LocalSequence> VALUE =
+			AtomicLongFieldUpdater.newUpdater(LocalSequence.class, "value");
+	
+	protected long p1, p2, p3, p4, p5, p6, p7;
+	private volatile long value;
+	protected long p9, p10, p11, p12, p13, p14, p15;
+	
+	public LocalSequence(long initialValue) {
+		VALUE.lazySet(this, initialValue);
+	}
+	
+	public long get() {
+		return value;
+	}
+	
+	/**
+	 * Ordered write, visible to other threads without a full memory barrier.
+	 */
+	public void set(long value) {
+		VALUE.lazySet(this, value);
+	}
+	
+	public void setVolatile(long value) {
+		this.value = value;
+	}
+	
+	public boolean compareAndSet(long expected, long value) {
+		return VALUE.compareAndSet(this, expected, value);
+	}
+	
+	/**
+	 * Returns the minimum of the given sequences and the given value.
+	 */
+	static long getMinimum(LocalSequence[] sequences, long minimum) {
+		for(LocalSequence sequence : sequences) {
+			minimum = Math.min(minimum, sequence.get());
+		}
+		
+		return minimum;
+	}
+	
+	@Override
+	public String toString() {
+		return Long.toString(value);
+	}
+
+}
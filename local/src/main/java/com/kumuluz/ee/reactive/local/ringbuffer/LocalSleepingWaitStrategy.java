@@ -0,0 +1,62 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.ringbuffer;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Wait strategy that spins, then yields and finally parks the thread for short periods. Idle consumers use little
+ * CPU, at the cost of latency when a message arrives after a quiet period.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class LocalSleepingWaitStrategy implements LocalWaitStrategy {
+
+	private static final int SPIN_TRIES = 100;
+	private static final int YIELD_TRIES = 100;
+	private static final long SLEEP_NANOS = 100_000;
+	
+	@Override
+	public long waitFor(long sequence, LocalSequence cursor, BooleanSupplier running) {
+		long available;
+		int counter = SPIN_TRIES + YIELD_TRIES;
+		
+		while((available = cursor.get()) < sequence && running.getAsBoolean()) {
+			if(counter > YIELD_TRIES) {
+				counter--;
+			} else if(counter > 0) {
+				counter--;
+				Thread.yield();
+			} else {
+				LockSupport.parkNanos(SLEEP_NANOS);
+			}
+		}
+		
+		return available;
+	}
+
+	@Override
+	public void signalAllWhenBlocking() {
+	}
+
+}
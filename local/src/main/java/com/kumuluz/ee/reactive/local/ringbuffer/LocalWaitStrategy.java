@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.ringbuffer;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Strategy used by consumers waiting for a sequence to be published.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public interface LocalWaitStrategy {
+
+	/**
+	 * Waits until the cursor reaches the given sequence or the consumer is halted.
+	 *
+	 * @return the current value of the cursor, which may be lower than the sequence if the consumer was halted
+	 */
+	long waitFor(long sequence, LocalSequence cursor, BooleanSupplier running) throws InterruptedException;
+	
+	/**
+	 * Wakes up consumers blocked by the strategy, called after every publish.
+	 */
+	void signalAllWhenBlocking();
+	
+	static LocalWaitStrategy forName(String name) {
+		switch(name) {
+			case "busy-spin":
+				return new LocalBusySpinWaitStrategy();
+			case "yielding":
+				return new LocalYieldingWaitStrategy();
+			case "sleeping":
+				return new LocalSleepingWaitStrategy();
+			case "blocking":
+				return new LocalBlockingWaitStrategy();
+			default:
+				throw new IllegalArgumentException("Unknown wait strategy " + name
+						+ ". Supported strategies are blocking, sleeping, yielding and busy-spin.");
+		}
+	}
+	
+}
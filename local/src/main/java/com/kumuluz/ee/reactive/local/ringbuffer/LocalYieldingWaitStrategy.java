@@ -0,0 +1,56 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.ringbuffer;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Wait strategy spinning on the cursor for a number of tries and yielding the thread afterwards. Gives latency close
+ * to busy spinning, while letting other threads run when there are more threads than cores.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class LocalYieldingWaitStrategy implements LocalWaitStrategy {
+
+	private static final int SPIN_TRIES = 100;
+	
+	@Override
+	public long waitFor(long sequence, LocalSequence cursor, BooleanSupplier running) {
+		long available;
+		int counter = SPIN_TRIES;
+		
+		while((available = cursor.get()) < sequence && running.getAsBoolean()) {
+			if(counter == 0) {
+				Thread.yield();
+			} else {
+				counter--;
+			}
+		}
+		
+		return available;
+	}
+
+	@Override
+	public void signalAllWhenBlocking() {
+	}
+
+}
@@ -0,0 +1,233 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.local.ringbuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes through the ring buffer with every wait strategy and checks what the consumers see.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class LocalRingBufferTest {
+
+	private static final String[] WAIT_STRATEGIES = { "blocking", "sleeping", "yielding", "busy-spin" };
+	private static final long TIMEOUT = 30;
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsSizesOtherThanPowersOfTwo() {
+		new LocalRingBuffer<>(12, Entry::new, new LocalBlockingWaitStrategy());
+	}
+	
+	@Test
+	public void gatesPublishersOnTheSlowestConsumer() {
+		LocalRingBuffer<Entry> ringBuffer = new LocalRingBuffer<>(4, Entry::new, new LocalBlockingWaitStrategy());
+		LocalSequence consumer = new LocalSequence(-1);
+		ringBuffer.addGatingSequence(consumer);
+		
+		for(int i = 0; i < 4; i++) {
+			ringBuffer.publish(ringBuffer.tryNext());
+		}
+		
+		Assert.assertEquals(-1, ringBuffer.tryNext());
+		Assert.assertEquals(4, ringBuffer.getBacklog());
+		
+		consumer.set(0);
+		
+		Assert.assertEquals(4, ringBuffer.tryNext());
+		Assert.assertEquals(-1, ringBuffer.tryNext());
+	}
+	
+	@Test
+	public void deliversEntriesInOrderAcrossWrapArounds() throws Exception {
+		for(String waitStrategy : WAIT_STRATEGIES) {
+			LocalRingBuffer<Entry> ringBuffer = new LocalRingBuffer<>(8, Entry::new,
+					LocalWaitStrategy.forName(waitStrategy));
+			Recorder recorder = new Recorder();
+			LocalBatchEventProcessor<Entry> processor = start(ringBuffer, recorder);
+			
+			publish(ringBuffer, 0, 1000);
+			
+			Assert.assertTrue(waitStrategy, processor.halt(TIMEOUT, TimeUnit.SECONDS));
+			Assert.assertEquals(waitStrategy, 1000, recorder.values.size());
+			
+			for(int i = 0; i < 1000; i++) {
+				Assert.assertEquals(waitStrategy, i, (long) recorder.values.get(i));
+				Assert.assertEquals(waitStrategy, i, (long) recorder.sequences.get(i));
+			}
+		}
+	}
+	
+	@Test
+	public void deliversEveryEntryToEveryConsumerWithConcurrentPublishers() throws Exception {
+		int publishers = 4;
+		int consumers = 3;
+		int perPublisher = 20000;
+		
+		for(String waitStrategy : WAIT_STRATEGIES) {
+			LocalRingBuffer<Entry> ringBuffer = new LocalRingBuffer<>(16, Entry::new,
+					LocalWaitStrategy.forName(waitStrategy));
+			
+			List<Recorder> recorders = new ArrayList<>();
+			List<LocalBatchEventProcessor<Entry>> processors = new ArrayList<>();
+			
+			for(int i = 0; i < consumers; i++) {
+				Recorder recorder = new Recorder();
+				recorders.add(recorder);
+				processors.add(start(ringBuffer, recorder));
+			}
+			
+			List<Thread> threads = new ArrayList<>();
+			
+			for(int i = 0; i < publishers; i++) {
+				long from = (long) i * perPublisher;
+				Thread thread = new Thread(() -> publish(ringBuffer, from, perPublisher));
+				threads.add(thread);
+				thread.start();
+			}
+			
+			for(Thread thread : threads) {
+				thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT));
+				Assert.assertFalse(waitStrategy, thread.isAlive());
+			}
+			
+			for(LocalBatchEventProcessor<Entry> processor : processors) {
+				Assert.assertTrue(waitStrategy, processor.halt(TIMEOUT, TimeUnit.SECONDS));
+			}
+			
+			for(Recorder recorder : recorders) {
+				// an entry overwritten before every consumer processed it would be missing or seen twice
+				Assert.assertEquals(waitStrategy, publishers * perPublisher, recorder.values.size());
+				
+				for(int i = 0; i < recorder.values.size(); i++) {
+					Assert.assertEquals(waitStrategy, i, (long) recorder.sequences.get(i));
+				}
+				
+				long[] next = new long[publishers];
+				
+				for(int i = 0; i < publishers; i++) {
+					next[i] = (long) i * perPublisher;
+				}
+				
+				for(long value : recorder.values) {
+					int publisher = (int) (value / perPublisher);
+					Assert.assertEquals(waitStrategy, next[publisher]++, value);
+				}
+			}
+			
+			Assert.assertEquals(waitStrategy, 0, ringBuffer.getBacklog());
+		}
+	}
+	
+	@Test
+	public void drainsPublishedEntriesOnHalt() throws Exception {
+		for(String waitStrategy : WAIT_STRATEGIES) {
+			LocalRingBuffer<Entry> ringBuffer = new LocalRingBuffer<>(128, Entry::new,
+					LocalWaitStrategy.forName(waitStrategy));
+			
+			CountDownLatch blocked = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			Recorder recorder = new Recorder() {
+				@Override
+				public void onEvent(Entry entry, long sequence, boolean endOfBatch) throws Exception {
+					if(sequence == 0) {
+						blocked.countDown();
+						release.await();
+					}
+					
+					super.onEvent(entry, sequence, endOfBatch);
+				}
+			};
+			LocalBatchEventProcessor<Entry> processor = start(ringBuffer, recorder);
+			
+			publish(ringBuffer, 0, 1);
+			Assert.assertTrue(waitStrategy, blocked.await(TIMEOUT, TimeUnit.SECONDS));
+			
+			// published while the consumer is busy, so they are only processed after the halt was requested
+			publish(ringBuffer, 1, 99);
+			
+			Thread halt = new Thread(() -> {
+				try {
+					processor.halt(TIMEOUT, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			halt.start();
+			
+			while(halt.getState() != Thread.State.TIMED_WAITING && halt.isAlive()) {
+				Thread.yield();
+			}
+			
+			release.countDown();
+			halt.join(TimeUnit.SECONDS.toMillis(TIMEOUT));
+			
+			Assert.assertFalse(waitStrategy, halt.isAlive());
+			Assert.assertEquals(waitStrategy, 100, recorder.values.size());
+			Assert.assertEquals(waitStrategy, 99, processor.getSequence().get());
+		}
+	}
+	
+	private static LocalBatchEventProcessor<Entry> start(LocalRingBuffer<Entry> ringBuffer, Recorder recorder) {
+		LocalBatchEventProcessor<Entry> processor = new LocalBatchEventProcessor<>(ringBuffer, recorder);
+		
+		Thread thread = new Thread(processor, "local-ring-buffer-test");
+		thread.setDaemon(true);
+		thread.start();
+		
+		return processor;
+	}
+	
+	private static void publish(LocalRingBuffer<Entry> ringBuffer, long from, int count) {
+		for(long value = from; value < from + count; value++) {
+			long sequence = ringBuffer.next();
+			ringBuffer.get(sequence).value = value;
+			ringBuffer.publish(sequence);
+		}
+	}
+	
+	private static class Entry {
+		
+		private long value;
+		
+	}
+	
+	private static class Recorder implements LocalEventHandler<Entry> {
+		
+		private final List<Long> values = new ArrayList<>();
+		private final List<Long> sequences = new ArrayList<>();
+		
+		@Override
+		public void onEvent(Entry entry, long sequence, boolean endOfBatch) throws Exception {
+			values.add(entry.value);
+			sequences.add(sequence);
+		}
+		
+	}
+
+}
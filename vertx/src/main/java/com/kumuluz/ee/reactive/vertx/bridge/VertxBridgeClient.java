@@ -0,0 +1,127 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.bridge;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Client connected to the bridge. Frames are written directly while the connection keeps up; otherwise they are
+ * queued up to max-buffered-messages. A client whose queue overflows, or is not drained within the slow client
+ * timeout, is evicted, so that a slow client can not hold on to an unbounded amount of memory. Clients are confined to
+ * the context of their bridge server.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+abstract class VertxBridgeClient {
+
+	private final VertxBridgeServer server;
+	private final VertxBridgeOptions options;
+	private final Set<String> addresses = new HashSet<>();
+	private final Queue<String> pending = new ArrayDeque<>();
+
+	private long pendingSince;
+	private boolean closed;
+
+	VertxBridgeClient(VertxBridgeServer server, VertxBridgeOptions options) {
+		this.server = server;
+		this.options = options;
+	}
+
+	/**
+	 * Writes a frame, or queues it if the connection can not keep up.
+	 */
+	void send(String frame) {
+		if (closed) {
+			return;
+		}
+
+		if (pending.isEmpty() && !writeQueueFull()) {
+			write(frame);
+			return;
+		}
+
+		if (pending.size() >= options.getMaxBufferedMessages()) {
+			evict("its buffer is full");
+			return;
+		}
+
+		if (pending.isEmpty()) {
+			pendingSince = System.currentTimeMillis();
+		}
+		pending.add(frame);
+	}
+
+	/**
+	 * Writes queued frames once the connection is drained.
+	 */
+	void drain() {
+		while (!pending.isEmpty() && !writeQueueFull()) {
+			write(pending.poll());
+		}
+	}
+
+	/**
+	 * Evicts the client if its queued frames have not been written within the slow client timeout, and pings it
+	 * otherwise.
+	 */
+	void check(long now) {
+		if (!pending.isEmpty() && now - pendingSince > options.getSlowClientTimeout()) {
+			evict("it did not read messages for " + options.getSlowClientTimeout() + " ms");
+		} else if (pending.isEmpty() && !writeQueueFull()) {
+			ping();
+		}
+	}
+
+	void evict(String reason) {
+		server.evicted(this, reason);
+		close();
+	}
+
+	void close() {
+		if (!closed) {
+			closed = true;
+			pending.clear();
+			server.remove(this);
+			closeConnection();
+		}
+	}
+
+	Set<String> getAddresses() {
+		return addresses;
+	}
+
+	int getPending() {
+		return pending.size();
+	}
+
+	abstract boolean writeQueueFull();
+
+	abstract void write(String frame);
+
+	abstract void ping();
+
+	abstract void closeConnection();
+
+}
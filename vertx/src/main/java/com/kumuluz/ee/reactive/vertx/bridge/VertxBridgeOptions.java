@@ -0,0 +1,187 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.bridge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Options of the bridge, which exposes event bus addresses to browsers as server-sent events and WebSocket endpoints.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxBridgeOptions {
+
+	public static final boolean DEFAULT_ENABLED = false;
+	public static final String DEFAULT_HOST = "0.0.0.0";
+	public static final int DEFAULT_PORT = 8085;
+	public static final String DEFAULT_PATH = "/eventbus";
+	public static final int DEFAULT_INSTANCES = 1;
+	public static final int DEFAULT_MAX_BUFFERED_MESSAGES = 1000;
+	public static final int DEFAULT_WRITE_QUEUE_MAX_SIZE = 64 * 1024;
+	public static final long DEFAULT_SLOW_CLIENT_TIMEOUT = 30000;
+	public static final long DEFAULT_PING_INTERVAL = 15000;
+
+	private boolean enabled = DEFAULT_ENABLED;
+	private String host = DEFAULT_HOST;
+	private int port = DEFAULT_PORT;
+	private String path = DEFAULT_PATH;
+	private int instances = DEFAULT_INSTANCES;
+	private int maxBufferedMessages = DEFAULT_MAX_BUFFERED_MESSAGES;
+	private int writeQueueMaxSize = DEFAULT_WRITE_QUEUE_MAX_SIZE;
+	private long slowClientTimeout = DEFAULT_SLOW_CLIENT_TIMEOUT;
+	private long pingInterval = DEFAULT_PING_INTERVAL;
+	private List<String> outbound = new ArrayList<>();
+	private List<String> inbound = new ArrayList<>();
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public VertxBridgeOptions setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		return this;
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+	public VertxBridgeOptions setHost(String host) {
+		this.host = host;
+		return this;
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	public VertxBridgeOptions setPort(int port) {
+		this.port = port;
+		return this;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public VertxBridgeOptions setPath(String path) {
+		this.path = path;
+		return this;
+	}
+
+	public int getInstances() {
+		return instances;
+	}
+
+	public VertxBridgeOptions setInstances(int instances) {
+		this.instances = instances;
+		return this;
+	}
+
+	public int getMaxBufferedMessages() {
+		return maxBufferedMessages;
+	}
+
+	public VertxBridgeOptions setMaxBufferedMessages(int maxBufferedMessages) {
+		this.maxBufferedMessages = maxBufferedMessages;
+		return this;
+	}
+
+	public int getWriteQueueMaxSize() {
+		return writeQueueMaxSize;
+	}
+
+	public VertxBridgeOptions setWriteQueueMaxSize(int writeQueueMaxSize) {
+		this.writeQueueMaxSize = writeQueueMaxSize;
+		return this;
+	}
+
+	public long getSlowClientTimeout() {
+		return slowClientTimeout;
+	}
+
+	public VertxBridgeOptions setSlowClientTimeout(long slowClientTimeout) {
+		this.slowClientTimeout = slowClientTimeout;
+		return this;
+	}
+
+	public long getPingInterval() {
+		return pingInterval;
+	}
+
+	public VertxBridgeOptions setPingInterval(long pingInterval) {
+		this.pingInterval = pingInterval;
+		return this;
+	}
+
+	public List<String> getOutbound() {
+		return outbound;
+	}
+
+	public VertxBridgeOptions setOutbound(List<String> outbound) {
+		this.outbound = outbound;
+		return this;
+	}
+
+	public List<String> getInbound() {
+		return inbound;
+	}
+
+	public VertxBridgeOptions setInbound(List<String> inbound) {
+		this.inbound = inbound;
+		return this;
+	}
+
+	/**
+	 * Returns true if clients may subscribe to the given address.
+	 */
+	public boolean isOutboundAllowed(String address) {
+		return matches(outbound, address);
+	}
+
+	/**
+	 * Returns true if clients may publish and send messages to the given address.
+	 */
+	public boolean isInboundAllowed(String address) {
+		return matches(inbound, address);
+	}
+
+	/**
+	 * Addresses in the allow-lists match exactly, or by prefix if they end with *.
+	 */
+	private static boolean matches(List<String> allowed, String address) {
+		if (address == null || address.isEmpty()) {
+			return false;
+		}
+
+		for (String entry : allowed) {
+			if (entry.endsWith("*") ? address.startsWith(entry.substring(0, entry.length() - 1))
+					: address.equals(entry)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+}
@@ -0,0 +1,339 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.bridge;
+
+import com.kumuluz.ee.reactive.vertx.eventbus.VertxEventBusAddresses;
+import com.kumuluz.ee.reactive.vertx.pooled.VertxPooledPayload;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Verticle serving the bridge on a single event loop. A deployment of several instances shares the port, with
+ * connections spread between the instances. Each instance registers a single consumer per subscribed address and
+ * fans the messages out to its clients, so that the number of connections does not add to the event bus
+ * registrations.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxBridgeServer extends AbstractVerticle {
+
+	private static final Logger log = Logger.getLogger(VertxBridgeServer.class.getName());
+
+	static final String PING_FRAME = new JsonObject().put("type", "ping").encode();
+
+	private final VertxBridgeOptions options;
+
+	private final Map<String, List<MessageConsumer<Object>>> consumers = new HashMap<>();
+	private final Map<String, Set<VertxBridgeClient>> subscribers = new HashMap<>();
+	private final Set<VertxBridgeClient> clients = new LinkedHashSet<>();
+
+	private HttpServer server;
+	private long checkTimer;
+
+	public VertxBridgeServer(VertxBridgeOptions options) {
+		this.options = options;
+	}
+
+	@Override
+	public void start(Future<Void> startFuture) {
+		server = vertx.createHttpServer(new HttpServerOptions()
+				.setHost(options.getHost())
+				.setPort(options.getPort()))
+				.requestHandler(this::handleRequest)
+				.websocketHandler(this::handleWebSocket);
+
+		server.listen(res -> {
+			if (res.succeeded()) {
+				startFuture.complete();
+			} else {
+				startFuture.fail(res.cause());
+			}
+		});
+
+		checkTimer = vertx.setPeriodic(options.getPingInterval(), id -> {
+			long now = System.currentTimeMillis();
+			new ArrayList<>(clients).forEach(client -> client.check(now));
+		});
+	}
+
+	@Override
+	public void stop() {
+		vertx.cancelTimer(checkTimer);
+		new ArrayList<>(clients).forEach(VertxBridgeClient::close);
+	}
+
+	/**
+	 * Serves server-sent events on {path}/sse for the addresses given in the address query parameters.
+	 */
+	private void handleRequest(HttpServerRequest request) {
+		if (request.method() != HttpMethod.GET || !request.path().equals(options.getPath() + "/sse")) {
+			request.response().setStatusCode(404).end();
+			return;
+		}
+
+		List<String> addresses = request.params().getAll("address");
+
+		if (addresses.isEmpty()) {
+			request.response().setStatusCode(400).end("At least one address is required.");
+			return;
+		}
+
+		for (String address : addresses) {
+			if (!options.isOutboundAllowed(address)) {
+				request.response().setStatusCode(403).end("Address " + address + " is not allowed.");
+				return;
+			}
+		}
+
+		request.response()
+				.setChunked(true)
+				.putHeader("Content-Type", "text/event-stream")
+				.putHeader("Cache-Control", "no-cache")
+				.write(":\n\n");
+
+		VertxSseClient client = new VertxSseClient(this, options, request.response());
+		clients.add(client);
+		addresses.forEach(address -> subscribe(client, address));
+	}
+
+	/**
+	 * Serves WebSocket connections on {path}/websocket. Clients send JSON frames with a type of subscribe,
+	 * unsubscribe, publish or send, an address and, when publishing or sending, a body and headers. A send frame with
+	 * an id gets a reply or error frame with the same id.
+	 */
+	private void handleWebSocket(ServerWebSocket webSocket) {
+		if (!webSocket.path().equals(options.getPath() + "/websocket")) {
+			webSocket.reject();
+			return;
+		}
+
+		VertxWebSocketClient client = new VertxWebSocketClient(this, options, webSocket);
+		clients.add(client);
+
+		webSocket.textMessageHandler(text -> {
+			try {
+				handleFrame(client, new JsonObject(text));
+			} catch (DecodeException | ClassCastException e) {
+				client.send(error(null, "Invalid frame. " + e.getLocalizedMessage()));
+			}
+		});
+	}
+
+	private void handleFrame(VertxWebSocketClient client, JsonObject frame) {
+		String type = frame.getString("type", "");
+		String address = frame.getString("address");
+		Object id = frame.getValue("id");
+
+		switch (type) {
+			case "subscribe":
+				if (options.isOutboundAllowed(address)) {
+					subscribe(client, address);
+				} else {
+					client.send(error(id, "Address " + address + " is not allowed."));
+				}
+				break;
+			case "unsubscribe":
+				unsubscribe(client, address);
+				break;
+			case "publish":
+			case "send":
+				if (!options.isInboundAllowed(address)) {
+					client.send(error(id, "Address " + address + " is not allowed."));
+					break;
+				}
+
+				DeliveryOptions deliveryOptions = new DeliveryOptions();
+				JsonObject headers = frame.getJsonObject("headers", new JsonObject());
+				headers.forEach(header -> deliveryOptions.addHeader(header.getKey(), String.valueOf(header.getValue())));
+
+				if (type.equals("publish")) {
+					vertx.eventBus().publish(address, frame.getValue("body"), deliveryOptions);
+				} else if (id == null) {
+					vertx.eventBus().send(address, frame.getValue("body"), deliveryOptions);
+				} else {
+					vertx.eventBus().send(address, frame.getValue("body"), deliveryOptions, reply -> {
+						if (reply.succeeded()) {
+							client.send(new JsonObject()
+									.put("type", "reply")
+									.put("id", id)
+									.put("body", toJson(reply.result()))
+									.encode());
+						} else {
+							client.send(error(id, reply.cause().getLocalizedMessage()));
+						}
+					});
+				}
+				break;
+			case "ping":
+				break;
+			default:
+				client.send(error(id, "Unknown frame type " + type + "."));
+		}
+	}
+
+	private void subscribe(VertxBridgeClient client, String address) {
+		if (!client.getAddresses().add(address)) {
+			return;
+		}
+
+		subscribers.computeIfAbsent(address, a -> {
+			List<MessageConsumer<Object>> addressConsumers = new ArrayList<>(2);
+			addressConsumers.add(vertx.eventBus().consumer(a, message -> deliver(a, message)));
+
+			// receives messages from local-only publishers
+			if (vertx.isClustered()) {
+				addressConsumers.add(vertx.eventBus().localConsumer(VertxEventBusAddresses.local(a),
+						message -> deliver(a, message)));
+			}
+
+			consumers.put(a, addressConsumers);
+			return new LinkedHashSet<>();
+		}).add(client);
+	}
+
+	private void unsubscribe(VertxBridgeClient client, String address) {
+		if (!client.getAddresses().remove(address)) {
+			return;
+		}
+
+		Set<VertxBridgeClient> addressSubscribers = subscribers.get(address);
+
+		if (addressSubscribers != null && addressSubscribers.remove(client) && addressSubscribers.isEmpty()) {
+			subscribers.remove(address);
+			consumers.remove(address).forEach(MessageConsumer::unregister);
+		}
+	}
+
+	/**
+	 * Encodes a message once per format and writes it to every subscribed client.
+	 */
+	private void deliver(String address, Message<Object> message) {
+		Set<VertxBridgeClient> addressSubscribers = subscribers.get(address);
+
+		if (addressSubscribers == null || addressSubscribers.isEmpty()) {
+			VertxPooledPayload.releaseBody(message);
+			return;
+		}
+
+		JsonObject headers = new JsonObject();
+		message.headers().forEach(header -> headers.put(header.getKey(), header.getValue()));
+
+		String data = new JsonObject()
+				.put("type", "message")
+				.put("address", address)
+				.put("headers", headers)
+				.put("body", toJson(message))
+				.encode();
+		String event = null;
+
+		for (VertxBridgeClient client : new ArrayList<>(addressSubscribers)) {
+			if (client instanceof VertxSseClient) {
+				if (event == null) {
+					event = VertxSseClient.format(address, data);
+				}
+				client.send(event);
+			} else {
+				client.send(data);
+			}
+		}
+	}
+
+	void remove(VertxBridgeClient client) {
+		clients.remove(client);
+		new ArrayList<>(client.getAddresses()).forEach(address -> unsubscribe(client, address));
+	}
+
+	void evicted(VertxBridgeClient client, String reason) {
+		VertxEventBusBridge.evicted.incrementAndGet();
+		log.info("Evicted bridge client subscribed to " + client.getAddresses() + ", because " + reason + ".");
+	}
+
+	int getConnections() {
+		return clients.size();
+	}
+
+	private static String error(Object id, String message) {
+		return new JsonObject()
+				.put("type", "error")
+				.put("id", id)
+				.put("message", message)
+				.encode();
+	}
+
+	/**
+	 * Converts the body of the message and releases it, if it is a pooled payload, since the bridge is its only
+	 * consumer.
+	 */
+	private static Object toJson(Message<?> message) {
+		try {
+			return toJson(message.body());
+		} finally {
+			VertxPooledPayload.releaseBody(message);
+		}
+	}
+
+	/**
+	 * Converts a message body to a JSON value. Binary bodies are Base64 encoded, other types are converted to strings.
+	 */
+	private static Object toJson(Object body) {
+		if (body == null || body instanceof JsonObject || body instanceof JsonArray || body instanceof String
+				|| body instanceof Number || body instanceof Boolean) {
+			return body;
+		}
+
+		if (body instanceof Buffer) {
+			return ((Buffer) body).getBytes();
+		}
+
+		if (body instanceof byte[]) {
+			return body;
+		}
+
+		// bytes are encoded as Base64 in JSON
+		if (body instanceof VertxPooledPayload) {
+			return ((VertxPooledPayload) body).getBuffer().getBytes();
+		}
+
+		return body.toString();
+	}
+
+}
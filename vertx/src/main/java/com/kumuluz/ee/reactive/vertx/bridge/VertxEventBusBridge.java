@@ -0,0 +1,75 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.bridge;
+
+import com.kumuluz.ee.reactive.vertx.config.VertxBridgeConfigLoader;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Bridge exposing event bus addresses to browsers as server-sent events and WebSocket endpoints, served by the Vert.x
+ * instance of the extension.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxEventBusBridge {
+
+	private static final Logger log = Logger.getLogger(VertxEventBusBridge.class.getName());
+
+	static final AtomicLong evicted = new AtomicLong();
+
+	/**
+	 * Deploys the bridge servers, one per configured instance, if the bridge is enabled.
+	 */
+	public static void start(Vertx vertx) {
+		VertxBridgeOptions options = VertxBridgeConfigLoader.getOptions();
+
+		if (!options.isEnabled()) {
+			return;
+		}
+
+		if (options.getOutbound().isEmpty() && options.getInbound().isEmpty()) {
+			log.warning("Bridge is enabled, but no outbound or inbound addresses are allowed.");
+		}
+
+		vertx.deployVerticle(() -> new VertxBridgeServer(options),
+				new DeploymentOptions().setInstances(options.getInstances()), res -> {
+			if (res.succeeded()) {
+				log.info("Bridge listening on " + options.getHost() + ":" + options.getPort() + options.getPath()
+						+ ".");
+			} else {
+				log.severe("Error at starting bridge. " + res.cause().getLocalizedMessage());
+			}
+		});
+	}
+
+	/**
+	 * Returns the number of clients evicted because they could not keep up with their messages.
+	 */
+	public static long getEvicted() {
+		return evicted.get();
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.bridge;
+
+import io.vertx.core.http.HttpServerResponse;
+
+/**
+ * Client receiving messages as server-sent events. The address of a message is used as the event name.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+class VertxSseClient extends VertxBridgeClient {
+
+	private final HttpServerResponse response;
+
+	VertxSseClient(VertxBridgeServer server, VertxBridgeOptions options, HttpServerResponse response) {
+		super(server, options);
+		this.response = response;
+
+		response.setWriteQueueMaxSize(options.getWriteQueueMaxSize());
+		response.drainHandler(v -> drain());
+		response.closeHandler(v -> close());
+		response.exceptionHandler(e -> close());
+	}
+
+	@Override
+	boolean writeQueueFull() {
+		return response.writeQueueFull();
+	}
+
+	@Override
+	void write(String frame) {
+		response.write(frame);
+	}
+
+	@Override
+	void ping() {
+		response.write(":\n\n");
+	}
+
+	@Override
+	void closeConnection() {
+		try {
+			response.end();
+		} catch (IllegalStateException e) {
+			// the connection is already closed
+		}
+	}
+
+	/**
+	 * Formats a message as an event. The data is a single line of JSON, which never contains line breaks.
+	 */
+	static String format(String address, String data) {
+		return "event: " + address + "\ndata: " + data + "\n\n";
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.bridge;
+
+import io.vertx.core.http.ServerWebSocket;
+
+/**
+ * Client receiving and sending messages as JSON text frames over a WebSocket.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+class VertxWebSocketClient extends VertxBridgeClient {
+
+	private final ServerWebSocket webSocket;
+
+	VertxWebSocketClient(VertxBridgeServer server, VertxBridgeOptions options, ServerWebSocket webSocket) {
+		super(server, options);
+		this.webSocket = webSocket;
+
+		webSocket.setWriteQueueMaxSize(options.getWriteQueueMaxSize());
+		webSocket.drainHandler(v -> drain());
+		webSocket.closeHandler(v -> close());
+		webSocket.exceptionHandler(e -> close());
+	}
+
+	@Override
+	boolean writeQueueFull() {
+		return webSocket.writeQueueFull();
+	}
+
+	@Override
+	void write(String frame) {
+		webSocket.writeTextMessage(frame);
+	}
+
+	@Override
+	void ping() {
+		webSocket.writeTextMessage(VertxBridgeServer.PING_FRAME);
+	}
+
+	@Override
+	void closeConnection() {
+		try {
+			webSocket.close();
+		} catch (IllegalStateException e) {
+			// the connection is already closed
+		}
+	}
+
+	ServerWebSocket getWebSocket() {
+		return webSocket;
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.compression;
+
+import com.kumuluz.ee.reactive.vertx.eventbus.VertxDeliveryOptions;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageProducer;
+
+/**
+ * Message producer of an address with compression. Bodies supported by the compression codec are wrapped and sent by
+ * a producer with the codec and the options of the address; other bodies are sent by a producer with the delivery
+ * options as they are. Both are producers of the event bus, so flow control, the drain and exception handlers and
+ * closing apply to the messages of either.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxCompressingMessageProducer implements MessageProducer<Object> {
+
+	private final String address;
+	private final VertxCompressionOptions options;
+	private final MessageProducer<Object> compressed;
+	private final MessageProducer<Object> uncompressed;
+
+	public VertxCompressingMessageProducer(EventBus eventBus, String address, DeliveryOptions deliveryOptions,
+			boolean send, VertxCompressionOptions options) {
+		this.address = address;
+		this.options = options;
+
+		if (send) {
+			compressed = eventBus.sender(address, compressed(deliveryOptions));
+			uncompressed = eventBus.sender(address, deliveryOptions);
+		} else {
+			compressed = eventBus.publisher(address, compressed(deliveryOptions));
+			uncompressed = eventBus.publisher(address, deliveryOptions);
+		}
+	}
+
+	@Override
+	public MessageProducer<Object> send(Object message) {
+		if (VertxCompressionCodec.supports(message)) {
+			compressed.send(VertxCompressionCodec.wrap(message, options));
+		} else {
+			uncompressed.send(message);
+		}
+		return this;
+	}
+
+	@Override
+	public <R> MessageProducer<Object> send(Object message, Handler<AsyncResult<Message<R>>> replyHandler) {
+		if (VertxCompressionCodec.supports(message)) {
+			compressed.send(VertxCompressionCodec.wrap(message, options), replyHandler);
+		} else {
+			uncompressed.send(message, replyHandler);
+		}
+		return this;
+	}
+
+	@Override
+	public MessageProducer<Object> write(Object data) {
+		if (VertxCompressionCodec.supports(data)) {
+			compressed.write(VertxCompressionCodec.wrap(data, options));
+		} else {
+			uncompressed.write(data);
+		}
+		return this;
+	}
+
+	@Override
+	public MessageProducer<Object> exceptionHandler(Handler<Throwable> handler) {
+		compressed.exceptionHandler(handler);
+		uncompressed.exceptionHandler(handler);
+		return this;
+	}
+
+	@Override
+	public MessageProducer<Object> setWriteQueueMaxSize(int maxSize) {
+		compressed.setWriteQueueMaxSize(maxSize);
+		uncompressed.setWriteQueueMaxSize(maxSize);
+		return this;
+	}
+
+	@Override
+	public boolean writeQueueFull() {
+		return compressed.writeQueueFull() || uncompressed.writeQueueFull();
+	}
+
+	@Override
+	public MessageProducer<Object> drainHandler(Handler<Void> handler) {
+		// the handler is called once neither of the producers is full anymore
+		Handler<Void> drained = handler == null ? null : v -> {
+			if (!writeQueueFull()) {
+				handler.handle(v);
+			}
+		};
+
+		compressed.drainHandler(drained);
+		uncompressed.drainHandler(drained);
+		return this;
+	}
+
+	@Override
+	public MessageProducer<Object> deliveryOptions(DeliveryOptions options) {
+		compressed.deliveryOptions(compressed(options));
+		uncompressed.deliveryOptions(options);
+		return this;
+	}
+
+	@Override
+	public String address() {
+		return address;
+	}
+
+	@Override
+	public void end() {
+		compressed.end();
+		uncompressed.end();
+	}
+
+	@Override
+	public void close() {
+		compressed.close();
+		uncompressed.close();
+	}
+
+	private static DeliveryOptions compressed(DeliveryOptions options) {
+		return VertxDeliveryOptions.copy(options).setCodecName(VertxCompressionCodec.NAME);
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.compression;
+
+/**
+ * Compression algorithm of message bodies on the clustered event bus.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public enum VertxCompressionAlgorithm {
+
+	/**
+	 * Bodies are sent as they are.
+	 */
+	NONE((byte) 0),
+
+	/**
+	 * Bodies are compressed with raw deflate, without the zlib header and checksum.
+	 */
+	DEFLATE((byte) 1);
+
+	private final byte id;
+
+	VertxCompressionAlgorithm(byte id) {
+		this.id = id;
+	}
+
+	/**
+	 * Returns the id of the algorithm on the wire.
+	 */
+	public byte getId() {
+		return id;
+	}
+
+	public static VertxCompressionAlgorithm fromId(byte id) {
+		for (VertxCompressionAlgorithm algorithm : values()) {
+			if (algorithm.id == id) {
+				return algorithm;
+			}
+		}
+
+		throw new IllegalArgumentException("Unknown compression algorithm " + id + ".");
+	}
+
+}
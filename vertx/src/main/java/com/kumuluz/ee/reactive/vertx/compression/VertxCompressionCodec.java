@@ -0,0 +1,236 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.compression;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+
+/**
+ * Codec compressing message bodies on the clustered event bus. Bodies are compressed with the options of their
+ * address, unless they are smaller than the threshold or do not get smaller, and decompressed by the codec of the
+ * receiving node, so listeners receive the body as it was sent. Bodies delivered within the JVM are only copied.
+ *
+ * An encoded body starts with the format version, the body type, the compression algorithm and the uncompressed
+ * length, followed by the compressed length and bytes, or by the uncompressed bytes. Only <code>String</code>,
+ * <code>JsonObject</code>, <code>JsonArray</code>, <code>Buffer</code> and <code>byte[]</code> bodies are supported.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxCompressionCodec implements MessageCodec<Object, Object> {
+
+	public static final String NAME = "kumuluzee-compression";
+
+	private static final byte FORMAT_VERSION = 1;
+	private static final byte TYPE_STRING = 1;
+	private static final byte TYPE_JSON_OBJECT = 2;
+	private static final byte TYPE_JSON_ARRAY = 3;
+	private static final byte TYPE_BUFFER = 4;
+	private static final byte TYPE_BYTES = 5;
+
+	// bodies sent with the codec name but without options, e.g. replies, are only compressed above the threshold
+	private static final VertxCompressionOptions DEFAULT_OPTIONS = new VertxCompressionOptions(null);
+
+	private final VertxCompressorPool pool = new VertxCompressorPool();
+	private final VertxCompressionMetrics metrics = VertxCompressionMetrics.getInstance();
+
+	/**
+	 * Registers the codec on the event bus of the Vert.x instance. Every node registers it, so that it can decode
+	 * compressed bodies, whether it compresses bodies itself or not.
+	 */
+	public static void register(Vertx vertx) {
+		vertx.eventBus().registerCodec(new VertxCompressionCodec());
+	}
+
+	public static boolean supports(Object body) {
+		return body instanceof String || body instanceof JsonObject || body instanceof JsonArray
+				|| body instanceof Buffer || body instanceof byte[];
+	}
+
+	/**
+	 * Wraps the body, so that it is compressed with the given options when it is sent to another node.
+	 */
+	public static Object wrap(Object body, VertxCompressionOptions options) {
+		return new VertxCompressibleBody(body, options);
+	}
+
+	@Override
+	public void encodeToWire(Buffer buffer, Object message) {
+		VertxCompressionOptions options = DEFAULT_OPTIONS;
+		Object body = message;
+
+		if (message instanceof VertxCompressibleBody) {
+			options = ((VertxCompressibleBody) message).getOptions();
+			body = ((VertxCompressibleBody) message).getBody();
+		}
+
+		byte type = getType(body);
+		byte[] bytes = getBytes(body);
+
+		buffer.appendByte(FORMAT_VERSION);
+		buffer.appendByte(type);
+
+		if (options.getAlgorithm() == VertxCompressionAlgorithm.DEFLATE && bytes.length >= options.getThreshold()) {
+			long start = System.nanoTime();
+
+			int header = buffer.length();
+			buffer.appendByte(VertxCompressionAlgorithm.DEFLATE.getId());
+			buffer.appendInt(bytes.length);
+			buffer.appendInt(0);
+
+			int length = pool.deflate(bytes, options.getLevel(), buffer);
+
+			if (length >= 0) {
+				buffer.setInt(header + 5, length);
+				metrics.recordCompressed(bytes.length, length, System.nanoTime() - start);
+				return;
+			}
+
+			// the body did not get smaller, the header is rewritten for an uncompressed body
+			buffer.setByte(header, VertxCompressionAlgorithm.NONE.getId());
+			buffer.setInt(header + 5, bytes.length);
+			buffer.appendBytes(bytes);
+			metrics.recordSkipped(System.nanoTime() - start);
+			return;
+		}
+
+		buffer.appendByte(VertxCompressionAlgorithm.NONE.getId());
+		buffer.appendInt(bytes.length);
+		buffer.appendInt(bytes.length);
+		buffer.appendBytes(bytes);
+		metrics.recordSkipped(0);
+	}
+
+	@Override
+	public Object decodeFromWire(int pos, Buffer buffer) {
+		byte version = buffer.getByte(pos);
+
+		if (version != FORMAT_VERSION) {
+			throw new IllegalStateException("Unknown compression codec format version " + version + ".");
+		}
+
+		byte type = buffer.getByte(pos + 1);
+		VertxCompressionAlgorithm algorithm = VertxCompressionAlgorithm.fromId(buffer.getByte(pos + 2));
+		int length = buffer.getInt(pos + 3);
+		int wireLength = buffer.getInt(pos + 7);
+		int start = pos + 11;
+
+		byte[] bytes = buffer.getBytes(start, start + wireLength);
+
+		if (algorithm == VertxCompressionAlgorithm.DEFLATE) {
+			long time = System.nanoTime();
+
+			try {
+				bytes = pool.inflate(bytes, length);
+			} catch (DataFormatException e) {
+				throw new IllegalStateException("Compressed body could not be decompressed. "
+						+ e.getLocalizedMessage(), e);
+			}
+
+			metrics.recordDecompressed(System.nanoTime() - time);
+		}
+
+		return fromBytes(type, bytes);
+	}
+
+	@Override
+	public Object transform(Object message) {
+		Object body = message instanceof VertxCompressibleBody ? ((VertxCompressibleBody) message).getBody()
+				: message;
+
+		if (body instanceof JsonObject) {
+			return ((JsonObject) body).copy();
+		} else if (body instanceof JsonArray) {
+			return ((JsonArray) body).copy();
+		} else if (body instanceof Buffer) {
+			return ((Buffer) body).copy();
+		} else if (body instanceof byte[]) {
+			return ((byte[]) body).clone();
+		}
+
+		return body;
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public byte systemCodecID() {
+		return -1;
+	}
+
+	private static byte getType(Object body) {
+		if (body instanceof String) {
+			return TYPE_STRING;
+		} else if (body instanceof JsonObject) {
+			return TYPE_JSON_OBJECT;
+		} else if (body instanceof JsonArray) {
+			return TYPE_JSON_ARRAY;
+		} else if (body instanceof Buffer) {
+			return TYPE_BUFFER;
+		} else if (body instanceof byte[]) {
+			return TYPE_BYTES;
+		}
+
+		throw new IllegalArgumentException("Message body of type " + (body == null ? null : body.getClass().getName())
+				+ " can not be sent with the compression codec.");
+	}
+
+	private static byte[] getBytes(Object body) {
+		if (body instanceof String) {
+			return ((String) body).getBytes(StandardCharsets.UTF_8);
+		} else if (body instanceof JsonObject) {
+			return ((JsonObject) body).encode().getBytes(StandardCharsets.UTF_8);
+		} else if (body instanceof JsonArray) {
+			return ((JsonArray) body).encode().getBytes(StandardCharsets.UTF_8);
+		} else if (body instanceof Buffer) {
+			return ((Buffer) body).getBytes();
+		}
+
+		return (byte[]) body;
+	}
+
+	private static Object fromBytes(byte type, byte[] bytes) {
+		switch (type) {
+			case TYPE_STRING:
+				return new String(bytes, StandardCharsets.UTF_8);
+			case TYPE_JSON_OBJECT:
+				return new JsonObject(new String(bytes, StandardCharsets.UTF_8));
+			case TYPE_JSON_ARRAY:
+				return new JsonArray(new String(bytes, StandardCharsets.UTF_8));
+			case TYPE_BUFFER:
+				return Buffer.buffer(bytes);
+			case TYPE_BYTES:
+				return bytes;
+			default:
+				throw new IllegalArgumentException("Unknown compressed body type " + type + ".");
+		}
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.compression;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the compression codec of this JVM.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxCompressionMetrics {
+
+	private static final VertxCompressionMetrics instance = new VertxCompressionMetrics();
+
+	private final LongAdder compressed = new LongAdder();
+	private final LongAdder skipped = new LongAdder();
+	private final LongAdder uncompressedBytes = new LongAdder();
+	private final LongAdder compressedBytes = new LongAdder();
+	private final LongAdder compressionTime = new LongAdder();
+	private final LongAdder decompressed = new LongAdder();
+	private final LongAdder decompressionTime = new LongAdder();
+
+	private VertxCompressionMetrics() {
+
+	}
+
+	public static VertxCompressionMetrics getInstance() {
+		return instance;
+	}
+
+	void recordCompressed(int uncompressedLength, int compressedLength, long time) {
+		compressed.increment();
+		uncompressedBytes.add(uncompressedLength);
+		compressedBytes.add(compressedLength);
+		compressionTime.add(time);
+	}
+
+	/**
+	 * Records a body which was sent uncompressed, since it was below the threshold or did not get smaller.
+	 *
+	 * @param time time spent on compressing the body in vain, in nanoseconds
+	 */
+	void recordSkipped(long time) {
+		skipped.increment();
+		compressionTime.add(time);
+	}
+
+	void recordDecompressed(long time) {
+		decompressed.increment();
+		decompressionTime.add(time);
+	}
+
+	public long getCompressed() {
+		return compressed.sum();
+	}
+
+	public long getSkipped() {
+		return skipped.sum();
+	}
+
+	public long getDecompressed() {
+		return decompressed.sum();
+	}
+
+	/**
+	 * Returns the size of the compressed bodies relative to their uncompressed size, or 1 if no body was compressed.
+	 */
+	public double getRatio() {
+		long uncompressed = uncompressedBytes.sum();
+		return uncompressed == 0 ? 1 : compressedBytes.sum() / (double) uncompressed;
+	}
+
+	public long getSavedBytes() {
+		return uncompressedBytes.sum() - compressedBytes.sum();
+	}
+
+	/**
+	 * Returns the total time spent on compressing bodies in nanoseconds.
+	 */
+	public long getCompressionTime() {
+		return compressionTime.sum();
+	}
+
+	/**
+	 * Returns the total time spent on decompressing bodies in nanoseconds.
+	 */
+	public long getDecompressionTime() {
+		return decompressionTime.sum();
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.compression;
+
+import java.util.zip.Deflater;
+
+/**
+ * Compression options of an address.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxCompressionOptions {
+
+	public static final VertxCompressionAlgorithm DEFAULT_ALGORITHM = VertxCompressionAlgorithm.DEFLATE;
+	public static final int DEFAULT_THRESHOLD = 1024;
+	public static final int DEFAULT_LEVEL = Deflater.BEST_SPEED;
+
+	private String address;
+	private VertxCompressionAlgorithm algorithm = DEFAULT_ALGORITHM;
+	private int threshold = DEFAULT_THRESHOLD;
+	private int level = DEFAULT_LEVEL;
+
+	public VertxCompressionOptions(String address) {
+		this.address = address;
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	public VertxCompressionAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	public VertxCompressionOptions setAlgorithm(VertxCompressionAlgorithm algorithm) {
+		this.algorithm = algorithm;
+		return this;
+	}
+
+	/**
+	 * Returns the size in bytes below which bodies are sent uncompressed.
+	 */
+	public int getThreshold() {
+		return threshold;
+	}
+
+	public VertxCompressionOptions setThreshold(int threshold) {
+		this.threshold = threshold;
+		return this;
+	}
+
+	public int getLevel() {
+		return level;
+	}
+
+	public VertxCompressionOptions setLevel(int level) {
+		this.level = level;
+		return this;
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.compression;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Pool of deflaters and inflaters. Creating them allocates native memory, so they are reused across messages and
+ * reset after every use. Compressed bytes are written to a scratch array per thread, which only grows, so the event
+ * loops compress without allocating once the largest body was seen.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+class VertxCompressorPool {
+
+	private static final int MAX_POOLED = 64;
+	private static final int INITIAL_SCRATCH_SIZE = 8192;
+
+	private static final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[INITIAL_SCRATCH_SIZE]);
+
+	@SuppressWarnings("unchecked")
+	private final BlockingQueue<Deflater>[] deflaters = new BlockingQueue[Deflater.BEST_COMPRESSION + 1];
+	private final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(MAX_POOLED);
+
+	VertxCompressorPool() {
+		for (int level = 0; level < deflaters.length; level++) {
+			deflaters[level] = new ArrayBlockingQueue<>(MAX_POOLED);
+		}
+	}
+
+	/**
+	 * Compresses the bytes and appends them to the buffer, unless they do not get smaller.
+	 *
+	 * @return the number of appended bytes, or -1 if the bytes were not appended
+	 */
+	int deflate(byte[] bytes, int level, Buffer buffer) {
+		Deflater deflater = deflaters[level].poll();
+		if (deflater == null) {
+			deflater = new Deflater(level, true);
+		}
+
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
+
+			byte[] output = scratch.get();
+			int length = 0;
+
+			while (!deflater.finished()) {
+				if (length == output.length) {
+					// compressed bytes larger than the input are not sent anyway
+					if (length >= bytes.length) {
+						return -1;
+					}
+					output = grow(output);
+				}
+				length += deflater.deflate(output, length, output.length - length);
+			}
+
+			if (length >= bytes.length) {
+				return -1;
+			}
+
+			buffer.appendBytes(output, 0, length);
+			return length;
+		} finally {
+			release(deflater, level);
+		}
+	}
+
+	/**
+	 * Decompresses the bytes into an array of the given length.
+	 */
+	byte[] inflate(byte[] bytes, int length) throws DataFormatException {
+		Inflater inflater = inflaters.poll();
+		if (inflater == null) {
+			inflater = new Inflater(true);
+		}
+
+		try {
+			inflater.setInput(bytes);
+
+			byte[] output = new byte[length];
+			int inflated = 0;
+
+			while (inflated < length && !inflater.finished()) {
+				int count = inflater.inflate(output, inflated, length - inflated);
+
+				if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				inflated += count;
+			}
+
+			if (inflated != length) {
+				throw new DataFormatException("Expected " + length + " bytes, but inflated " + inflated + ".");
+			}
+
+			return output;
+		} finally {
+			inflater.reset();
+			if (!inflaters.offer(inflater)) {
+				inflater.end();
+			}
+		}
+	}
+
+	private void release(Deflater deflater, int level) {
+		deflater.reset();
+		if (!deflaters[level].offer(deflater)) {
+			deflater.end();
+		}
+	}
+
+	private static byte[] grow(byte[] output) {
+		byte[] grown = new byte[output.length * 2];
+		System.arraycopy(output, 0, grown, 0, output.length);
+		scratch.set(grown);
+		return grown;
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.config;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.reactive.vertx.bridge.VertxBridgeOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Util class for getting the options of the server-sent events and WebSocket bridge.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxBridgeConfigLoader {
+
+	public static final String PREFIX = VertxConfigLoader.PREFIX + "bridge.";
+
+	public static VertxBridgeOptions getOptions() {
+		ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
+		VertxBridgeOptions options = new VertxBridgeOptions()
+				.setEnabled(configurationUtil.getBoolean(PREFIX + "enabled")
+						.orElse(VertxBridgeOptions.DEFAULT_ENABLED))
+				.setHost(configurationUtil.get(PREFIX + "host")
+						.orElse(VertxBridgeOptions.DEFAULT_HOST))
+				.setPath(configurationUtil.get(PREFIX + "path")
+						.orElse(VertxBridgeOptions.DEFAULT_PATH))
+				.setOutbound(getList(PREFIX + "outbound"))
+				.setInbound(getList(PREFIX + "inbound"));
+
+		VertxConfigLoader.getPositiveInteger(PREFIX + "port").ifPresent(options::setPort);
+		VertxConfigLoader.getPositiveInteger(PREFIX + "instances").ifPresent(options::setInstances);
+		VertxConfigLoader.getPositiveInteger(PREFIX + "max-buffered-messages")
+				.ifPresent(options::setMaxBufferedMessages);
+		VertxConfigLoader.getPositiveInteger(PREFIX + "write-queue-max-size")
+				.ifPresent(options::setWriteQueueMaxSize);
+		VertxConfigLoader.getPositiveLong(PREFIX + "slow-client-timeout").ifPresent(options::setSlowClientTimeout);
+		VertxConfigLoader.getPositiveLong(PREFIX + "ping-interval").ifPresent(options::setPingInterval);
+
+		return options;
+	}
+
+	private static List<String> getList(String key) {
+		ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
+		List<String> list = new ArrayList<>();
+
+		int size = configurationUtil.getListSize(key).orElse(0);
+		for (int i = 0; i < size; i++) {
+			configurationUtil.get(key + "[" + i + "]").ifPresent(list::add);
+		}
+
+		return list;
+	}
+
+}
@@ -0,0 +1,203 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.config;
+
+import com.hazelcast.config.ClasspathXmlConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.FileSystemXmlConfig;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.NearCacheConfig;
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import io.vertx.core.spi.cluster.ClusterManager;
+import io.vertx.spi.cluster.hazelcast.HazelcastClusterManager;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Util class for creating the cluster manager used by clustered Vert.x.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxClusterManagerLoader {
+
+	private static final Logger log = Logger.getLogger(VertxClusterManagerLoader.class.getName());
+
+	public static final String PREFIX = VertxConfigLoader.PREFIX + "cluster-manager.";
+
+	public static final String TYPE_HAZELCAST = "hazelcast";
+	public static final String TYPE_LOCAL = "local";
+	public static final String TYPE_INFINISPAN = "infinispan";
+	public static final String TYPE_IGNITE = "ignite";
+
+	private static final String INFINISPAN_CLUSTER_MANAGER = "io.vertx.ext.cluster.infinispan.InfinispanClusterManager";
+	private static final String IGNITE_CLUSTER_MANAGER = "io.vertx.spi.cluster.ignite.IgniteClusterManager";
+
+	private static final String SUBSCRIPTIONS_MAP = "__vertx.subs";
+	private static final String DEFAULT_MAP = "default";
+	private static final String LOOPBACK = "127.0.0.1";
+
+	/**
+	 * Creates a cluster manager of the configured type. Hazelcast is used by default. Infinispan, Ignite and custom
+	 * cluster managers (given with a fully qualified class name) are instantiated reflectively, so their
+	 * dependencies only have to be present when they are selected.
+	 */
+	public static ClusterManager getClusterManager() {
+		String type = ConfigurationUtil.getInstance().get(PREFIX + "type").orElse(TYPE_HAZELCAST);
+
+		switch (type) {
+			case TYPE_HAZELCAST:
+				return createHazelcastClusterManager(false);
+			case TYPE_LOCAL:
+				return createHazelcastClusterManager(true);
+			case TYPE_INFINISPAN:
+				return createClusterManager(INFINISPAN_CLUSTER_MANAGER);
+			case TYPE_IGNITE:
+				return createClusterManager(IGNITE_CLUSTER_MANAGER);
+			default:
+				return createClusterManager(type);
+		}
+	}
+
+	private static ClusterManager createClusterManager(String className) {
+		try {
+			return (ClusterManager) Class.forName(className).newInstance();
+		} catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+			log.severe("Cluster manager " + className + " could not be created, using Hazelcast instead. "
+					+ e.getLocalizedMessage());
+			return createHazelcastClusterManager(false);
+		}
+	}
+
+	/**
+	 * Creates a Hazelcast cluster manager. The base configuration is read from the file given with
+	 * <code>cluster-manager.config</code> (classpath resource or file system path) or, if not set, from the Vert.x
+	 * default <code>cluster.xml</code>. Tuning options under <code>cluster-manager.hazelcast</code> are applied on
+	 * top of it.
+	 *
+	 * @param local restricts the cluster to the loopback interface with TCP/IP join, so that several nodes can be
+	 *              started in a single JVM or on a single machine without multicast discovery
+	 */
+	private static ClusterManager createHazelcastClusterManager(boolean local) {
+		HazelcastClusterManager clusterManager = new HazelcastClusterManager();
+
+		Config config = loadHazelcastConfig().orElseGet(clusterManager::loadConfig);
+
+		configureHazelcast(config);
+
+		if (local) {
+			configureLocalHazelcast(config);
+		}
+
+		clusterManager.setConfig(config);
+
+		return clusterManager;
+	}
+
+	private static Optional<Config> loadHazelcastConfig() {
+		Optional<String> location = ConfigurationUtil.getInstance().get(PREFIX + "config");
+
+		if (!location.isPresent()) {
+			return Optional.empty();
+		}
+
+		String path = location.get();
+
+		if (path.endsWith(".yaml") || path.endsWith(".yml")) {
+			log.warning("Hazelcast shipped with Vert.x only supports XML configuration, " + path
+					+ " is ignored.");
+			return Optional.empty();
+		}
+
+		try {
+			if (new File(path).isFile()) {
+				return Optional.of(new FileSystemXmlConfig(path));
+			}
+
+			return Optional.of(new ClasspathXmlConfig(path));
+		} catch (FileNotFoundException | IllegalArgumentException e) {
+			log.severe("Hazelcast configuration " + path + " could not be loaded, using default configuration. "
+					+ e.getLocalizedMessage());
+			return Optional.empty();
+		}
+	}
+
+	private static void configureHazelcast(Config config) {
+		ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
+		String prefix = PREFIX + "hazelcast.";
+
+		configurationUtil.getInteger(prefix + "partition-count").ifPresent(partitionCount ->
+				config.setProperty("hazelcast.partition.count", String.valueOf(partitionCount)));
+
+		configurationUtil.getInteger(prefix + "backup-count").ifPresent(backupCount -> {
+			config.getMultiMapConfig(SUBSCRIPTIONS_MAP).setBackupCount(backupCount);
+			config.getMapConfig(DEFAULT_MAP).setBackupCount(backupCount);
+		});
+
+		configurationUtil.getInteger(prefix + "async-backup-count").ifPresent(asyncBackupCount -> {
+			config.getMultiMapConfig(SUBSCRIPTIONS_MAP).setAsyncBackupCount(asyncBackupCount);
+			config.getMapConfig(DEFAULT_MAP).setAsyncBackupCount(asyncBackupCount);
+		});
+
+		if (configurationUtil.getBoolean(prefix + "near-cache").orElse(false)) {
+			config.getMapConfig(DEFAULT_MAP).setNearCacheConfig(new NearCacheConfig());
+		}
+
+		configurationUtil.getListSize(prefix + "interfaces").ifPresent(size -> {
+			config.getNetworkConfig().getInterfaces().setEnabled(true);
+
+			for (int i = 0; i < size; i++) {
+				configurationUtil.get(prefix + "interfaces[" + i + "]").ifPresent(networkInterface ->
+						config.getNetworkConfig().getInterfaces().addInterface(networkInterface));
+			}
+		});
+
+		configurationUtil.getInteger(prefix + "port").ifPresent(port -> config.getNetworkConfig().setPort(port));
+
+		configurationUtil.getListSize(prefix + "members").ifPresent(size -> {
+			JoinConfig join = config.getNetworkConfig().getJoin();
+			join.getMulticastConfig().setEnabled(false);
+			join.getTcpIpConfig().setEnabled(true);
+
+			for (int i = 0; i < size; i++) {
+				configurationUtil.get(prefix + "members[" + i + "]").ifPresent(member ->
+						join.getTcpIpConfig().addMember(member));
+			}
+		});
+	}
+
+	private static void configureLocalHazelcast(Config config) {
+		JoinConfig join = config.getNetworkConfig().getJoin();
+		join.getMulticastConfig().setEnabled(false);
+		join.getAwsConfig().setEnabled(false);
+		join.getTcpIpConfig().setEnabled(true).addMember(LOOPBACK);
+
+		config.getNetworkConfig().getInterfaces().setEnabled(true).addInterface(LOOPBACK);
+
+		// there is no network partitioning to wait for on loopback, join immediately
+		config.setProperty("hazelcast.wait.seconds.before.join", "0");
+		config.setProperty("hazelcast.phone.home.enabled", "false");
+	}
+
+}
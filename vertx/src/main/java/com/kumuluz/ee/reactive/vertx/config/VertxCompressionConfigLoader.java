@@ -0,0 +1,110 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.config;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.reactive.vertx.compression.VertxCompressionAlgorithm;
+import com.kumuluz.ee.reactive.vertx.compression.VertxCompressionOptions;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+
+/**
+ * Util class for getting the addresses whose messages are compressed on the clustered event bus. Options which are
+ * not set for an address are taken from <code>kumuluzee.reactive.vertx.compression</code>.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxCompressionConfigLoader {
+
+	private static final Logger log = Logger.getLogger(VertxCompressionConfigLoader.class.getName());
+
+	public static final String PREFIX = VertxConfigLoader.PREFIX + "compression.";
+
+	private static Map<String, VertxCompressionOptions> compressedAddresses;
+
+	public static synchronized Map<String, VertxCompressionOptions> getCompressedAddresses() {
+		if (compressedAddresses == null) {
+			ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
+			Map<String, VertxCompressionOptions> addresses = new HashMap<>();
+
+			int size = configurationUtil.getListSize(PREFIX + "addresses").orElse(0);
+
+			for (int i = 0; i < size; i++) {
+				String prefix = PREFIX + "addresses[" + i + "].";
+				Optional<String> address = configurationUtil.get(prefix + "address");
+
+				if (address.isPresent()) {
+					VertxCompressionOptions options = new VertxCompressionOptions(address.get())
+							.setAlgorithm(getAlgorithm(prefix).orElse(getAlgorithm(PREFIX)
+									.orElse(VertxCompressionOptions.DEFAULT_ALGORITHM)))
+							.setThreshold(getThreshold(prefix).orElse(getThreshold(PREFIX)
+									.orElse(VertxCompressionOptions.DEFAULT_THRESHOLD)))
+							.setLevel(getLevel(prefix).orElse(getLevel(PREFIX)
+									.orElse(VertxCompressionOptions.DEFAULT_LEVEL)));
+
+					addresses.put(address.get(), options);
+				}
+			}
+
+			compressedAddresses = Collections.unmodifiableMap(addresses);
+		}
+
+		return compressedAddresses;
+	}
+
+	public static Optional<VertxCompressionOptions> getOptions(String address) {
+		return Optional.ofNullable(getCompressedAddresses().get(address));
+	}
+
+	private static Optional<VertxCompressionAlgorithm> getAlgorithm(String prefix) {
+		return ConfigurationUtil.getInstance().get(prefix + "algorithm").flatMap(algorithm -> {
+			try {
+				return Optional.of(VertxCompressionAlgorithm.valueOf(algorithm.trim().toUpperCase()));
+			} catch (IllegalArgumentException e) {
+				log.warning("Invalid value " + algorithm + " for " + prefix + "algorithm, it has to be deflate or "
+						+ "none. Using default value.");
+				return Optional.empty();
+			}
+		});
+	}
+
+	private static Optional<Integer> getThreshold(String prefix) {
+		return VertxConfigLoader.getNonNegativeInteger(prefix + "threshold");
+	}
+
+	private static Optional<Integer> getLevel(String prefix) {
+		return ConfigurationUtil.getInstance().getInteger(prefix + "level").flatMap(level -> {
+			if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+				log.warning("Invalid value " + level + " for " + prefix + "level, it has to be between "
+						+ Deflater.BEST_SPEED + " and " + Deflater.BEST_COMPRESSION + ". Using default value.");
+				return Optional.empty();
+			}
+			return Optional.of(level);
+		});
+	}
+
+}
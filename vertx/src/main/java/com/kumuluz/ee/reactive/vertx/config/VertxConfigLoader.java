@@ -22,8 +22,15 @@ package com.kumuluz.ee.reactive.vertx.config;
 
 import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
 import io.vertx.core.VertxOptions;
+import io.vertx.core.eventbus.EventBusOptions;
+import io.vertx.core.http.ClientAuth;
+import io.vertx.core.net.JksOptions;
 import io.vertx.core.spi.cluster.ClusterManager;
-import io.vertx.spi.cluster.hazelcast.HazelcastClusterManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Logger;
 
 /**
  * Util class for getting initialization parameters for Vert.x.
@@ -33,38 +40,67 @@ import io.vertx.spi.cluster.hazelcast.HazelcastClusterManager;
  */
 public class VertxConfigLoader {
 
+	private static final Logger log = Logger.getLogger(VertxConfigLoader.class.getName());
+
 	public static final String PREFIX = "kumuluzee.reactive.vertx.";
+	public static final String EVENT_BUS_PREFIX = PREFIX + "event-bus.";
+	public static final String INSTANCES_PREFIX = PREFIX + "instances";
+	
+	public static final long DEFAULT_SHUTDOWN_TIMEOUT = 5000;
+	public static final long DEFAULT_STARTUP_TIMEOUT = 60000;
+	
+	private static final String[] NATIVE_TRANSPORTS = {
+			"io.netty.channel.epoll.Epoll",
+			"io.netty.channel.kqueue.KQueue"
+	};
 	
 	public static boolean isClustered = false;
 	
 	public static VertxOptions getVertxOptions() {
+		VertxOptions vertxOptions = getVertxOptions(PREFIX);
+		
+		isClustered = vertxOptions.isClustered();
+		
+		return vertxOptions;
+	}
+	
+	/**
+	 * Returns the options of the Vert.x instance configured under the given prefix. Named instances are configured
+	 * with the same keys as the default instance, under <code>kumuluzee.reactive.vertx.instances.&lt;name&gt;.</code>
+	 */
+	public static VertxOptions getVertxOptions(String prefix) {
 		VertxOptions vertxOptions = new VertxOptions();		
 		
 		ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
 		
-		boolean clustered = configurationUtil.getBoolean(PREFIX + "clustered")
+		boolean clustered = configurationUtil.getBoolean(prefix + "clustered")
 				.orElse(VertxOptions.DEFAULT_CLUSTERED);
-		long blockedThreadCheckInterval = configurationUtil.getLong(PREFIX + "blocked-thread-check-interval")
+		long blockedThreadCheckInterval = getPositiveLong(prefix + "blocked-thread-check-interval")
 				.orElse(VertxOptions.DEFAULT_BLOCKED_THREAD_CHECK_INTERVAL);
-		boolean fileResolverCachingEnabled = configurationUtil.getBoolean(PREFIX + "file-caching-enabled")
+		int eventLoopPoolSize = getPositiveInteger(prefix + "event-loop-pool-size")
+				.orElse(VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE);
+		boolean fileResolverCachingEnabled = configurationUtil.getBoolean(prefix + "file-caching-enabled")
 				.orElse(VertxOptions.DEFAULT_FILE_CACHING_ENABLED);
-		boolean haEnabled = configurationUtil.getBoolean(PREFIX + "ha-enabled")
+		boolean haEnabled = configurationUtil.getBoolean(prefix + "ha-enabled")
 				.orElse(VertxOptions.DEFAULT_HA_ENABLED);
-		String haGroup = configurationUtil.get(PREFIX + "ha-group")
+		String haGroup = configurationUtil.get(prefix + "ha-group")
 				.orElse(VertxOptions.DEFAULT_HA_GROUP);
-		int internalBlockingPoolSize = configurationUtil.getInteger(PREFIX + "internal-blocking-pool-size")
+		int internalBlockingPoolSize = getPositiveInteger(prefix + "internal-blocking-pool-size")
 				.orElse(VertxOptions.DEFAULT_INTERNAL_BLOCKING_POOL_SIZE);
-		long maxEventLoopExecuteTime = configurationUtil.getLong(PREFIX + "max-event-loop-execute-time")
+		long maxEventLoopExecuteTime = getPositiveLong(prefix + "max-event-loop-execute-time")
 				.orElse(VertxOptions.DEFAULT_MAX_EVENT_LOOP_EXECUTE_TIME);
-		long maxWorkerExecuteTime = configurationUtil.getLong(PREFIX + "max-worker-execute-time")
+		long maxWorkerExecuteTime = getPositiveLong(prefix + "max-worker-execute-time")
 				.orElse(VertxOptions.DEFAULT_MAX_WORKER_EXECUTE_TIME);
-		int quorumSize = configurationUtil.getInteger(PREFIX + "quorum-size")
+		int quorumSize = getPositiveInteger(prefix + "quorum-size")
 				.orElse(VertxOptions.DEFAULT_QUORUM_SIZE);
-		int workerPoolSize = configurationUtil.getInteger(PREFIX + "worker-pool-size")
+		int workerPoolSize = getPositiveInteger(prefix + "worker-pool-size")
 				.orElse(VertxOptions.DEFAULT_WORKER_POOL_SIZE);
+		boolean preferNativeTransport = configurationUtil.getBoolean(prefix + "prefer-native-transport")
+				.orElse(VertxOptions.DEFAULT_PREFER_NATIVE_TRANSPORT);
 		
 		
 		vertxOptions.setFileResolverCachingEnabled(fileResolverCachingEnabled)
+					.setEventLoopPoolSize(eventLoopPoolSize)
 					.setHAEnabled(haEnabled)
 					.setHAGroup(haGroup)
 					.setInternalBlockingPoolSize(internalBlockingPoolSize)
@@ -72,25 +108,26 @@ public class VertxConfigLoader {
 					.setMaxWorkerExecuteTime(maxWorkerExecuteTime)
 					.setQuorumSize(quorumSize)
 					.setWorkerPoolSize(workerPoolSize)
-					.setBlockedThreadCheckInterval(blockedThreadCheckInterval);
+					.setBlockedThreadCheckInterval(blockedThreadCheckInterval)
+					.setPreferNativeTransport(preferNativeTransport && isNativeTransportAvailable());
 		
 		if(clustered) {
-			isClustered = true;
+			vertxOptions.setClustered(true);
 			
-			String clusterHost = configurationUtil.get(PREFIX + "cluster-host")
+			String clusterHost = configurationUtil.get(prefix + "cluster-host")
 					.orElse(VertxOptions.DEFAULT_CLUSTER_HOST);
-			int clusterPort = configurationUtil.getInteger(PREFIX + "cluster-port")
+			int clusterPort = configurationUtil.getInteger(prefix + "cluster-port")
 					.orElse(VertxOptions.DEFAULT_CLUSTER_PORT);
-			long clusterPingInterval = configurationUtil.getLong(PREFIX + "cluster-ping-interval")
+			long clusterPingInterval = configurationUtil.getLong(prefix + "cluster-ping-interval")
 					.orElse(VertxOptions.DEFAULT_CLUSTER_PING_INTERVAL);
-			long clusterPingReplyInterval = configurationUtil.getLong(PREFIX + "cluster-ping-reply-interval")
+			long clusterPingReplyInterval = configurationUtil.getLong(prefix + "cluster-ping-reply-interval")
 					.orElse(VertxOptions.DEFAULT_CLUSTER_PING_REPLY_INTERVAL);
-			String clusterPublicHost = configurationUtil.get(PREFIX + "cluster-public-host")
+			String clusterPublicHost = configurationUtil.get(prefix + "cluster-public-host")
 					.orElse(VertxOptions.DEFAULT_CLUSTER_PUBLIC_HOST);
-			int clusterPublicPort = configurationUtil.getInteger(PREFIX + "cluster-public-port")
+			int clusterPublicPort = configurationUtil.getInteger(prefix + "cluster-public-port")
 					.orElse(VertxOptions.DEFAULT_CLUSTER_PUBLIC_PORT);	
 			
-			ClusterManager mgr = new HazelcastClusterManager();
+			ClusterManager mgr = VertxClusterManagerLoader.getClusterManager();
 			vertxOptions.setClusterManager(mgr)
 						.setClusterHost(clusterHost)
 						.setClusterPort(clusterPort)
@@ -105,8 +142,147 @@ public class VertxConfigLoader {
 				vertxOptions.setClusterPublicPort(clusterPublicPort);
 			}
 			
+			configureEventBus(vertxOptions.getEventBusOptions(), prefix + "event-bus.");
 		}
 		
 		return vertxOptions;
-	}	
+	}
+	
+	/**
+	 * Applies the transport options of the clustered event bus. Options which are not configured keep the Vert.x
+	 * defaults. Cluster host, port and ping intervals are set on the {@link VertxOptions}, which delegates them to
+	 * the same {@link EventBusOptions}.
+	 */
+	private static void configureEventBus(EventBusOptions eventBusOptions, String eventBusPrefix) {
+		ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
+		
+		configurationUtil.getBoolean(eventBusPrefix + "tcp-no-delay").ifPresent(eventBusOptions::setTcpNoDelay);
+		configurationUtil.getBoolean(eventBusPrefix + "tcp-keep-alive").ifPresent(eventBusOptions::setTcpKeepAlive);
+		configurationUtil.getBoolean(eventBusPrefix + "reuse-address").ifPresent(eventBusOptions::setReuseAddress);
+		configurationUtil.getBoolean(eventBusPrefix + "use-pooled-buffers")
+				.ifPresent(eventBusOptions::setUsePooledBuffers);
+		getPositiveInteger(eventBusPrefix + "send-buffer-size").ifPresent(eventBusOptions::setSendBufferSize);
+		getPositiveInteger(eventBusPrefix + "receive-buffer-size").ifPresent(eventBusOptions::setReceiveBufferSize);
+		getNonNegativeInteger(eventBusPrefix + "so-linger").ifPresent(eventBusOptions::setSoLinger);
+		getNonNegativeInteger(eventBusPrefix + "idle-timeout").ifPresent(eventBusOptions::setIdleTimeout);
+		getNonNegativeInteger(eventBusPrefix + "connect-timeout").ifPresent(eventBusOptions::setConnectTimeout);
+		getPositiveInteger(eventBusPrefix + "accept-backlog").ifPresent(eventBusOptions::setAcceptBacklog);
+		getNonNegativeInteger(eventBusPrefix + "reconnect-attempts")
+				.ifPresent(eventBusOptions::setReconnectAttempts);
+		getPositiveLong(eventBusPrefix + "reconnect-interval").ifPresent(eventBusOptions::setReconnectInterval);
+		
+		configurationUtil.getInteger(eventBusPrefix + "traffic-class").ifPresent(trafficClass -> {
+			if (trafficClass < 0 || trafficClass > 255) {
+				log.warning("Invalid value " + trafficClass + " for " + eventBusPrefix
+						+ "traffic-class, it has to be between 0 and 255. Using default value.");
+			} else {
+				eventBusOptions.setTrafficClass(trafficClass);
+			}
+		});
+		
+		boolean ssl = configurationUtil.getBoolean(eventBusPrefix + "ssl").orElse(EventBusOptions.DEFAULT_SSL);
+		
+		if (ssl) {
+			eventBusOptions.setSsl(true);
+			
+			configurationUtil.getBoolean(eventBusPrefix + "trust-all").ifPresent(eventBusOptions::setTrustAll);
+			configurationUtil.get(eventBusPrefix + "client-auth").ifPresent(clientAuth -> {
+				try {
+					eventBusOptions.setClientAuth(ClientAuth.valueOf(clientAuth.toUpperCase()));
+				} catch (IllegalArgumentException e) {
+					log.warning("Invalid value " + clientAuth + " for " + eventBusPrefix
+							+ "client-auth, it has to be one of NONE, REQUEST or REQUIRED. Using default value.");
+				}
+			});
+			
+			getJksOptions(eventBusPrefix + "key-store.").ifPresent(eventBusOptions::setKeyStoreOptions);
+			getJksOptions(eventBusPrefix + "trust-store.").ifPresent(eventBusOptions::setTrustStoreOptions);
+		}
+	}
+	
+	private static Optional<JksOptions> getJksOptions(String prefix) {
+		ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
+		
+		Optional<String> path = configurationUtil.get(prefix + "path");
+		
+		if (!path.isPresent()) {
+			return Optional.empty();
+		}
+		
+		JksOptions jksOptions = new JksOptions().setPath(path.get());
+		configurationUtil.get(prefix + "password").ifPresent(jksOptions::setPassword);
+		
+		return Optional.of(jksOptions);
+	}
+	
+	/**
+	 * Checks whether a native transport (epoll on Linux, kqueue on BSD/macOS) is on the classpath and can be loaded
+	 * on this platform. If not, Vert.x falls back to the NIO transport.
+	 */
+	private static boolean isNativeTransportAvailable() {
+		for (String transport : NATIVE_TRANSPORTS) {
+			try {
+				Class<?> transportClass = Class.forName(transport);
+				if ((Boolean) transportClass.getMethod("isAvailable").invoke(null)) {
+					log.info("Native transport " + transportClass.getSimpleName() + " is available.");
+					return true;
+				}
+			} catch (ReflectiveOperationException | LinkageError e) {
+				// transport is not on the classpath, try the next one
+			}
+		}
+		
+		log.warning("Native transport was requested but is not available, falling back to NIO. Add "
+				+ "netty-transport-native-epoll (or kqueue) with the matching classifier to the classpath.");
+		
+		return false;
+	}
+	
+	static Optional<Integer> getPositiveInteger(String key) {
+		return ConfigurationUtil.getInstance().getInteger(key).filter(value -> isValid(key, value > 0, value));
+	}
+	
+	static Optional<Integer> getNonNegativeInteger(String key) {
+		return ConfigurationUtil.getInstance().getInteger(key).filter(value -> isValid(key, value >= 0, value));
+	}
+	
+	static Optional<Long> getPositiveLong(String key) {
+		return ConfigurationUtil.getInstance().getLong(key).filter(value -> isValid(key, value > 0, value));
+	}
+	
+	private static boolean isValid(String key, boolean valid, Object value) {
+		if (!valid) {
+			log.warning("Invalid value " + value + " for " + key + ". Using default value.");
+		}
+		return valid;
+	}
+	
+	/**
+	 * Returns the names of the Vert.x instances configured in addition to the default instance.
+	 */
+	public static List<String> getInstanceNames() {
+		return ConfigurationUtil.getInstance().getMapKeys(INSTANCES_PREFIX).orElse(Collections.emptyList());
+	}
+	
+	/**
+	 * Returns the configuration prefix of the Vert.x instance with the given name.
+	 */
+	public static String getInstancePrefix(String name) {
+		return name == null || name.isEmpty() ? PREFIX : INSTANCES_PREFIX + "." + name + ".";
+	}
+	
+	/**
+	 * Returns the time in milliseconds in which listeners have to be drained and Vert.x closed on shutdown.
+	 */
+	public static long getShutdownTimeout() {
+		return ConfigurationUtil.getInstance().getLong(PREFIX + "shutdown-timeout")
+				.orElse(DEFAULT_SHUTDOWN_TIMEOUT);
+	}
+	
+	/**
+	 * Returns the time in milliseconds publishers wait for a Vert.x instance to be initialized, e.g. to join the cluster.
+	 */
+	public static long getStartupTimeout() {
+		return getPositiveLong(PREFIX + "startup-timeout").orElse(DEFAULT_STARTUP_TIMEOUT);
+	}
 }
@@ -0,0 +1,66 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.config;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+
+/**
+ * Util class for getting the options of the event loop lag and blocked thread diagnostics.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxDiagnosticsConfigLoader {
+
+	public static final String PREFIX = VertxConfigLoader.PREFIX + "diagnostics.";
+
+	public static final boolean DEFAULT_ENABLED = false;
+	public static final long DEFAULT_LAG_SAMPLE_INTERVAL = 1000;
+	public static final long DEFAULT_LAG_THRESHOLD = 2000;
+	public static final long DEFAULT_BLOCKED_CHECK_INTERVAL = 1000;
+
+	public static boolean isEnabled() {
+		return ConfigurationUtil.getInstance().getBoolean(PREFIX + "enabled").orElse(DEFAULT_ENABLED);
+	}
+
+	/**
+	 * Returns the interval in milliseconds of the timers measuring the lag of the event loops.
+	 */
+	public static long getLagSampleInterval() {
+		return VertxConfigLoader.getPositiveLong(PREFIX + "lag-sample-interval").orElse(DEFAULT_LAG_SAMPLE_INTERVAL);
+	}
+
+	/**
+	 * Returns the event loop lag in milliseconds above which the health check reports Vert.x as down.
+	 */
+	public static long getLagThreshold() {
+		return VertxConfigLoader.getPositiveLong(PREFIX + "lag-threshold").orElse(DEFAULT_LAG_THRESHOLD);
+	}
+
+	/**
+	 * Returns the interval in milliseconds in which running listener invocations are checked for blocking.
+	 */
+	public static long getBlockedCheckInterval() {
+		return VertxConfigLoader.getPositiveLong(PREFIX + "blocked-check-interval")
+				.orElse(DEFAULT_BLOCKED_CHECK_INTERVAL);
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.config;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.reactive.vertx.eventbus.VertxEventBusAddresses;
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLogOptions;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Util class for getting the durable addresses, which are backed by an event log.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxEventLogConfigLoader {
+
+	public static final String PREFIX = VertxConfigLoader.PREFIX + "durable.";
+
+	public static final String DEFAULT_DIRECTORY = "event-log";
+	public static final long DEFAULT_RETENTION_CHECK_INTERVAL = 60000;
+	public static final long DEFAULT_REPLAY_IDLE_TIMEOUT = 1000;
+	public static final int DEFAULT_REPLAY_BATCH_SIZE = 256;
+
+	private static Map<String, VertxEventLogOptions> durableAddresses;
+
+	public static synchronized Map<String, VertxEventLogOptions> getDurableAddresses() {
+		if (durableAddresses == null) {
+			ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
+			Map<String, VertxEventLogOptions> addresses = new HashMap<>();
+
+			String directory = configurationUtil.get(PREFIX + "directory").orElse(DEFAULT_DIRECTORY);
+			int size = configurationUtil.getListSize(PREFIX + "addresses").orElse(0);
+
+			for (int i = 0; i < size; i++) {
+				String prefix = PREFIX + "addresses[" + i + "].";
+				Optional<String> address = configurationUtil.get(prefix + "address");
+
+				if (address.isPresent()) {
+					VertxEventLogOptions options = new VertxEventLogOptions(address.get(), directory)
+							.setSegmentSize(configurationUtil.getInteger(prefix + "segment-size")
+									.orElse(VertxEventLogOptions.DEFAULT_SEGMENT_SIZE))
+							.setRetentionBytes(configurationUtil.getLong(prefix + "retention-bytes")
+									.orElse(VertxEventLogOptions.DEFAULT_RETENTION_BYTES))
+							.setRetentionTime(configurationUtil.getLong(prefix + "retention-time")
+									.orElse(VertxEventLogOptions.DEFAULT_RETENTION_TIME));
+
+					addresses.put(address.get(), options);
+				}
+			}
+
+			durableAddresses = Collections.unmodifiableMap(addresses);
+		}
+
+		return durableAddresses;
+	}
+
+	/**
+	 * Returns the options of a durable address. Partitions of a durable address are durable too, with a log of their
+	 * own.
+	 */
+	public static Optional<VertxEventLogOptions> getOptions(String address) {
+		String base = VertxEventBusAddresses.base(address);
+		VertxEventLogOptions options = getDurableAddresses().get(base);
+
+		if (options == null || base.equals(address)) {
+			return Optional.ofNullable(options);
+		}
+
+		return Optional.of(options.forAddress(address));
+	}
+
+	public static long getRetentionCheckInterval() {
+		return ConfigurationUtil.getInstance().getLong(PREFIX + "retention-check-interval")
+				.orElse(DEFAULT_RETENTION_CHECK_INTERVAL);
+	}
+
+	/**
+	 * Returns the time in milliseconds after the last replayed message, after which a listener considers the replay
+	 * finished.
+	 */
+	public static long getReplayIdleTimeout() {
+		return ConfigurationUtil.getInstance().getLong(PREFIX + "replay-idle-timeout")
+				.orElse(DEFAULT_REPLAY_IDLE_TIMEOUT);
+	}
+
+	public static int getReplayBatchSize() {
+		return ConfigurationUtil.getInstance().getInteger(PREFIX + "replay-batch-size")
+				.orElse(DEFAULT_REPLAY_BATCH_SIZE);
+	}
+
+}
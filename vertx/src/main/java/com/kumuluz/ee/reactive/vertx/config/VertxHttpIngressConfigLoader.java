@@ -0,0 +1,101 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.config;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.reactive.vertx.http.VertxHttpIngressOptions;
+import com.kumuluz.ee.reactive.vertx.http.VertxHttpIngressRoute;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Util class for getting the options and routes of the HTTP ingress.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxHttpIngressConfigLoader {
+
+	private static final Logger log = Logger.getLogger(VertxHttpIngressConfigLoader.class.getName());
+
+	public static final String PREFIX = VertxConfigLoader.PREFIX + "http-ingress.";
+
+	public static VertxHttpIngressOptions getOptions() {
+		ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
+		VertxHttpIngressOptions options = new VertxHttpIngressOptions()
+				.setEnabled(configurationUtil.getBoolean(PREFIX + "enabled")
+						.orElse(VertxHttpIngressOptions.DEFAULT_ENABLED))
+				.setHost(configurationUtil.get(PREFIX + "host")
+						.orElse(VertxHttpIngressOptions.DEFAULT_HOST))
+				.setRoutes(getRoutes());
+
+		VertxConfigLoader.getPositiveInteger(PREFIX + "port").ifPresent(options::setPort);
+		VertxConfigLoader.getPositiveInteger(PREFIX + "instances").ifPresent(options::setInstances);
+		VertxConfigLoader.getPositiveInteger(PREFIX + "max-body-size").ifPresent(options::setMaxBodySize);
+
+		return options;
+	}
+
+	private static List<VertxHttpIngressRoute> getRoutes() {
+		ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
+		List<VertxHttpIngressRoute> routes = new ArrayList<>();
+
+		int size = configurationUtil.getListSize(PREFIX + "routes").orElse(0);
+
+		for (int i = 0; i < size; i++) {
+			String prefix = PREFIX + "routes[" + i + "].";
+			Optional<String> path = configurationUtil.get(prefix + "path");
+			Optional<String> address = configurationUtil.get(prefix + "address");
+
+			if (!path.isPresent() || !address.isPresent()) {
+				log.warning("Route " + prefix + " requires a path and an address and will be ignored.");
+				continue;
+			}
+
+			VertxHttpIngressRoute route = new VertxHttpIngressRoute(path.get(), address.get())
+					.setMethod(configurationUtil.get(prefix + "method")
+							.orElse(VertxHttpIngressRoute.DEFAULT_METHOD).toUpperCase())
+					.setSend(configurationUtil.getBoolean(prefix + "send")
+							.orElse(VertxHttpIngressRoute.DEFAULT_SEND))
+					.setReply(configurationUtil.getBoolean(prefix + "reply")
+							.orElse(VertxHttpIngressRoute.DEFAULT_REPLY))
+					.setLocalOnly(configurationUtil.getBoolean(prefix + "local-only").orElse(false));
+
+			VertxConfigLoader.getPositiveLong(prefix + "timeout").ifPresent(route::setTimeout);
+
+			configurationUtil.get(prefix + "body-type").ifPresent(bodyType -> {
+				try {
+					route.setBodyType(VertxHttpIngressRoute.BodyType.valueOf(bodyType.toUpperCase()));
+				} catch (IllegalArgumentException e) {
+					log.warning("Invalid value " + bodyType + " for " + prefix + "body-type. Using default value.");
+				}
+			});
+
+			routes.add(route);
+		}
+
+		return routes;
+	}
+
+}
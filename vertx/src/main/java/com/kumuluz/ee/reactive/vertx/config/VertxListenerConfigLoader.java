@@ -0,0 +1,181 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.config;
+
+import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
+import com.kumuluz.ee.reactive.vertx.eventbus.VertxEventBusAddresses;
+import com.kumuluz.ee.reactive.vertx.eventbus.VertxListenerOptions;
+import com.kumuluz.ee.reactive.vertx.eventbus.VertxOverflowPolicy;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Util class for getting the options of listeners, which are configured per address.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxListenerConfigLoader {
+
+	private static final Logger log = Logger.getLogger(VertxListenerConfigLoader.class.getName());
+
+	public static final String PREFIX = VertxConfigLoader.PREFIX + "listeners";
+
+	private static Map<String, VertxListenerOptions> listeners;
+
+	/**
+	 * Returns the options of the listener of the given address. Partitions of an address share the options of the
+	 * address.
+	 */
+	public static VertxListenerOptions getOptions(String address) {
+		Map<String, VertxListenerOptions> listeners = getListeners();
+
+		VertxListenerOptions options = listeners.get(address);
+
+		if (options == null) {
+			options = listeners.get(VertxEventBusAddresses.base(address));
+		}
+
+		return options == null ? new VertxListenerOptions(address).setEnabled(isEnabled()).setLazy(isLazy()) : options;
+	}
+
+	/**
+	 * Returns false if listeners are disabled unless enabled per address, e.g. in a profile without consumers.
+	 */
+	public static boolean isEnabled() {
+		return ConfigurationUtil.getInstance().getBoolean(VertxConfigLoader.PREFIX + "listeners-enabled")
+				.orElse(VertxListenerOptions.DEFAULT_ENABLED);
+	}
+
+	/**
+	 * Returns true if listener beans are resolved on the first message, unless configured otherwise per address.
+	 */
+	public static boolean isLazy() {
+		return ConfigurationUtil.getInstance().getBoolean(VertxConfigLoader.PREFIX + "lazy-listeners")
+				.orElse(VertxListenerOptions.DEFAULT_LAZY);
+	}
+
+	private static synchronized Map<String, VertxListenerOptions> getListeners() {
+		if (listeners == null) {
+			ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
+			Map<String, VertxListenerOptions> options = new HashMap<>();
+
+			int size = configurationUtil.getListSize(PREFIX).orElse(0);
+
+			for (int i = 0; i < size; i++) {
+				String prefix = PREFIX + "[" + i + "].";
+				Optional<String> address = configurationUtil.get(prefix + "address");
+
+				if (address.isPresent()) {
+					options.put(address.get(), loadOptions(address.get(), prefix));
+				}
+			}
+
+			listeners = Collections.unmodifiableMap(options);
+		}
+
+		return listeners;
+	}
+
+	private static VertxListenerOptions loadOptions(String address, String prefix) {
+		ConfigurationUtil configurationUtil = ConfigurationUtil.getInstance();
+
+		VertxListenerOptions options = new VertxListenerOptions(address)
+				.setMaxBufferedMessages(configurationUtil.getInteger(prefix + "max-buffered-messages")
+						.orElse(VertxListenerOptions.DEFAULT_MAX_BUFFERED_MESSAGES))
+				.setWorker(configurationUtil.getBoolean(prefix + "worker")
+						.orElse(VertxListenerOptions.DEFAULT_WORKER))
+				.setSpillDirectory(configurationUtil.get(prefix + "spill-directory")
+						.orElse(VertxListenerOptions.DEFAULT_SPILL_DIRECTORY))
+				.setRequestContext(configurationUtil.getBoolean(prefix + "request-context")
+						.orElse(VertxListenerOptions.DEFAULT_REQUEST_CONTEXT))
+				.setEnabled(configurationUtil.getBoolean(prefix + "enabled").orElse(isEnabled()))
+				.setLazy(configurationUtil.getBoolean(prefix + "lazy").orElse(isLazy()));
+
+		int maxConcurrency = configurationUtil.getInteger(prefix + "max-concurrency")
+				.orElse(VertxListenerOptions.DEFAULT_MAX_CONCURRENCY);
+		if (maxConcurrency < 1) {
+			log.warning("Invalid value " + maxConcurrency + " for " + prefix + "max-concurrency. Using default value.");
+		} else {
+			options.setMaxConcurrency(maxConcurrency);
+		}
+
+		VertxConfigLoader.getNonNegativeInteger(prefix + "retry.max-attempts")
+				.ifPresent(options::setRetryMaxAttempts);
+		VertxConfigLoader.getPositiveLong(prefix + "retry.initial-delay")
+				.ifPresent(options::setRetryInitialDelay);
+		VertxConfigLoader.getPositiveLong(prefix + "retry.max-delay")
+				.ifPresent(options::setRetryMaxDelay);
+
+		configurationUtil.get(prefix + "retry.multiplier").ifPresent(multiplier -> {
+			try {
+				double value = Double.parseDouble(multiplier);
+				if (value < 1) {
+					throw new NumberFormatException();
+				}
+				options.setRetryMultiplier(value);
+			} catch (NumberFormatException e) {
+				log.warning("Invalid value " + multiplier + " for " + prefix + "retry.multiplier. Using default value.");
+			}
+		});
+
+		configurationUtil.get(prefix + "dead-letter-address").ifPresent(options::setDeadLetterAddress);
+
+		VertxConfigLoader.getNonNegativeInteger(prefix + "circuit-breaker.failure-threshold")
+				.ifPresent(options::setCircuitBreakerFailureThreshold);
+		VertxConfigLoader.getPositiveLong(prefix + "circuit-breaker.reset-timeout")
+				.ifPresent(options::setCircuitBreakerResetTimeout);
+
+		configurationUtil.get(prefix + "rate-limit.rate").ifPresent(rate -> {
+			try {
+				double value = Double.parseDouble(rate);
+				if (value < 0) {
+					throw new NumberFormatException();
+				}
+				options.setRateLimit(value);
+			} catch (NumberFormatException e) {
+				log.warning("Invalid value " + rate + " for " + prefix + "rate-limit.rate. Using default value.");
+			}
+		});
+		VertxConfigLoader.getPositiveInteger(prefix + "rate-limit.burst")
+				.ifPresent(options::setRateLimitBurst);
+
+		options.setAdaptiveConcurrency(configurationUtil.getBoolean(prefix + "adaptive-concurrency.enabled")
+				.orElse(VertxListenerOptions.DEFAULT_ADAPTIVE_CONCURRENCY));
+		VertxConfigLoader.getPositiveInteger(prefix + "adaptive-concurrency.min-limit")
+				.ifPresent(options::setAdaptiveConcurrencyMinLimit);
+
+		configurationUtil.get(prefix + "overflow-policy").ifPresent(policy -> {
+			try {
+				options.setOverflowPolicy(VertxOverflowPolicy.valueOf(policy.toUpperCase().replace('-', '_')));
+			} catch (IllegalArgumentException e) {
+				log.warning("Invalid value " + policy + " for " + prefix + "overflow-policy. Using default value.");
+			}
+		});
+
+		return options;
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.config;
+
+import com.kumuluz.ee.reactive.vertx.scheduling.VertxSchedulerOptions;
+
+/**
+ * Util class for getting the options of the scheduler, under <code>kumuluzee.reactive.vertx.scheduler</code>.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxSchedulerConfigLoader {
+
+	public static final String PREFIX = VertxConfigLoader.PREFIX + "scheduler.";
+
+	private static VertxSchedulerOptions options;
+
+	public static synchronized VertxSchedulerOptions getOptions() {
+		if (options == null) {
+			options = new VertxSchedulerOptions()
+					.setTickDuration(VertxConfigLoader.getPositiveLong(PREFIX + "tick-duration")
+							.orElse(VertxSchedulerOptions.DEFAULT_TICK_DURATION))
+					.setTicksPerWheel(VertxConfigLoader.getPositiveInteger(PREFIX + "ticks-per-wheel")
+							.orElse(VertxSchedulerOptions.DEFAULT_TICKS_PER_WHEEL))
+					.setMaxPending(VertxConfigLoader.getPositiveLong(PREFIX + "max-pending")
+							.orElse(VertxSchedulerOptions.DEFAULT_MAX_PENDING));
+		}
+
+		return options;
+	}
+
+}
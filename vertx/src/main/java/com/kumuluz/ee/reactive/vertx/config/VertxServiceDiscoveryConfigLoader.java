@@ -23,6 +23,11 @@ package com.kumuluz.ee.reactive.vertx.config;
 import com.kumuluz.ee.configuration.utils.ConfigurationUtil;
 import io.vertx.core.json.JsonObject;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Util class for getting initialization parameters for Vert.x Service Discovery.
  *
@@ -51,8 +56,35 @@ public class VertxServiceDiscoveryConfigLoader {
 		JsonObject conf = new JsonObject()
 				.put("env", env)
 				.put("ttl", ttl)
-				.put("ping-interval", pingInterval);
+				.put("ping-interval", pingInterval)
+				.put("announce-window", configurationUtil.getLong(PREFIX + "announce-window").orElse((long) 100))
+				.put("digest-interval", configurationUtil.getLong(PREFIX + "digest-interval").orElse((long) 30000))
+				.put("compact-announcements", isCompactAnnouncements())
+				.put("negative-cache-ttl", configurationUtil.getLong(PREFIX + "negative-cache-ttl").orElse((long) 5000))
+				.put("snapshot-file", configurationUtil.get(PREFIX + "snapshot.file").orElse(null))
+				.put("snapshot-interval", configurationUtil.getLong(PREFIX + "snapshot.interval").orElse((long) 10000))
+				.put("snapshot-max-age", configurationUtil.getLong(PREFIX + "snapshot.max-age").orElse((long) 300000));
 		
 		return conf;
 	}
+	
+	/**
+	 * Returns true if the Vert.x Service Discovery of this node announces its records to the bridge only, which
+	 * forwards them to the other nodes as compact deltas.
+	 */
+	public static boolean isCompactAnnouncements() {
+		return ConfigurationUtil.getInstance().getBoolean(PREFIX + "compact-announcements").orElse(false);
+	}
+	
+	/**
+	 * Returns the environments searched, in order, when a service is not found in the given environment.
+	 */
+	public static List<String> getEnvironmentFallbacks(String env) {
+		return ConfigurationUtil.getInstance().get(PREFIX + "env-fallbacks." + env)
+				.map(fallbacks -> Arrays.stream(fallbacks.split(","))
+						.map(String::trim)
+						.filter(fallback -> !fallback.isEmpty())
+						.collect(Collectors.toList()))
+				.orElse(Collections.emptyList());
+	}
 }
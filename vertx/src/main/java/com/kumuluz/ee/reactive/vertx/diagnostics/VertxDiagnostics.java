@@ -0,0 +1,267 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.diagnostics;
+
+import com.kumuluz.ee.reactive.vertx.config.VertxDiagnosticsConfigLoader;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Diagnostics of the Vert.x instances: the lag of every event loop, the utilization of the worker pools and listener
+ * invocations which block their thread for longer than the max execute time. Unlike the blocked thread checker of
+ * Vert.x, blocked threads are attributed to the listener method running on them.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxDiagnostics {
+
+	private static final Logger log = Logger.getLogger(VertxDiagnostics.class.getName());
+
+	private static final int STACK_TRACE_DEPTH = 10;
+
+	private static final VertxDiagnostics instance = new VertxDiagnostics();
+
+	private final boolean enabled = VertxDiagnosticsConfigLoader.isEnabled();
+
+	private final Map<String, VertxEventLoopLag> lags = new ConcurrentHashMap<>();
+	private final Map<Thread, Invocation> invocations = new ConcurrentHashMap<>();
+	private final Map<String, AtomicLong> blockedListeners = new ConcurrentHashMap<>();
+	private final List<Consumer<String>> blockedHandlers = new CopyOnWriteArrayList<>();
+	private final AtomicLong blocked = new AtomicLong();
+	private final AtomicInteger activeWorkers = new AtomicInteger();
+	private final AtomicInteger workerPoolSize = new AtomicInteger();
+
+	private Timer checker;
+
+	public static VertxDiagnostics getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Starts sampling the event loops of a Vert.x instance, one sampler per event loop, and checking listener
+	 * invocations for blocking.
+	 */
+	public synchronized void start(String instanceName, Vertx vertx, VertxOptions vertxOptions) {
+		if (!enabled) {
+			return;
+		}
+
+		workerPoolSize.addAndGet(vertxOptions.getWorkerPoolSize());
+
+		long interval = VertxDiagnosticsConfigLoader.getLagSampleInterval();
+		vertx.deployVerticle(() -> new VertxEventLoopLagSampler(instanceName, interval),
+				new DeploymentOptions().setInstances(vertxOptions.getEventLoopPoolSize()), res -> {
+			if (res.failed()) {
+				log.warning("Error at starting event loop lag sampling. " + res.cause().getLocalizedMessage());
+			}
+		});
+
+		if (checker == null) {
+			long checkInterval = VertxDiagnosticsConfigLoader.getBlockedCheckInterval();
+
+			checker = new Timer("kumuluzee-vertx-blocked-listener-checker", true);
+			checker.schedule(new TimerTask() {
+				@Override
+				public void run() {
+					checkBlocked();
+				}
+			}, checkInterval, checkInterval);
+		}
+	}
+
+	/**
+	 * Marks the start of a listener invocation on the current thread.
+	 *
+	 * @param listener         name of the listener method
+	 * @param worker           true if the invocation runs on the worker pool
+	 * @param maxExecuteTime   time in nanoseconds after which the invocation is reported as blocking
+	 */
+	public Invocation enter(String listener, boolean worker, long maxExecuteTime) {
+		if (!enabled) {
+			return null;
+		}
+
+		Invocation invocation = new Invocation(listener, Thread.currentThread(), worker, maxExecuteTime);
+		invocations.put(invocation.thread, invocation);
+
+		if (worker) {
+			activeWorkers.incrementAndGet();
+		}
+
+		return invocation;
+	}
+
+	/**
+	 * Marks the end of a listener invocation.
+	 */
+	public void exit(Invocation invocation) {
+		if (invocation == null) {
+			return;
+		}
+
+		invocations.remove(invocation.thread, invocation);
+
+		if (invocation.worker) {
+			activeWorkers.decrementAndGet();
+		}
+	}
+
+	void recordLag(String thread, long lag) {
+		lags.computeIfAbsent(thread, VertxEventLoopLag::new).record(lag);
+	}
+
+	private void checkBlocked() {
+		long now = System.nanoTime();
+
+		for (Invocation invocation : invocations.values()) {
+			long elapsed = now - invocation.start;
+
+			if (elapsed <= invocation.maxExecuteTime || invocation.reported) {
+				continue;
+			}
+			invocation.reported = true;
+
+			blocked.incrementAndGet();
+			blockedListeners.computeIfAbsent(invocation.listener, l -> new AtomicLong()).incrementAndGet();
+			blockedHandlers.forEach(handler -> handler.accept(invocation.listener));
+
+			StringBuilder stackTrace = new StringBuilder();
+			StackTraceElement[] elements = invocation.thread.getStackTrace();
+			for (int i = 0; i < Math.min(STACK_TRACE_DEPTH, elements.length); i++) {
+				stackTrace.append("\n\tat ").append(elements[i]);
+			}
+
+			log.warning("Listener " + invocation.listener + " has been blocking thread " + invocation.thread.getName()
+					+ " for " + elapsed / 1_000_000 + " ms, the limit is " + invocation.maxExecuteTime / 1_000_000
+					+ " ms." + stackTrace);
+		}
+	}
+
+	/**
+	 * Registers a handler called with the name of a listener method whenever it is found blocking its thread.
+	 */
+	public void addBlockedHandler(Consumer<String> handler) {
+		blockedHandlers.add(handler);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public Collection<VertxEventLoopLag> getLags() {
+		return Collections.unmodifiableCollection(lags.values());
+	}
+
+	/**
+	 * Returns the highest lag in milliseconds of all event loops within the sampling window.
+	 */
+	public long getMaxLag() {
+		long max = 0;
+		for (VertxEventLoopLag lag : lags.values()) {
+			max = Math.max(max, lag.getMaxLag());
+		}
+		return max;
+	}
+
+	public int getActiveWorkers() {
+		return activeWorkers.get();
+	}
+
+	/**
+	 * Returns the share of worker threads, across all Vert.x instances, busy with listener invocations.
+	 */
+	public double getWorkerUtilization() {
+		int size = workerPoolSize.get();
+		return size == 0 ? 0 : (double) activeWorkers.get() / size;
+	}
+
+	public long getBlocked() {
+		return blocked.get();
+	}
+
+	public Map<String, Long> getBlockedListeners() {
+		Map<String, Long> counts = new TreeMap<>();
+		blockedListeners.forEach((listener, count) -> counts.put(listener, count.get()));
+		return counts;
+	}
+
+	/**
+	 * Returns the names of the listener methods which are blocking their thread right now.
+	 */
+	public List<String> getBlockingListeners() {
+		List<String> listeners = new ArrayList<>();
+		long now = System.nanoTime();
+
+		for (Invocation invocation : invocations.values()) {
+			if (now - invocation.start > invocation.maxExecuteTime) {
+				listeners.add(invocation.listener);
+			}
+		}
+
+		return listeners;
+	}
+
+	public synchronized void close() {
+		if (checker != null) {
+			checker.cancel();
+			checker = null;
+		}
+	}
+
+	/**
+	 * Listener invocation running on a thread.
+	 */
+	public static class Invocation {
+
+		private final String listener;
+		private final Thread thread;
+		private final boolean worker;
+		private final long maxExecuteTime;
+		private final long start = System.nanoTime();
+		private volatile boolean reported;
+
+		private Invocation(String listener, Thread thread, boolean worker, long maxExecuteTime) {
+			this.listener = listener;
+			this.thread = thread;
+			this.worker = worker;
+			this.maxExecuteTime = maxExecuteTime;
+		}
+
+	}
+
+}
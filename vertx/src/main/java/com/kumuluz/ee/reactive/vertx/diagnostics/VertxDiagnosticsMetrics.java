@@ -0,0 +1,76 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.diagnostics;
+
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.MetricUnits;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+/**
+ * Registers the Vert.x diagnostics as metrics, if KumuluzEE Metrics is on the classpath and the diagnostics are
+ * enabled. Blocked threads are counted per listener method, under vertx.listener.blocked.&lt;class&gt;.&lt;method&gt;.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+@ApplicationScoped
+public class VertxDiagnosticsMetrics {
+
+	private static final String PREFIX = "vertx.";
+
+	@Inject
+	private Instance<MetricRegistry> registries;
+
+	public void register(@Observes @Initialized(ApplicationScoped.class) Object init) {
+		VertxDiagnostics diagnostics = VertxDiagnostics.getInstance();
+
+		// the API may be on the classpath without KumuluzEE Metrics providing a registry
+		if (!diagnostics.isEnabled() || registries.isUnsatisfied()) {
+			return;
+		}
+
+		MetricRegistry registry = registries.get();
+
+		registry.register(PREFIX + "event-loop.lag.max", (Gauge<Long>) diagnostics::getMaxLag,
+				new Metadata(PREFIX + "event-loop.lag.max", "Event loop lag", "Highest lag of the event loops within "
+						+ "the sampling window.", MetricType.GAUGE, MetricUnits.MILLISECONDS));
+		registry.register(PREFIX + "worker.active", (Gauge<Integer>) diagnostics::getActiveWorkers,
+				new Metadata(PREFIX + "worker.active", "Active workers", "Number of worker threads busy with listener "
+						+ "invocations.", MetricType.GAUGE, MetricUnits.NONE));
+		registry.register(PREFIX + "worker.utilization", (Gauge<Double>) diagnostics::getWorkerUtilization,
+				new Metadata(PREFIX + "worker.utilization", "Worker utilization", "Share of worker threads busy with "
+						+ "listener invocations.", MetricType.GAUGE, MetricUnits.NONE));
+		registry.register(PREFIX + "blocked-thread.events", (Gauge<Long>) diagnostics::getBlocked,
+				new Metadata(PREFIX + "blocked-thread.events", "Blocked thread events", "Number of listener "
+						+ "invocations which exceeded the max execute time.", MetricType.GAUGE, MetricUnits.NONE));
+
+		diagnostics.addBlockedHandler(listener -> registry.counter(PREFIX + "listener.blocked." + listener).inc());
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.diagnostics;
+
+/**
+ * Lag of an event loop, which is the delay of its timers behind their schedule. Keeps the samples of a sliding window,
+ * so that a single spike is reported for a while after it happened.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxEventLoopLag {
+
+	private static final int WINDOW = 60;
+
+	private final String thread;
+	private final long[] samples = new long[WINDOW];
+	private int next;
+
+	VertxEventLoopLag(String thread) {
+		this.thread = thread;
+	}
+
+	synchronized void record(long lag) {
+		samples[next] = lag;
+		next = (next + 1) % WINDOW;
+	}
+
+	public String getThread() {
+		return thread;
+	}
+
+	/**
+	 * Returns the last lag in milliseconds.
+	 */
+	public synchronized long getLag() {
+		return samples[(next + WINDOW - 1) % WINDOW] / 1_000_000;
+	}
+
+	/**
+	 * Returns the highest lag in milliseconds within the window.
+	 */
+	public synchronized long getMaxLag() {
+		long max = 0;
+		for (long sample : samples) {
+			max = Math.max(max, sample);
+		}
+		return max / 1_000_000;
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.diagnostics;
+
+import io.vertx.core.AbstractVerticle;
+
+/**
+ * Verticle measuring the lag of its event loop with a periodic timer. Vert.x schedules periodic timers at a fixed
+ * rate, so a timer firing later than scheduled means that the event loop was busy with other tasks in the meantime.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxEventLoopLagSampler extends AbstractVerticle {
+
+	private final String instanceName;
+	private final long interval;
+
+	private long expected;
+	private long timer;
+
+	public VertxEventLoopLagSampler(String instanceName, long interval) {
+		this.instanceName = instanceName;
+		this.interval = interval;
+	}
+
+	@Override
+	public void start() {
+		long intervalNanos = interval * 1_000_000;
+		expected = System.nanoTime() + intervalNanos;
+
+		timer = vertx.setPeriodic(interval, id -> {
+			long now = System.nanoTime();
+			String thread = instanceName.isEmpty() ? Thread.currentThread().getName()
+					: instanceName + "/" + Thread.currentThread().getName();
+
+			VertxDiagnostics.getInstance().recordLag(thread, Math.max(0, now - expected));
+			expected += intervalNanos;
+
+			// the schedule is not caught up after a long stall
+			if (expected < now) {
+				expected = now + intervalNanos;
+			}
+		});
+	}
+
+	@Override
+	public void stop() {
+		vertx.cancelTimer(timer);
+	}
+
+}
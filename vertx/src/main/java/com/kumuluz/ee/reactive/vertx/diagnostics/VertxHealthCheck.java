@@ -0,0 +1,68 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.diagnostics;
+
+import com.kumuluz.ee.reactive.vertx.config.VertxDiagnosticsConfigLoader;
+import org.eclipse.microprofile.health.Health;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.List;
+
+/**
+ * Health check reporting Vert.x as down while an event loop lags behind for more than the lag threshold or a
+ * listener is blocking its thread. Picked up by KumuluzEE Health if it is on the classpath.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+@Health
+@ApplicationScoped
+public class VertxHealthCheck implements HealthCheck {
+
+	@Override
+	public HealthCheckResponse call() {
+		VertxDiagnostics diagnostics = VertxDiagnostics.getInstance();
+		HealthCheckResponseBuilder response = HealthCheckResponse.named(VertxHealthCheck.class.getSimpleName());
+
+		if (!diagnostics.isEnabled()) {
+			return response.up().build();
+		}
+
+		long maxLag = diagnostics.getMaxLag();
+		List<String> blocking = diagnostics.getBlockingListeners();
+
+		response.withData("event-loop-lag-ms", maxLag)
+				.withData("worker-utilization", String.format("%.2f", diagnostics.getWorkerUtilization()))
+				.withData("blocked-thread-events", diagnostics.getBlocked());
+
+		if (!blocking.isEmpty()) {
+			response.withData("blocking-listeners", String.join(", ", blocking));
+		}
+
+		diagnostics.getBlockedListeners().forEach((listener, count) -> response.withData("blocked." + listener, count));
+
+		return response.state(maxLag <= VertxDiagnosticsConfigLoader.getLagThreshold() && blocking.isEmpty()).build();
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.discovery;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Change of a single service record, as carried by compact discovery announcements. Metadata missing from the
+ * record is left empty, so that every node applies its own defaults, as it does for records it reads itself.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxDiscoveryAnnouncement {
+
+	private static final String STATUS_UP = "UP";
+	
+	private final String registration;
+	private final boolean up;
+	private final String name;
+	private final String endpoint;
+	private final String version;
+	private final String environment;
+	private final long ttl;
+	private final long pingInterval;
+	
+	public VertxDiscoveryAnnouncement(String registration, boolean up, String name, String endpoint, String version,
+			String environment, long ttl, long pingInterval) {
+		this.registration = registration;
+		this.up = up;
+		this.name = name;
+		this.endpoint = endpoint;
+		this.version = version;
+		this.environment = environment;
+		this.ttl = ttl;
+		this.pingInterval = pingInterval;
+	}
+	
+	/**
+	 * Creates the announcement of a record in the JSON form used by Vert.x Service Discovery.
+	 */
+	public static VertxDiscoveryAnnouncement fromRecord(JsonObject record) {
+		JsonObject location = record.getJsonObject("location", new JsonObject());
+		JsonObject metadata = record.getJsonObject("metadata", new JsonObject());
+		
+		return new VertxDiscoveryAnnouncement(
+				record.getString("registration"),
+				STATUS_UP.equals(record.getString("status")),
+				record.getString("name"),
+				location.getString("endpoint"),
+				metadata.getString("version"),
+				metadata.getString("env"),
+				metadata.getLong("ttl", -1L),
+				metadata.getLong("ping-interval", -1L));
+	}
+	
+	public String getRegistration() {
+		return registration;
+	}
+	
+	public boolean isUp() {
+		return up;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public String getEndpoint() {
+		return endpoint;
+	}
+	
+	public String getVersion() {
+		return version;
+	}
+	
+	public String getEnvironment() {
+		return environment;
+	}
+	
+	/**
+	 * Returns the time to live in seconds, or -1 if the record does not set it.
+	 */
+	public long getTtl() {
+		return ttl;
+	}
+	
+	/**
+	 * Returns the ping interval in seconds, or -1 if the record does not set it.
+	 */
+	public long getPingInterval() {
+		return pingInterval;
+	}
+
+}
@@ -25,26 +25,47 @@ import com.kumuluz.ee.common.runtime.EeRuntimeExtension;
 import com.kumuluz.ee.discovery.utils.DiscoveryUtil;
 import com.kumuluz.ee.reactive.vertx.config.VertxServiceDiscoveryConfigLoader;
 import com.kumuluz.ee.reactive.vertx.utils.VertxUtils;
+import io.vertx.core.Context;
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
-import io.vertx.servicediscovery.Record;
 import io.vertx.servicediscovery.ServiceDiscovery;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.Initialized;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 /**
  * Service Discovery bridge for handling service requests and service
- * (de)registration using KumuluzEE Discovery
+ * (de)registration using KumuluzEE Discovery.
+ *
+ * Announcements are coalesced per registration within a short window and applied as a batch, directly from the
+ * announced records. Nodes periodically publish a digest of their imported services, and a node whose digest
+ * differs from the digest of another node reconciles its services with the discovery backend, applying only the
+ * differences.
+ *
+ * When a snapshot file is configured, the imported services are periodically written to it and restored from it at
+ * startup, so requests are served from the index right away. Restored services are registered with KumuluzEE
+ * Discovery only once the first reconciliation finds their records, and dropped otherwise.
  *
  * @author Žan Ožbot
  * @since 1.0.0
@@ -55,17 +76,60 @@ public class VertxDiscoveryBridge {
 	private static final Logger log = Logger.getLogger(VertxDiscoveryBridge.class.getName());
 	
 	private static final String EXTENSION_GROUP = "discovery";
-	private static final String STATUS_UP = "UP";
-	private static final String STATUS_DOWN = "DOWN";
 	private static final String ANNOUNCE_ADDRESS = "vertx.discovery.announce";
 	private static final String REQUEST_ADDRESS = "vertx.discovery.request";
+	private static final String DEFAULT_VERSION = "1.0.0";
+	private static final String DEFAULT_ENV = "dev";
+	private static final JsonObject NOT_FOUND = new JsonObject().put("status", 404);
+	private static final int MAX_CACHED = 10000;
+	
+	/**
+	 * Address the Vert.x Service Discovery of this node announces on when compact announcements are enabled. It
+	 * only has local consumers, so announcements do not leave the node.
+	 */
+	public static final String LOCAL_ANNOUNCE_ADDRESS = "kumuluzee.discovery.announce.local";
+	private static final String DELTA_ADDRESS = "kumuluzee.discovery.delta";
+	private static final String DIGEST_ADDRESS = "kumuluzee.discovery.digest";
 
-	private List<VertxService> services = new ArrayList<VertxService>();
+	// written under the lock of the bridge, read without it by the digest handlers on the event loop
+	private final Map<String, VertxService> services = new ConcurrentHashMap<>();
+	private volatile long digestHash;
+	private final VertxServiceIndex index = new VertxServiceIndex();
+	
+	private final Map<String, Long> misses = new ConcurrentHashMap<>();
+	private final Map<String, VertxVersionRange> ranges = new ConcurrentHashMap<>();
+	private final Map<String, List<String>> environmentFallbacks = new ConcurrentHashMap<>();
+	
+	// services restored from the snapshot, which are not registered with KumuluzEE Discovery yet
+	private final Set<String> restored = ConcurrentHashMap.newKeySet();
+	private volatile boolean snapshotDirty;
+	
+	private final String node = UUID.randomUUID().toString();
+	private final Map<String, Long> sequences = new ConcurrentHashMap<>();
+	private long sequence;
+	
+	// only accessed on the context of the bridge
+	private Map<String, VertxDiscoveryAnnouncement> pending = new LinkedHashMap<>();
+	private Map<String, VertxDiscoveryAnnouncement> outgoing = new LinkedHashMap<>();
+	private boolean flushScheduled;
+	
+	private final AtomicBoolean reconciling = new AtomicBoolean();
+	private volatile long lastReconcile;
+	
 	private ServiceDiscovery discovery;
 	private Vertx vertx;
+	private Context context;
+	private DeliveryOptions deliveryOptions;
 	private String env;
 	private long ttl;
 	private long pingInterval;
+	private long announceWindow;
+	private long digestInterval;
+	private boolean compactAnnouncements;
+	private long negativeCacheTtl;
+	private Path snapshotFile;
+	private long snapshotInterval;
+	private long snapshotMaxAge;
 	
 	@Inject
     private DiscoveryUtil discoveryUtil;
@@ -86,14 +150,7 @@ public class VertxDiscoveryBridge {
 	}
 	
 	private void initializeServiceDiscoveryBridge() {
-		while (VertxUtils.getInstance().getVertx() == null) {
-			try {
-				Thread.sleep(500);
-			} catch (InterruptedException e) {
-				log.severe(e.getLocalizedMessage());
-			}
-		}
-		vertx = VertxUtils.getInstance().getVertx();
+		vertx = VertxUtils.getInstance().awaitVertx(null);
 		loadConfig();
 	}
 	
@@ -103,6 +160,13 @@ public class VertxDiscoveryBridge {
 		env = conf.getString("env");
 		ttl = conf.getLong("ttl");
 		pingInterval = conf.getLong("ping-interval");
+		announceWindow = conf.getLong("announce-window");
+		digestInterval = conf.getLong("digest-interval");
+		compactAnnouncements = conf.getBoolean("compact-announcements");
+		negativeCacheTtl = conf.getLong("negative-cache-ttl");
+		snapshotFile = Optional.ofNullable(conf.getString("snapshot-file")).map(Paths::get).orElse(null);
+		snapshotInterval = conf.getLong("snapshot-interval");
+		snapshotMaxAge = conf.getLong("snapshot-max-age");
 		
 		initializeServiceDiscovery();
 	}
@@ -110,157 +174,420 @@ public class VertxDiscoveryBridge {
 	private void initializeServiceDiscovery() {		
 		discovery = VertxUtils.getInstance().getServiceDiscovery();
 		
-		handleAnnouncements();
-
-		handleRequests();
-
-		initialServicesCheck();
+		vertx.eventBus().registerCodec(new VertxDiscoveryCodec());
+		deliveryOptions = new DeliveryOptions().setCodecName(VertxDiscoveryCodec.NAME);
+		
+		if (snapshotFile != null) {
+			restoreSnapshot();
+		}
+		
+		// all handlers run on the same context, so batches are applied in order
+		context = vertx.getOrCreateContext();
+		context.runOnContext(v -> {
+			handleAnnouncements();
+			
+			handleRequests();
+			
+			handleDigests();
+			
+			handleSnapshots();
+			
+			reconcile();
+		});
 
 		log.info("Vert.x Service Discovery bridge initialized.");
 	}
 
 	private void handleAnnouncements() {
 		vertx.eventBus().consumer(ANNOUNCE_ADDRESS, ar -> {
-			JsonObject service = (JsonObject) ar.body();
-			handleService(service);
+			coalesce(pending, VertxDiscoveryAnnouncement.fromRecord((JsonObject) ar.body()));
+		});
+		
+		if (compactAnnouncements) {
+			vertx.eventBus().localConsumer(LOCAL_ANNOUNCE_ADDRESS, ar -> {
+				coalesce(outgoing, VertxDiscoveryAnnouncement.fromRecord((JsonObject) ar.body()));
+			});
+		}
+		
+		vertx.eventBus().consumer(DELTA_ADDRESS, ar -> {
+			VertxDiscoveryDelta delta = (VertxDiscoveryDelta) ar.body();
+			
+			if (!delta.getNode().equals(node)) {
+				checkSequence(delta.getNode(), delta.getSequence(), false);
+				apply(delta.getAnnouncements());
+			}
+		});
+	}
+	
+	/**
+	 * Adds the announcement to the batch, replacing an earlier announcement of the same registration, and flushes
+	 * the batches once the announcement window elapses.
+	 */
+	private void coalesce(Map<String, VertxDiscoveryAnnouncement> batch, VertxDiscoveryAnnouncement announcement) {
+		if (announcement.getRegistration() == null) {
+			return;
+		}
+		
+		batch.remove(announcement.getRegistration());
+		batch.put(announcement.getRegistration(), announcement);
+		
+		if (!flushScheduled) {
+			flushScheduled = true;
+			vertx.setTimer(Math.max(1, announceWindow), id -> flush());
+		}
+	}
+	
+	private void flush() {
+		flushScheduled = false;
+		
+		if (!outgoing.isEmpty()) {
+			List<VertxDiscoveryAnnouncement> announcements = new ArrayList<>(outgoing.values());
+			outgoing = new LinkedHashMap<>();
+			
+			vertx.eventBus().publish(DELTA_ADDRESS, new VertxDiscoveryDelta(node, ++sequence, announcements),
+					deliveryOptions);
+			apply(announcements);
+		}
+		
+		if (!pending.isEmpty()) {
+			List<VertxDiscoveryAnnouncement> announcements = new ArrayList<>(pending.values());
+			pending = new LinkedHashMap<>();
+			
+			apply(announcements);
+		}
+	}
+	
+	private void apply(List<VertxDiscoveryAnnouncement> announcements) {
+		vertx.executeBlocking(future -> {
+			synchronized (this) {
+				announcements.forEach(this::update);
+			}
+			future.complete();
+		}, null);
+	}
+	
+	private void handleDigests() {
+		vertx.eventBus().consumer(DIGEST_ADDRESS, ar -> {
+			VertxDiscoveryDigest digest = (VertxDiscoveryDigest) ar.body();
+			
+			if (digest.getNode().equals(node)) {
+				return;
+			}
+			
+			boolean missed = checkSequence(digest.getNode(), digest.getSequence(), true);
+			
+			// a digest read while a batch is applied may differ spuriously, which only costs a reconciliation
+			if (missed || !digest.matches(services.size(), digestHash)) {
+				log.fine("Digest of node " + digest.getNode() + " differs, reconciling services.");
+				reconcile();
+			}
 		});
+		
+		if (digestInterval > 0) {
+			vertx.setPeriodic(digestInterval, id -> {
+				vertx.eventBus().publish(DIGEST_ADDRESS, new VertxDiscoveryDigest(node, sequence, services.size(),
+						digestHash), deliveryOptions);
+			});
+		}
+	}
+	
+	/**
+	 * Records the sequence of the last delta of the node.
+	 *
+	 * @param digest true if the sequence is taken from a digest, which repeats the sequence of the last delta
+	 * @return true if a delta of the node was missed
+	 */
+	private boolean checkSequence(String origin, long received, boolean digest) {
+		Long last = sequences.put(origin, received);
+		
+		// the first message of a node only establishes its sequence, missed earlier state is found by the digest
+		if (last == null || received < last) {
+			return false;
+		}
+		
+		boolean missed = digest ? received > last : received != last + 1;
+		
+		if (missed && !digest) {
+			reconcile();
+		}
+		
+		return missed;
 	}
 
+	/**
+	 * Resolves requests against the index of imported services on the event loop. Only services that are not
+	 * imported are looked up with KumuluzEE Discovery, and the services not found there are remembered for a while,
+	 * so that repeated requests for them stay local too.
+	 */
 	private void handleRequests() {
 		vertx.eventBus().consumer(REQUEST_ADDRESS, ar -> {
+			JsonObject request = (JsonObject) ar.body();
+			
+			String name = request.getString("name");
+			String version = request.getString("version", DEFAULT_VERSION);
+			List<String> environments = getEnvironments(request);
+			
+			Optional<VertxService> service = index.find(name, getRange(version), environments);
+			
+			if (service.isPresent()) {
+				ar.reply(found(service.get().getBaseUrl()));
+				return;
+			}
+			
+			String missKey = name + '\0' + version + '\0' + String.join(",", environments);
+			Long expiry = misses.get(missKey);
+			
+			if (expiry != null && expiry > System.currentTimeMillis()) {
+				ar.reply(NOT_FOUND);
+				return;
+			}
+			
 			vertx.executeBlocking(future -> {
-				Optional<String> serviceUrl = getServiceUrl((JsonObject) ar.body());
-
+				Optional<String> serviceUrl = Optional.empty();
+				
+				for (String env : environments) {
+					serviceUrl = discoveryUtil.getServiceInstance(name, version, env).map(URL::toString);
+					
+					if (serviceUrl.isPresent()) {
+						break;
+					}
+				}
+				
 				if (serviceUrl.isPresent()) {
-					JsonObject reply = new JsonObject()
-							.put("status", 200)
-							.put("baseUrl", serviceUrl.get());
-					ar.reply(reply);
+					ar.reply(found(serviceUrl.get()));
 				} else {
-					JsonObject reply = new JsonObject()
-							.put("status", 404);
-					ar.reply(new JsonObject());
+					if (misses.size() >= MAX_CACHED) {
+						misses.clear();
+					}
+					misses.put(missKey, System.currentTimeMillis() + negativeCacheTtl);
+					ar.reply(NOT_FOUND);
 				}
-			}, null);
+				future.complete();
+			}, false, null);
 		});
 	}
-
-	private Optional<String> getServiceUrl(JsonObject request) {
-		String name = request.getString("name");
-		String version = request.getString("version", "1.0.0");
-		String env = request.getString("env", "dev");
-
-		List<VertxService> services = this.services.stream()
-				.filter(service -> service.getEnvironment().equals(env)
-						&& service.getName().equals(name) && service.getVersion().equals(version))
-				.collect(Collectors.toList());
-
-		if (services.size() > 0) {
-			return Optional.of(services.get(ThreadLocalRandom.current().nextInt(0, services.size()))
-					.getBaseUrl());
-		} else {
-			Optional<URL> url = discoveryUtil.getServiceInstance(name, version, env);
-			if (url.isPresent()) {
-				return Optional.of(url.get().toString());
+	
+	private static JsonObject found(String baseUrl) {
+		return new JsonObject()
+				.put("status", 200)
+				.put("baseUrl", baseUrl);
+	}
+	
+	/**
+	 * Returns the environment of the request, followed by the fallbacks of the request and the configured fallbacks
+	 * of the environment.
+	 */
+	private List<String> getEnvironments(JsonObject request) {
+		String env = request.getString("env", DEFAULT_ENV);
+		
+		List<String> environments = new ArrayList<>();
+		environments.add(env);
+		
+		JsonArray fallbacks = request.getJsonArray("envFallbacks");
+		if (fallbacks != null) {
+			fallbacks.forEach(fallback -> environments.add(String.valueOf(fallback)));
+		}
+		
+		environments.addAll(environmentFallbacks.computeIfAbsent(env,
+				VertxServiceDiscoveryConfigLoader::getEnvironmentFallbacks));
+		
+		return environments.stream().distinct().collect(Collectors.toList());
+	}
+	
+	private VertxVersionRange getRange(String version) {
+		VertxVersionRange range = ranges.get(version);
+		
+		if (range == null) {
+			if (ranges.size() >= MAX_CACHED) {
+				ranges.clear();
 			}
+			range = VertxVersionRange.parse(version);
+			ranges.put(version, range);
 		}
-
-		return Optional.empty();
+		
+		return range;
 	}
 
-	private void initialServicesCheck() {
+	/**
+	 * Reads all records from the discovery backend and applies the differences to the imported services. At most
+	 * one reconciliation runs at a time, and reconciliations triggered by digests are limited to one per interval.
+	 */
+	private void reconcile() {
+		long now = System.currentTimeMillis();
+		
+		if ((lastReconcile > 0 && now - lastReconcile < digestInterval) || !reconciling.compareAndSet(false, true)) {
+			return;
+		}
+		
+		lastReconcile = now;
+		
 		discovery.getRecords((JsonObject) null, ar -> {
 			if (ar.succeeded() && ar.result() != null) {
-				List<Record> records = ar.result();
-				registerServices(records);
+				List<VertxDiscoveryAnnouncement> records = ar.result().stream()
+						.map(record -> VertxDiscoveryAnnouncement.fromRecord(record.toJson()))
+						.collect(Collectors.toList());
+				
+				vertx.executeBlocking(future -> {
+					synchronized (this) {
+						Set<String> registrations = new HashSet<>();
+						
+						for (VertxDiscoveryAnnouncement record : records) {
+							registrations.add(record.getRegistration());
+							update(record);
+						}
+						
+						for (VertxService service : new ArrayList<>(services.values())) {
+							if (!registrations.contains(service.getId())) {
+								removeService(service);
+							}
+						}
+					}
+					future.complete();
+				}, res -> reconciling.set(false));
+			} else {
+				reconciling.set(false);
 			}
 		});
 	}
 	
-	private void registerServices(List<Record> records) {
-		for (Record record : records) {
-			if (!isImported(record.getRegistration())) {
-				importService(record);
+	/**
+	 * Imports, updates or removes the service of the announcement. Unchanged services are skipped.
+	 */
+	private void update(VertxDiscoveryAnnouncement announcement) {
+		VertxService existing = services.get(announcement.getRegistration());
+		
+		if (announcement.isUp()) {
+			VertxService service = new VertxService(
+					announcement.getName(),
+					Optional.ofNullable(announcement.getVersion()).orElse(DEFAULT_VERSION),
+					Optional.ofNullable(announcement.getEnvironment()).orElse(env),
+					announcement.getTtl() < 0 ? ttl : announcement.getTtl(),
+					announcement.getPingInterval() < 0 ? pingInterval : announcement.getPingInterval(),
+					announcement.getEndpoint(),
+					announcement.getRegistration());
+			
+			if (existing != null) {
+				if (hash(existing) == hash(service)) {
+					if (restored.remove(service.getId())) {
+						register(service);
+					}
+					return;
+				}
+				removeService(existing);
 			}
+			
+			importService(service);
+		} else if (existing != null) {
+			removeService(existing);
 		}
 	}
 	
-	private void deregisterService(String name, String baseUrl, List<Record> records) {
-		List<VertxService> filteredServices = services.stream()
-				.filter(service -> service.getBaseUrl().equals(baseUrl) && service.getName().equals(name))
-				.collect(Collectors.toList());
-		
-		for (VertxService service : filteredServices) {
-			if (wasRemoved(service, records)) {
-				services.remove(service);
-				
-				discoveryUtil.deregister(service.getId());
-				break;
-			}
+	private void importService(VertxService service) {
+		services.put(service.getId(), service);
+		index.add(service);
+		digestHash += hash(service);
+		
+		// a cached miss may be served by the new service
+		misses.clear();
+		snapshotDirty = true;
+		
+		register(service);
+	}
+	
+	private void register(VertxService service) {
+		discoveryUtil.register(
+				service.getName(),
+				service.getVersion(),
+				service.getEnvironment(),
+				service.getTtl(),
+				service.getPingInterval(),
+				false,
+				service.getBaseUrl(),
+				service.getId());
+	}
+	
+	private void removeService(VertxService service) {
+		services.remove(service.getId());
+		index.remove(service);
+		digestHash -= hash(service);
+		snapshotDirty = true;
+		
+		if (!restored.remove(service.getId())) {
+			discoveryUtil.deregister(service.getId());
 		}
 	}
 	
-	private boolean wasRemoved(VertxService service, List<Record> records) {
-		for (Record record : records) {
-			if(record.getRegistration().equals(service.getId())) {
-				return false;
+	/**
+	 * Imports the services of the snapshot into the index, without registering them with KumuluzEE Discovery.
+	 */
+	private void restoreSnapshot() {
+		try {
+			List<VertxService> snapshot = VertxDiscoverySnapshot.read(snapshotFile, snapshotMaxAge);
+			
+			synchronized (this) {
+				for (VertxService service : snapshot) {
+					services.put(service.getId(), service);
+					index.add(service);
+					digestHash += hash(service);
+					restored.add(service.getId());
+				}
 			}
-		}		
-		return true;
+			
+			log.info("Restored " + snapshot.size() + " services from the discovery snapshot.");
+		} catch (IOException | RuntimeException e) {
+			log.warning("Error at restoring discovery snapshot: " + e.getLocalizedMessage());
+		}
 	}
 	
-	private void handleService(JsonObject service) {
-		String name = service.getString("name");
-		String baseUrl = service.getJsonObject("location").getString("endpoint");
-		String status = service.getString("status");
+	private void handleSnapshots() {
+		if (snapshotFile == null) {
+			return;
+		}
 		
-		discovery.getRecords(r -> r.getName().equals(name) 
-				&& r.getLocation().getString("endpoint").equals(baseUrl), ar -> {
-			if (ar.succeeded() && ar.result() != null) {
-				
-				List<Record> records = ar.result();
-				
-				vertx.executeBlocking(future -> {
-					if (status.equals(STATUS_UP)) {
-						registerServices(records);
-					} else if (status.equals(STATUS_DOWN)) {
-						deregisterService(name, baseUrl, records);
-					}		
-				}, null);
-						
-			}
-		});
+		if (snapshotInterval > 0) {
+			vertx.setPeriodic(snapshotInterval, id -> {
+				if (snapshotDirty) {
+					vertx.executeBlocking(future -> {
+						writeSnapshot();
+						future.complete();
+					}, null);
+				}
+			});
+		}
+		
+		Runtime.getRuntime().addShutdownHook(new Thread(this::writeSnapshot, "kumuluzee-discovery-snapshot"));
 	}
 	
-	private void importService(Record record) {
-		String name = record.getName();
-		String baseUrl = record.getLocation().getString("endpoint");
-		String id = record.getRegistration();
-		String version = record.getMetadata().getString("version", "1.0.0");
-		long ttl = record.getMetadata().getLong("ttl", this.ttl);
-		long pingInterval = record.getMetadata().getLong("ping-interval", this.pingInterval);
-		String environment = record.getMetadata().getString("env", this.env);
-		
-		VertxService service = new VertxService(name, version, environment, ttl, pingInterval, baseUrl, id);
-		services.add(service);
+	private synchronized void writeSnapshot() {
+		if (!snapshotDirty) {
+			return;
+		}
 		
-		discoveryUtil.register(
-				name,
-				version,
-				environment,
-				ttl,
-				pingInterval,
-				false,
-				baseUrl,
-				id);
+		snapshotDirty = false;
+		
+		try {
+			VertxDiscoverySnapshot.write(snapshotFile, services.values());
+		} catch (IOException | RuntimeException e) {
+			snapshotDirty = true;
+			log.severe("Error at writing discovery snapshot: " + e.getLocalizedMessage());
+		}
 	}
 	
-	private boolean isImported(String regId) {
-		for (VertxService service : services) {
-			if (service.getId().equals(regId))
-				return true;
+	/**
+	 * FNV-1a hash of the fields of the service. Digests add up the hashes of all services, so they do not depend on
+	 * the order in which the services were imported.
+	 */
+	private static long hash(VertxService service) {
+		String value = service.getId() + '\0' + service.getName() + '\0' + service.getBaseUrl() + '\0'
+				+ service.getVersion() + '\0' + service.getEnvironment() + '\0' + service.getTtl() + '\0'
+				+ service.getPingInterval();
+		
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b;
+			hash *= 0x100000001b3L;
 		}
-		return false;
+		return hash;
 	}
 
 }
@@ -0,0 +1,191 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.discovery;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary codec for discovery deltas and digests. An encoded message starts with the format version and the message
+ * type, followed by the fields of the message. Strings are encoded as their length and UTF-8 bytes, with a length
+ * of -1 for missing strings.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxDiscoveryCodec implements MessageCodec<Object, Object> {
+
+	public static final String NAME = "kumuluzee-discovery";
+	
+	private static final byte FORMAT_VERSION = 1;
+	private static final byte TYPE_DELTA = 1;
+	private static final byte TYPE_DIGEST = 2;
+	
+	@Override
+	public void encodeToWire(Buffer buffer, Object message) {
+		buffer.appendByte(FORMAT_VERSION);
+		
+		if (message instanceof VertxDiscoveryDelta) {
+			VertxDiscoveryDelta delta = (VertxDiscoveryDelta) message;
+			
+			buffer.appendByte(TYPE_DELTA);
+			appendString(buffer, delta.getNode());
+			buffer.appendLong(delta.getSequence());
+			buffer.appendInt(delta.getAnnouncements().size());
+			
+			for (VertxDiscoveryAnnouncement announcement : delta.getAnnouncements()) {
+				appendString(buffer, announcement.getRegistration());
+				buffer.appendByte((byte) (announcement.isUp() ? 1 : 0));
+				
+				// removals are identified by the registration alone
+				if (announcement.isUp()) {
+					appendString(buffer, announcement.getName());
+					appendString(buffer, announcement.getEndpoint());
+					appendString(buffer, announcement.getVersion());
+					appendString(buffer, announcement.getEnvironment());
+					buffer.appendLong(announcement.getTtl());
+					buffer.appendLong(announcement.getPingInterval());
+				}
+			}
+		} else if (message instanceof VertxDiscoveryDigest) {
+			VertxDiscoveryDigest digest = (VertxDiscoveryDigest) message;
+			
+			buffer.appendByte(TYPE_DIGEST);
+			appendString(buffer, digest.getNode());
+			buffer.appendLong(digest.getSequence());
+			buffer.appendInt(digest.getCount());
+			buffer.appendLong(digest.getHash());
+		} else {
+			throw new IllegalArgumentException("Message of type " + (message == null ? null
+					: message.getClass().getName()) + " can not be encoded as a discovery message.");
+		}
+	}
+
+	@Override
+	public Object decodeFromWire(int pos, Buffer buffer) {
+		Reader reader = new Reader(buffer, pos);
+		
+		byte version = reader.readByte();
+		if (version != FORMAT_VERSION) {
+			throw new IllegalArgumentException("Unsupported discovery message format " + version + ".");
+		}
+		
+		byte type = reader.readByte();
+		
+		if (type == TYPE_DELTA) {
+			String node = reader.readString();
+			long sequence = reader.readLong();
+			int size = reader.readInt();
+			List<VertxDiscoveryAnnouncement> announcements = new ArrayList<>(size);
+			
+			for (int i = 0; i < size; i++) {
+				String registration = reader.readString();
+				
+				if (reader.readByte() == 1) {
+					announcements.add(new VertxDiscoveryAnnouncement(registration, true, reader.readString(),
+							reader.readString(), reader.readString(), reader.readString(), reader.readLong(),
+							reader.readLong()));
+				} else {
+					announcements.add(new VertxDiscoveryAnnouncement(registration, false, null, null, null, null,
+							-1, -1));
+				}
+			}
+			
+			return new VertxDiscoveryDelta(node, sequence, announcements);
+		} else if (type == TYPE_DIGEST) {
+			return new VertxDiscoveryDigest(reader.readString(), reader.readLong(), reader.readInt(),
+					reader.readLong());
+		}
+		
+		throw new IllegalArgumentException("Unknown discovery message type " + type + ".");
+	}
+
+	@Override
+	public Object transform(Object message) {
+		// deltas and digests are immutable
+		return message;
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public byte systemCodecID() {
+		return -1;
+	}
+	
+	private static void appendString(Buffer buffer, String value) {
+		if (value == null) {
+			buffer.appendInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			buffer.appendInt(bytes.length);
+			buffer.appendBytes(bytes);
+		}
+	}
+	
+	private static class Reader {
+		
+		private final Buffer buffer;
+		private int pos;
+		
+		private Reader(Buffer buffer, int pos) {
+			this.buffer = buffer;
+			this.pos = pos;
+		}
+		
+		private byte readByte() {
+			return buffer.getByte(pos++);
+		}
+		
+		private int readInt() {
+			int value = buffer.getInt(pos);
+			pos += 4;
+			return value;
+		}
+		
+		private long readLong() {
+			long value = buffer.getLong(pos);
+			pos += 8;
+			return value;
+		}
+		
+		private String readString() {
+			int length = readInt();
+			
+			if (length < 0) {
+				return null;
+			}
+			
+			String value = buffer.getString(pos, pos + length, StandardCharsets.UTF_8.name());
+			pos += length;
+			return value;
+		}
+		
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.discovery;
+
+import java.util.List;
+
+/**
+ * Batch of announcements coalesced by a node. Deltas of a node are numbered consecutively, so that receivers can
+ * detect a missed delta by a gap in the sequence.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxDiscoveryDelta {
+
+	private final String node;
+	private final long sequence;
+	private final List<VertxDiscoveryAnnouncement> announcements;
+	
+	public VertxDiscoveryDelta(String node, long sequence, List<VertxDiscoveryAnnouncement> announcements) {
+		this.node = node;
+		this.sequence = sequence;
+		this.announcements = announcements;
+	}
+	
+	public String getNode() {
+		return node;
+	}
+	
+	public long getSequence() {
+		return sequence;
+	}
+	
+	public List<VertxDiscoveryAnnouncement> getAnnouncements() {
+		return announcements;
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.discovery;
+
+/**
+ * Summary of the services imported by a node, published periodically. Nodes with equal sets of services have equal
+ * digests, so a node whose digest differs from the digests of other nodes has missed an update.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxDiscoveryDigest {
+
+	private final String node;
+	private final long sequence;
+	private final int count;
+	private final long hash;
+	
+	public VertxDiscoveryDigest(String node, long sequence, int count, long hash) {
+		this.node = node;
+		this.sequence = sequence;
+		this.count = count;
+		this.hash = hash;
+	}
+	
+	public String getNode() {
+		return node;
+	}
+	
+	/**
+	 * Returns the sequence of the last delta published by the node, so that a missed trailing delta is detected.
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+	
+	public int getCount() {
+		return count;
+	}
+	
+	public long getHash() {
+		return hash;
+	}
+	
+	public boolean matches(int count, long hash) {
+		return this.count == count && this.hash == hash;
+	}
+
+}
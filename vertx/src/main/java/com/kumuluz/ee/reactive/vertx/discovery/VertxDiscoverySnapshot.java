@@ -0,0 +1,181 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.discovery;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped snapshot of the services imported by the discovery bridge. The snapshot starts with a header
+ * containing a magic number, the format version, the time it was taken, the number of services, the payload length
+ * and a CRC32 of the payload, followed by the services. A snapshot is written to a temporary file that replaces the
+ * previous snapshot once complete, so a snapshot is never read partially written.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+class VertxDiscoverySnapshot {
+
+	private static final int MAGIC = 0x4b44534e;
+	private static final byte FORMAT_VERSION = 1;
+	private static final int HEADER_SIZE = 4 + 1 + 8 + 4 + 4 + 4;
+
+	private VertxDiscoverySnapshot() {
+
+	}
+
+	static void write(Path path, Collection<VertxService> snapshot) throws IOException {
+		List<VertxService> services = new ArrayList<>(snapshot);
+		ByteBuffer payload = encode(services);
+		int length = payload.remaining();
+
+		Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+		Files.deleteIfExists(temporary);
+
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + length);
+
+			buffer.putInt(MAGIC);
+			buffer.put(FORMAT_VERSION);
+			buffer.putLong(System.currentTimeMillis());
+			buffer.putInt(services.size());
+			buffer.putInt(length);
+			buffer.putInt(crc(payload.duplicate()));
+			buffer.put(payload);
+			buffer.force();
+		}
+
+		Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads the services of the snapshot. Returns no services if the snapshot does not exist, is older than
+	 * <code>maxAge</code> milliseconds, was written in another format version or is corrupted.
+	 */
+	static List<VertxService> read(Path path, long maxAge) throws IOException {
+		if (!Files.isRegularFile(path) || Files.size(path) < HEADER_SIZE) {
+			return Collections.emptyList();
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if (buffer.getInt() != MAGIC || buffer.get() != FORMAT_VERSION) {
+				return Collections.emptyList();
+			}
+
+			long timestamp = buffer.getLong();
+			int count = buffer.getInt();
+			int length = buffer.getInt();
+			int crc = buffer.getInt();
+
+			if ((maxAge > 0 && System.currentTimeMillis() - timestamp > maxAge) || length != buffer.remaining()) {
+				return Collections.emptyList();
+			}
+
+			ByteBuffer payload = buffer.slice();
+
+			if (crc(payload.duplicate()) != crc) {
+				return Collections.emptyList();
+			}
+
+			List<VertxService> services = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				services.add(new VertxService(getString(payload), getString(payload), getString(payload),
+						payload.getLong(), payload.getLong(), getString(payload), getString(payload)));
+			}
+
+			return services;
+		}
+	}
+
+	private static ByteBuffer encode(List<VertxService> services) {
+		List<byte[]> strings = new ArrayList<>(services.size() * 5);
+		int length = 0;
+
+		for (VertxService service : services) {
+			for (String value : new String[] { service.getName(), service.getVersion(), service.getEnvironment(),
+					service.getBaseUrl(), service.getId() }) {
+				byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+				strings.add(bytes);
+				length += 4 + (bytes == null ? 0 : bytes.length);
+			}
+			length += 8 + 8;
+		}
+
+		ByteBuffer payload = ByteBuffer.allocate(length);
+		int i = 0;
+
+		for (VertxService service : services) {
+			putString(payload, strings.get(i++));
+			putString(payload, strings.get(i++));
+			putString(payload, strings.get(i++));
+			payload.putLong(service.getTtl());
+			payload.putLong(service.getPingInterval());
+			putString(payload, strings.get(i++));
+			putString(payload, strings.get(i++));
+		}
+
+		payload.flip();
+		return payload;
+	}
+
+	private static void putString(ByteBuffer buffer, byte[] bytes) {
+		if (bytes == null) {
+			buffer.putInt(-1);
+		} else {
+			buffer.putInt(bytes.length);
+			buffer.put(bytes);
+		}
+	}
+
+	private static String getString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+
+		if (length < 0) {
+			return null;
+		}
+
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static int crc(ByteBuffer buffer) {
+		CRC32 crc = new CRC32();
+		crc.update(buffer);
+		return (int) crc.getValue();
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.discovery;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Index of the imported services by name, environment and version. Versions of a name and environment are kept
+ * sorted, so that the highest version matching a range is found in logarithmic time. Services with versions that
+ * are not semantic versions are indexed by their version string.
+ *
+ * The index is updated by a single writer at a time and read concurrently.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxServiceIndex {
+
+	private final Map<String, NavigableMap<VertxServiceVersion, List<VertxService>>> versions =
+			new ConcurrentHashMap<>();
+	private final Map<String, List<VertxService>> literals = new ConcurrentHashMap<>();
+	
+	public void add(VertxService service) {
+		VertxServiceVersion version = VertxServiceVersion.parse(service.getVersion());
+		
+		if (version == null) {
+			literals.computeIfAbsent(literalKey(service.getName(), service.getEnvironment(), service.getVersion()),
+					k -> new CopyOnWriteArrayList<>()).add(service);
+		} else {
+			versions.computeIfAbsent(key(service.getName(), service.getEnvironment()),
+					k -> new ConcurrentSkipListMap<>())
+					.computeIfAbsent(version, v -> new CopyOnWriteArrayList<>()).add(service);
+		}
+	}
+	
+	public void remove(VertxService service) {
+		VertxServiceVersion version = VertxServiceVersion.parse(service.getVersion());
+		
+		if (version == null) {
+			literals.computeIfPresent(literalKey(service.getName(), service.getEnvironment(), service.getVersion()),
+					(k, services) -> {
+						services.remove(service);
+						return services.isEmpty() ? null : services;
+					});
+		} else {
+			versions.computeIfPresent(key(service.getName(), service.getEnvironment()), (k, byVersion) -> {
+				byVersion.computeIfPresent(version, (v, services) -> {
+					services.remove(service);
+					return services.isEmpty() ? null : services;
+				});
+				return byVersion.isEmpty() ? null : byVersion;
+			});
+		}
+	}
+	
+	/**
+	 * Returns a random instance of the highest version of the service matching the range, in the first of the
+	 * environments that has one.
+	 */
+	public Optional<VertxService> find(String name, VertxVersionRange range, List<String> environments) {
+		for (String environment : environments) {
+			List<VertxService> services;
+			
+			if (range.isLiteral()) {
+				services = literals.get(literalKey(name, environment, range.getValue()));
+			} else {
+				NavigableMap<VertxServiceVersion, List<VertxService>> byVersion = versions.get(key(name, environment));
+				Map.Entry<VertxServiceVersion, List<VertxService>> entry = byVersion == null ? null
+						: range.highest(byVersion);
+				services = entry == null ? null : entry.getValue();
+			}
+			
+			Optional<VertxService> service = pick(services);
+			
+			if (service.isPresent()) {
+				return service;
+			}
+		}
+		
+		return Optional.empty();
+	}
+	
+	private static Optional<VertxService> pick(List<VertxService> services) {
+		if (services == null) {
+			return Optional.empty();
+		}
+		
+		// the list may shrink between the size and the get, since it is read without a lock
+		Object[] instances = services.toArray();
+		
+		return instances.length == 0 ? Optional.empty()
+				: Optional.of((VertxService) instances[ThreadLocalRandom.current().nextInt(instances.length)]);
+	}
+	
+	private static String key(String name, String environment) {
+		return name + '\0' + environment;
+	}
+	
+	private static String literalKey(String name, String environment, String version) {
+		return name + '\0' + environment + '\0' + version;
+	}
+
+}
@@ -0,0 +1,217 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.discovery;
+
+/**
+ * Semantic version of a service, in the form <code>major.minor.patch[-prerelease][+build]</code>. Build metadata
+ * is ignored.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxServiceVersion implements Comparable<VertxServiceVersion> {
+
+	private final int major;
+	private final int minor;
+	private final int patch;
+	private final String prerelease;
+	
+	public VertxServiceVersion(int major, int minor, int patch, String prerelease) {
+		this.major = major;
+		this.minor = minor;
+		this.patch = patch;
+		this.prerelease = prerelease;
+	}
+	
+	/**
+	 * Parses the version. Missing minor and patch numbers are zero, so <code>1.2</code> is parsed as
+	 * <code>1.2.0</code>.
+	 *
+	 * @return the version, or null if the value is not a semantic version
+	 */
+	public static VertxServiceVersion parse(String value) {
+		String[] parts = split(value);
+		
+		if (parts == null) {
+			return null;
+		}
+		
+		int[] numbers = new int[3];
+		
+		for (int i = 0; i < parts.length - 1; i++) {
+			numbers[i] = parseNumber(parts[i]);
+			
+			if (numbers[i] < 0) {
+				return null;
+			}
+		}
+		
+		return new VertxServiceVersion(numbers[0], numbers[1], numbers[2], parts[parts.length - 1]);
+	}
+	
+	/**
+	 * Splits the version into its one to three numbers, followed by the prerelease, which may be null.
+	 *
+	 * @return the parts, or null if the value has no numbers or more than three
+	 */
+	static String[] split(String value) {
+		if (value == null) {
+			return null;
+		}
+		
+		String version = value.trim();
+		
+		if (version.startsWith("v") || version.startsWith("V")) {
+			version = version.substring(1);
+		}
+		
+		int build = version.indexOf('+');
+		if (build >= 0) {
+			version = version.substring(0, build);
+		}
+		
+		String prerelease = null;
+		int dash = version.indexOf('-');
+		if (dash >= 0) {
+			prerelease = version.substring(dash + 1);
+			version = version.substring(0, dash);
+		}
+		
+		String[] numbers = version.split("\\.", -1);
+		
+		if (version.isEmpty() || numbers.length > 3) {
+			return null;
+		}
+		
+		String[] parts = new String[numbers.length + 1];
+		System.arraycopy(numbers, 0, parts, 0, numbers.length);
+		parts[numbers.length] = prerelease == null || prerelease.isEmpty() ? null : prerelease;
+		return parts;
+	}
+	
+	/**
+	 * Returns the number, or -1 if the part is not a number.
+	 */
+	static int parseNumber(String part) {
+		if (part.isEmpty() || part.length() > 9) {
+			return -1;
+		}
+		
+		for (int i = 0; i < part.length(); i++) {
+			if (!Character.isDigit(part.charAt(i))) {
+				return -1;
+			}
+		}
+		
+		return Integer.parseInt(part);
+	}
+	
+	public int getMajor() {
+		return major;
+	}
+	
+	public int getMinor() {
+		return minor;
+	}
+	
+	public int getPatch() {
+		return patch;
+	}
+	
+	public String getPrerelease() {
+		return prerelease;
+	}
+	
+	public boolean isPrerelease() {
+		return prerelease != null;
+	}
+	
+	/**
+	 * Returns true if both versions have the same major, minor and patch numbers.
+	 */
+	public boolean isSameRelease(VertxServiceVersion other) {
+		return major == other.major && minor == other.minor && patch == other.patch;
+	}
+	
+	@Override
+	public int compareTo(VertxServiceVersion other) {
+		int result = Integer.compare(major, other.major);
+		if (result == 0) {
+			result = Integer.compare(minor, other.minor);
+		}
+		if (result == 0) {
+			result = Integer.compare(patch, other.patch);
+		}
+		if (result == 0) {
+			result = comparePrerelease(prerelease, other.prerelease);
+		}
+		return result;
+	}
+	
+	/**
+	 * Compares prereleases by their dot separated identifiers. A release is higher than any of its prereleases.
+	 */
+	private static int comparePrerelease(String first, String second) {
+		if (first == null || second == null) {
+			return first == null ? (second == null ? 0 : 1) : -1;
+		}
+		
+		String[] firstIds = first.split("\\.");
+		String[] secondIds = second.split("\\.");
+		
+		for (int i = 0; i < Math.min(firstIds.length, secondIds.length); i++) {
+			int firstNumber = parseNumber(firstIds[i]);
+			int secondNumber = parseNumber(secondIds[i]);
+			int result;
+			
+			if (firstNumber >= 0 && secondNumber >= 0) {
+				result = Integer.compare(firstNumber, secondNumber);
+			} else if (firstNumber >= 0 || secondNumber >= 0) {
+				// numeric identifiers are lower than alphanumeric ones
+				result = firstNumber >= 0 ? -1 : 1;
+			} else {
+				result = firstIds[i].compareTo(secondIds[i]);
+			}
+			
+			if (result != 0) {
+				return result;
+			}
+		}
+		
+		return Integer.compare(firstIds.length, secondIds.length);
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof VertxServiceVersion && compareTo((VertxServiceVersion) o) == 0;
+	}
+	
+	@Override
+	public int hashCode() {
+		return 31 * (31 * (31 * major + minor) + patch) + (prerelease == null ? 0 : prerelease.hashCode());
+	}
+	
+	@Override
+	public String toString() {
+		return major + "." + minor + "." + patch + (prerelease == null ? "" : "-" + prerelease);
+	}
+
+}
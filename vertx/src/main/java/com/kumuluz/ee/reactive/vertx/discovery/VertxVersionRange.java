@@ -0,0 +1,299 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.discovery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Range of service versions, in the npm notation: exact versions (<code>1.2.3</code>), partial versions
+ * (<code>1.2</code>, <code>1.x</code>), caret (<code>^1.2</code>) and tilde (<code>~1.2</code>) ranges and
+ * comparators (<code>&gt;=2.0 &lt;3</code>). Comparators separated by whitespace are intersected, and ranges
+ * separated by <code>||</code> are joined. Prereleases only match ranges which name a prerelease of the same
+ * release. Values that are not ranges only match versions with the same name.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxVersionRange {
+
+	private final String value;
+	private final List<Bounds> ranges;
+	
+	private VertxVersionRange(String value, List<Bounds> ranges) {
+		this.value = value;
+		this.ranges = ranges;
+	}
+	
+	public static VertxVersionRange parse(String value) {
+		List<Bounds> ranges = new ArrayList<>();
+		
+		// empty ranges match any version, so they are kept, e.g. in ||
+		for (String range : value.split("\\|\\|", -1)) {
+			Bounds bounds = new Bounds();
+			String[] comparators = range.trim().replaceAll("(>=|<=|>|<|=|\\^|~)\\s+", "$1").split("\\s+");
+			
+			for (String comparator : comparators) {
+				if (!bounds.add(comparator)) {
+					// not a range, e.g. a version named latest
+					return new VertxVersionRange(value, null);
+				}
+			}
+			
+			ranges.add(bounds);
+		}
+		
+		return new VertxVersionRange(value, ranges);
+	}
+	
+	/**
+	 * Returns true if the range could not be parsed and only matches versions with the same name.
+	 */
+	public boolean isLiteral() {
+		return ranges == null;
+	}
+	
+	public String getValue() {
+		return value;
+	}
+	
+	public boolean matches(VertxServiceVersion version) {
+		if (ranges == null) {
+			return false;
+		}
+		
+		for (Bounds bounds : ranges) {
+			if (bounds.matches(version)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Returns the entry of the highest matching version. Only the versions within the bounds of each range are
+	 * visited, starting at the upper bound, so the lookup takes logarithmic time unless prereleases are skipped.
+	 */
+	public <T> Map.Entry<VertxServiceVersion, T> highest(NavigableMap<VertxServiceVersion, T> versions) {
+		Map.Entry<VertxServiceVersion, T> highest = null;
+		
+		if (ranges == null) {
+			return null;
+		}
+		
+		for (Bounds bounds : ranges) {
+			NavigableMap<VertxServiceVersion, T> candidates = versions;
+			
+			if (bounds.lower != null) {
+				candidates = candidates.tailMap(bounds.lower, bounds.lowerInclusive);
+			}
+			if (bounds.upper != null) {
+				candidates = candidates.headMap(bounds.upper, bounds.upperInclusive);
+			}
+			
+			for (Map.Entry<VertxServiceVersion, T> entry : candidates.descendingMap().entrySet()) {
+				if (highest != null && entry.getKey().compareTo(highest.getKey()) <= 0) {
+					break;
+				}
+				
+				if (bounds.matches(entry.getKey())) {
+					highest = entry;
+					break;
+				}
+			}
+		}
+		
+		return highest;
+	}
+	
+	@Override
+	public String toString() {
+		return value;
+	}
+	
+	/**
+	 * Intersection of comparators.
+	 */
+	private static class Bounds {
+		
+		private VertxServiceVersion lower;
+		private boolean lowerInclusive = true;
+		private VertxServiceVersion upper;
+		private boolean upperInclusive;
+		private final List<VertxServiceVersion> prereleases = new ArrayList<>();
+		private boolean empty;
+		
+		private boolean add(String comparator) {
+			String operator = "";
+			
+			for (String candidate : new String[] { ">=", "<=", ">", "<", "=", "^", "~" }) {
+				if (comparator.startsWith(candidate)) {
+					operator = candidate;
+					break;
+				}
+			}
+			
+			String[] parts = VertxServiceVersion.split(comparator.substring(operator.length()));
+			
+			if (parts == null) {
+				return comparator.isEmpty();
+			}
+			
+			// numbers given before the first wildcard
+			int given = 0;
+			int[] numbers = new int[3];
+			
+			for (int i = 0; i < parts.length - 1; i++) {
+				String part = parts[i];
+				
+				if (part.equals("x") || part.equals("X") || part.equals("*")) {
+					break;
+				}
+				
+				numbers[i] = VertxServiceVersion.parseNumber(part);
+				
+				if (numbers[i] < 0) {
+					return false;
+				}
+				
+				given++;
+			}
+			
+			String prerelease = given == 3 ? parts[parts.length - 1] : null;
+			VertxServiceVersion base = new VertxServiceVersion(numbers[0], numbers[1], numbers[2], prerelease);
+			
+			if (prerelease != null) {
+				prereleases.add(base);
+			}
+			
+			if (given == 0) {
+				// any version, unless the operator excludes all of them
+				if (operator.equals("<") || operator.equals(">")) {
+					empty = true;
+				}
+				return true;
+			}
+			
+			switch (operator) {
+				case "^":
+					setLower(base, true);
+					if (numbers[0] > 0 || given == 1) {
+						setUpper(new VertxServiceVersion(numbers[0] + 1, 0, 0, null), false);
+					} else if (numbers[1] > 0 || given == 2) {
+						setUpper(new VertxServiceVersion(0, numbers[1] + 1, 0, null), false);
+					} else {
+						setUpper(new VertxServiceVersion(0, 0, numbers[2] + 1, null), false);
+					}
+					break;
+				case "~":
+					setLower(base, true);
+					setUpper(next(numbers, Math.min(given, 2)), false);
+					break;
+				case ">=":
+					setLower(base, true);
+					break;
+				case ">":
+					if (given == 3) {
+						setLower(base, false);
+					} else {
+						setLower(next(numbers, given), true);
+					}
+					break;
+				case "<":
+					setUpper(base, false);
+					break;
+				case "<=":
+					if (given == 3) {
+						setUpper(base, true);
+					} else {
+						setUpper(next(numbers, given), false);
+					}
+					break;
+				default:
+					setLower(base, true);
+					if (given == 3) {
+						setUpper(base, true);
+					} else {
+						setUpper(next(numbers, given), false);
+					}
+			}
+			
+			return true;
+		}
+		
+		/**
+		 * Returns the lowest version above all versions starting with the given numbers.
+		 */
+		private static VertxServiceVersion next(int[] numbers, int given) {
+			if (given == 1) {
+				return new VertxServiceVersion(numbers[0] + 1, 0, 0, null);
+			} else if (given == 2) {
+				return new VertxServiceVersion(numbers[0], numbers[1] + 1, 0, null);
+			}
+			return new VertxServiceVersion(numbers[0], numbers[1], numbers[2] + 1, null);
+		}
+		
+		private void setLower(VertxServiceVersion version, boolean inclusive) {
+			int result = lower == null ? 1 : version.compareTo(lower);
+			
+			if (result > 0 || (result == 0 && !inclusive)) {
+				lower = version;
+				lowerInclusive = inclusive;
+			}
+		}
+		
+		private void setUpper(VertxServiceVersion version, boolean inclusive) {
+			int result = upper == null ? -1 : version.compareTo(upper);
+			
+			if (result < 0 || (result == 0 && !inclusive)) {
+				upper = version;
+				upperInclusive = inclusive;
+			}
+		}
+		
+		private boolean matches(VertxServiceVersion version) {
+			if (empty) {
+				return false;
+			}
+			
+			if (lower != null) {
+				int result = version.compareTo(lower);
+				if (result < 0 || (result == 0 && !lowerInclusive)) {
+					return false;
+				}
+			}
+			
+			if (upper != null) {
+				int result = version.compareTo(upper);
+				if (result > 0 || (result == 0 && !upperInclusive)) {
+					return false;
+				}
+			}
+			
+			return !version.isPrerelease() || prereleases.stream().anyMatch(version::isSameRelease);
+		}
+		
+	}
+
+}
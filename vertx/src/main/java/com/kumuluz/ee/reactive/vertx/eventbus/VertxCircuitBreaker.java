@@ -0,0 +1,130 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventbus;
+
+/**
+ * Circuit breaker of a listener. After failure-threshold consecutive failures the circuit opens and messages are
+ * failed fast. Once the reset timeout passes, the circuit is half-open and a single trial message is let through,
+ * which closes the circuit on success or opens it again on failure. The circuit breaker is confined to the context of
+ * the listener.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxCircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final int failureThreshold;
+	private final long resetTimeout;
+
+	private volatile State state = State.CLOSED;
+	private int failures;
+	private long openedAt;
+	private boolean trialInProgress;
+
+	public VertxCircuitBreaker(int failureThreshold, long resetTimeout) {
+		this.failureThreshold = failureThreshold;
+		this.resetTimeout = resetTimeout;
+	}
+
+	/**
+	 * Returns true if a message may be handled. In the half-open state, only the first message is allowed until its
+	 * result is recorded.
+	 */
+	public boolean allowRequest() {
+		if (!isEnabled() || state == State.CLOSED) {
+			return true;
+		}
+
+		if (state == State.OPEN) {
+			if (System.currentTimeMillis() - openedAt < resetTimeout) {
+				return false;
+			}
+			state = State.HALF_OPEN;
+		}
+
+		if (trialInProgress) {
+			return false;
+		}
+
+		trialInProgress = true;
+		return true;
+	}
+
+	/**
+	 * Records a successful message.
+	 *
+	 * @return true if the circuit was closed by this success
+	 */
+	public boolean recordSuccess() {
+		failures = 0;
+		trialInProgress = false;
+
+		if (state != State.CLOSED) {
+			state = State.CLOSED;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Records a failed message.
+	 *
+	 * @return true if the circuit was opened by this failure
+	 */
+	public boolean recordFailure() {
+		if (!isEnabled()) {
+			return false;
+		}
+
+		failures++;
+		trialInProgress = false;
+
+		if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+			state = State.OPEN;
+			openedAt = System.currentTimeMillis();
+			return true;
+		}
+
+		return false;
+	}
+
+	public boolean isTrialInProgress() {
+		return trialInProgress;
+	}
+
+	public boolean isEnabled() {
+		return failureThreshold > 0;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	public long getResetTimeout() {
+		return resetTimeout;
+	}
+
+}
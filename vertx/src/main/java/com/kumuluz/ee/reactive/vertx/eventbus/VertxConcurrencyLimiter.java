@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventbus;
+
+/**
+ * Adaptive limit of the messages a listener handles at the same time, based on the gradient between the lowest
+ * observed latency and the current latency. While the latency stays close to the lowest one, the limit grows by a
+ * queue of sqrt(limit) messages; once the latency grows because the listener or its dependencies are saturated, the
+ * limit shrinks in proportion. The lowest latency is reset periodically, so that the limit adapts to lasting changes.
+ * The limiter is confined to the context of the listener.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxConcurrencyLimiter {
+
+	private static final double SMOOTHING = 0.2;
+	private static final double LATENCY_DECAY = 0.1;
+	private static final double MIN_GRADIENT = 0.5;
+	private static final int MIN_LATENCY_RESET_SAMPLES = 1000;
+
+	private final int minLimit;
+	private final int maxLimit;
+
+	private volatile double limit;
+	private double latency;
+	private double minLatency = Double.MAX_VALUE;
+	private int samples;
+
+	public VertxConcurrencyLimiter(int minLimit, int maxLimit) {
+		this.minLimit = Math.max(1, minLimit);
+		this.maxLimit = Math.max(this.minLimit, maxLimit);
+		this.limit = this.maxLimit;
+	}
+
+	/**
+	 * Updates the limit with the latency of a handled message.
+	 *
+	 * @param latency  time in nanoseconds in which the message was handled
+	 * @param inFlight number of messages that were in flight when the message was handled
+	 */
+	public void onSample(long latency, int inFlight) {
+		if (latency <= 0) {
+			return;
+		}
+
+		this.latency = this.latency == 0 ? latency : this.latency * (1 - LATENCY_DECAY) + latency * LATENCY_DECAY;
+
+		if (++samples >= MIN_LATENCY_RESET_SAMPLES) {
+			samples = 0;
+			minLatency = this.latency;
+		}
+		minLatency = Math.min(minLatency, latency);
+
+		// the limit can not be probed if it is not used
+		if (inFlight < limit / 2) {
+			return;
+		}
+
+		double gradient = Math.max(MIN_GRADIENT, Math.min(1, minLatency / this.latency));
+		double newLimit = limit * gradient + Math.sqrt(limit);
+
+		limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+	}
+
+	public int getLimit() {
+		return (int) limit;
+	}
+
+}
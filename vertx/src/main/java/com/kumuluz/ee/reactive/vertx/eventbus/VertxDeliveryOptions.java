@@ -0,0 +1,49 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventbus;
+
+import io.vertx.core.eventbus.DeliveryOptions;
+
+/**
+ * Util class for copying delivery options. The copy constructor of DeliveryOptions shares the headers with the
+ * original, so headers added to a copy would leak into the options of the address.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxDeliveryOptions {
+
+	/**
+	 * Returns a copy of the options with headers of its own.
+	 */
+	public static DeliveryOptions copy(DeliveryOptions options) {
+		DeliveryOptions copy = new DeliveryOptions()
+				.setSendTimeout(options.getSendTimeout())
+				.setCodecName(options.getCodecName());
+
+		if (options.getHeaders() != null) {
+			options.getHeaders().forEach(header -> copy.addHeader(header.getKey(), header.getValue()));
+		}
+
+		return copy;
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventbus;
+
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLog;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageProducer;
+
+import java.util.logging.Logger;
+
+/**
+ * Message producer of a durable address. Every message is appended to the event log before it is delivered and
+ * carries the log id and its offset in headers, so that listeners can commit it and resume after a restart. Messages
+ * are delivered by the given producer of the address, so flow control, compression and closing apply as they do to
+ * the messages of any other address.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxDurableMessageProducer implements MessageProducer<Object> {
+
+	private static final Logger log = Logger.getLogger(VertxDurableMessageProducer.class.getName());
+
+	private final MessageProducer<Object> delegate;
+	private final VertxEventLog eventLog;
+
+	private DeliveryOptions deliveryOptions;
+	private Handler<Throwable> exceptionHandler;
+
+	public VertxDurableMessageProducer(MessageProducer<Object> delegate, DeliveryOptions deliveryOptions,
+			VertxEventLog eventLog) {
+		this.delegate = delegate;
+		this.deliveryOptions = deliveryOptions;
+		this.eventLog = eventLog;
+	}
+
+	// the headers of a message are set on the delegate, so appending and delivering must not interleave
+	@Override
+	public synchronized MessageProducer<Object> send(Object message) {
+		delegate.deliveryOptions(append(message)).send(message);
+		return this;
+	}
+
+	@Override
+	public synchronized <R> MessageProducer<Object> send(Object message,
+			Handler<AsyncResult<Message<R>>> replyHandler) {
+		delegate.deliveryOptions(append(message)).send(message, replyHandler);
+		return this;
+	}
+
+	@Override
+	public synchronized MessageProducer<Object> write(Object data) {
+		delegate.deliveryOptions(append(data)).write(data);
+		return this;
+	}
+
+	/**
+	 * Appends the message to the event log. If the message can not be stored, it is still delivered, but without
+	 * an offset, so it will not be replayed.
+	 */
+	private DeliveryOptions append(Object message) {
+		DeliveryOptions options = VertxDeliveryOptions.copy(deliveryOptions);
+
+		try {
+			long offset = eventLog.append(message);
+			options.addHeader(VertxEventLog.HEADER_LOG_ID, eventLog.getId())
+					.addHeader(VertxEventLog.HEADER_OFFSET, String.valueOf(offset));
+		} catch (Exception e) {
+			log.warning("Error at appending message to the event log of address " + address() + ". "
+					+ e.getLocalizedMessage());
+
+			if (exceptionHandler != null) {
+				exceptionHandler.handle(e);
+			}
+		}
+
+		return options;
+	}
+
+	@Override
+	public MessageProducer<Object> exceptionHandler(Handler<Throwable> handler) {
+		this.exceptionHandler = handler;
+		delegate.exceptionHandler(handler);
+		return this;
+	}
+
+	@Override
+	public MessageProducer<Object> setWriteQueueMaxSize(int maxSize) {
+		delegate.setWriteQueueMaxSize(maxSize);
+		return this;
+	}
+
+	@Override
+	public boolean writeQueueFull() {
+		return delegate.writeQueueFull();
+	}
+
+	@Override
+	public MessageProducer<Object> drainHandler(Handler<Void> handler) {
+		delegate.drainHandler(handler);
+		return this;
+	}
+
+	@Override
+	public synchronized MessageProducer<Object> deliveryOptions(DeliveryOptions options) {
+		this.deliveryOptions = options;
+		return this;
+	}
+
+	@Override
+	public String address() {
+		return delegate.address();
+	}
+
+	@Override
+	public void end() {
+		delegate.end();
+	}
+
+	@Override
+	public void close() {
+		delegate.close();
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventbus;
+
+import java.util.UUID;
+
+/**
+ * Util class for deriving internal event bus addresses from the addresses used in annotations.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxEventBusAddresses {
+
+	private static final String LOCAL_PREFIX = "__kumuluzee.local.";
+	private static final String PARTITION_SEPARATOR = ".__partition.";
+	private static final String REPLAY_PREFIX = "__kumuluzee.replay.";
+	private static final String SPILL_PREFIX = "__kumuluzee.spill.";
+
+	/**
+	 * Returns the node-local counterpart of an address. Listeners register a local consumer on it, which is never
+	 * propagated to the cluster, so messages sent to it are delivered in-process without serialization.
+	 */
+	public static String local(String address) {
+		return LOCAL_PREFIX + address;
+	}
+
+	/**
+	 * Returns the address of a single partition of a partitioned address.
+	 */
+	public static String partition(String address, int partition) {
+		return address + PARTITION_SEPARATOR + partition;
+	}
+
+	/**
+	 * Returns the address of which the given address is a partition, or the address itself, if it is not a partition.
+	 */
+	public static String base(String address) {
+		int separator = address.lastIndexOf(PARTITION_SEPARATOR);
+		return separator < 0 ? address : address.substring(0, separator);
+	}
+
+	/**
+	 * Returns the address on which nodes holding the event log of a durable address serve replay requests.
+	 */
+	public static String replay(String address) {
+		return REPLAY_PREFIX + address;
+	}
+
+	/**
+	 * Returns a node-local address on which a listener receives the messages read back from its spill log.
+	 */
+	public static String spill(String address) {
+		return SPILL_PREFIX + address + "." + UUID.randomUUID();
+	}
+
+}
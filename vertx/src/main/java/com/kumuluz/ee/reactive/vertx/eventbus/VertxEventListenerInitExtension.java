@@ -24,14 +24,17 @@ import com.kumuluz.ee.reactive.common.annotations.ReactiveEventListener;
 import com.kumuluz.ee.reactive.common.utils.EventListenerFactory;
 import com.kumuluz.ee.reactive.common.utils.EventListenerInitExtension;
 import com.kumuluz.ee.reactive.common.utils.EventListenerInstance;
+import com.kumuluz.ee.reactive.common.utils.EventListenerReference;
+import com.kumuluz.ee.reactive.common.utils.ReactiveBackend;
+import com.kumuluz.ee.reactive.vertx.config.VertxListenerConfigLoader;
+import com.kumuluz.ee.reactive.vertx.utils.VertxExtension;
+import com.kumuluz.ee.reactive.vertx.utils.VertxUtils;
+import io.vertx.core.eventbus.Message;
 
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.spi.AfterDeploymentValidation;
 import javax.enterprise.inject.spi.BeanManager;
 import java.lang.reflect.Method;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
@@ -49,47 +52,91 @@ public class VertxEventListenerInitExtension implements EventListenerInitExtensi
 	@Override
 	public <X> void after(@Observes AfterDeploymentValidation adv, BeanManager bm) {
 		
-		vertxEventListenerFactory = new VertxEventListenerFactory();
-		
-		for(EventListenerInstance listenerInstance : instanceList) {
-			log.info(listenerInstance.getMethod().getName());
+		if(!ReactiveBackend.isSelected(VertxExtension.BACKEND)) {
+			return;
 		}
 		
-		if(instanceList.size() > 0) {
-			ExecutorService executor = Executors.newFixedThreadPool(instanceList.size());
+		vertxEventListenerFactory = new VertxEventListenerFactory();
+		VertxRequestContext requestContext = VertxRequestContext.create(bm);
+		
+		for(EventListenerInstance listenerInstance : getOwnedListeners(adv)) {
+			ReactiveEventListener annotation = listenerInstance.getAnnotation();
+			Method method = listenerInstance.getMethod();
+			
+			String address = annotation.address();
+			VertxListenerOptions options = VertxListenerConfigLoader.getOptions(address);
 			
-			for(EventListenerInstance listenerInstance : instanceList) {
-				ReactiveEventListener annotation = listenerInstance.getAnnotation();
-				Method method = listenerInstance.getMethod();
-				
-				String address = annotation.address();
-				
-				Object instance = bm.getReference(
-						listenerInstance.getBean(),
-						method.getDeclaringClass(),
-						bm.createCreationalContext(listenerInstance.getBean()));
-				
-				VertxEventListenerRunnable vertxEventListenerRunnable = vertxEventListenerFactory.createEventListener(instance, address, method);
-				
-				if(vertxEventListenerRunnable != null) {
-					executor.submit(vertxEventListenerRunnable);
-					
-					Runtime.getRuntime().addShutdownHook(new Thread() {
-						@Override
-						public void run() {							
-							executor.shutdown();
-							
-							try {
-								executor.awaitTermination(5000, TimeUnit.MILLISECONDS);
-							} catch (Exception e) {
-								log.warning(e.getLocalizedMessage());
-							}
-						}
-					});
+			if(!options.isEnabled()) {
+				log.info("Listener " + method.getName() + " for address " + address + " is disabled.");
+				continue;
+			}
+			
+			log.info(method.getName());
+			
+			try {
+				if(annotation.partitions() > 1) {
+					for(int i = 0; i < annotation.partitions(); i++) {
+						// every partition gets its own consumer and thereby its own event loop
+						start(annotation, createEventListener(bm, listenerInstance,
+								VertxEventBusAddresses.partition(address, i), requestContext, options.isLazy()));
+					}
+				} else {
+					start(annotation, createEventListener(bm, listenerInstance, address, requestContext,
+							options.isLazy()));
 				}
-				
+			} catch (IllegalArgumentException e) {
+				adv.addDeploymentProblem(new IllegalArgumentException("Invalid listener " + method.getName()
+						+ " for address " + address + ". " + e.getLocalizedMessage(), e));
 			}
 		}
 	}
+	
+	/**
+	 * Creates a listener for the given address. Every partition gets a reference of its own, so that an instance of a
+	 * dependent bean is confined to the context of its consumer. Lazy listeners resolve the reference on their first
+	 * message.
+	 */
+	private VertxEventListenerRunnable createEventListener(BeanManager bm, EventListenerInstance listenerInstance,
+			String address, VertxRequestContext requestContext, boolean lazy) {
+		EventListenerReference reference = getReference(bm, listenerInstance);
+		
+		VertxEventListenerRunnable vertxEventListenerRunnable = vertxEventListenerFactory.createEventListener(
+				lazy ? null : reference.get(), address, listenerInstance.getMethod());
+		vertxEventListenerRunnable.setRequestContext(requestContext);
+		vertxEventListenerRunnable.setCreationalContext(reference.getCreationalContext());
+		
+		if(lazy) {
+			vertxEventListenerRunnable.setInstanceSupplier(reference);
+		}
+		
+		return vertxEventListenerRunnable;
+	}
+	
+	/**
+	 * Registers the consumers of the listener once its Vert.x instance is initialized. Registration runs outside of
+	 * Vert.x, so that every listener gets a context of its own, without a thread per listener waiting for Vert.x.
+	 */
+	private void start(ReactiveEventListener annotation, VertxEventListenerRunnable vertxEventListenerRunnable) {
+		VertxUtils.whenReady(annotation.instance())
+				.thenAcceptAsync(vertxEventListenerRunnable::start)
+				.exceptionally(e -> {
+					log.severe("Error at registering listener for address " + vertxEventListenerRunnable.getAddress()
+							+ ". " + e.getLocalizedMessage());
+					return null;
+				});
+	}
+	
+	@Override
+	public String getBackend() {
+		return VertxExtension.BACKEND;
+	}
+	
+	/**
+	 * Handles the listeners taking a Vert.x message, or a supertype of it, or taking no message at all.
+	 */
+	@Override
+	public boolean handles(Method method) {
+		return method.getParameterCount() != 1 || method.getParameterTypes()[0].isAssignableFrom(Message.class);
+	}
 
 }
@@ -20,12 +20,42 @@
  */
 package com.kumuluz.ee.reactive.vertx.eventbus;
 
+import com.kumuluz.ee.reactive.common.annotations.ReactiveEventListener;
+import com.kumuluz.ee.reactive.vertx.config.VertxEventLogConfigLoader;
+import com.kumuluz.ee.reactive.vertx.config.VertxListenerConfigLoader;
+import com.kumuluz.ee.reactive.vertx.diagnostics.VertxDiagnostics;
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLog;
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLogManager;
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLogOffsets;
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLogOptions;
+import com.kumuluz.ee.reactive.vertx.pooled.VertxPooledPayload;
+import com.kumuluz.ee.reactive.vertx.utils.VertxShutdownHook;
 import com.kumuluz.ee.reactive.vertx.utils.VertxUtils;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
 
+import javax.enterprise.context.spi.CreationalContext;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * Runnable for registering an event listener to the event bus.
@@ -37,42 +67,754 @@ public class VertxEventListenerRunnable implements Runnable {
 
 	private static final Logger log = Logger.getLogger(VertxEventListenerRunnable.class.getName());
 
+	public static final int FAILURE_CODE_LISTENER = 500;
+	public static final int FAILURE_CODE_CIRCUIT_OPEN = 503;
+
+	public static final String HEADER_DEAD_LETTER_ADDRESS = "kumuluzee-dead-letter-address";
+	public static final String HEADER_DEAD_LETTER_ERROR = "kumuluzee-dead-letter-error";
+	public static final String HEADER_DEAD_LETTER_ATTEMPTS = "kumuluzee-dead-letter-attempts";
+
 	private MessageConsumer<Object> messageConsumer;
+	private MessageConsumer<Object> localMessageConsumer;
+	private Vertx vertx;
+	private Context context;
 	private String address;
+	private String instanceName;
+	private String listenerName;
+	private long maxExecuteTime;
 	private Method method;
-	private Object instance;
+	private volatile Object instance;
+	private Supplier<Object> instanceSupplier;
+	private CreationalContext<?> creationalContext;
+	private VertxRequestContext requestContext;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicLong filtered = new AtomicLong();
+	private final AtomicLong retried = new AtomicLong();
+	private final AtomicLong deadLettered = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong throttledCount = new AtomicLong();
+	private final VertxMessageFilter filter;
+
+	private VertxListenerOptions options;
+	private VertxListenerBuffer buffer;
+	private boolean dispatchScheduled;
+	private boolean paused;
+
+	private VertxCircuitBreaker circuitBreaker;
+	private boolean circuitOpen;
+	private int retrying;
+
+	private VertxRateLimiter rateLimiter;
+	private VertxConcurrencyLimiter concurrencyLimiter;
+	private boolean throttled;
+	private long throttleTimer = -1;
+	private boolean consumersPaused;
+	private boolean unregistering;
+	private long received;
+
+	private VertxEventLogOffsets offsets;
+	private MessageConsumer<Object> replayConsumer;
+	private Queue<Message<Object>> heldMessages;
+	private long replayTimer = -1;
 
 	public VertxEventListenerRunnable(String address, Method method, Object instance) {
 		this.address = address;
 		this.method = method;
 		this.instance = instance;
+
+		ReactiveEventListener annotation = method.getAnnotation(ReactiveEventListener.class);
+		this.filter = VertxMessageFilter.compile(annotation == null ? new String[0] : annotation.filter());
+		this.instanceName = annotation == null ? "" : annotation.instance();
+		this.listenerName = method.getDeclaringClass().getName() + "." + method.getName();
 	}
 
 	@Override
 	public void run() {
-		VertxUtils vertxUtils = VertxUtils.getInstance();
+		start(VertxUtils.getInstance().awaitVertx(instanceName));
+	}
+
+	/**
+	 * Registers the consumers of the listener on the given Vert.x instance. Has to be called outside of a Vert.x
+	 * context, so that the listener gets a context of its own.
+	 */
+	public void start(Vertx vertx) {
+		this.vertx = vertx;
+
+		log.info("Configuring MessageConsumer for address: " + address + ".");
+
+		VertxShutdownHook.registerListener(this);
+
+		Optional<VertxEventLogOptions> durableOptions = VertxEventLogConfigLoader.getOptions(address);
+
+		options = VertxListenerConfigLoader.getOptions(address);
 
-		while (vertxUtils.getVertx() == null) {
+		VertxOptions vertxOptions = VertxUtils.getInstance().getVertxOptions(instanceName);
+		maxExecuteTime = options.isWorker() ? vertxOptions.getMaxWorkerExecuteTime()
+				: vertxOptions.getMaxEventLoopExecuteTime();
+		buffer = new VertxListenerBuffer(address, listenerName, options);
+		circuitBreaker = new VertxCircuitBreaker(options.getCircuitBreakerFailureThreshold(),
+				options.getCircuitBreakerResetTimeout());
+		rateLimiter = new VertxRateLimiter(options.getRateLimit(), options.getRateLimitBurst());
+
+		if (options.isWorker() && options.isAdaptiveConcurrency()) {
+			concurrencyLimiter = new VertxConcurrencyLimiter(options.getAdaptiveConcurrencyMinLimit(),
+					options.getMaxConcurrency());
+		}
+
+		context = vertx.getOrCreateContext();
+		context.runOnContext(v -> {
 			try {
-				Thread.sleep(500);
-			} catch (InterruptedException e) {
-				log.warning("Error at waiting for Vert.x to initialize. " + e.getLocalizedMessage());
+				buffer.openSpill(vertx, this::scheduleDispatch);
+			} catch (IOException e) {
+				log.severe("Spill log for address " + address + " could not be opened, overflowing messages will be "
+						+ "dropped. " + e.getLocalizedMessage());
+			}
+
+			messageConsumer = vertx.eventBus().consumer(address, this::handle);
+
+			// receives messages from local-only publishers
+			if (vertx.isClustered()) {
+				localMessageConsumer = vertx.eventBus().localConsumer(VertxEventBusAddresses.local(address), this::handle);
+			}
+
+			if (options.isBounded()) {
+				setMaxBufferedMessages(options.getMaxBufferedMessages());
 			}
+
+			if (durableOptions.isPresent()) {
+				startReplay(durableOptions.get());
+			}
+		});
+	}
+
+	private void handle(Message<Object> message) {
+		received++;
+
+		if (heldMessages != null) {
+			// live messages are held back until missed messages are replayed
+			heldMessages.add(message);
+		} else {
+			admit(message);
 		}
+	}
 
-		log.info("Configuring MessageConsumer for address: " + address + ".");
-		
-		messageConsumer = vertxUtils.getVertx().eventBus().consumer(address);
-
-		messageConsumer.handler(message -> {
-			if (message.body() != null) {
-				try {
-					method.invoke(instance, message);
-				} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-					log.warning("Error at invoking consumer for address " + address + ". " + e.getLocalizedMessage());
+	/**
+	 * Buffers a message for dispatching, if it passes the filter. With the BLOCK overflow policy, consumers are paused
+	 * once the buffer is full and Vert.x buffers further messages in the consumers, up to the same limit.
+	 */
+	private void admit(Message<Object> message) {
+		if (!filter.acceptsAll() && !filter.test(message)) {
+			filtered.incrementAndGet();
+
+			// a point-to-point message is not handled by any other listener, so the sender should not wait for it
+			if (message.isSend() && message.replyAddress() != null) {
+				message.fail(VertxMessageFilter.FAILURE_CODE_FILTERED, "Message was rejected by the filter of the "
+						+ "listener for address " + address + ".");
+			}
+			VertxPooledPayload.releaseBody(message);
+			return;
+		}
+
+		if (buffer.offer(message)) {
+			if (options.getOverflowPolicy() == VertxOverflowPolicy.BLOCK && buffer.isFull()) {
+				setPaused(true);
+			}
+
+			scheduleDispatch();
+		} else {
+			VertxPooledPayload.releaseBody(message);
+		}
+	}
+
+	private void scheduleDispatch() {
+		if (!dispatchScheduled) {
+			dispatchScheduled = true;
+			context.runOnContext(v -> dispatchBuffered());
+		}
+	}
+
+	/**
+	 * Dispatches buffered messages. On the event loop, a single message is handled per task, so that messages
+	 * delivered in the meantime reach the buffer (and its overflow policy) before the next one is handled. On worker
+	 * threads, up to the concurrency limit messages are handled at the same time. While the circuit is half-open,
+	 * messages stay buffered until the trial message is handled.
+	 * <p>
+	 * Once the rate or concurrency limit is hit with messages left in the buffer, the consumers are paused, so that
+	 * further messages wait in the event bus instead of piling up in the listener. The same applies while a retry
+	 * holds back the messages of an ordered partition.
+	 */
+	private void dispatchBuffered() {
+		dispatchScheduled = false;
+
+		int concurrencyLimit = getConcurrencyLimit();
+		// the message being retried is dispatched by its timer, later messages of an ordered partition wait for it
+		boolean held = isRetryHeld();
+
+		if (options.isWorker()) {
+			while (!held && inFlight.get() < concurrencyLimit && !buffer.isEmpty() && !circuitBreaker.isTrialInProgress()
+					&& acquire()) {
+				dispatch(buffer.poll(), 1);
+			}
+		} else if (!held && !buffer.isEmpty() && acquire()) {
+			dispatch(buffer.poll(), 1);
+		}
+
+		if (paused && buffer.hasRoom()) {
+			setPaused(false);
+		}
+
+		boolean limited = inFlight.get() >= concurrencyLimit || throttleTimer >= 0 || held;
+		setThrottled(limited && !buffer.isEmpty());
+
+		if (!buffer.isEmpty() && !limited && !circuitBreaker.isTrialInProgress()) {
+			scheduleDispatch();
+		}
+	}
+
+	/**
+	 * Takes a token from the rate limiter. If none is left, dispatching is resumed once the next token is available.
+	 */
+	private boolean acquire() {
+		if (throttleTimer >= 0) {
+			return false;
+		}
+
+		if (rateLimiter.tryAcquire()) {
+			return true;
+		}
+
+		throttledCount.incrementAndGet();
+		throttleTimer = vertx.setTimer(rateLimiter.getDelay(), id -> {
+			throttleTimer = -1;
+			scheduleDispatch();
+		});
+
+		return false;
+	}
+
+	private void dispatch(Message<Object> message, int attempt) {
+		if (isCommitted(message)) {
+			VertxPooledPayload.releaseBody(message);
+			return;
+		}
+
+		if (attempt == 1) {
+			start(message);
+		}
+
+		if (!circuitBreaker.allowRequest()) {
+			rejected.incrementAndGet();
+			if (fail(message, FAILURE_CODE_CIRCUIT_OPEN, "Circuit of listener for address " + address + " is open.",
+					attempt - 1)) {
+				commit(message);
+			}
+			VertxPooledPayload.releaseBody(message);
+			return;
+		}
+
+		int concurrency = inFlight.incrementAndGet();
+
+		if (options.isWorker()) {
+			long start = System.nanoTime();
+
+			context.<Throwable>executeBlocking(future -> future.complete(invoke(message)), false, res -> {
+				inFlight.decrementAndGet();
+
+				if (concurrencyLimiter != null) {
+					concurrencyLimiter.onSample(System.nanoTime() - start, concurrency);
+				}
+
+				complete(message, attempt, res.succeeded() ? res.result() : res.cause());
+				scheduleDispatch();
+			});
+		} else {
+			Throwable failure;
+			try {
+				failure = invoke(message);
+			} finally {
+				inFlight.decrementAndGet();
+			}
+			complete(message, attempt, failure);
+		}
+	}
+
+	/**
+	 * Records the result of a handled message. Failed messages are retried with an exponential backoff on a Vert.x
+	 * timer, so that the event loop is not blocked in the meantime. Once all attempts fail, or the circuit opens, the
+	 * message is sent to the dead letter address and the sender gets a failure reply right away instead of waiting
+	 * for the send timeout. The pooled payload of the message is released once it is handled or failed, but not
+	 * between retries.
+	 */
+	private void complete(Message<Object> message, int attempt, Throwable failure) {
+		if (failure == null) {
+			if (circuitBreaker.recordSuccess()) {
+				log.info("Circuit of listener for address " + address + " closed.");
+			}
+			commit(message);
+			VertxPooledPayload.releaseBody(message);
+			return;
+		}
+
+		if (circuitBreaker.recordFailure()) {
+			openCircuit();
+		}
+
+		if (attempt <= options.getRetryMaxAttempts() && !circuitOpen) {
+			retried.incrementAndGet();
+			retrying++;
+
+			vertx.setTimer(options.getRetryDelay(attempt), id -> {
+				retrying--;
+				dispatch(message, attempt + 1);
+				scheduleDispatch();
+			});
+			return;
+		}
+
+		log.warning("Error at invoking consumer for address " + address + " after " + attempt + " attempt(s). "
+				+ failure.getLocalizedMessage());
+
+		if (fail(message, FAILURE_CODE_LISTENER, String.valueOf(failure.getLocalizedMessage()), attempt)) {
+			commit(message);
+		}
+		VertxPooledPayload.releaseBody(message);
+	}
+
+	/**
+	 * Opens the circuit: consumers are paused, buffered messages are failed fast and the circuit is half-open again
+	 * after the reset timeout.
+	 */
+	private void openCircuit() {
+		log.warning("Circuit of listener for address " + address + " opened, messages will be failed for "
+				+ circuitBreaker.getResetTimeout() + " ms.");
+
+		circuitOpen = true;
+		updateConsumers();
+
+		while (!buffer.isEmpty()) {
+			Message<Object> message = buffer.poll();
+
+			rejected.incrementAndGet();
+			start(message);
+			if (fail(message, FAILURE_CODE_CIRCUIT_OPEN, "Circuit of listener for address " + address + " is open.",
+					0)) {
+				commit(message);
+			}
+			VertxPooledPayload.releaseBody(message);
+		}
+
+		vertx.setTimer(circuitBreaker.getResetTimeout(), id -> {
+			circuitOpen = false;
+			updateConsumers();
+			scheduleDispatch();
+		});
+	}
+
+	/**
+	 * Replies with a failure to point-to-point messages and sends the message to the dead letter address. A pooled
+	 * payload is sent as a copy, since it is released before the message is sent.
+	 *
+	 * @return true if the message was sent to the dead letter address
+	 */
+	private boolean fail(Message<Object> message, int failureCode, String error, int attempts) {
+		if (message.isSend() && message.replyAddress() != null) {
+			message.fail(failureCode, error);
+		}
+
+		String deadLetterAddress = options.getDeadLetterAddress();
+
+		if (deadLetterAddress == null || deadLetterAddress.isEmpty()) {
+			return false;
+		}
+
+		DeliveryOptions deliveryOptions = new DeliveryOptions();
+		message.headers().forEach(header -> deliveryOptions.addHeader(header.getKey(), header.getValue()));
+		deliveryOptions.addHeader(HEADER_DEAD_LETTER_ADDRESS, address)
+				.addHeader(HEADER_DEAD_LETTER_ERROR, error)
+				.addHeader(HEADER_DEAD_LETTER_ATTEMPTS, String.valueOf(attempts));
+
+		Object body = message.body();
+		if (body instanceof VertxPooledPayload) {
+			body = ((VertxPooledPayload) body).copy();
+		}
+
+		vertx.eventBus().send(deadLetterAddress, body, deliveryOptions);
+		deadLettered.incrementAndGet();
+
+		return true;
+	}
+
+	/**
+	 * Sets the backpressure pause, which is applied when the buffer is full.
+	 */
+	private void setPaused(boolean paused) {
+		this.paused = paused;
+		updateConsumers();
+	}
+
+	/**
+	 * Sets the throttling pause, which is applied when the rate or concurrency limit is hit.
+	 */
+	private void setThrottled(boolean throttled) {
+		if (this.throttled != throttled) {
+			this.throttled = throttled;
+			updateConsumers();
+		}
+	}
+
+	/**
+	 * Pauses the consumers while the buffer is full, the listener is throttled or the circuit is open, and resumes
+	 * them otherwise. Consumers are never paused while they are being unregistered.
+	 */
+	private void updateConsumers() {
+		boolean pause = !unregistering && (paused || throttled || circuitOpen);
+
+		if (pause == consumersPaused) {
+			return;
+		}
+		consumersPaused = pause;
+
+		for (MessageConsumer<Object> consumer : getConsumers()) {
+			if (pause) {
+				consumer.pause();
+			} else {
+				consumer.resume();
+			}
+		}
+	}
+
+	private void setMaxBufferedMessages(int maxBufferedMessages) {
+		for (MessageConsumer<Object> consumer : getConsumers()) {
+			consumer.setMaxBufferedMessages(maxBufferedMessages);
+		}
+	}
+
+	private List<MessageConsumer<Object>> getConsumers() {
+		List<MessageConsumer<Object>> consumers = new ArrayList<>(2);
+
+		if (messageConsumer != null) {
+			consumers.add(messageConsumer);
+		}
+		if (localMessageConsumer != null) {
+			consumers.add(localMessageConsumer);
+		}
+
+		return consumers;
+	}
+
+	/**
+	 * Returns the signature of the listener method, which identifies its offsets. The parameter types are included,
+	 * so overloaded listener methods of the same address keep their own offsets.
+	 */
+	static String getSignature(Method method) {
+		return method.getDeclaringClass().getName() + "." + method.getName() + "(" + Arrays.stream(
+				method.getParameterTypes()).map(Class::getTypeName).collect(Collectors.joining(",")) + ")";
+	}
+
+	/**
+	 * Requests the messages published since the last committed offsets from all nodes holding an event log of this
+	 * address. Live messages received in the meantime are held back and handled once the replay is finished, which
+	 * is when no replayed message was received for the replay idle timeout.
+	 */
+	private void startReplay(VertxEventLogOptions durableOptions) {
+		try {
+			offsets = new VertxEventLogOffsets(durableOptions, getSignature(method));
+		} catch (IOException e) {
+			log.severe("Offsets for address " + address + " could not be loaded, missed messages will not be replayed. "
+					+ e.getLocalizedMessage());
+			return;
+		}
+
+		heldMessages = new ArrayDeque<>();
+
+		String replyAddress = VertxEventBusAddresses.replay(address) + "." + UUID.randomUUID();
+		replayConsumer = vertx.eventBus().consumer(replyAddress, message -> {
+			if (message.headers().get(VertxEventLog.HEADER_REPLAY_END) == null) {
+				admit(message);
+			}
+			scheduleReplayEnd();
+		});
+
+		replayConsumer.completionHandler(res -> {
+			JsonObject committed = new JsonObject();
+			offsets.getAll().forEach((logId, offset) -> committed.put(logId, offset));
+
+			vertx.eventBus().publish(VertxEventBusAddresses.replay(address), new JsonObject()
+					.put(VertxEventLogManager.REPLAY_ADDRESS, replyAddress)
+					.put(VertxEventLogManager.REPLAY_OFFSETS, committed));
+
+			scheduleReplayEnd();
+		});
+	}
+
+	private void scheduleReplayEnd() {
+		if (replayTimer >= 0) {
+			vertx.cancelTimer(replayTimer);
+		}
+
+		replayTimer = vertx.setTimer(VertxEventLogConfigLoader.getReplayIdleTimeout(), id -> {
+			replayConsumer.unregister();
+
+			Queue<Message<Object>> held = heldMessages;
+			heldMessages = null;
+
+			log.info("Replay for address " + address + " finished, handling " + held.size() + " held message(s).");
+
+			held.forEach(this::admit);
+		});
+	}
+
+	/**
+	 * Returns true if the message is durable and its offset has already been committed by this listener.
+	 */
+	private boolean isCommitted(Message<Object> message) {
+		if (offsets == null) {
+			return false;
+		}
+
+		String logId = message.headers().get(VertxEventLog.HEADER_LOG_ID);
+		String offset = message.headers().get(VertxEventLog.HEADER_OFFSET);
+
+		return logId != null && offset != null && Long.parseLong(offset) <= offsets.get(logId);
+	}
+
+	/**
+	 * Records that a durable message is being handled, so that later offsets are not committed before it is done.
+	 */
+	private void start(Message<Object> message) {
+		if (offsets == null) {
+			return;
+		}
+
+		String logId = message.headers().get(VertxEventLog.HEADER_LOG_ID);
+		String offset = message.headers().get(VertxEventLog.HEADER_OFFSET);
+
+		if (logId != null && offset != null) {
+			offsets.start(logId, Long.parseLong(offset));
+		}
+	}
+
+	/**
+	 * Commits the offset of a durable message, once it has been handled or sent to the dead letter address. The
+	 * committed offset only advances once every earlier started message is done.
+	 */
+	private void commit(Message<Object> message) {
+		if (offsets == null) {
+			return;
+		}
+
+		String logId = message.headers().get(VertxEventLog.HEADER_LOG_ID);
+		String offset = message.headers().get(VertxEventLog.HEADER_OFFSET);
+
+		if (logId == null || offset == null) {
+			return;
+		}
+
+		try {
+			offsets.commit(logId, Long.parseLong(offset));
+		} catch (IOException e) {
+			log.warning("Error at committing offset " + offset + " for address " + address + ". "
+					+ e.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * Invokes the listener method.
+	 *
+	 * @return the exception thrown by the listener, or null if the message was handled
+	 */
+	private Throwable invoke(Message<Object> message) {
+		if (message.body() == null) {
+			return null;
+		}
+
+		VertxDiagnostics.Invocation invocation = VertxDiagnostics.getInstance()
+				.enter(listenerName, options.isWorker(), maxExecuteTime);
+		boolean activated = requestContext != null && options.isRequestContext() && requestContext.activate();
+
+		try {
+			method.invoke(getInstance(), message);
+			return null;
+		} catch (InvocationTargetException e) {
+			return e.getCause() == null ? e : e.getCause();
+		} catch (IllegalAccessException | RuntimeException e) {
+			// includes failures to resolve a lazy listener instance
+			return e;
+		} finally {
+			if (activated) {
+				requestContext.deactivate();
+			}
+			VertxDiagnostics.getInstance().exit(invocation);
+		}
+	}
+
+	/**
+	 * Returns the listener instance, resolving it on the first message if the listener is lazy.
+	 */
+	private Object getInstance() {
+		Object listenerInstance = instance;
+
+		if (listenerInstance == null) {
+			synchronized (this) {
+				if (instance == null) {
+					log.info("Resolving lazy listener " + listenerName + ".");
+					instance = instanceSupplier.get();
 				}
+				listenerInstance = instance;
 			}
+		}
+
+		return listenerInstance;
+	}
+
+	/**
+	 * Unregisters the consumer, so that no new messages are routed to this listener. Paused consumers hold messages,
+	 * which Vert.x discards on unregistration, so the consumers are resumed first and unregistered once they have
+	 * delivered the held messages to the buffer.
+	 *
+	 * @param completion completed once the registration has been removed from the event bus
+	 */
+	public void unregister(CompletableFuture<Boolean> completion) {
+		if (context == null) {
+			completion.complete(true);
+			return;
+		}
+
+		context.runOnContext(v -> {
+			if (messageConsumer == null) {
+				completion.complete(true);
+				return;
+			}
+
+			unregistering = true;
+			updateConsumers();
+			unregisterWhenIdle(received, completion);
 		});
 	}
 
+	/**
+	 * Unregisters the consumers once a task on the context received no message. Resumed consumers deliver a held
+	 * message per task and submit the next delivery before this check runs again.
+	 */
+	private void unregisterWhenIdle(long lastReceived, CompletableFuture<Boolean> completion) {
+		context.runOnContext(v -> {
+			if (received != lastReceived) {
+				unregisterWhenIdle(received, completion);
+				return;
+			}
+
+			if (localMessageConsumer != null) {
+				localMessageConsumer.unregister();
+			}
+
+			messageConsumer.unregister(res -> completion.complete(res.succeeded()));
+		});
+	}
+
+	/**
+	 * Waits for the messages that were already handed to the listener to be processed. Messages are delivered on the
+	 * listener's context in order, so once a task submitted after the unregistration runs, every message delivered
+	 * before it has been handled.
+	 *
+	 * @param completion completed once the listener has no more in-flight, buffered or retrying messages
+	 */
+	public void drain(CompletableFuture<Boolean> completion) {
+		if (context == null) {
+			completion.complete(true);
+			return;
+		}
+
+		context.runOnContext(v -> completion.complete(inFlight.get() == 0 && buffer.isEmpty() && retrying == 0));
+	}
+
+	/**
+	 * Destroys the listener instance, if it is a dependent bean created for this listener, and closes the buffer,
+	 * deleting its spill log.
+	 */
+	public void release() {
+		if (buffer != null) {
+			buffer.close();
+		}
+
+		if (creationalContext != null) {
+			creationalContext.release();
+			creationalContext = null;
+		}
+	}
+
+	/**
+	 * Sets the creational context of a dependent listener instance, which is released on shutdown.
+	 */
+	public void setCreationalContext(CreationalContext<?> creationalContext) {
+		this.creationalContext = creationalContext;
+	}
+
+	/**
+	 * Sets the supplier resolving the listener instance on the first message, instead of on startup.
+	 */
+	public void setInstanceSupplier(Supplier<Object> instanceSupplier) {
+		this.instanceSupplier = instanceSupplier;
+	}
+
+	/**
+	 * Sets the request context activated around invocations of the listener.
+	 */
+	public void setRequestContext(VertxRequestContext requestContext) {
+		this.requestContext = requestContext;
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public VertxListenerBuffer getBuffer() {
+		return buffer;
+	}
+
+	public long getFiltered() {
+		return filtered.get();
+	}
+
+	public long getRetried() {
+		return retried.get();
+	}
+
+	public long getDeadLettered() {
+		return deadLettered.get();
+	}
+
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	public VertxCircuitBreaker.State getCircuitState() {
+		return circuitBreaker == null ? VertxCircuitBreaker.State.CLOSED : circuitBreaker.getState();
+	}
+
+	public long getThrottled() {
+		return throttledCount.get();
+	}
+
+	/**
+	 * Returns true while a retry is pending on a partition handled one message at a time. Partitions keep the order
+	 * of messages with the same key, so later messages are not dispatched before the retried one. On other addresses,
+	 * messages are dispatched while a retry is pending, so retried messages are handled out of order.
+	 */
+	private boolean isRetryHeld() {
+		return retrying > 0 && getConcurrencyLimit() == 1 && !VertxEventBusAddresses.base(address).equals(address);
+	}
+
+	public int getConcurrencyLimit() {
+		if (!options.isWorker()) {
+			return 1;
+		}
+
+		return concurrencyLimiter == null ? options.getMaxConcurrency() : concurrencyLimiter.getLimit();
+	}
+
 }
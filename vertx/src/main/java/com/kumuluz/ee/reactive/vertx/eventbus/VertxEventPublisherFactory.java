@@ -20,12 +20,28 @@
  */
 package com.kumuluz.ee.reactive.vertx.eventbus;
 
+import com.kumuluz.ee.reactive.common.annotations.ReactiveEventPublisher;
 import com.kumuluz.ee.reactive.common.utils.EventPublisherFactory;
+import com.kumuluz.ee.reactive.vertx.compression.VertxCompressingMessageProducer;
+import com.kumuluz.ee.reactive.vertx.compression.VertxCompressionOptions;
+import com.kumuluz.ee.reactive.vertx.config.VertxCompressionConfigLoader;
+import com.kumuluz.ee.reactive.vertx.config.VertxEventLogConfigLoader;
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLog;
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLogManager;
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLogOptions;
+import com.kumuluz.ee.reactive.vertx.utils.VertxShutdownHook;
 import com.kumuluz.ee.reactive.vertx.utils.VertxUtils;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.MessageProducer;
 
 import javax.enterprise.context.RequestScoped;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Logger;
 
 /**
  * Implementation of EventPublisherFactory<T> inteface.
@@ -36,6 +52,8 @@ import javax.enterprise.context.RequestScoped;
 @RequestScoped
 public class VertxEventPublisherFactory implements EventPublisherFactory<MessageProducer<Object>> {
 	
+	private static final Logger log = Logger.getLogger(VertxEventPublisherFactory.class.getName());
+	
 	@Override
 	public MessageProducer<Object> createEventPublisher(String address) {
 		
@@ -44,8 +62,125 @@ public class VertxEventPublisherFactory implements EventPublisherFactory<Message
 		EventBus eventBus = VertxUtils.getInstance().getVertx().eventBus();
 		
 		messageProducer = eventBus.publisher(address);
+		
+		VertxShutdownHook.registerPublisher(messageProducer);
 				
 		return messageProducer;
 	}
+	
+	@Override
+	public MessageProducer<Object> createEventPublisher(ReactiveEventPublisher annotation) {
+		
+		if(annotation.partitions() > 1) {
+			List<MessageProducer<Object>> partitions = new ArrayList<>(annotation.partitions());
+			
+			for(int i = 0; i < annotation.partitions(); i++) {
+				partitions.add(createEventPublisher(VertxEventBusAddresses.partition(annotation.address(), i), annotation));
+			}
+			
+			return new VertxPartitionedMessageProducer(annotation.address(), annotation.partitionKey(), partitions);
+		}
+		
+		return createEventPublisher(annotation.address(), annotation);
+	}
+	
+	private MessageProducer<Object> createEventPublisher(String address, ReactiveEventPublisher annotation) {
+		
+		Vertx vertx = VertxUtils.getInstance().awaitVertx(annotation.instance());
+		
+		return createMessageProducer(vertx, address, annotation.localOnly(), annotation.send(),
+				getDeliveryOptions(annotation));
+	}
+	
+	/**
+	 * Creates a producer for the given address on the default Vert.x instance, which appends messages to the event log
+	 * first if the address is durable.
+	 *
+	 * @param address         address of the messages
+	 * @param localOnly       if true, messages are only delivered to listeners in the same JVM
+	 * @param send            if true, messages are sent point-to-point instead of published
+	 * @param deliveryOptions delivery options of the messages
+	 */
+	public static MessageProducer<Object> createMessageProducer(String address, boolean localOnly, boolean send,
+			DeliveryOptions deliveryOptions) {
+		
+		return createMessageProducer(VertxUtils.getInstance().getVertx(), address, localOnly, send, deliveryOptions);
+	}
+	
+	/**
+	 * Creates a producer for the given address on the given Vert.x instance.
+	 */
+	public static MessageProducer<Object> createMessageProducer(Vertx vertx, String address, boolean localOnly,
+			boolean send, DeliveryOptions deliveryOptions) {
+		
+		MessageProducer<Object> messageProducer = null;
+		
+		EventBus eventBus = vertx.eventBus();
+		
+		Optional<VertxEventLogOptions> durableOptions = VertxEventLogConfigLoader.getOptions(address);
+		Optional<VertxCompressionOptions> compressionOptions = VertxCompressionConfigLoader.getOptions(
+				VertxEventBusAddresses.base(address));
+		
+		// local consumers of the local address are not propagated to the cluster, so messages never leave the JVM
+		if(localOnly && vertx.isClustered()) {
+			address = VertxEventBusAddresses.local(address);
+		}
+		
+		// messages delivered within the JVM are not encoded, so there is nothing to compress
+		if(compressionOptions.isPresent() && vertx.isClustered() && !localOnly) {
+			if(deliveryOptions.getCodecName() != null) {
+				log.warning("Messages of address " + address + " are not compressed, since they are sent with codec "
+						+ deliveryOptions.getCodecName() + ".");
+			} else {
+				messageProducer = new VertxCompressingMessageProducer(eventBus, address, deliveryOptions, send,
+						compressionOptions.get());
+			}
+		}
+		
+		if(messageProducer == null) {
+			if(send) {
+				messageProducer = eventBus.sender(address, deliveryOptions);
+			} else {
+				messageProducer = eventBus.publisher(address, deliveryOptions);
+			}
+		}
+		
+		if(durableOptions.isPresent()) {
+			try {
+				VertxEventLog eventLog = VertxEventLogManager.getInstance().getLog(vertx, durableOptions.get());
+				
+				messageProducer = new VertxDurableMessageProducer(messageProducer, deliveryOptions, eventLog);
+			} catch (IOException e) {
+				log.severe("Event log for address " + address + " could not be opened, messages will not be durable. "
+						+ e.getLocalizedMessage());
+			}
+		}
+		
+		VertxShutdownHook.registerPublisher(messageProducer);
+		
+		return messageProducer;
+	}
+	
+	private DeliveryOptions getDeliveryOptions(ReactiveEventPublisher annotation) {
+		DeliveryOptions deliveryOptions = new DeliveryOptions()
+				.setSendTimeout(annotation.sendTimeout());
+		
+		if(!annotation.codecName().isEmpty()) {
+			deliveryOptions.setCodecName(annotation.codecName());
+		}
+		
+		for(String header : annotation.headers()) {
+			int separator = header.indexOf('=');
+			
+			if(separator > 0) {
+				deliveryOptions.addHeader(header.substring(0, separator).trim(), header.substring(separator + 1).trim());
+			} else {
+				log.warning("Invalid header " + header + " for address " + annotation.address()
+						+ ", headers have to be in the form name=value.");
+			}
+		}
+		
+		return deliveryOptions;
+	}
 
 }
@@ -21,14 +21,16 @@
 package com.kumuluz.ee.reactive.vertx.eventbus;
 
 import com.kumuluz.ee.reactive.common.annotations.ReactiveEventPublisher;
+import com.kumuluz.ee.reactive.vertx.scheduling.VertxScheduledPublisher;
+import com.kumuluz.ee.reactive.vertx.utils.VertxUtils;
 import io.vertx.core.eventbus.MessageProducer;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
 import javax.enterprise.inject.spi.InjectionPoint;
 import javax.inject.Inject;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Producer for ReactiveEventPublisher annotation.
@@ -39,7 +41,8 @@ import java.util.Map;
 @ApplicationScoped
 public class VertxEventPublisherProducer {
 
-	private Map<String, MessageProducer<Object>> producers = new HashMap<>();
+	private Map<ReactiveEventPublisher, MessageProducer<Object>> producers = new ConcurrentHashMap<>();
+	private Map<ReactiveEventPublisher, VertxScheduledPublisher> scheduledPublishers = new ConcurrentHashMap<>();
 	
 	@Inject
     private VertxEventPublisherFactory vertxEventPublisherFactory;
@@ -47,17 +50,20 @@ public class VertxEventPublisherProducer {
 	@Produces
 	@ReactiveEventPublisher
 	public MessageProducer<Object> getPublisher(InjectionPoint injectionPoint) {
-		String address = injectionPoint.getAnnotated().getAnnotation(ReactiveEventPublisher.class).address();
+		ReactiveEventPublisher annotation = injectionPoint.getAnnotated().getAnnotation(ReactiveEventPublisher.class);
 		
-		if(producers.containsKey(address)) {
-			return producers.get(address);
-		} else {
-			MessageProducer<Object> messageProducer = vertxEventPublisherFactory.createEventPublisher(address);
-			
-			producers.put(address, messageProducer);
-			
-			return messageProducer;
-		}
+		// annotations are compared by their values, so publishers with equal options share a producer
+		return producers.computeIfAbsent(annotation, vertxEventPublisherFactory::createEventPublisher);
+	}
+	
+	@Produces
+	@ReactiveEventPublisher
+	public VertxScheduledPublisher getScheduledPublisher(InjectionPoint injectionPoint) {
+		ReactiveEventPublisher annotation = injectionPoint.getAnnotated().getAnnotation(ReactiveEventPublisher.class);
+		
+		// scheduled messages are published with the producer shared with the publishers of equal options
+		return scheduledPublishers.computeIfAbsent(annotation, publisher -> new VertxScheduledPublisher(
+				VertxUtils.getInstance().awaitVertx(publisher.instance()), getPublisher(injectionPoint)));
 	}
 	
 }
@@ -0,0 +1,298 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventbus;
+
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLog;
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLogCodec;
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLogOptions;
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLogRecord;
+import com.kumuluz.ee.reactive.vertx.pooled.VertxPooledBufferCodec;
+import com.kumuluz.ee.reactive.vertx.pooled.VertxPooledPayload;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Buffer of the messages received by a listener, which have not been dispatched yet. A bounded buffer applies the
+ * overflow policy of the listener when it is full. Except for the counters, the buffer is confined to the context of
+ * the listener. Pooled payloads of messages dropped by the buffer are released, the caller releases the payload of a
+ * message which was not buffered.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxListenerBuffer {
+
+	private static final Logger log = Logger.getLogger(VertxListenerBuffer.class.getName());
+
+	public static final int FAILURE_CODE_OVERFLOW = 503;
+
+	private static final byte SPILLED_PLAIN = 0;
+	private static final byte SPILLED_POOLED = 1;
+
+	private final String address;
+	private final String listenerName;
+	private final VertxListenerOptions options;
+	private final Deque<Message<Object>> messages = new ArrayDeque<>();
+
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong spilled = new AtomicLong();
+
+	private Vertx vertx;
+	private VertxEventLog spillLog;
+	private String spillAddress;
+	private MessageConsumer<Object> spillConsumer;
+	private long spillReadOffset;
+	private int unspilling;
+
+	public VertxListenerBuffer(String address, String listenerName, VertxListenerOptions options) {
+		this.address = address;
+		this.listenerName = listenerName;
+		this.options = options;
+	}
+
+	/**
+	 * Opens the spill log and registers the local consumer on which spilled messages are read back. Spilled messages
+	 * keep their body and headers, e.g. the offsets of durable messages, but they can not be replied to. Every buffer
+	 * spills to a directory and reads back on an address of its own, so listeners of the same address, also on several
+	 * Vert.x instances of the JVM, do not share them.
+	 */
+	public void openSpill(Vertx vertx, Runnable onUnspill) throws IOException {
+		if (options.getOverflowPolicy() != VertxOverflowPolicy.SPILL || !options.isBounded()) {
+			return;
+		}
+
+		this.vertx = vertx;
+
+		// messages spilled before a restart are not read back, the directory is deleted when the buffer is closed
+		spillLog = VertxEventLog.open(new VertxEventLogOptions(listenerName + "-" + UUID.randomUUID(),
+				options.getSpillDirectory()));
+		spillReadOffset = spillLog.getNextOffset();
+
+		spillAddress = VertxEventBusAddresses.spill(address);
+		spillConsumer = vertx.eventBus().localConsumer(spillAddress, message -> {
+			unspilling--;
+			messages.addLast(message);
+			onUnspill.run();
+		});
+	}
+
+	/**
+	 * Adds a message to the buffer or applies the overflow policy, if the buffer is full.
+	 *
+	 * @return true if the message was buffered
+	 */
+	public boolean offer(Message<Object> message) {
+		if (!options.isBounded()) {
+			messages.addLast(message);
+			return true;
+		}
+
+		// once messages are spilled, new messages are spilled too, so that they are handled in order
+		if (spillLog != null && hasSpilled()) {
+			return spill(message);
+		}
+
+		if (messages.size() + unspilling < options.getMaxBufferedMessages()
+				|| options.getOverflowPolicy() == VertxOverflowPolicy.BLOCK) {
+			messages.addLast(message);
+			return true;
+		}
+
+		switch (options.getOverflowPolicy()) {
+			case DROP_OLDEST:
+				VertxPooledPayload.releaseBody(messages.pollFirst());
+				dropped.incrementAndGet();
+				messages.addLast(message);
+				return true;
+			case FAIL:
+				if (message.replyAddress() != null) {
+					message.fail(FAILURE_CODE_OVERFLOW, "Buffer of listener for address " + address
+							+ " is full.");
+					failed.incrementAndGet();
+				} else {
+					dropped.incrementAndGet();
+				}
+				return false;
+			case SPILL:
+				return spill(message);
+			default:
+				dropped.incrementAndGet();
+				return false;
+		}
+	}
+
+	private boolean spill(Message<Object> message) {
+		try {
+			spillLog.append(encodeSpilled(message));
+			spilled.incrementAndGet();
+		} catch (IOException | IllegalArgumentException e) {
+			log.warning("Error at spilling message for address " + address + ", dropping it. "
+					+ e.getLocalizedMessage());
+			dropped.incrementAndGet();
+		}
+		return false;
+	}
+
+	public Message<Object> poll() {
+		Message<Object> message = messages.pollFirst();
+
+		if (spillLog != null && messages.size() + unspilling <= options.getMaxBufferedMessages() / 2 && hasSpilled()) {
+			unspill();
+		}
+
+		return message;
+	}
+
+	/**
+	 * Reads spilled messages back into the free half of the buffer. They are sent to the local spill consumer,
+	 * which adds them to the buffer in order.
+	 */
+	private void unspill() {
+		int free = options.getMaxBufferedMessages() - messages.size() - unspilling;
+		List<VertxEventLogRecord> records = spillLog.read(spillReadOffset, free);
+
+		for (VertxEventLogRecord record : records) {
+			unspilling++;
+			sendUnspilled((Buffer) record.getBody());
+			spillReadOffset = record.getOffset() + 1;
+		}
+
+		spillLog.deleteBefore(spillReadOffset);
+	}
+
+	/**
+	 * Encodes a spilled message as a marker whether the body is pooled, the headers and the body encoded for the
+	 * event log. A pooled body is spilled as a buffer, which is copied into a pooled payload again when it is read
+	 * back.
+	 */
+	private static Buffer encodeSpilled(Message<Object> message) {
+		boolean pooled = message.body() instanceof VertxPooledPayload;
+		Object body = pooled ? ((VertxPooledPayload) message.body()).getBuffer() : message.body();
+
+		Buffer spilled = Buffer.buffer()
+				.appendByte(pooled ? SPILLED_POOLED : SPILLED_PLAIN)
+				.appendInt(message.headers().size());
+
+		message.headers().forEach(header -> {
+			Buffer name = Buffer.buffer(header.getKey());
+			Buffer value = Buffer.buffer(header.getValue());
+
+			spilled.appendInt(name.length()).appendBuffer(name).appendInt(value.length()).appendBuffer(value);
+		});
+
+		return spilled.appendBytes(VertxEventLogCodec.encode(body));
+	}
+
+	private void sendUnspilled(Buffer spilled) {
+		DeliveryOptions deliveryOptions = new DeliveryOptions();
+
+		if (spilled.getByte(0) == SPILLED_POOLED) {
+			deliveryOptions.setCodecName(VertxPooledBufferCodec.NAME);
+		}
+
+		int headers = spilled.getInt(1);
+		int position = 5;
+
+		for (int i = 0; i < headers; i++) {
+			int nameLength = spilled.getInt(position);
+			String name = spilled.getString(position + 4, position + 4 + nameLength);
+			position += 4 + nameLength;
+
+			int valueLength = spilled.getInt(position);
+			String value = spilled.getString(position + 4, position + 4 + valueLength);
+			position += 4 + valueLength;
+
+			deliveryOptions.addHeader(name, value);
+		}
+
+		Object body = VertxEventLogCodec.decode(spilled.getBytes(position, spilled.length()));
+
+		vertx.eventBus().send(spillAddress, body, deliveryOptions);
+	}
+
+	private boolean hasSpilled() {
+		return spillReadOffset < spillLog.getNextOffset();
+	}
+
+	public boolean isEmpty() {
+		return messages.isEmpty();
+	}
+
+	public int size() {
+		return messages.size();
+	}
+
+	/**
+	 * Returns true when a listener with the BLOCK policy has to pause its consumers.
+	 */
+	public boolean isFull() {
+		return options.isBounded() && messages.size() >= options.getMaxBufferedMessages();
+	}
+
+	/**
+	 * Returns true when a paused listener can resume its consumers.
+	 */
+	public boolean hasRoom() {
+		return !options.isBounded() || messages.size() <= options.getMaxBufferedMessages() / 2;
+	}
+
+	public void close() {
+		if (spillConsumer != null) {
+			spillConsumer.unregister();
+		}
+
+		if (spillLog != null) {
+			try {
+				spillLog.delete();
+			} catch (IOException e) {
+				log.warning("Error at deleting spill log of listener " + listenerName + " for address " + address
+						+ ". " + e.getLocalizedMessage());
+				spillLog.close();
+			}
+			spillLog = null;
+		}
+	}
+
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	public long getFailed() {
+		return failed.get();
+	}
+
+	public long getSpilled() {
+		return spilled.get();
+	}
+
+}
@@ -0,0 +1,270 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventbus;
+
+/**
+ * Options of a listener, configured per address.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxListenerOptions {
+
+	public static final int DEFAULT_MAX_BUFFERED_MESSAGES = -1;
+	public static final VertxOverflowPolicy DEFAULT_OVERFLOW_POLICY = VertxOverflowPolicy.BLOCK;
+	public static final boolean DEFAULT_WORKER = false;
+	public static final int DEFAULT_MAX_CONCURRENCY = 1;
+	public static final String DEFAULT_SPILL_DIRECTORY = "spill";
+	public static final int DEFAULT_RETRY_MAX_ATTEMPTS = 0;
+	public static final long DEFAULT_RETRY_INITIAL_DELAY = 100;
+	public static final long DEFAULT_RETRY_MAX_DELAY = 10000;
+	public static final double DEFAULT_RETRY_MULTIPLIER = 2.0;
+	public static final int DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 0;
+	public static final long DEFAULT_CIRCUIT_BREAKER_RESET_TIMEOUT = 30000;
+	public static final double DEFAULT_RATE_LIMIT = 0;
+	public static final boolean DEFAULT_ADAPTIVE_CONCURRENCY = false;
+	public static final int DEFAULT_ADAPTIVE_CONCURRENCY_MIN_LIMIT = 1;
+	public static final boolean DEFAULT_REQUEST_CONTEXT = true;
+	public static final boolean DEFAULT_ENABLED = true;
+	public static final boolean DEFAULT_LAZY = false;
+
+	private String address;
+	private int maxBufferedMessages = DEFAULT_MAX_BUFFERED_MESSAGES;
+	private VertxOverflowPolicy overflowPolicy = DEFAULT_OVERFLOW_POLICY;
+	private boolean worker = DEFAULT_WORKER;
+	private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+	private String spillDirectory = DEFAULT_SPILL_DIRECTORY;
+	private int retryMaxAttempts = DEFAULT_RETRY_MAX_ATTEMPTS;
+	private long retryInitialDelay = DEFAULT_RETRY_INITIAL_DELAY;
+	private long retryMaxDelay = DEFAULT_RETRY_MAX_DELAY;
+	private double retryMultiplier = DEFAULT_RETRY_MULTIPLIER;
+	private String deadLetterAddress;
+	private int circuitBreakerFailureThreshold = DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD;
+	private long circuitBreakerResetTimeout = DEFAULT_CIRCUIT_BREAKER_RESET_TIMEOUT;
+	private double rateLimit = DEFAULT_RATE_LIMIT;
+	private int rateLimitBurst;
+	private boolean adaptiveConcurrency = DEFAULT_ADAPTIVE_CONCURRENCY;
+	private int adaptiveConcurrencyMinLimit = DEFAULT_ADAPTIVE_CONCURRENCY_MIN_LIMIT;
+	private boolean requestContext = DEFAULT_REQUEST_CONTEXT;
+	private boolean enabled = DEFAULT_ENABLED;
+	private boolean lazy = DEFAULT_LAZY;
+
+	public VertxListenerOptions(String address) {
+		this.address = address;
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	public int getMaxBufferedMessages() {
+		return maxBufferedMessages;
+	}
+
+	public VertxListenerOptions setMaxBufferedMessages(int maxBufferedMessages) {
+		this.maxBufferedMessages = maxBufferedMessages;
+		return this;
+	}
+
+	public boolean isBounded() {
+		return maxBufferedMessages > 0;
+	}
+
+	public VertxOverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+
+	public VertxListenerOptions setOverflowPolicy(VertxOverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+		return this;
+	}
+
+	public boolean isWorker() {
+		return worker;
+	}
+
+	public VertxListenerOptions setWorker(boolean worker) {
+		this.worker = worker;
+		return this;
+	}
+
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	public VertxListenerOptions setMaxConcurrency(int maxConcurrency) {
+		this.maxConcurrency = maxConcurrency;
+		return this;
+	}
+
+	public String getSpillDirectory() {
+		return spillDirectory;
+	}
+
+	public VertxListenerOptions setSpillDirectory(String spillDirectory) {
+		this.spillDirectory = spillDirectory;
+		return this;
+	}
+
+	public int getRetryMaxAttempts() {
+		return retryMaxAttempts;
+	}
+
+	public VertxListenerOptions setRetryMaxAttempts(int retryMaxAttempts) {
+		this.retryMaxAttempts = retryMaxAttempts;
+		return this;
+	}
+
+	public long getRetryInitialDelay() {
+		return retryInitialDelay;
+	}
+
+	public VertxListenerOptions setRetryInitialDelay(long retryInitialDelay) {
+		this.retryInitialDelay = retryInitialDelay;
+		return this;
+	}
+
+	public long getRetryMaxDelay() {
+		return retryMaxDelay;
+	}
+
+	public VertxListenerOptions setRetryMaxDelay(long retryMaxDelay) {
+		this.retryMaxDelay = retryMaxDelay;
+		return this;
+	}
+
+	public double getRetryMultiplier() {
+		return retryMultiplier;
+	}
+
+	public VertxListenerOptions setRetryMultiplier(double retryMultiplier) {
+		this.retryMultiplier = retryMultiplier;
+		return this;
+	}
+
+	/**
+	 * Returns the delay before the given retry, growing exponentially from the initial delay up to the max delay.
+	 *
+	 * @param retry number of the retry, starting with 1
+	 */
+	public long getRetryDelay(int retry) {
+		double delay = retryInitialDelay * Math.pow(retryMultiplier, retry - 1);
+		return Math.max(1, (long) Math.min(delay, retryMaxDelay));
+	}
+
+	public String getDeadLetterAddress() {
+		return deadLetterAddress;
+	}
+
+	public VertxListenerOptions setDeadLetterAddress(String deadLetterAddress) {
+		this.deadLetterAddress = deadLetterAddress;
+		return this;
+	}
+
+	public int getCircuitBreakerFailureThreshold() {
+		return circuitBreakerFailureThreshold;
+	}
+
+	public VertxListenerOptions setCircuitBreakerFailureThreshold(int circuitBreakerFailureThreshold) {
+		this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+		return this;
+	}
+
+	public long getCircuitBreakerResetTimeout() {
+		return circuitBreakerResetTimeout;
+	}
+
+	public VertxListenerOptions setCircuitBreakerResetTimeout(long circuitBreakerResetTimeout) {
+		this.circuitBreakerResetTimeout = circuitBreakerResetTimeout;
+		return this;
+	}
+
+	public double getRateLimit() {
+		return rateLimit;
+	}
+
+	public VertxListenerOptions setRateLimit(double rateLimit) {
+		this.rateLimit = rateLimit;
+		return this;
+	}
+
+	/**
+	 * Returns the burst of the rate limit, which defaults to the number of messages allowed per second.
+	 */
+	public int getRateLimitBurst() {
+		return rateLimitBurst > 0 ? rateLimitBurst : (int) Math.ceil(rateLimit);
+	}
+
+	public VertxListenerOptions setRateLimitBurst(int rateLimitBurst) {
+		this.rateLimitBurst = rateLimitBurst;
+		return this;
+	}
+
+	public boolean isAdaptiveConcurrency() {
+		return adaptiveConcurrency;
+	}
+
+	public VertxListenerOptions setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+		this.adaptiveConcurrency = adaptiveConcurrency;
+		return this;
+	}
+
+	public int getAdaptiveConcurrencyMinLimit() {
+		return adaptiveConcurrencyMinLimit;
+	}
+
+	public VertxListenerOptions setAdaptiveConcurrencyMinLimit(int adaptiveConcurrencyMinLimit) {
+		this.adaptiveConcurrencyMinLimit = adaptiveConcurrencyMinLimit;
+		return this;
+	}
+
+	public boolean isRequestContext() {
+		return requestContext;
+	}
+
+	public VertxListenerOptions setRequestContext(boolean requestContext) {
+		this.requestContext = requestContext;
+		return this;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public VertxListenerOptions setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		return this;
+	}
+
+	/**
+	 * Returns true if the listener bean is only resolved once the first message arrives. The consumer is still
+	 * registered on startup, so that the address is known to the cluster.
+	 */
+	public boolean isLazy() {
+		return lazy;
+	}
+
+	public VertxListenerOptions setLazy(boolean lazy) {
+		this.lazy = lazy;
+		return this;
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventbus;
+
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Filter compiled from the conditions of a listener. Every condition has the form <code>selector operator value</code>
+ * or just <code>selector</code>, which checks that the selected value exists. Selectors are
+ * <code>header.&lt;name&gt;</code>, <code>content-type</code> (shorthand for the content-type header) and
+ * <code>body.&lt;field&gt;[.&lt;field&gt;...]</code> for fields of JSON object bodies. Operators are <code>==</code>,
+ * <code>!=</code>, <code>=~</code> (matches regular expression) and <code>!~</code>. Values may be quoted. A message
+ * passes the filter when it meets all conditions.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxMessageFilter implements Predicate<Message<Object>> {
+
+	public static final int FAILURE_CODE_FILTERED = 404;
+
+	private static final Pattern CONDITION = Pattern.compile("^\\s*([\\w.\\-]+)\\s*(?:(==|!=|=~|!~)\\s*(.*?))?\\s*$");
+
+	private static final String HEADER_SELECTOR = "header.";
+	private static final String BODY_SELECTOR = "body.";
+	private static final String CONTENT_TYPE_SELECTOR = "content-type";
+
+	private static final VertxMessageFilter ACCEPT_ALL = new VertxMessageFilter(new ArrayList<>());
+
+	private final List<Predicate<Message<Object>>> conditions;
+
+	private VertxMessageFilter(List<Predicate<Message<Object>>> conditions) {
+		this.conditions = conditions;
+	}
+
+	/**
+	 * Compiles the conditions of a listener.
+	 *
+	 * @throws IllegalArgumentException if a condition is not valid
+	 */
+	public static VertxMessageFilter compile(String[] conditions) {
+		if (conditions.length == 0) {
+			return ACCEPT_ALL;
+		}
+
+		List<Predicate<Message<Object>>> compiled = new ArrayList<>(conditions.length);
+
+		for (String condition : conditions) {
+			compiled.add(compileCondition(condition));
+		}
+
+		return new VertxMessageFilter(compiled);
+	}
+
+	private static Predicate<Message<Object>> compileCondition(String condition) {
+		Matcher matcher = CONDITION.matcher(condition);
+
+		if (!matcher.matches()) {
+			throw new IllegalArgumentException("Invalid filter condition: " + condition);
+		}
+
+		Function<Message<Object>, String> selector = compileSelector(matcher.group(1), condition);
+		String operator = matcher.group(2);
+
+		if (operator == null) {
+			return message -> selector.apply(message) != null;
+		}
+
+		String value = unquote(matcher.group(3));
+
+		switch (operator) {
+			case "==":
+				return message -> value.equals(selector.apply(message));
+			case "!=":
+				return message -> !value.equals(selector.apply(message));
+			case "=~": {
+				Pattern pattern = Pattern.compile(value);
+				return message -> matches(pattern, selector.apply(message));
+			}
+			default: {
+				Pattern pattern = Pattern.compile(value);
+				return message -> !matches(pattern, selector.apply(message));
+			}
+		}
+	}
+
+	private static Function<Message<Object>, String> compileSelector(String selector, String condition) {
+		if (selector.equals(CONTENT_TYPE_SELECTOR)) {
+			return message -> message.headers().get(CONTENT_TYPE_SELECTOR);
+		} else if (selector.startsWith(HEADER_SELECTOR)) {
+			String header = selector.substring(HEADER_SELECTOR.length());
+			return message -> message.headers().get(header);
+		} else if (selector.startsWith(BODY_SELECTOR)) {
+			String[] path = selector.substring(BODY_SELECTOR.length()).split("\\.");
+			return message -> select(message.body(), path);
+		}
+
+		throw new IllegalArgumentException("Invalid selector " + selector + " in filter condition: " + condition);
+	}
+
+	private static String select(Object body, String[] path) {
+		Object value = body;
+
+		for (String field : path) {
+			if (!(value instanceof JsonObject)) {
+				return null;
+			}
+			value = ((JsonObject) value).getValue(field);
+		}
+
+		return value == null ? null : value.toString();
+	}
+
+	private static boolean matches(Pattern pattern, String value) {
+		return value != null && pattern.matcher(value).matches();
+	}
+
+	private static String unquote(String value) {
+		if (value.length() >= 2 && (value.startsWith("\"") && value.endsWith("\"")
+				|| value.startsWith("'") && value.endsWith("'"))) {
+			return value.substring(1, value.length() - 1);
+		}
+		return value;
+	}
+
+	public boolean acceptsAll() {
+		return conditions.isEmpty();
+	}
+
+	@Override
+	public boolean test(Message<Object> message) {
+		for (Predicate<Message<Object>> condition : conditions) {
+			if (!condition.test(message)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
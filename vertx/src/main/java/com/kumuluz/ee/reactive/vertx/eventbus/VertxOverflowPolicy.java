@@ -0,0 +1,56 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventbus;
+
+/**
+ * Policy applied when the buffer of a listener is full.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public enum VertxOverflowPolicy {
+
+	/**
+	 * Pauses the consumer until the buffer is drained to half, which stops the flow of credits to senders.
+	 */
+	BLOCK,
+
+	/**
+	 * Drops the oldest buffered message to make room for the new one.
+	 */
+	DROP_OLDEST,
+
+	/**
+	 * Drops the new message.
+	 */
+	DROP_NEWEST,
+
+	/**
+	 * Replies to the new message with a failure, or drops it if no reply is expected.
+	 */
+	FAIL,
+
+	/**
+	 * Appends the new message to a log on disk, from which it is read back once the buffer is drained.
+	 */
+	SPILL
+
+}
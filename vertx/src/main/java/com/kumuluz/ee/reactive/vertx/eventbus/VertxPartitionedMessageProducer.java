@@ -0,0 +1,187 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventbus;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageProducer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Message producer, which distributes messages over the partitions of an address by their key. Partitions are
+ * chosen with jump consistent hashing, so all messages with the same key go to the same partition and changing the
+ * number of partitions moves as few keys as possible.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxPartitionedMessageProducer implements MessageProducer<Object> {
+
+	private final String address;
+	private final String partitionKey;
+	private final List<MessageProducer<Object>> partitions;
+
+	public VertxPartitionedMessageProducer(String address, String partitionKey,
+			List<MessageProducer<Object>> partitions) {
+		this.address = address;
+		this.partitionKey = partitionKey;
+		this.partitions = partitions;
+	}
+
+	@Override
+	public MessageProducer<Object> send(Object message) {
+		partitionFor(message).send(message);
+		return this;
+	}
+
+	@Override
+	public <R> MessageProducer<Object> send(Object message, Handler<AsyncResult<Message<R>>> replyHandler) {
+		partitionFor(message).send(message, replyHandler);
+		return this;
+	}
+
+	@Override
+	public MessageProducer<Object> write(Object data) {
+		partitionFor(data).write(data);
+		return this;
+	}
+
+	@Override
+	public MessageProducer<Object> exceptionHandler(Handler<Throwable> handler) {
+		partitions.forEach(partition -> partition.exceptionHandler(handler));
+		return this;
+	}
+
+	@Override
+	public MessageProducer<Object> setWriteQueueMaxSize(int maxSize) {
+		partitions.forEach(partition -> partition.setWriteQueueMaxSize(maxSize));
+		return this;
+	}
+
+	@Override
+	public boolean writeQueueFull() {
+		return partitions.stream().anyMatch(MessageProducer::writeQueueFull);
+	}
+
+	@Override
+	public MessageProducer<Object> drainHandler(Handler<Void> handler) {
+		partitions.forEach(partition -> partition.drainHandler(handler));
+		return this;
+	}
+
+	@Override
+	public MessageProducer<Object> deliveryOptions(DeliveryOptions options) {
+		partitions.forEach(partition -> partition.deliveryOptions(options));
+		return this;
+	}
+
+	@Override
+	public String address() {
+		return address;
+	}
+
+	@Override
+	public void end() {
+		partitions.forEach(MessageProducer::end);
+	}
+
+	@Override
+	public void close() {
+		partitions.forEach(MessageProducer::close);
+	}
+
+	private MessageProducer<Object> partitionFor(Object message) {
+		return partitions.get(partitionFor(message, partitionKey, partitions.size()));
+	}
+
+	/**
+	 * Returns the partition of a message. The key is hashed from its encoded bytes, so that equal keys go to the same
+	 * partition on every node, regardless of the identity of the key object.
+	 */
+	static int partitionFor(Object message, String partitionKey, int partitions) {
+		Object key = message;
+
+		if (!partitionKey.isEmpty() && message instanceof JsonObject) {
+			key = ((JsonObject) message).getValue(partitionKey);
+		}
+
+		if (key == null) {
+			return 0;
+		}
+
+		return jumpConsistentHash(hash(encodeKey(key)), partitions);
+	}
+
+	private static byte[] encodeKey(Object key) {
+		if (key instanceof String || key instanceof Number || key instanceof Boolean || key instanceof Character) {
+			return key.toString().getBytes(StandardCharsets.UTF_8);
+		} else if (key instanceof JsonObject) {
+			return ((JsonObject) key).encode().getBytes(StandardCharsets.UTF_8);
+		} else if (key instanceof JsonArray) {
+			return ((JsonArray) key).encode().getBytes(StandardCharsets.UTF_8);
+		} else if (key instanceof Buffer) {
+			return ((Buffer) key).getBytes();
+		} else if (key instanceof byte[]) {
+			return (byte[]) key;
+		}
+
+		throw new IllegalArgumentException("Message key of type " + key.getClass().getName() + " can not be "
+				+ "partitioned, use a JsonObject body with a partitionKey or a body of a scalar, JSON or binary type.");
+	}
+
+	/**
+	 * 64-bit FNV-1a hash of the key bytes.
+	 */
+	static long hash(byte[] bytes) {
+		long hash = 0xcbf29ce484222325L;
+
+		for (byte b : bytes) {
+			hash ^= b & 0xff;
+			hash *= 0x100000001b3L;
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Jump consistent hash (Lamping, Veach), maps a key to one of the buckets in O(log n) without any lookup table.
+	 */
+	static int jumpConsistentHash(long key, int buckets) {
+		long bucket = -1;
+		long jump = 0;
+
+		while (jump < buckets) {
+			bucket = jump;
+			key = key * 2862933555777941757L + 1;
+			jump = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+		}
+
+		return (int) bucket;
+	}
+
+}
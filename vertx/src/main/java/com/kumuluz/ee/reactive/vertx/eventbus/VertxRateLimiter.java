@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventbus;
+
+/**
+ * Token bucket limiting the rate at which a listener handles messages. The bucket holds up to burst tokens and is
+ * refilled with rate tokens per second. The rate limiter is confined to the context of the listener.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxRateLimiter {
+
+	private final double rate;
+	private final double burst;
+
+	private double tokens;
+	private long refilledAt;
+
+	/**
+	 * @param rate  number of messages per second, or 0 for no limit
+	 * @param burst maximum number of messages handled at once after an idle period
+	 */
+	public VertxRateLimiter(double rate, int burst) {
+		this.rate = rate;
+		this.burst = Math.max(1, burst);
+		this.tokens = this.burst;
+		this.refilledAt = System.nanoTime();
+	}
+
+	/**
+	 * Takes a token from the bucket.
+	 *
+	 * @return false if the bucket is empty
+	 */
+	public boolean tryAcquire() {
+		if (!isEnabled()) {
+			return true;
+		}
+
+		refill();
+
+		if (tokens < 1) {
+			return false;
+		}
+
+		tokens--;
+		return true;
+	}
+
+	/**
+	 * Returns the time in milliseconds until the next token is available.
+	 */
+	public long getDelay() {
+		refill();
+
+		if (tokens >= 1) {
+			return 0;
+		}
+
+		return Math.max(1, (long) Math.ceil((1 - tokens) * 1000 / rate));
+	}
+
+	private void refill() {
+		long now = System.nanoTime();
+
+		tokens = Math.min(burst, tokens + (now - refilledAt) * rate / 1_000_000_000d);
+		refilledAt = now;
+	}
+
+	public boolean isEnabled() {
+		return rate > 0;
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventbus;
+
+import org.jboss.weld.context.bound.BoundLiteral;
+import org.jboss.weld.context.bound.BoundRequestContext;
+
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Request context activated around listener invocations, so that listeners can use request scoped beans. The context
+ * is bound to a map, which is pooled per thread and cleared after every invocation, so activating the context does
+ * not allocate on the event loop.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxRequestContext {
+
+	private static final Logger log = Logger.getLogger(VertxRequestContext.class.getName());
+
+	private static final ThreadLocal<Map<String, Object>> storage = ThreadLocal.withInitial(HashMap::new);
+
+	private final BoundRequestContext requestContext;
+
+	private VertxRequestContext(BoundRequestContext requestContext) {
+		this.requestContext = requestContext;
+	}
+
+	/**
+	 * Looks up the bound request context of Weld.
+	 *
+	 * @return the request context, or null if it is not available
+	 */
+	public static VertxRequestContext create(BeanManager bm) {
+		try {
+			Bean<?> bean = bm.resolve(bm.getBeans(BoundRequestContext.class, BoundLiteral.INSTANCE));
+
+			if (bean == null) {
+				log.warning("Bound request context is not available, request scoped beans can not be used in "
+						+ "listeners.");
+				return null;
+			}
+
+			return new VertxRequestContext((BoundRequestContext) bm.getReference(bean, BoundRequestContext.class,
+					bm.createCreationalContext(bean)));
+		} catch (RuntimeException | LinkageError e) {
+			log.warning("Error at looking up the bound request context, request scoped beans can not be used in "
+					+ "listeners. " + e.getLocalizedMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Activates the request context on the current thread, unless a request context is already active.
+	 *
+	 * @return true if the context was activated and has to be deactivated
+	 */
+	public boolean activate() {
+		if (requestContext.isActive()) {
+			return false;
+		}
+
+		requestContext.associate(storage.get());
+		requestContext.activate();
+
+		return true;
+	}
+
+	/**
+	 * Destroys the request scoped beans of the invocation and deactivates the request context.
+	 */
+	public void deactivate() {
+		Map<String, Object> map = storage.get();
+
+		try {
+			requestContext.invalidate();
+			requestContext.deactivate();
+		} finally {
+			requestContext.dissociate(map);
+			map.clear();
+		}
+	}
+
+}
@@ -0,0 +1,259 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventlog;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Logger;
+
+/**
+ * Segmented, append-only log of the messages published to a durable address. Every record gets a sequential offset.
+ * Segments are memory-mapped files named after the offset of their first record, old segments are deleted according
+ * to the retention options. Each log has an id, which is generated when the log is first created and which is used
+ * by listeners to track their committed offsets per log.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxEventLog {
+
+	private static final Logger log = Logger.getLogger(VertxEventLog.class.getName());
+
+	public static final String HEADER_LOG_ID = "kumuluzee-log-id";
+	public static final String HEADER_OFFSET = "kumuluzee-log-offset";
+	public static final String HEADER_REPLAY_END = "kumuluzee-log-replay-end";
+
+	private static final String SEGMENT_SUFFIX = ".log";
+	private static final String ID_FILE = "log.id";
+
+	private final VertxEventLogOptions options;
+	private final Path directory;
+	private final String id;
+	private final NavigableMap<Long, VertxEventLogSegment> segments = new ConcurrentSkipListMap<>();
+
+	private VertxEventLogSegment active;
+
+	private VertxEventLog(VertxEventLogOptions options, Path directory, String id) {
+		this.options = options;
+		this.directory = directory;
+		this.id = id;
+	}
+
+	public static VertxEventLog open(VertxEventLogOptions options) throws IOException {
+		Path directory = Paths.get(options.getDirectory(), sanitize(options.getAddress()));
+		Files.createDirectories(directory);
+
+		VertxEventLog eventLog = new VertxEventLog(options, directory, readId(directory));
+
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				long baseOffset = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+
+				eventLog.segments.put(baseOffset, VertxEventLogSegment.open(file, baseOffset, options.getSegmentSize()));
+			}
+		}
+
+		if (eventLog.segments.isEmpty()) {
+			eventLog.roll(0);
+		} else {
+			eventLog.active = eventLog.segments.lastEntry().getValue();
+		}
+
+		log.info("Event log for address " + options.getAddress() + " opened at offset "
+				+ eventLog.getNextOffset() + ".");
+
+		return eventLog;
+	}
+
+	private static String readId(Path directory) throws IOException {
+		Path idFile = directory.resolve(ID_FILE);
+
+		if (Files.exists(idFile)) {
+			return new String(Files.readAllBytes(idFile), StandardCharsets.UTF_8).trim();
+		}
+
+		String id = UUID.randomUUID().toString();
+		Files.write(idFile, id.getBytes(StandardCharsets.UTF_8));
+
+		return id;
+	}
+
+	static String sanitize(String name) {
+		return name.replaceAll("[^a-zA-Z0-9._-]", "_");
+	}
+
+	/**
+	 * Appends a message body to the log.
+	 *
+	 * @return offset of the appended record
+	 */
+	public synchronized long append(Object body) throws IOException {
+		byte[] payload = VertxEventLogCodec.encode(body);
+
+		if (payload.length + VertxEventLogSegment.HEADER_SIZE > options.getSegmentSize()) {
+			throw new IllegalArgumentException("Message of " + payload.length + " bytes does not fit into a segment of "
+					+ options.getSegmentSize() + " bytes.");
+		}
+
+		if (!active.hasRoom(payload.length)) {
+			active.flush();
+			roll(active.getNextOffset());
+		}
+
+		long offset = active.getNextOffset();
+		active.append(offset, System.currentTimeMillis(), payload);
+
+		return offset;
+	}
+
+	private void roll(long baseOffset) throws IOException {
+		Path file = directory.resolve(String.format("%020d", baseOffset) + SEGMENT_SUFFIX);
+
+		active = VertxEventLogSegment.open(file, baseOffset, options.getSegmentSize());
+		segments.put(baseOffset, active);
+	}
+
+	/**
+	 * Reads up to <code>maxRecords</code> records, starting at <code>fromOffset</code> or at the oldest retained
+	 * record, if <code>fromOffset</code> was already deleted.
+	 */
+	public List<VertxEventLogRecord> read(long fromOffset, int maxRecords) {
+		List<VertxEventLogRecord> records = new ArrayList<>();
+
+		Long start = segments.floorKey(fromOffset);
+		if (start == null) {
+			start = segments.firstKey();
+		}
+
+		for (VertxEventLogSegment segment : segments.tailMap(start, true).values()) {
+			if (records.size() >= maxRecords) {
+				break;
+			}
+
+			segment.read(fromOffset, maxRecords, records);
+		}
+
+		return records;
+	}
+
+	/**
+	 * Deletes the oldest segments exceeding the retention size or time. The active segment is never deleted.
+	 */
+	public synchronized void enforceRetention() {
+		long now = System.currentTimeMillis();
+		long totalSize = 0;
+
+		for (VertxEventLogSegment segment : segments.values()) {
+			totalSize += segment.getSize();
+		}
+
+		while (segments.size() > 1) {
+			Map.Entry<Long, VertxEventLogSegment> oldest = segments.firstEntry();
+			VertxEventLogSegment segment = oldest.getValue();
+
+			boolean exceedsSize = options.getRetentionBytes() >= 0 && totalSize > options.getRetentionBytes();
+			boolean exceedsTime = options.getRetentionTime() >= 0
+					&& now - segment.getLastTimestamp() > options.getRetentionTime();
+
+			if (!exceedsSize && !exceedsTime) {
+				break;
+			}
+
+			segments.remove(oldest.getKey());
+			totalSize -= segment.getSize();
+
+			try {
+				segment.delete();
+			} catch (IOException e) {
+				log.warning("Error at deleting event log segment of address " + options.getAddress() + ". "
+						+ e.getLocalizedMessage());
+			}
+		}
+	}
+
+	/**
+	 * Deletes the segments which only contain records before the given offset. The active segment is never deleted.
+	 */
+	public synchronized void deleteBefore(long offset) {
+		while (segments.size() > 1 && segments.firstEntry().getValue().getNextOffset() <= offset) {
+			VertxEventLogSegment segment = segments.pollFirstEntry().getValue();
+
+			try {
+				segment.delete();
+			} catch (IOException e) {
+				log.warning("Error at deleting event log segment of address " + options.getAddress() + ". "
+						+ e.getLocalizedMessage());
+			}
+		}
+	}
+
+	public synchronized void close() {
+		for (VertxEventLogSegment segment : segments.values()) {
+			try {
+				segment.close();
+			} catch (IOException e) {
+				log.warning("Error at closing event log segment of address " + options.getAddress() + ". "
+						+ e.getLocalizedMessage());
+			}
+		}
+	}
+
+	/**
+	 * Closes the log and deletes its segments and directory.
+	 */
+	public synchronized void delete() throws IOException {
+		for (VertxEventLogSegment segment : segments.values()) {
+			segment.delete();
+		}
+		segments.clear();
+
+		Files.deleteIfExists(directory.resolve(ID_FILE));
+		Files.deleteIfExists(directory);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getAddress() {
+		return options.getAddress();
+	}
+
+	public long getStartOffset() {
+		return segments.firstKey();
+	}
+
+	public long getNextOffset() {
+		return active.getNextOffset();
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventlog;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encodes message bodies for the event log. The first byte of an encoded body is its type, followed by the body
+ * bytes. Only types which have a stable binary representation are supported.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxEventLogCodec {
+
+	private static final byte TYPE_STRING = 1;
+	private static final byte TYPE_JSON_OBJECT = 2;
+	private static final byte TYPE_JSON_ARRAY = 3;
+	private static final byte TYPE_BUFFER = 4;
+	private static final byte TYPE_BYTES = 5;
+
+	public static byte[] encode(Object body) {
+		if (body instanceof String) {
+			return encode(TYPE_STRING, ((String) body).getBytes(StandardCharsets.UTF_8));
+		} else if (body instanceof JsonObject) {
+			return encode(TYPE_JSON_OBJECT, ((JsonObject) body).encode().getBytes(StandardCharsets.UTF_8));
+		} else if (body instanceof JsonArray) {
+			return encode(TYPE_JSON_ARRAY, ((JsonArray) body).encode().getBytes(StandardCharsets.UTF_8));
+		} else if (body instanceof Buffer) {
+			return encode(TYPE_BUFFER, ((Buffer) body).getBytes());
+		} else if (body instanceof byte[]) {
+			return encode(TYPE_BYTES, (byte[]) body);
+		}
+
+		throw new IllegalArgumentException("Message body of type " + (body == null ? null : body.getClass().getName())
+				+ " can not be stored in the event log.");
+	}
+
+	public static Object decode(byte[] encoded) {
+		byte[] bytes = Arrays.copyOfRange(encoded, 1, encoded.length);
+
+		switch (encoded[0]) {
+			case TYPE_STRING:
+				return new String(bytes, StandardCharsets.UTF_8);
+			case TYPE_JSON_OBJECT:
+				return new JsonObject(new String(bytes, StandardCharsets.UTF_8));
+			case TYPE_JSON_ARRAY:
+				return new JsonArray(new String(bytes, StandardCharsets.UTF_8));
+			case TYPE_BUFFER:
+				return Buffer.buffer(bytes);
+			case TYPE_BYTES:
+				return bytes;
+			default:
+				throw new IllegalArgumentException("Unknown event log body type " + encoded[0] + ".");
+		}
+	}
+
+	private static byte[] encode(byte type, byte[] bytes) {
+		byte[] encoded = new byte[bytes.length + 1];
+		encoded[0] = type;
+		System.arraycopy(bytes, 0, encoded, 1, bytes.length);
+		return encoded;
+	}
+
+}
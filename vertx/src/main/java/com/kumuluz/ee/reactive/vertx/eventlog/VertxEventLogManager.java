@@ -0,0 +1,154 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventlog;
+
+import com.kumuluz.ee.reactive.vertx.config.VertxEventLogConfigLoader;
+import com.kumuluz.ee.reactive.vertx.eventbus.VertxEventBusAddresses;
+import com.kumuluz.ee.reactive.vertx.utils.VertxUtils;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Manages the event logs of durable addresses on this node. For every opened log, a consumer on the replay address
+ * serves replay requests of listeners, which resume from their committed offsets, and a periodic timer enforces
+ * retention.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxEventLogManager {
+
+	private static final Logger log = Logger.getLogger(VertxEventLogManager.class.getName());
+
+	public static final String REPLAY_ADDRESS = "reply-address";
+	public static final String REPLAY_OFFSETS = "offsets";
+
+	private static final VertxEventLogManager instance = new VertxEventLogManager();
+
+	private final Map<String, VertxEventLog> logs = new ConcurrentHashMap<>();
+	private final Map<String, Set<Vertx>> replayInstances = new HashMap<>();
+	private Long retentionTimer;
+
+	public static VertxEventLogManager getInstance() {
+		return instance;
+	}
+
+	public VertxEventLog getLog(VertxEventLogOptions options) throws IOException {
+		return getLog(VertxUtils.getInstance().getVertx(), options);
+	}
+
+	/**
+	 * Returns the event log of an address, opening it on first use. Replay requests are served on every Vert.x
+	 * instance the log is used on, since named instances have their own event bus.
+	 */
+	public synchronized VertxEventLog getLog(Vertx vertx, VertxEventLogOptions options) throws IOException {
+		VertxEventLog eventLog = logs.get(options.getAddress());
+
+		if (eventLog == null) {
+			eventLog = VertxEventLog.open(options);
+			logs.put(options.getAddress(), eventLog);
+		}
+
+		Set<Vertx> instances = replayInstances.computeIfAbsent(options.getAddress(),
+				address -> Collections.newSetFromMap(new IdentityHashMap<>()));
+
+		if (instances.add(vertx)) {
+			VertxEventLog replayedLog = eventLog;
+			vertx.eventBus().<Object>consumer(VertxEventBusAddresses.replay(options.getAddress()),
+					request -> handleReplay(vertx, replayedLog, request));
+
+			if (retentionTimer == null) {
+				retentionTimer = vertx.setPeriodic(VertxEventLogConfigLoader.getRetentionCheckInterval(),
+						id -> vertx.executeBlocking(future -> {
+							logs.values().forEach(VertxEventLog::enforceRetention);
+							future.complete();
+						}, false, null));
+			}
+		}
+
+		return eventLog;
+	}
+
+	/**
+	 * Sends all records after the offset the listener committed for this log to the listener's replay address,
+	 * followed by an end marker. Records are read on a worker thread, since older segments may not be in memory.
+	 */
+	private void handleReplay(Vertx vertx, VertxEventLog eventLog, Message<Object> request) {
+		JsonObject body = (JsonObject) request.body();
+		String replyAddress = body.getString(REPLAY_ADDRESS);
+		JsonObject offsets = body.getJsonObject(REPLAY_OFFSETS, new JsonObject());
+
+		vertx.executeBlocking(future -> {
+			long from = Math.max(offsets.getLong(eventLog.getId(), -1L) + 1, eventLog.getStartOffset());
+			long to = eventLog.getNextOffset();
+			int batchSize = VertxEventLogConfigLoader.getReplayBatchSize();
+
+			while (from < to) {
+				List<VertxEventLogRecord> records = eventLog.read(from, batchSize);
+
+				if (records.isEmpty()) {
+					break;
+				}
+
+				for (VertxEventLogRecord record : records) {
+					if (record.getOffset() >= to) {
+						break;
+					}
+
+					vertx.eventBus().send(replyAddress, record.getBody(), getDeliveryOptions(eventLog, record.getOffset()));
+				}
+
+				from = records.get(records.size() - 1).getOffset() + 1;
+			}
+
+			vertx.eventBus().send(replyAddress, "", new DeliveryOptions()
+					.addHeader(VertxEventLog.HEADER_LOG_ID, eventLog.getId())
+					.addHeader(VertxEventLog.HEADER_REPLAY_END, "true"));
+
+			future.complete();
+		}, false, null);
+	}
+
+	public static DeliveryOptions getDeliveryOptions(VertxEventLog eventLog, long offset) {
+		return new DeliveryOptions()
+				.addHeader(VertxEventLog.HEADER_LOG_ID, eventLog.getId())
+				.addHeader(VertxEventLog.HEADER_OFFSET, String.valueOf(offset));
+	}
+
+	public synchronized void close() {
+		logs.values().forEach(VertxEventLog::close);
+		logs.clear();
+		replayInstances.clear();
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventlog;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Offsets committed by a listener of a durable address, one per event log the listener received messages from.
+ * Every offset is kept in a small memory-mapped file, so a commit is a single write to memory, which survives a
+ * restart of the process.
+ * <p>
+ * Messages may complete out of order, e.g. on concurrent workers or after retries, so the committed offset is the
+ * highest offset below which every started message is done. A message which failed without being sent to the dead
+ * letter address is never done, so it is replayed after a restart. The committed offset never goes backwards.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxEventLogOffsets {
+
+	private static final String OFFSETS_DIRECTORY = "offsets";
+	private static final String OFFSET_SUFFIX = ".offset";
+
+	private final Path directory;
+	private final Map<String, MappedByteBuffer> offsets = new HashMap<>();
+	private final Map<String, NavigableSet<Long>> started = new HashMap<>();
+	private final Map<String, Long> highestDone = new HashMap<>();
+
+	public VertxEventLogOffsets(VertxEventLogOptions options, String listener) throws IOException {
+		this.directory = Paths.get(options.getDirectory(), VertxEventLog.sanitize(options.getAddress()),
+				OFFSETS_DIRECTORY, VertxEventLog.sanitize(listener));
+		Files.createDirectories(directory);
+
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + OFFSET_SUFFIX)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				offsets.put(name.substring(0, name.length() - OFFSET_SUFFIX.length()), map(file));
+			}
+		}
+	}
+
+	private static MappedByteBuffer map(Path file) throws IOException {
+		boolean created = !Files.exists(file);
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+
+			if (created) {
+				buffer.putLong(0, -1);
+			}
+
+			return buffer;
+		}
+	}
+
+	/**
+	 * Returns the last committed offset for the given log or -1, if nothing was committed yet.
+	 */
+	public synchronized long get(String logId) {
+		MappedByteBuffer buffer = offsets.get(logId);
+		return buffer == null ? -1 : buffer.getLong(0);
+	}
+
+	/**
+	 * Records that the message with the given offset is being handled, so that no later offset is committed before it
+	 * is done.
+	 */
+	public synchronized void start(String logId, long offset) {
+		started.computeIfAbsent(logId, id -> new TreeSet<>()).add(offset);
+	}
+
+	/**
+	 * Records that the message with the given offset is done and commits the offset below which every started message
+	 * is done.
+	 */
+	public synchronized void commit(String logId, long offset) throws IOException {
+		NavigableSet<Long> pending = started.get(logId);
+		if (pending != null) {
+			pending.remove(offset);
+		}
+
+		long done = Math.max(highestDone.getOrDefault(logId, -1L), offset);
+		highestDone.put(logId, done);
+
+		long committable = pending == null || pending.isEmpty() ? done : Math.min(done, pending.first() - 1);
+
+		MappedByteBuffer buffer = offsets.get(logId);
+
+		if (buffer == null) {
+			buffer = map(directory.resolve(VertxEventLog.sanitize(logId) + OFFSET_SUFFIX));
+			offsets.put(logId, buffer);
+		}
+
+		if (committable > buffer.getLong(0)) {
+			buffer.putLong(0, committable);
+		}
+	}
+
+	public synchronized Map<String, Long> getAll() {
+		Map<String, Long> committed = new HashMap<>();
+		offsets.forEach((logId, buffer) -> committed.put(logId, buffer.getLong(0)));
+		return committed;
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventlog;
+
+/**
+ * Options of a durable address.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxEventLogOptions {
+
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+	public static final long DEFAULT_RETENTION_BYTES = -1;
+	public static final long DEFAULT_RETENTION_TIME = -1;
+
+	private String address;
+	private String directory;
+	private int segmentSize = DEFAULT_SEGMENT_SIZE;
+	private long retentionBytes = DEFAULT_RETENTION_BYTES;
+	private long retentionTime = DEFAULT_RETENTION_TIME;
+
+	public VertxEventLogOptions(String address, String directory) {
+		this.address = address;
+		this.directory = directory;
+	}
+
+	/**
+	 * Returns a copy of the options for another address, e.g. a partition of the durable address.
+	 */
+	public VertxEventLogOptions forAddress(String address) {
+		return new VertxEventLogOptions(address, directory)
+				.setSegmentSize(segmentSize)
+				.setRetentionBytes(retentionBytes)
+				.setRetentionTime(retentionTime);
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	public String getDirectory() {
+		return directory;
+	}
+
+	public int getSegmentSize() {
+		return segmentSize;
+	}
+
+	public VertxEventLogOptions setSegmentSize(int segmentSize) {
+		this.segmentSize = segmentSize;
+		return this;
+	}
+
+	public long getRetentionBytes() {
+		return retentionBytes;
+	}
+
+	public VertxEventLogOptions setRetentionBytes(long retentionBytes) {
+		this.retentionBytes = retentionBytes;
+		return this;
+	}
+
+	public long getRetentionTime() {
+		return retentionTime;
+	}
+
+	public VertxEventLogOptions setRetentionTime(long retentionTime) {
+		this.retentionTime = retentionTime;
+		return this;
+	}
+
+}
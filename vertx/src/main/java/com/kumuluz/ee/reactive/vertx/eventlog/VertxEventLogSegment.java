@@ -0,0 +1,219 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventlog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped segment of the event log. Records are appended sequentially, each with a header containing the
+ * payload length, a CRC32 of the payload, the offset and the timestamp. The length is written last, so a record only
+ * becomes visible once it is complete. A sparse index of offsets to positions speeds up reads from a given offset.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+class VertxEventLogSegment {
+
+	static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+
+	private static final int INDEX_INTERVAL = 128;
+
+	private final Path path;
+	private final long baseOffset;
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final NavigableMap<Long, Integer> index = new ConcurrentSkipListMap<>();
+
+	private volatile int size;
+	private volatile long nextOffset;
+	private volatile long lastTimestamp;
+
+	private VertxEventLogSegment(Path path, long baseOffset, FileChannel channel, MappedByteBuffer buffer) {
+		this.path = path;
+		this.baseOffset = baseOffset;
+		this.channel = channel;
+		this.buffer = buffer;
+		this.nextOffset = baseOffset;
+	}
+
+	/**
+	 * Maps the segment file and recovers its records. Recovery stops at the first incomplete or corrupted record,
+	 * which is overwritten by the next append.
+	 */
+	static VertxEventLogSegment open(Path path, long baseOffset, int capacity) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+
+		int mappedSize = (int) Math.max(capacity, channel.size());
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+
+		VertxEventLogSegment segment = new VertxEventLogSegment(path, baseOffset, channel, buffer);
+		segment.recover();
+
+		return segment;
+	}
+
+	private void recover() {
+		ByteBuffer view = buffer.duplicate();
+		int position = 0;
+		long offset = baseOffset;
+
+		while (position + HEADER_SIZE <= view.capacity()) {
+			int length = view.getInt(position);
+
+			if (length <= 0 || position + HEADER_SIZE + length > view.capacity()
+					|| view.getLong(position + 8) != offset) {
+				break;
+			}
+
+			byte[] payload = new byte[length];
+			view.position(position + HEADER_SIZE);
+			view.get(payload);
+
+			if (crc(payload) != view.getInt(position + 4)) {
+				break;
+			}
+
+			if ((offset - baseOffset) % INDEX_INTERVAL == 0) {
+				index.put(offset, position);
+			}
+
+			lastTimestamp = view.getLong(position + 16);
+			position += HEADER_SIZE + length;
+			offset++;
+		}
+
+		// clear the header of a partially written record, so that it is not recovered after the next append
+		if (position + 4 <= view.capacity()) {
+			view.putInt(position, 0);
+		}
+
+		size = position;
+		nextOffset = offset;
+	}
+
+	boolean hasRoom(int payloadLength) {
+		return size + HEADER_SIZE + payloadLength <= buffer.capacity();
+	}
+
+	/**
+	 * Appends a record. Has to be called by a single writer at a time.
+	 */
+	void append(long offset, long timestamp, byte[] payload) {
+		int position = size;
+
+		ByteBuffer view = buffer.duplicate();
+		view.putInt(position + 4, crc(payload));
+		view.putLong(position + 8, offset);
+		view.putLong(position + 16, timestamp);
+		view.position(position + HEADER_SIZE);
+		view.put(payload);
+
+		if (position + HEADER_SIZE + payload.length + 4 <= view.capacity()) {
+			view.putInt(position + HEADER_SIZE + payload.length, 0);
+		}
+
+		view.putInt(position, payload.length);
+
+		if ((offset - baseOffset) % INDEX_INTERVAL == 0) {
+			index.put(offset, position);
+		}
+
+		lastTimestamp = timestamp;
+		nextOffset = offset + 1;
+		size = position + HEADER_SIZE + payload.length;
+	}
+
+	/**
+	 * Reads up to <code>maxRecords</code> records starting at <code>fromOffset</code> into <code>records</code>.
+	 */
+	void read(long fromOffset, int maxRecords, List<VertxEventLogRecord> records) {
+		int limit = size;
+		ByteBuffer view = buffer.duplicate();
+
+		Map.Entry<Long, Integer> start = index.floorEntry(fromOffset);
+		int position = start == null ? 0 : start.getValue();
+
+		while (position + HEADER_SIZE <= limit && records.size() < maxRecords) {
+			int length = view.getInt(position);
+			long offset = view.getLong(position + 8);
+
+			if (offset >= fromOffset) {
+				byte[] payload = new byte[length];
+				view.position(position + HEADER_SIZE);
+				view.get(payload);
+
+				records.add(new VertxEventLogRecord(offset, view.getLong(position + 16),
+						VertxEventLogCodec.decode(payload)));
+			}
+
+			position += HEADER_SIZE + length;
+		}
+	}
+
+	void flush() {
+		buffer.force();
+	}
+
+	void close() throws IOException {
+		flush();
+		channel.close();
+	}
+
+	void delete() throws IOException {
+		channel.close();
+		Files.deleteIfExists(path);
+	}
+
+	long getBaseOffset() {
+		return baseOffset;
+	}
+
+	long getNextOffset() {
+		return nextOffset;
+	}
+
+	long getLastTimestamp() {
+		return lastTimestamp;
+	}
+
+	int getSize() {
+		return size;
+	}
+
+	private static int crc(byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload, 0, payload.length);
+		return (int) crc.getValue();
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.http;
+
+import com.kumuluz.ee.reactive.vertx.config.VertxHttpIngressConfigLoader;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+
+import java.util.logging.Logger;
+
+/**
+ * HTTP ingress, which maps request bodies on configured routes straight onto event bus addresses, served by the
+ * Vert.x instance of the extension.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxHttpIngress {
+
+	private static final Logger log = Logger.getLogger(VertxHttpIngress.class.getName());
+
+	/**
+	 * Deploys the ingress servers, one per configured instance, if the ingress is enabled.
+	 */
+	public static void start(Vertx vertx) {
+		VertxHttpIngressOptions options = VertxHttpIngressConfigLoader.getOptions();
+
+		if (!options.isEnabled()) {
+			return;
+		}
+
+		if (options.getRoutes().isEmpty()) {
+			log.warning("HTTP ingress is enabled, but no routes are configured.");
+			return;
+		}
+
+		vertx.deployVerticle(() -> new VertxHttpIngressServer(options),
+				new DeploymentOptions().setInstances(options.getInstances()), res -> {
+			if (res.succeeded()) {
+				log.info("HTTP ingress listening on " + options.getHost() + ":" + options.getPort() + " with "
+						+ options.getRoutes().size() + " route(s).");
+			} else {
+				log.severe("Error at starting HTTP ingress. " + res.cause().getLocalizedMessage());
+			}
+		});
+	}
+
+}
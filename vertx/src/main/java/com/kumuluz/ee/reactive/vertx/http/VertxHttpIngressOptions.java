@@ -0,0 +1,101 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.http;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Options of the HTTP ingress, which publishes request bodies directly onto the event bus.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxHttpIngressOptions {
+
+	public static final boolean DEFAULT_ENABLED = false;
+	public static final String DEFAULT_HOST = "0.0.0.0";
+	public static final int DEFAULT_PORT = 8086;
+	public static final int DEFAULT_INSTANCES = 1;
+	public static final int DEFAULT_MAX_BODY_SIZE = 1024 * 1024;
+
+	private boolean enabled = DEFAULT_ENABLED;
+	private String host = DEFAULT_HOST;
+	private int port = DEFAULT_PORT;
+	private int instances = DEFAULT_INSTANCES;
+	private int maxBodySize = DEFAULT_MAX_BODY_SIZE;
+	private List<VertxHttpIngressRoute> routes = new ArrayList<>();
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public VertxHttpIngressOptions setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		return this;
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+	public VertxHttpIngressOptions setHost(String host) {
+		this.host = host;
+		return this;
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	public VertxHttpIngressOptions setPort(int port) {
+		this.port = port;
+		return this;
+	}
+
+	public int getInstances() {
+		return instances;
+	}
+
+	public VertxHttpIngressOptions setInstances(int instances) {
+		this.instances = instances;
+		return this;
+	}
+
+	public int getMaxBodySize() {
+		return maxBodySize;
+	}
+
+	public VertxHttpIngressOptions setMaxBodySize(int maxBodySize) {
+		this.maxBodySize = maxBodySize;
+		return this;
+	}
+
+	public List<VertxHttpIngressRoute> getRoutes() {
+		return routes;
+	}
+
+	public VertxHttpIngressOptions setRoutes(List<VertxHttpIngressRoute> routes) {
+		this.routes = routes;
+		return this;
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.http;
+
+/**
+ * Route of the HTTP ingress, mapping request bodies on a path to messages on an address.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxHttpIngressRoute {
+
+	public enum BodyType {
+		BUFFER, STRING, JSON
+	}
+
+	public static final String DEFAULT_METHOD = "POST";
+	public static final boolean DEFAULT_SEND = false;
+	public static final boolean DEFAULT_REPLY = false;
+	public static final long DEFAULT_TIMEOUT = 30000;
+	public static final BodyType DEFAULT_BODY_TYPE = BodyType.BUFFER;
+
+	private String path;
+	private String address;
+	private String method = DEFAULT_METHOD;
+	private boolean send = DEFAULT_SEND;
+	private boolean reply = DEFAULT_REPLY;
+	private boolean localOnly;
+	private long timeout = DEFAULT_TIMEOUT;
+	private BodyType bodyType = DEFAULT_BODY_TYPE;
+
+	public VertxHttpIngressRoute(String path, String address) {
+		this.path = path;
+		this.address = address;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public VertxHttpIngressRoute setMethod(String method) {
+		this.method = method;
+		return this;
+	}
+
+	/**
+	 * Returns true if messages are sent point-to-point, which is always the case when the reply is returned.
+	 */
+	public boolean isSend() {
+		return send || reply;
+	}
+
+	public VertxHttpIngressRoute setSend(boolean send) {
+		this.send = send;
+		return this;
+	}
+
+	public boolean isReply() {
+		return reply;
+	}
+
+	public VertxHttpIngressRoute setReply(boolean reply) {
+		this.reply = reply;
+		return this;
+	}
+
+	public boolean isLocalOnly() {
+		return localOnly;
+	}
+
+	public VertxHttpIngressRoute setLocalOnly(boolean localOnly) {
+		this.localOnly = localOnly;
+		return this;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	public VertxHttpIngressRoute setTimeout(long timeout) {
+		this.timeout = timeout;
+		return this;
+	}
+
+	public BodyType getBodyType() {
+		return bodyType;
+	}
+
+	public VertxHttpIngressRoute setBodyType(BodyType bodyType) {
+		this.bodyType = bodyType;
+		return this;
+	}
+
+}
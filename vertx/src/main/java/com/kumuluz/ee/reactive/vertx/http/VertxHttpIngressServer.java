@@ -0,0 +1,287 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.http;
+
+import com.kumuluz.ee.reactive.vertx.eventbus.VertxEventPublisherFactory;
+import com.kumuluz.ee.reactive.vertx.pooled.VertxPooledPayload;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageProducer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Verticle serving the HTTP ingress on a single event loop. Request bodies are read into a buffer on the event loop
+ * and written to the producer of the route, without a blocking thread per request.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxHttpIngressServer extends AbstractVerticle {
+
+	private static final String CONTENT_TYPE = "content-type";
+
+	private final VertxHttpIngressOptions options;
+	private final Map<String, VertxHttpIngressRoute> routes = new HashMap<>();
+	private final Map<String, MessageProducer<Object>> producers = new HashMap<>();
+
+	private HttpServer server;
+
+	public VertxHttpIngressServer(VertxHttpIngressOptions options) {
+		this.options = options;
+	}
+
+	@Override
+	public void start(Future<Void> startFuture) {
+		// producers are confined to this verticle, so their delivery options can be set per request
+		for (VertxHttpIngressRoute route : options.getRoutes()) {
+			String key = getKey(route.getMethod(), route.getPath());
+
+			routes.put(key, route);
+			producers.put(key, VertxEventPublisherFactory.createMessageProducer(route.getAddress(),
+					route.isLocalOnly(), route.isSend(), new DeliveryOptions()));
+		}
+
+		server = vertx.createHttpServer(new HttpServerOptions()
+				.setHost(options.getHost())
+				.setPort(options.getPort()))
+				.requestHandler(this::handleRequest);
+
+		server.listen(res -> {
+			if (res.succeeded()) {
+				startFuture.complete();
+			} else {
+				startFuture.fail(res.cause());
+			}
+		});
+	}
+
+	private void handleRequest(HttpServerRequest request) {
+		String key = getKey(request.method().name(), request.path());
+		VertxHttpIngressRoute route = routes.get(key);
+
+		if (route == null) {
+			request.response().setStatusCode(404).end();
+			return;
+		}
+
+		String contentLength = request.getHeader("Content-Length");
+
+		try {
+			if (contentLength != null && Long.parseLong(contentLength) > options.getMaxBodySize()) {
+				request.response().setStatusCode(413).end();
+				return;
+			}
+		} catch (NumberFormatException e) {
+			request.response().setStatusCode(400).end();
+			return;
+		}
+
+		MessageProducer<Object> producer = producers.get(key);
+
+		// point-to-point producers run out of credits when the listeners can not keep up
+		if (producer.writeQueueFull()) {
+			request.response().setStatusCode(503).putHeader("Retry-After", "1").end();
+			return;
+		}
+
+		RequestBody body = new RequestBody();
+
+		request.handler(chunk -> {
+			if (body.tooLarge) {
+				return;
+			}
+
+			if (body.length() + chunk.length() > options.getMaxBodySize()) {
+				body.tooLarge = true;
+				request.response().setStatusCode(413).setChunked(false).putHeader("Connection", "close").end();
+				return;
+			}
+
+			body.append(chunk);
+		});
+
+		request.endHandler(v -> {
+			if (!body.tooLarge) {
+				publish(request, route, producer, body.get());
+			}
+		});
+	}
+
+	private void publish(HttpServerRequest request, VertxHttpIngressRoute route, MessageProducer<Object> producer,
+			Buffer buffer) {
+		HttpServerResponse response = request.response();
+		Object body;
+
+		try {
+			body = getBody(route, buffer);
+		} catch (DecodeException e) {
+			response.setStatusCode(400).end("Invalid JSON body. " + e.getLocalizedMessage());
+			return;
+		}
+
+		DeliveryOptions deliveryOptions = new DeliveryOptions().setSendTimeout(route.getTimeout());
+
+		String contentType = request.getHeader(CONTENT_TYPE);
+		if (contentType != null) {
+			deliveryOptions.addHeader(CONTENT_TYPE, contentType);
+		}
+
+		producer.deliveryOptions(deliveryOptions);
+
+		if (!route.isReply()) {
+			producer.write(body);
+			response.setStatusCode(202).end();
+			return;
+		}
+
+		producer.<Object>send(body, reply -> {
+			if (reply.succeeded()) {
+				respond(response, reply.result());
+			} else {
+				fail(response, reply.cause());
+			}
+		});
+	}
+
+	private static Object getBody(VertxHttpIngressRoute route, Buffer buffer) {
+		switch (route.getBodyType()) {
+			case STRING:
+				return buffer.toString();
+			case JSON:
+				return Json.decodeValue(buffer.toString());
+			default:
+				return buffer;
+		}
+	}
+
+	private static void respond(HttpServerResponse response, Message<Object> reply) {
+		Object body = reply.body();
+
+		// a pooled reply is copied into the response, since it is not released by a listener
+		if (body instanceof VertxPooledPayload) {
+			body = ((VertxPooledPayload) body).copy();
+			VertxPooledPayload.releaseBody(reply);
+		}
+
+		String contentType = reply.headers().get(CONTENT_TYPE);
+
+		if (body == null) {
+			response.setStatusCode(204).end();
+			return;
+		}
+
+		Buffer buffer;
+
+		if (body instanceof Buffer) {
+			buffer = (Buffer) body;
+		} else if (body instanceof byte[]) {
+			buffer = Buffer.buffer((byte[]) body);
+		} else if (body instanceof JsonObject || body instanceof JsonArray) {
+			buffer = Buffer.buffer(body.toString());
+			contentType = contentType == null ? "application/json" : contentType;
+		} else {
+			buffer = Buffer.buffer(body.toString());
+			contentType = contentType == null ? "text/plain" : contentType;
+		}
+
+		if (contentType != null) {
+			response.putHeader(CONTENT_TYPE, contentType);
+		}
+
+		response.setStatusCode(200).end(buffer);
+	}
+
+	/**
+	 * Maps failed replies to status codes: 504 for timeouts, 503 if no listener is registered and the failure code of
+	 * the listener if it is an HTTP error status, or 500 otherwise.
+	 */
+	private static void fail(HttpServerResponse response, Throwable cause) {
+		int statusCode = 500;
+
+		if (cause instanceof ReplyException) {
+			ReplyException replyException = (ReplyException) cause;
+
+			switch (replyException.failureType()) {
+				case TIMEOUT:
+					statusCode = 504;
+					break;
+				case NO_HANDLERS:
+					statusCode = 503;
+					break;
+				default:
+					int failureCode = replyException.failureCode();
+					statusCode = failureCode >= 400 && failureCode < 600 ? failureCode : 500;
+			}
+		}
+
+		response.setStatusCode(statusCode).end(String.valueOf(cause.getLocalizedMessage()));
+	}
+
+	private static String getKey(String method, String path) {
+		return method.toUpperCase() + " " + path;
+	}
+
+	/**
+	 * Body of a request. A body received in a single chunk is used as is, without copying.
+	 */
+	private static class RequestBody {
+
+		private Buffer first;
+		private Buffer buffer;
+		private boolean tooLarge;
+
+		void append(Buffer chunk) {
+			if (first == null && buffer == null) {
+				first = chunk;
+			} else {
+				if (buffer == null) {
+					buffer = Buffer.buffer(first.length() + chunk.length()).appendBuffer(first);
+					first = null;
+				}
+				buffer.appendBuffer(chunk);
+			}
+		}
+
+		int length() {
+			return buffer != null ? buffer.length() : first != null ? first.length() : 0;
+		}
+
+		Buffer get() {
+			return buffer != null ? buffer : first != null ? first : Buffer.buffer();
+		}
+
+	}
+
+}
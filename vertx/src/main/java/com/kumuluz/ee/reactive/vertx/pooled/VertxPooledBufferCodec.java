@@ -0,0 +1,109 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.pooled;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Codec delivering <code>Buffer</code> and <code>byte[]</code> bodies to listeners as {@link VertxPooledPayload}s.
+ * Bodies received from other nodes are copied from the wire straight into a pooled buffer and bodies delivered within
+ * the JVM are copied into one, instead of into a fresh buffer or object per message.
+ * <p>
+ * The sent body is not pooled: it is encoded asynchronously, after the subscribers of the address have been looked
+ * up, so the sender can not know when it could be released.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxPooledBufferCodec implements MessageCodec<Object, VertxPooledPayload> {
+
+	public static final String NAME = "kumuluzee-pooled-buffer";
+
+	/**
+	 * Registers the codec on the event bus of the Vert.x instance. Every node registers it, so that it can decode
+	 * pooled bodies, whether it sends them itself or not.
+	 */
+	public static void register(Vertx vertx) {
+		vertx.eventBus().registerCodec(new VertxPooledBufferCodec());
+	}
+
+	public static boolean supports(Object body) {
+		return body instanceof Buffer || body instanceof byte[] || body instanceof VertxPooledPayload;
+	}
+
+	@Override
+	public void encodeToWire(Buffer buffer, Object body) {
+		if (body instanceof Buffer) {
+			buffer.appendInt(((Buffer) body).length());
+			buffer.appendBuffer((Buffer) body);
+		} else if (body instanceof byte[]) {
+			buffer.appendInt(((byte[]) body).length);
+			buffer.appendBytes((byte[]) body);
+		} else if (body instanceof VertxPooledPayload) {
+			// e.g. a received payload forwarded by a listener, which has to keep it until the message is sent
+			buffer.appendInt(((VertxPooledPayload) body).length());
+			buffer.appendBuffer(((VertxPooledPayload) body).getBuffer());
+		} else {
+			throw unsupported(body);
+		}
+	}
+
+	@Override
+	public VertxPooledPayload decodeFromWire(int pos, Buffer buffer) {
+		int length = buffer.getInt(pos);
+
+		return VertxPooledPayload.copyOf(buffer.getByteBuf(), pos + 4, length);
+	}
+
+	@Override
+	public VertxPooledPayload transform(Object body) {
+		if (body instanceof Buffer) {
+			return VertxPooledPayload.copyOf(((Buffer) body).getByteBuf(), 0, ((Buffer) body).length());
+		} else if (body instanceof byte[]) {
+			return VertxPooledPayload.copyOf(Unpooled.wrappedBuffer((byte[]) body), 0,
+					((byte[]) body).length);
+		} else if (body instanceof VertxPooledPayload) {
+			return VertxPooledPayload.copyOf(((VertxPooledPayload) body).getByteBuf(), 0,
+					((VertxPooledPayload) body).length());
+		}
+
+		throw unsupported(body);
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public byte systemCodecID() {
+		return -1;
+	}
+
+	private static IllegalArgumentException unsupported(Object body) {
+		return new IllegalArgumentException("Message body of type " + (body == null ? null : body.getClass().getName())
+				+ " can not be sent with the pooled buffer codec.");
+	}
+
+}
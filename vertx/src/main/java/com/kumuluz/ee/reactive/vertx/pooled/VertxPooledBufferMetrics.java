@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.pooled;
+
+import com.kumuluz.ee.reactive.vertx.utils.VertxMetrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the pooled payloads of this JVM. Payloads which are allocated but never released point to listeners
+ * keeping payloads without releasing them.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxPooledBufferMetrics {
+
+	private static final VertxPooledBufferMetrics instance = new VertxPooledBufferMetrics();
+
+	private final LongAdder allocated = new LongAdder();
+	private final LongAdder released = new LongAdder();
+	private final LongAdder allocatedBytes = new LongAdder();
+	private final LongAdder releasedBytes = new LongAdder();
+
+	private volatile boolean used;
+
+	private VertxPooledBufferMetrics() {
+
+	}
+
+	public static VertxPooledBufferMetrics getInstance() {
+		return instance;
+	}
+
+	void recordAllocated(int length) {
+		if (!used) {
+			used = true;
+			VertxMetrics.usePooledBuffers();
+		}
+
+		allocated.increment();
+		allocatedBytes.add(length);
+	}
+
+	void recordReleased(int length) {
+		released.increment();
+		releasedBytes.add(length);
+	}
+
+	public long getAllocated() {
+		return allocated.sum();
+	}
+
+	public long getReleased() {
+		return released.sum();
+	}
+
+	/**
+	 * Returns the number of payloads which have not been released yet.
+	 */
+	public long getOutstanding() {
+		return allocated.sum() - released.sum();
+	}
+
+	/**
+	 * Returns the number of bytes held by payloads which have not been released yet.
+	 */
+	public long getOutstandingBytes() {
+		return allocatedBytes.sum() - releasedBytes.sum();
+	}
+
+}
@@ -0,0 +1,169 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.pooled;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.IllegalReferenceCountException;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.impl.MessageImpl;
+
+import java.nio.charset.Charset;
+import java.util.logging.Logger;
+
+/**
+ * Message body backed by a pooled Netty buffer. Payloads are received by listeners of messages sent with the pooled
+ * buffer codec and are released by the listener dispatch once the listener method returns, after the last retry or
+ * when the message is dropped, so the buffer returns to the pool instead of becoming garbage.
+ * <p>
+ * The payload is only valid until it is released. Listeners which hand it to asynchronous code have to
+ * {@link #retain()} it and {@link #release()} it once they are done with it. The buffer is meant to be read only.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxPooledPayload {
+
+	private static final Logger log = Logger.getLogger(VertxPooledPayload.class.getName());
+
+	private final ByteBuf byteBuf;
+	private final int length;
+	private Buffer buffer;
+
+	private VertxPooledPayload(ByteBuf byteBuf) {
+		this.byteBuf = byteBuf;
+		this.length = byteBuf.readableBytes();
+
+		VertxPooledBufferMetrics.getInstance().recordAllocated(length);
+	}
+
+	/**
+	 * Copies the given bytes into a buffer taken from the pool.
+	 */
+	static VertxPooledPayload copyOf(ByteBuf source, int index, int length) {
+		ByteBuf byteBuf = PooledByteBufAllocator.DEFAULT.heapBuffer(length, length);
+		byteBuf.writeBytes(source, index, length);
+
+		return new VertxPooledPayload(byteBuf);
+	}
+
+	/**
+	 * Releases the body of the message, if it is a pooled payload. A payload released by the listener itself is
+	 * only reported, since it must not fail the dispatch.
+	 */
+	public static void releaseBody(Message<?> message) {
+		// bodies of other codecs, which may not have been decoded yet, are not decoded just to be checked
+		if (message == null || message instanceof MessageImpl
+				&& !(((MessageImpl<?, ?>) message).codec() instanceof VertxPooledBufferCodec)) {
+			return;
+		}
+
+		Object body = message.body();
+
+		if (!(body instanceof VertxPooledPayload)) {
+			return;
+		}
+
+		try {
+			((VertxPooledPayload) body).release();
+		} catch (IllegalReferenceCountException e) {
+			log.warning("Pooled payload of message for address " + message.address() + " was already released. "
+					+ e.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * Returns a Vert.x view of the pooled buffer, which does not copy the bytes. The view must not be used once the
+	 * payload is released.
+	 */
+	public Buffer getBuffer() {
+		if (buffer == null) {
+			buffer = Buffer.buffer(byteBuf.duplicate());
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns the pooled buffer. Its reader index is not shared with other callers.
+	 */
+	public ByteBuf getByteBuf() {
+		return byteBuf.duplicate();
+	}
+
+	public int length() {
+		return length;
+	}
+
+	public byte getByte(int index) {
+		return byteBuf.getByte(index);
+	}
+
+	public int getInt(int index) {
+		return byteBuf.getInt(index);
+	}
+
+	public long getLong(int index) {
+		return byteBuf.getLong(index);
+	}
+
+	public String toString(Charset charset) {
+		return byteBuf.toString(charset);
+	}
+
+	/**
+	 * Copies the bytes into an unpooled buffer, which stays valid after the payload is released.
+	 */
+	public Buffer copy() {
+		return Buffer.buffer(length).appendBuffer(getBuffer());
+	}
+
+	public int refCnt() {
+		return byteBuf.refCnt();
+	}
+
+	/**
+	 * Increases the reference count, so that the payload stays valid after the listener method returns.
+	 */
+	public VertxPooledPayload retain() {
+		byteBuf.retain();
+		return this;
+	}
+
+	/**
+	 * Decreases the reference count and returns the buffer to the pool once it reaches zero.
+	 *
+	 * @return true if the buffer was returned to the pool
+	 */
+	public boolean release() {
+		if (byteBuf.release()) {
+			VertxPooledBufferMetrics.getInstance().recordReleased(length);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return "VertxPooledPayload{length=" + length + ", refCnt=" + byteBuf.refCnt() + "}";
+	}
+
+}
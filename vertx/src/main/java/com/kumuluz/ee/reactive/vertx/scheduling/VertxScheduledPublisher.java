@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.scheduling;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageProducer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Publisher scheduling messages to its address, after a delay or at a fixed rate. Messages are published with the
+ * producer of the address on a Vert.x context, so the options of the publisher annotation, durability and
+ * compression apply to them as to any other message. No thread is blocked while messages are pending.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxScheduledPublisher {
+
+	private final MessageProducer<Object> producer;
+	private final Context context;
+	private final VertxScheduler scheduler = VertxScheduler.getInstance();
+
+	public VertxScheduledPublisher(Vertx vertx, MessageProducer<Object> producer) {
+		this.producer = producer;
+		this.context = vertx.getOrCreateContext();
+	}
+
+	/**
+	 * Publishes the message once the delay has passed.
+	 *
+	 * @param delay delay in milliseconds
+	 * @throws java.util.concurrent.RejectedExecutionException if the max number of pending messages is reached
+	 */
+	public VertxScheduledTask schedule(Object message, long delay) {
+		return schedule(() -> message, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Publishes the message supplied once the delay has passed. The supplier is called on the Vert.x context, when
+	 * the message is due.
+	 */
+	public VertxScheduledTask schedule(Supplier<Object> message, long delay, TimeUnit unit) {
+		VertxScheduledTask task = new VertxScheduledTask(scheduler, context, producer, message, 0);
+		task.start(unit.toNanos(Math.max(delay, 0)));
+		return task;
+	}
+
+	/**
+	 * Publishes the message after the initial delay and then once every period, until the returned task is
+	 * cancelled.
+	 *
+	 * @param initialDelay delay of the first message in milliseconds
+	 * @param period       period in milliseconds
+	 */
+	public VertxScheduledTask scheduleAtFixedRate(Object message, long initialDelay, long period) {
+		return scheduleAtFixedRate(() -> message, initialDelay, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Publishes a message supplied after the initial delay and then once every period, until the returned task is
+	 * cancelled. The supplier is called on the Vert.x context for every message.
+	 */
+	public VertxScheduledTask scheduleAtFixedRate(Supplier<Object> message, long initialDelay, long period,
+			TimeUnit unit) {
+		if (period <= 0) {
+			throw new IllegalArgumentException("Period of scheduled messages for address " + producer.address()
+					+ " has to be positive.");
+		}
+
+		VertxScheduledTask task = new VertxScheduledTask(scheduler, context, producer, message, unit.toNanos(period));
+		task.start(unit.toNanos(Math.max(initialDelay, 0)));
+		return task;
+	}
+
+	public String getAddress() {
+		return producer.address();
+	}
+
+}
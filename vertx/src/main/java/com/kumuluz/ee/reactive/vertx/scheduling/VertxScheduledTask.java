@@ -0,0 +1,172 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.scheduling;
+
+import io.netty.util.Timeout;
+import io.vertx.core.Context;
+import io.vertx.core.eventbus.MessageProducer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Handle of a scheduled message, which is published once after a delay or repeatedly at a fixed rate until it is
+ * cancelled. Repeated messages are due at multiples of the period from the first one, so the rate does not drift
+ * with the time spent on publishing.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxScheduledTask {
+
+	private static final Logger log = Logger.getLogger(VertxScheduledTask.class.getName());
+
+	private final VertxScheduler scheduler;
+	private final Context context;
+	private final MessageProducer<Object> producer;
+	private final Supplier<Object> message;
+	private final long period;
+
+	private final AtomicLong published = new AtomicLong();
+
+	// only accessed on the timer thread, once the task is started
+	private long due;
+
+	private final AtomicReference<Timeout> timeout = new AtomicReference<>();
+	private volatile boolean cancelled;
+	private volatile boolean done;
+
+	VertxScheduledTask(VertxScheduler scheduler, Context context, MessageProducer<Object> producer,
+			Supplier<Object> message, long period) {
+		this.scheduler = scheduler;
+		this.context = context;
+		this.producer = producer;
+		this.message = message;
+		this.period = period;
+	}
+
+	/**
+	 * @param delay delay of the first message in nanoseconds
+	 */
+	void start(long delay) {
+		due = System.nanoTime() + delay;
+		Timeout first = scheduler.newTimeout(this::fire, delay);
+
+		// the first message may have been due already, and the next one scheduled in its place
+		timeout.compareAndSet(null, first);
+	}
+
+	private void fire(Timeout fired) {
+		if (cancelled) {
+			return;
+		}
+
+		scheduler.recordFired();
+		context.runOnContext(v -> publish());
+
+		if (period <= 0) {
+			done = true;
+			return;
+		}
+
+		due += period;
+
+		Timeout next;
+
+		try {
+			next = scheduler.newTimeout(this::fire, due - System.nanoTime());
+		} catch (RuntimeException e) {
+			log.severe("Error at scheduling next message for address " + producer.address()
+					+ ", the message will not be repeated. " + e.getLocalizedMessage());
+			done = true;
+			return;
+		}
+
+		timeout.set(next);
+
+		// the task may have been cancelled while the next message was scheduled
+		if (cancelled) {
+			next.cancel();
+		}
+	}
+
+	private void publish() {
+		if (cancelled) {
+			return;
+		}
+
+		try {
+			producer.write(message.get());
+			published.incrementAndGet();
+		} catch (RuntimeException e) {
+			log.warning("Error at publishing scheduled message for address " + producer.address() + ". "
+					+ e.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * Cancels the task. A message which is already due may still be published.
+	 *
+	 * @return false if the task was already cancelled or its only message was already due
+	 */
+	public boolean cancel() {
+		if (cancelled || done) {
+			return false;
+		}
+		cancelled = true;
+
+		Timeout current = timeout.get();
+
+		if (current != null && current.cancel()) {
+			scheduler.recordCancelled();
+		}
+		return true;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Returns true once the task is cancelled, or its only message is due.
+	 */
+	public boolean isDone() {
+		return cancelled || done;
+	}
+
+	public boolean isPeriodic() {
+		return period > 0;
+	}
+
+	/**
+	 * Returns the number of messages published by the task.
+	 */
+	public long getPublished() {
+		return published.get();
+	}
+
+	public String getAddress() {
+		return producer.address();
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.scheduling;
+
+import com.kumuluz.ee.reactive.vertx.config.VertxSchedulerConfigLoader;
+import com.kumuluz.ee.reactive.vertx.utils.VertxMetrics;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Timer wheel of the scheduled publishers of this JVM. A hashed wheel keeps millions of pending messages with
+ * constant time scheduling and cancellation, on a single thread and without a Vert.x timer per message. The wheel
+ * only tracks when messages are due, they are published on the Vert.x context of their publisher.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxScheduler {
+
+	private static final Logger log = Logger.getLogger(VertxScheduler.class.getName());
+
+	private static final VertxScheduler instance = new VertxScheduler();
+
+	private final LongAdder scheduled = new LongAdder();
+	private final LongAdder fired = new LongAdder();
+	private final LongAdder cancelled = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	private volatile HashedWheelTimer timer;
+	private boolean stopped;
+
+	private VertxScheduler() {
+
+	}
+
+	public static VertxScheduler getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Returns the timer, which is started with the first scheduled message.
+	 */
+	private HashedWheelTimer getTimer() {
+		HashedWheelTimer wheel = timer;
+
+		if (wheel != null) {
+			return wheel;
+		}
+
+		synchronized (this) {
+			if (stopped) {
+				throw new IllegalStateException("Scheduler is stopped.");
+			}
+
+			if (timer == null) {
+				VertxSchedulerOptions options = VertxSchedulerConfigLoader.getOptions();
+
+				timer = new HashedWheelTimer(new DefaultThreadFactory("kumuluzee-scheduler", true),
+						options.getTickDuration(), TimeUnit.MILLISECONDS, options.getTicksPerWheel(), false,
+						options.getMaxPending() > 0 ? options.getMaxPending() : -1);
+
+				VertxMetrics.useScheduler();
+			}
+
+			return timer;
+		}
+	}
+
+	Timeout newTimeout(TimerTask task, long delay) {
+		Timeout timeout;
+
+		try {
+			timeout = getTimer().newTimeout(task, delay, TimeUnit.NANOSECONDS);
+		} catch (RuntimeException e) {
+			rejected.increment();
+			throw e;
+		}
+
+		scheduled.increment();
+		return timeout;
+	}
+
+	void recordFired() {
+		fired.increment();
+	}
+
+	void recordCancelled() {
+		cancelled.increment();
+	}
+
+	/**
+	 * Stops the timer. Messages which are not due yet are not published.
+	 */
+	public synchronized void stop() {
+		stopped = true;
+
+		if (timer != null) {
+			int pending = timer.stop().size();
+
+			if (pending > 0) {
+				log.warning("Scheduler stopped, " + pending + " scheduled message(s) will not be published.");
+			}
+			timer = null;
+		}
+	}
+
+	/**
+	 * Returns the number of messages waiting in the wheel.
+	 */
+	public long getPending() {
+		HashedWheelTimer wheel = timer;
+		return wheel == null ? 0 : wheel.pendingTimeouts();
+	}
+
+	public long getScheduled() {
+		return scheduled.sum();
+	}
+
+	public long getFired() {
+		return fired.sum();
+	}
+
+	public long getCancelled() {
+		return cancelled.sum();
+	}
+
+	/**
+	 * Returns the number of messages which could not be scheduled, since the max number of pending messages was
+	 * reached or the scheduler was stopped.
+	 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.scheduling;
+
+/**
+ * Options of the timer wheel of the scheduler.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxSchedulerOptions {
+
+	public static final long DEFAULT_TICK_DURATION = 10;
+	public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+	public static final long DEFAULT_MAX_PENDING = 0;
+
+	private long tickDuration = DEFAULT_TICK_DURATION;
+	private int ticksPerWheel = DEFAULT_TICKS_PER_WHEEL;
+	private long maxPending = DEFAULT_MAX_PENDING;
+
+	/**
+	 * Returns the duration of a tick in milliseconds, which is the precision of the scheduled times.
+	 */
+	public long getTickDuration() {
+		return tickDuration;
+	}
+
+	public VertxSchedulerOptions setTickDuration(long tickDuration) {
+		this.tickDuration = tickDuration;
+		return this;
+	}
+
+	/**
+	 * Returns the number of buckets of the wheel. Messages due more than a wheel turn ahead wait in their bucket for
+	 * the remaining turns.
+	 */
+	public int getTicksPerWheel() {
+		return ticksPerWheel;
+	}
+
+	public VertxSchedulerOptions setTicksPerWheel(int ticksPerWheel) {
+		this.ticksPerWheel = ticksPerWheel;
+		return this;
+	}
+
+	/**
+	 * Returns the number of pending messages above which scheduling is rejected, or 0 if it is not limited.
+	 */
+	public long getMaxPending() {
+		return maxPending;
+	}
+
+	public VertxSchedulerOptions setMaxPending(long maxPending) {
+		this.maxPending = maxPending;
+		return this;
+	}
+
+}
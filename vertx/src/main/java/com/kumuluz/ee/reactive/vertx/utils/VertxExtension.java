@@ -26,6 +26,7 @@ import com.kumuluz.ee.common.dependencies.EeComponentDependency;
 import com.kumuluz.ee.common.dependencies.EeComponentType;
 import com.kumuluz.ee.common.dependencies.EeExtensionDef;
 import com.kumuluz.ee.common.wrapper.KumuluzServerWrapper;
+import com.kumuluz.ee.reactive.common.utils.ReactiveBackend;
 
 import java.util.logging.Logger;
 
@@ -41,8 +42,15 @@ public class VertxExtension implements Extension {
 
 	private static final Logger log = Logger.getLogger(VertxExtension.class.getName());
 	
+	public static final String BACKEND = "vertx";
+	
 	@Override
 	public void init(KumuluzServerWrapper arg0, EeConfig arg1) {
+		if(!ReactiveBackend.isSelected(BACKEND)) {
+			log.info("Vert.x extension is disabled, since backend " + ReactiveBackend.get().orElse("") + " is selected.");
+			return;
+		}
+		
 		log.info("Initializing Vert.x extension.");		
 		new VertxUtils();
 	}
@@ -0,0 +1,178 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.utils;
+
+import com.kumuluz.ee.reactive.vertx.compression.VertxCompressionMetrics;
+import com.kumuluz.ee.reactive.vertx.config.VertxCompressionConfigLoader;
+import com.kumuluz.ee.reactive.vertx.pooled.VertxPooledBufferMetrics;
+import com.kumuluz.ee.reactive.vertx.scheduling.VertxScheduler;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.MetricUnits;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Registers the metrics of the compression and pooled buffer codecs and of the scheduler, if KumuluzEE Metrics is on
+ * the classpath. The metrics of a feature are only registered once it is used: compression metrics if compressed
+ * addresses are configured, pooled buffer metrics once the first pooled payload is allocated and scheduler metrics
+ * once the first message is scheduled.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+@ApplicationScoped
+public class VertxMetrics {
+
+	private static final String PREFIX = "vertx.";
+
+	private static final Map<String, Consumer<MetricRegistry>> features = new LinkedHashMap<>();
+	private static final Set<String> registered = new HashSet<>();
+	private static MetricRegistry registry;
+
+	@Inject
+	private Instance<MetricRegistry> registries;
+
+	public void register(@Observes @Initialized(ApplicationScoped.class) Object init) {
+		// the API may be on the classpath without KumuluzEE Metrics providing a registry
+		if (registries.isUnsatisfied()) {
+			return;
+		}
+
+		if (!VertxCompressionConfigLoader.getCompressedAddresses().isEmpty()) {
+			use("compression", VertxMetrics::registerCompression);
+		}
+
+		setRegistry(registries.get());
+	}
+
+	/**
+	 * Registers the metrics of the pooled buffer codec, called once the first pooled payload is allocated.
+	 */
+	public static void usePooledBuffers() {
+		use("pooled", VertxMetrics::registerPooledBuffers);
+	}
+
+	/**
+	 * Registers the metrics of the scheduler, called once the timer wheel is started.
+	 */
+	public static void useScheduler() {
+		use("scheduler", VertxMetrics::registerScheduler);
+	}
+
+	private static synchronized void setRegistry(MetricRegistry metricRegistry) {
+		registry = metricRegistry;
+		registerUsed();
+	}
+
+	/**
+	 * Records that a feature is used. Its metrics are registered right away, or once the registry is available, if
+	 * the feature is used before the application is initialized.
+	 */
+	private static synchronized void use(String feature, Consumer<MetricRegistry> registration) {
+		features.putIfAbsent(feature, registration);
+		registerUsed();
+	}
+
+	private static void registerUsed() {
+		if (registry == null) {
+			return;
+		}
+
+		features.forEach((feature, registration) -> {
+			if (registered.add(feature)) {
+				registration.accept(registry);
+			}
+		});
+	}
+
+	private static void registerCompression(MetricRegistry registry) {
+		VertxCompressionMetrics compression = VertxCompressionMetrics.getInstance();
+
+		registry.register(PREFIX + "compression.ratio", (Gauge<Double>) compression::getRatio,
+				new Metadata(PREFIX + "compression.ratio", "Compression ratio", "Size of the compressed message "
+						+ "bodies relative to their uncompressed size.", MetricType.GAUGE, MetricUnits.NONE));
+		registry.register(PREFIX + "compression.saved", (Gauge<Long>) compression::getSavedBytes,
+				new Metadata(PREFIX + "compression.saved", "Saved bytes", "Number of bytes saved by compressing "
+						+ "message bodies.", MetricType.GAUGE, MetricUnits.BYTES));
+		registry.register(PREFIX + "compression.compressed", (Gauge<Long>) compression::getCompressed,
+				new Metadata(PREFIX + "compression.compressed", "Compressed messages", "Number of message bodies "
+						+ "sent compressed.", MetricType.GAUGE, MetricUnits.NONE));
+		registry.register(PREFIX + "compression.skipped", (Gauge<Long>) compression::getSkipped,
+				new Metadata(PREFIX + "compression.skipped", "Uncompressed messages", "Number of message bodies "
+						+ "sent uncompressed, since they were below the threshold or did not get smaller.",
+						MetricType.GAUGE, MetricUnits.NONE));
+		registry.register(PREFIX + "compression.time", (Gauge<Long>) compression::getCompressionTime,
+				new Metadata(PREFIX + "compression.time", "Compression time", "Time spent on compressing message "
+						+ "bodies.", MetricType.GAUGE, MetricUnits.NANOSECONDS));
+		registry.register(PREFIX + "decompression.time", (Gauge<Long>) compression::getDecompressionTime,
+				new Metadata(PREFIX + "decompression.time", "Decompression time", "Time spent on decompressing "
+						+ "message bodies.", MetricType.GAUGE, MetricUnits.NANOSECONDS));
+	}
+
+	private static void registerPooledBuffers(MetricRegistry registry) {
+		VertxPooledBufferMetrics pooled = VertxPooledBufferMetrics.getInstance();
+
+		registry.register(PREFIX + "pooled.allocated", (Gauge<Long>) pooled::getAllocated,
+				new Metadata(PREFIX + "pooled.allocated", "Allocated pooled payloads", "Number of message bodies "
+						+ "received into pooled buffers.", MetricType.GAUGE, MetricUnits.NONE));
+		registry.register(PREFIX + "pooled.outstanding", (Gauge<Long>) pooled::getOutstanding,
+				new Metadata(PREFIX + "pooled.outstanding", "Outstanding pooled payloads", "Number of pooled "
+						+ "payloads which have not been released yet.", MetricType.GAUGE, MetricUnits.NONE));
+		registry.register(PREFIX + "pooled.outstanding-bytes", (Gauge<Long>) pooled::getOutstandingBytes,
+				new Metadata(PREFIX + "pooled.outstanding-bytes", "Outstanding pooled bytes", "Number of bytes held "
+						+ "by pooled payloads which have not been released yet.", MetricType.GAUGE, MetricUnits.BYTES));
+	}
+
+	private static void registerScheduler(MetricRegistry registry) {
+		VertxScheduler scheduler = VertxScheduler.getInstance();
+
+		registry.register(PREFIX + "scheduler.pending", (Gauge<Long>) scheduler::getPending,
+				new Metadata(PREFIX + "scheduler.pending", "Pending scheduled messages", "Number of scheduled "
+						+ "messages waiting in the timer wheel.", MetricType.GAUGE, MetricUnits.NONE));
+		registry.register(PREFIX + "scheduler.scheduled", (Gauge<Long>) scheduler::getScheduled,
+				new Metadata(PREFIX + "scheduler.scheduled", "Scheduled messages", "Number of messages added to the "
+						+ "timer wheel, including every repetition of messages at a fixed rate.", MetricType.GAUGE,
+						MetricUnits.NONE));
+		registry.register(PREFIX + "scheduler.fired", (Gauge<Long>) scheduler::getFired,
+				new Metadata(PREFIX + "scheduler.fired", "Fired scheduled messages", "Number of scheduled messages "
+						+ "which were due and handed to their publisher.", MetricType.GAUGE, MetricUnits.NONE));
+		registry.register(PREFIX + "scheduler.cancelled", (Gauge<Long>) scheduler::getCancelled,
+				new Metadata(PREFIX + "scheduler.cancelled", "Cancelled scheduled messages", "Number of scheduled "
+						+ "messages cancelled before they were due.", MetricType.GAUGE, MetricUnits.NONE));
+		registry.register(PREFIX + "scheduler.rejected", (Gauge<Long>) scheduler::getRejected,
+				new Metadata(PREFIX + "scheduler.rejected", "Rejected scheduled messages", "Number of messages which "
+						+ "could not be scheduled, since the max number of pending messages was reached.",
+						MetricType.GAUGE, MetricUnits.NONE));
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.utils;
+
+import com.kumuluz.ee.reactive.vertx.config.VertxConfigLoader;
+import com.kumuluz.ee.reactive.vertx.eventbus.VertxEventListenerRunnable;
+import com.kumuluz.ee.reactive.vertx.eventlog.VertxEventLogManager;
+import com.kumuluz.ee.reactive.vertx.scheduling.VertxScheduler;
+import io.vertx.core.eventbus.MessageProducer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Shutdown hook for orderly shutdown of Vert.x. Listeners are unregistered first, so that no new messages are routed
+ * to this instance, then in-flight messages are drained, the scheduler is stopped, publishers and event logs are
+ * closed and finally Vert.x is closed, which also leaves the cluster. All steps share a single deadline, configured with
+ * <code>kumuluzee.reactive.vertx.shutdown-timeout</code>.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxShutdownHook extends Thread {
+
+	private static final Logger log = Logger.getLogger(VertxShutdownHook.class.getName());
+
+	private static final List<VertxEventListenerRunnable> listeners = new CopyOnWriteArrayList<>();
+	private static final List<MessageProducer<?>> publishers = new CopyOnWriteArrayList<>();
+
+	private final VertxUtils vertxUtils;
+
+	public VertxShutdownHook(VertxUtils vertxUtils) {
+		super("kumuluzee-reactive-vertx-shutdown");
+		this.vertxUtils = vertxUtils;
+	}
+
+	public static void registerListener(VertxEventListenerRunnable listener) {
+		listeners.add(listener);
+	}
+
+	public static void registerPublisher(MessageProducer<?> publisher) {
+		publishers.add(publisher);
+	}
+
+	@Override
+	public void run() {
+		long deadline = System.currentTimeMillis() + VertxConfigLoader.getShutdownTimeout();
+
+		log.info("Shutting down Vert.x, unregistering " + listeners.size() + " listener(s).");
+
+		List<CompletableFuture<Boolean>> unregistrations = new ArrayList<>();
+		for (VertxEventListenerRunnable listener : listeners) {
+			CompletableFuture<Boolean> completion = new CompletableFuture<>();
+			listener.unregister(completion);
+			unregistrations.add(completion);
+		}
+		await(unregistrations, deadline, "unregistering listeners");
+
+		drain(deadline);
+
+		// dependent listener instances are destroyed once they have no more messages to handle
+		for (VertxEventListenerRunnable listener : listeners) {
+			try {
+				listener.release();
+			} catch (Exception e) {
+				log.warning("Error at releasing listener for address " + listener.getAddress() + ". "
+						+ e.getLocalizedMessage());
+			}
+		}
+
+		VertxScheduler.getInstance().stop();
+
+		for (MessageProducer<?> publisher : publishers) {
+			try {
+				publisher.close();
+			} catch (Exception e) {
+				log.warning("Error at closing publisher for address " + publisher.address() + ". "
+						+ e.getLocalizedMessage());
+			}
+		}
+
+		VertxEventLogManager.getInstance().close();
+
+		CompletableFuture<Boolean> closed = new CompletableFuture<>();
+		vertxUtils.close(closed);
+		if (await(closed, deadline, "closing Vert.x")) {
+			log.info("Vert.x successfully closed.");
+		}
+	}
+
+	private void drain(long deadline) {
+		List<VertxEventListenerRunnable> pending = new ArrayList<>(listeners);
+
+		while (!pending.isEmpty() && System.currentTimeMillis() < deadline) {
+			List<VertxEventListenerRunnable> stillPending = new ArrayList<>();
+
+			for (VertxEventListenerRunnable listener : pending) {
+				CompletableFuture<Boolean> drained = new CompletableFuture<>();
+				listener.drain(drained);
+
+				if (!await(drained, deadline, "draining listener for address " + listener.getAddress())
+						|| !drained.join()) {
+					stillPending.add(listener);
+				}
+			}
+
+			pending = stillPending;
+
+			if (!pending.isEmpty()) {
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					break;
+				}
+			}
+		}
+
+		for (VertxEventListenerRunnable listener : pending) {
+			log.warning("Shutdown timeout reached, " + listener.getInFlight()
+					+ " in-flight message(s) dropped for address " + listener.getAddress() + ".");
+		}
+	}
+
+	private boolean await(List<CompletableFuture<Boolean>> completions, long deadline, String step) {
+		return await(CompletableFuture.allOf(completions.toArray(new CompletableFuture[0])), deadline, step);
+	}
+
+	private boolean await(CompletableFuture<?> completion, long deadline, String step) {
+		try {
+			completion.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			return true;
+		} catch (Exception e) {
+			log.warning("Shutdown timeout reached while " + step + ".");
+			return false;
+		}
+	}
+
+}
@@ -20,12 +20,29 @@
  */
 package com.kumuluz.ee.reactive.vertx.utils;
 
+import com.kumuluz.ee.reactive.vertx.bridge.VertxEventBusBridge;
+import com.kumuluz.ee.reactive.vertx.compression.VertxCompressionCodec;
 import com.kumuluz.ee.reactive.vertx.config.VertxConfigLoader;
+import com.kumuluz.ee.reactive.vertx.config.VertxServiceDiscoveryConfigLoader;
+import com.kumuluz.ee.reactive.vertx.diagnostics.VertxDiagnostics;
+import com.kumuluz.ee.reactive.vertx.discovery.VertxDiscoveryBridge;
+import com.kumuluz.ee.reactive.vertx.http.VertxHttpIngress;
+import com.kumuluz.ee.reactive.vertx.pooled.VertxPooledBufferCodec;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
 import io.vertx.servicediscovery.ServiceDiscovery;
+import io.vertx.servicediscovery.ServiceDiscoveryOptions;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 /**
@@ -41,11 +58,20 @@ public class VertxUtils {
 	private Vertx vertx;
 	private ServiceDiscovery serviceDiscovery;
 	
+	private final Map<String, Vertx> namedInstances = new ConcurrentHashMap<>();
+	private final Map<String, VertxOptions> instanceOptions = new ConcurrentHashMap<>();
+	private final List<String> instanceNames = VertxConfigLoader.getInstanceNames();
+	
 	private static VertxUtils instance;
+	
+	// completed once the instance with the given name is initialized, the default instance has an empty name
+	private static final Map<String, CompletableFuture<Vertx>> ready = new ConcurrentHashMap<>();
 
 	public VertxUtils() {
 		instance = this;
 		initializeVertx();
+		instanceNames.forEach(this::initializeVertx);
+		Runtime.getRuntime().addShutdownHook(new VertxShutdownHook(this));
 	}
 	
 	/**
@@ -53,20 +79,78 @@ public class VertxUtils {
 	 */
 	private void initializeVertx() {	
 		VertxOptions vertxOptions = VertxConfigLoader.getVertxOptions();
+		instanceOptions.put("", vertxOptions);
 		
 		if(VertxConfigLoader.isClustered) {
 			Vertx.clusteredVertx(vertxOptions, res -> {
 				if(res.succeeded()) {
 					this.vertx = res.result();
 					log.info("Clustered Vert.x successfully initialized.");
+					initialized(vertxOptions);
+				} else {
+					log.severe("Error at initializing clustered Vert.x. " + res.cause().getLocalizedMessage());
+					whenReady("").completeExceptionally(res.cause());
 				}
 			});
 		} else {
 			this.vertx = Vertx.vertx(vertxOptions);
 			log.info("Vert.x successfully initialized.");
+			initialized(vertxOptions);
 		}		
 	}
 	
+	/**
+	 * Method initializes a named Vert.x instance from configuration. Named instances have their own event loops and
+	 * worker pool, so that noisy workloads can be isolated from latency-sensitive ones.
+	 */
+	private void initializeVertx(String name) {
+		VertxOptions vertxOptions = VertxConfigLoader.getVertxOptions(VertxConfigLoader.getInstancePrefix(name));
+		instanceOptions.put(name, vertxOptions);
+		
+		if(vertxOptions.isClustered()) {
+			Vertx.clusteredVertx(vertxOptions, res -> {
+				if(res.succeeded()) {
+					namedInstances.put(name, res.result());
+					VertxCompressionCodec.register(res.result());
+					VertxPooledBufferCodec.register(res.result());
+					log.info("Clustered Vert.x instance " + name + " successfully initialized.");
+					checkNativeTransport(res.result(), vertxOptions);
+					VertxDiagnostics.getInstance().start(name, res.result(), vertxOptions);
+					whenReady(name).complete(res.result());
+				} else {
+					log.severe("Error at initializing clustered Vert.x instance " + name + ". "
+							+ res.cause().getLocalizedMessage());
+					whenReady(name).completeExceptionally(res.cause());
+				}
+			});
+		} else {
+			Vertx instance = Vertx.vertx(vertxOptions);
+			namedInstances.put(name, instance);
+			VertxCompressionCodec.register(instance);
+			VertxPooledBufferCodec.register(instance);
+			log.info("Vert.x instance " + name + " successfully initialized.");
+			checkNativeTransport(instance, vertxOptions);
+			VertxDiagnostics.getInstance().start(name, instance, vertxOptions);
+			whenReady(name).complete(instance);
+		}
+	}
+	
+	private void initialized(VertxOptions vertxOptions) {
+		VertxCompressionCodec.register(vertx);
+		VertxPooledBufferCodec.register(vertx);
+		checkNativeTransport(vertx, vertxOptions);
+		VertxDiagnostics.getInstance().start("", vertx, vertxOptions);
+		VertxEventBusBridge.start(vertx);
+		VertxHttpIngress.start(vertx);
+		whenReady("").complete(vertx);
+	}
+	
+	private void checkNativeTransport(Vertx instance, VertxOptions vertxOptions) {
+		if(vertxOptions.getPreferNativeTransport() && !instance.isNativeTransportEnabled()) {
+			log.warning("Native transport could not be enabled, Vert.x is using the NIO transport.");
+		}
+	}
+	
 	public static VertxUtils getInstance() {
 		return instance;
 	}
@@ -75,22 +159,115 @@ public class VertxUtils {
 		return vertx;
 	}
 	
+	/**
+	 * Returns the Vert.x instance with the given name, or the default instance if the name is empty. Returns null
+	 * until the instance is initialized.
+	 */
+	public Vertx getVertx(String name) {
+		if(name == null || name.isEmpty()) {
+			return vertx;
+		}
+		return namedInstances.get(name);
+	}
+	
+	/**
+	 * Returns the options of the Vert.x instance with the given name, or of the default instance if the name is empty.
+	 */
+	public VertxOptions getVertxOptions(String name) {
+		VertxOptions vertxOptions = name == null ? null : instanceOptions.get(name);
+		return vertxOptions == null ? instanceOptions.get("") : vertxOptions;
+	}
+	
+	/**
+	 * Returns true if the name is empty or a Vert.x instance with the given name is configured.
+	 */
+	public boolean hasInstance(String name) {
+		return name == null || name.isEmpty() || instanceNames.contains(name);
+	}
+	
+	/**
+	 * Waits for the Vert.x instance with the given name to be initialized, at most for the startup timeout. Unknown
+	 * names resolve to the default instance.
+	 *
+	 * @throws IllegalStateException if the instance failed to initialize or was not initialized in time
+	 */
+	public Vertx awaitVertx(String name) {
+		long timeout = VertxConfigLoader.getStartupTimeout();
+
+		try {
+			return whenReady(name).get(timeout, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Vert.x instance " + (name == null || name.isEmpty() ? "" : name + " ")
+					+ "could not be initialized. " + e.getCause().getLocalizedMessage(), e.getCause());
+		} catch (TimeoutException e) {
+			throw new IllegalStateException("Vert.x instance " + (name == null || name.isEmpty() ? "" : name + " ")
+					+ "was not initialized within " + timeout + " ms.", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for Vert.x instance to be initialized.", e);
+		}
+	}
+	
+	/**
+	 * Returns a future completed once the Vert.x instance with the given name is initialized, so that callers do not
+	 * need a thread waiting for it. Unknown names resolve to the default instance.
+	 */
+	public static CompletableFuture<Vertx> whenReady(String name) {
+		if(name == null) {
+			name = "";
+		} else if(!name.isEmpty() && !VertxConfigLoader.getInstanceNames().contains(name)) {
+			log.severe("Vert.x instance " + name + " is not configured, using the default instance.");
+			name = "";
+		}
+		
+		return ready.computeIfAbsent(name, n -> new CompletableFuture<>());
+	}
+	
 	public ServiceDiscovery getServiceDiscovery() {		
 		if(serviceDiscovery == null) {
-			serviceDiscovery = ServiceDiscovery.create(vertx);
+			ServiceDiscoveryOptions options = new ServiceDiscoveryOptions();
+			
+			if(VertxServiceDiscoveryConfigLoader.isCompactAnnouncements()) {
+				options.setAnnounceAddress(VertxDiscoveryBridge.LOCAL_ANNOUNCE_ADDRESS);
+			}
+			
+			serviceDiscovery = ServiceDiscovery.create(vertx, options);
 			log.info("Vert.x Service Discovery initialized.");
 		}
 		return serviceDiscovery;
 	}
 	
 	public void close(CompletableFuture<Boolean> completion) {
-		vertx.close(res -> {
-			if(res.succeeded()) {
-				completion.complete(true);
-			} else {
-				completion.complete(false);
-			}
-		});
+		VertxDiagnostics.getInstance().close();
+		
+		if(serviceDiscovery != null) {
+			serviceDiscovery.close();
+		}
+		
+		// the default instance is not created when only named instances are used
+		List<Vertx> instances = new ArrayList<>(namedInstances.values());
+		if(vertx != null) {
+			instances.add(vertx);
+		}
+		
+		if(instances.isEmpty()) {
+			completion.complete(true);
+			return;
+		}
+		
+		AtomicInteger remaining = new AtomicInteger(instances.size());
+		AtomicBoolean succeeded = new AtomicBoolean(true);
+		
+		for(Vertx instance : instances) {
+			instance.close(res -> {
+				if(res.failed()) {
+					succeeded.set(false);
+				}
+				if(remaining.decrementAndGet() == 0) {
+					completion.complete(succeeded.get());
+				}
+			});
+		}
 	}
 	
 }
@@ -0,0 +1,257 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.discovery;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Checks version ranges against the cases of the npm semver test suite that the notation supports.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxVersionRangeTest {
+
+	private static final String[][] INCLUDED = {
+			// exact and partial versions, wildcards
+			{ "1.0.0", "1.0.0" },
+			{ "v1.2.3", "1.2.3" },
+			{ "", "1.0.0" },
+			{ "*", "1.2.3" },
+			{ "x", "1.2.3" },
+			{ ">=*", "0.2.4" },
+			{ "2", "2.1.2" },
+			{ "2.3", "2.3.1" },
+			{ "2.x.x", "2.1.3" },
+			{ "1.2.x", "1.2.3" },
+			{ "2.*.*", "2.1.3" },
+			{ "1.2.*", "1.2.3" },
+			{ "=0.7.x", "0.7.2" },
+			{ "<=0.7.x", "0.7.2" },
+			{ ">=0.7.x", "0.7.2" },
+			{ "<=0.7.x", "0.6.2" },
+			{ "<=7.x", "7.9.9" },
+			// comparators
+			{ ">=1.0.0", "1.0.0" },
+			{ ">=1.0.0", "1.0.1" },
+			{ ">=1.0.0", "1.1.0" },
+			{ ">1.0.0", "1.0.1" },
+			{ ">1.0.0", "1.1.0" },
+			{ "<=2.0.0", "2.0.0" },
+			{ "<=2.0.0", "1.9999.9999" },
+			{ "<=2.0.0", "0.2.9" },
+			{ "<2.0.0", "1.9999.9999" },
+			{ "<2.0.0", "0.2.9" },
+			{ ">= 1.0.0", "1.0.0" },
+			{ ">=  1.0.0", "1.0.1" },
+			{ "<=  2.0.0", "2.0.0" },
+			{ ">=1", "1.0.0" },
+			{ ">= 1", "1.0.0" },
+			{ ">=1.2", "1.2.8" },
+			{ "<1.2", "1.1.1" },
+			{ "< 1.2", "1.1.1" },
+			{ ">=0.1.97", "v0.1.97" },
+			// intersections
+			{ "~1.2.1 >=1.2.3", "1.2.3" },
+			{ "~1.2.1 =1.2.3", "1.2.3" },
+			{ "~1.2.1 1.2.3", "1.2.3" },
+			{ ">=1.2.1 1.2.3", "1.2.3" },
+			{ "1.2.3 >=1.2.1", "1.2.3" },
+			{ ">=1.2.3 >=1.2.1", "1.2.3" },
+			{ ">=1.2.1 >=1.2.3", "1.2.3" },
+			{ "^1.2 ^1", "1.4.2" },
+			// unions
+			{ "0.1.20 || 1.2.4", "1.2.4" },
+			{ ">=0.2.3 || <0.0.1", "0.0.0" },
+			{ ">=0.2.3 || <0.0.1", "0.2.3" },
+			{ ">=0.2.3 || <0.0.1", "0.2.4" },
+			{ "||", "1.3.4" },
+			{ "1.2.x || 2.x", "2.1.3" },
+			{ "1.2.x || 2.x", "1.2.3" },
+			// tilde
+			{ "~2.4", "2.4.0" },
+			{ "~2.4", "2.4.5" },
+			{ "~1", "1.2.3" },
+			{ "~1.0", "1.0.2" },
+			{ "~ 1.0", "1.0.2" },
+			{ "~ 1.0.3", "1.0.12" },
+			{ "~v0.5.4-pre", "0.5.5" },
+			{ "~v0.5.4-pre", "0.5.4" },
+			// caret
+			{ "^1.2.3", "1.8.1" },
+			{ "^0.1.2", "0.1.2" },
+			{ "^0.1", "0.1.2" },
+			{ "^0.0.1", "0.0.1" },
+			{ "^1.2", "1.4.2" },
+			{ "^x", "1.2.3" },
+			{ "^1.2.3+build", "1.2.3" },
+			{ "^1.2.3+build", "1.3.0" },
+			// prereleases of the release named in the range
+			{ "1.2.3-beta", "1.2.3-beta" },
+			{ "^1.2.3-alpha", "1.2.3-pre" },
+			{ "^1.2.0-alpha", "1.2.0-pre" },
+			{ "^0.0.1-alpha", "0.0.1-beta" },
+			{ "^0.1.1-alpha", "0.1.1-beta" },
+			{ ">=1.2.3-alpha", "1.2.3-beta" },
+			{ ">=1.2.3-alpha", "1.3.0" },
+	};
+	
+	private static final String[][] EXCLUDED = {
+			// exact and partial versions, wildcards
+			{ "1.0.0", "1.0.1" },
+			{ "2", "1.1.2" },
+			{ "2.3", "2.4.1" },
+			{ "2.x.x", "1.1.3" },
+			{ "2.x.x", "3.1.3" },
+			{ "1.2.x", "1.3.3" },
+			{ "2.*.*", "1.1.3" },
+			{ "2.*.*", "3.1.3" },
+			{ "1.2.*", "1.3.3" },
+			{ "=0.7.x", "0.8.2" },
+			{ ">=0.7.x", "0.6.2" },
+			{ "<0.7.x", "0.7.2" },
+			{ "<=7.x", "8.0.0" },
+			{ "<x", "1.2.3" },
+			{ ">x", "1.2.3" },
+			// comparators
+			{ ">=1.0.0", "0.0.0" },
+			{ ">=1.0.0", "0.0.1" },
+			{ ">=1.0.0", "0.1.0" },
+			{ ">1.0.0", "0.0.1" },
+			{ ">1.0.0", "0.1.0" },
+			{ ">1", "1.9.9" },
+			{ ">1.2", "1.2.8" },
+			{ "<=2.0.0", "3.0.0" },
+			{ "<=2.0.0", "2.9999.9999" },
+			{ "<=2.0.0", "2.2.9" },
+			{ "<2.0.0", "2.9999.9999" },
+			{ "<2.0.0", "2.2.9" },
+			{ "<1", "1.0.0" },
+			{ ">=1.2", "1.1.1" },
+			{ ">=0.1.97", "v0.1.93" },
+			// unions
+			{ "0.1.20 || 1.2.4", "1.2.3" },
+			{ ">=0.2.3 || <0.0.1", "0.0.3" },
+			{ ">=0.2.3 || <0.0.1", "0.2.2" },
+			{ "1.2.x || 2.x", "3.1.3" },
+			{ "1.2.x || 2.x", "1.1.3" },
+			{ "1.2.* || 2.*", "3.1.3" },
+			// tilde
+			{ "~2.4", "2.5.0" },
+			{ "~2.4", "2.3.9" },
+			{ "~3.2.1", "3.3.2" },
+			{ "~3.2.1", "3.2.0" },
+			{ "~1", "0.2.3" },
+			{ "~1", "2.2.3" },
+			{ "~1.0", "1.1.0" },
+			{ "~v0.5.4-beta", "0.5.4-alpha" },
+			// caret
+			{ "^0.0.1", "0.0.2" },
+			{ "^1.2.3", "2.0.0" },
+			{ "^1.2.3", "1.2.2" },
+			{ "^1.2", "1.1.9" },
+			{ "^0.1.2", "0.2.0" },
+			// prereleases of other releases
+			{ "*", "1.2.3-foo" },
+			{ "1.2.3", "1.2.3-beta" },
+			{ "=1.2.3", "1.2.3-beta" },
+			{ "<1.2.3", "1.2.3-beta" },
+			{ "^1.2.3", "1.2.4-beta" },
+			{ "^1.2.3", "2.0.0-alpha" },
+			{ ">=1.2.3-alpha", "1.2.4-beta" },
+	};
+	
+	private static final String[][] HIGHEST = {
+			{ "*", "2.0.0" },
+			{ "^1.0", "1.2.5" },
+			{ "~1.2.0", "1.2.5" },
+			{ "<1.2.5", "1.2.0" },
+			{ ">=1.3.0-beta <2", "1.3.0-beta" },
+			{ "1.x || >=2.1.0-rc.1", "2.1.0-rc.1" },
+			{ "^1.0 || 1.0.0", "1.2.5" },
+			{ "^3", null },
+			{ "latest", null },
+	};
+	
+	@Test
+	public void matchesIncludedVersions() {
+		assertMatches(INCLUDED, true);
+	}
+	
+	@Test
+	public void doesNotMatchExcludedVersions() {
+		assertMatches(EXCLUDED, false);
+	}
+	
+	@Test
+	public void findsTheHighestMatchingVersion() {
+		NavigableMap<VertxServiceVersion, String> versions = new TreeMap<>();
+		
+		for (String version : new String[] { "1.0.0", "1.2.0", "1.2.5", "1.3.0-beta", "2.0.0", "2.1.0-rc.1" }) {
+			versions.put(VertxServiceVersion.parse(version), version);
+		}
+		
+		List<String> failures = new ArrayList<>();
+		
+		for (String[] entry : HIGHEST) {
+			Map.Entry<VertxServiceVersion, String> highest = VertxVersionRange.parse(entry[0]).highest(versions);
+			String actual = highest == null ? null : highest.getValue();
+			
+			if (entry[1] == null ? actual != null : !entry[1].equals(actual)) {
+				failures.add(entry[0] + " returned " + actual + " instead of " + entry[1]);
+			}
+		}
+		
+		Assert.assertTrue(String.join("\n", failures), failures.isEmpty());
+	}
+	
+	@Test
+	public void treatsValuesWhichAreNotRangesAsLiterals() {
+		VertxVersionRange latest = VertxVersionRange.parse("latest");
+		
+		Assert.assertTrue(latest.isLiteral());
+		Assert.assertFalse(latest.matches(VertxServiceVersion.parse("1.0.0")));
+		Assert.assertFalse(VertxVersionRange.parse("1.x").isLiteral());
+		Assert.assertFalse(VertxVersionRange.parse(">=1.2.3 <2 || ^3").isLiteral());
+	}
+	
+	private static void assertMatches(String[][] cases, boolean expected) {
+		List<String> failures = new ArrayList<>();
+		
+		for (String[] entry : cases) {
+			VertxVersionRange range = VertxVersionRange.parse(entry[0]);
+			
+			if (range.matches(VertxServiceVersion.parse(entry[1])) != expected) {
+				failures.add("\"" + entry[0] + "\" " + (expected ? "does not match " : "matches ") + entry[1]);
+			}
+		}
+		
+		Assert.assertTrue(String.join("\n", failures), failures.isEmpty());
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ *  Copyright (c) 2014-2017 Kumuluz and/or its affiliates
+ *  and other contributors as indicated by the @author tags and
+ *  the contributor list.
+ *
+ *  Licensed under the MIT License (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  https://opensource.org/licenses/MIT
+ *
+ *  The software is provided "AS IS", WITHOUT WARRANTY OF ANY KIND, express or
+ *  implied, including but not limited to the warranties of merchantability,
+ *  fitness for a particular purpose and noninfringement. in no event shall the
+ *  authors or copyright holders be liable for any claim, damages or other
+ *  liability, whether in an action of contract, tort or otherwise, arising from,
+ *  out of or in connection with the software or the use or other dealings in the
+ *  software. See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.kumuluz.ee.reactive.vertx.eventbus;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that partitions are chosen by the content of the key, stay stable and spread keys evenly.
+ *
+ * @author Žan Ožbot
+ * @since 1.0.0
+ */
+public class VertxPartitionedMessageProducerTest {
+
+	private static final int KEYS = 100000;
+
+	@Test
+	public void mapsKeysIntoTheBuckets() {
+		for (int buckets = 1; buckets <= 64; buckets++) {
+			for (long key = 0; key < 1000; key++) {
+				int bucket = VertxPartitionedMessageProducer.jumpConsistentHash(key, buckets);
+
+				Assert.assertTrue(bucket >= 0 && bucket < buckets);
+			}
+		}
+	}
+
+	@Test
+	public void movesKeysOnlyToANewBucket() {
+		for (int buckets = 1; buckets < 32; buckets++) {
+			for (int i = 0; i < 1000; i++) {
+				long key = VertxPartitionedMessageProducer.hash(("key-" + i).getBytes());
+
+				int before = VertxPartitionedMessageProducer.jumpConsistentHash(key, buckets);
+				int after = VertxPartitionedMessageProducer.jumpConsistentHash(key, buckets + 1);
+
+				Assert.assertTrue("key-" + i + " moved from " + before + " to " + after + " with " + (buckets + 1)
+						+ " buckets", after == before || after == buckets);
+			}
+		}
+	}
+
+	@Test
+	public void spreadsKeysEvenly() {
+		int partitions = 8;
+		int[] counts = new int[partitions];
+
+		for (int i = 0; i < KEYS; i++) {
+			counts[VertxPartitionedMessageProducer.partitionFor("account-" + i, "", partitions)]++;
+		}
+
+		for (int count : counts) {
+			Assert.assertEquals(KEYS / partitions, count, KEYS / partitions / 10);
+		}
+	}
+
+	@Test
+	public void mapsEqualKeysToTheSamePartition() {
+		Assert.assertEquals(VertxPartitionedMessageProducer.partitionFor(new byte[] { 1, 2, 3 }, "", 16),
+				VertxPartitionedMessageProducer.partitionFor(new byte[] { 1, 2, 3 }, "", 16));
+		Assert.assertEquals(VertxPartitionedMessageProducer.partitionFor(new JsonObject().put("id", 42), "", 16),
+				VertxPartitionedMessageProducer.partitionFor(new JsonObject().put("id", 42), "", 16));
+	}
+
+	@Test
+	public void readsTheKeyFromThePartitionKeyField() {
+		for (int i = 0; i < 1000; i++) {
+			JsonObject first = new JsonObject().put("accountId", "account-" + i).put("amount", i);
+			JsonObject second = new JsonObject().put("accountId", "account-" + i).put("amount", -i);
+
+			Assert.assertEquals(VertxPartitionedMessageProducer.partitionFor("account-" + i, "", 16),
+					VertxPartitionedMessageProducer.partitionFor(first, "accountId", 16));
+			Assert.assertEquals(VertxPartitionedMessageProducer.partitionFor(first, "accountId", 16),
+					VertxPartitionedMessageProducer.partitionFor(second, "accountId", 16));
+		}
+
+		Assert.assertEquals(0, VertxPartitionedMessageProducer.partitionFor(new JsonObject(), "accountId", 16));
+	}
+
+	@Test
+	public void keepsPartitionsStable() {
+		// partitions must not change between versions or nodes, otherwise keys move to other listeners
+		Assert.assertEquals(VertxPartitionedMessageProducer.hash("a".getBytes()), 0xaf63dc4c8601ec8cL);
+		Assert.assertEquals(VertxPartitionedMessageProducer.hash(new byte[0]), 0xcbf29ce484222325L);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsKeysWithoutAStableEncoding() {
+		VertxPartitionedMessageProducer.partitionFor(new Object(), "", 16);
+	}
+
+}